@@ -57,4 +57,12 @@ public class SmallIntAccessor extends AbstractSqlAccessor {
   public short getShort(int index) {
     return ac.get(index);
   }
+
+  @Override
+  public String getString(int index) {
+    if (ac.isNull(index)) {
+      return null;
+    }
+    return Short.toString(ac.get(index));
+  }
 }
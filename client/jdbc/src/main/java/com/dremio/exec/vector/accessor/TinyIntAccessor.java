@@ -57,4 +57,12 @@ public class TinyIntAccessor extends AbstractSqlAccessor {
   public byte getByte(int index) {
     return ac.get(index);
   }
+
+  @Override
+  public String getString(int index) {
+    if (ac.isNull(index)) {
+      return null;
+    }
+    return Byte.toString(ac.get(index));
+  }
 }
@@ -23,6 +23,7 @@ import io.netty.buffer.NettyArrowBuf;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import org.apache.arrow.vector.BaseVariableWidthVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.holders.NullableVarCharHolder;
 
@@ -31,6 +32,7 @@ public class VarCharAccessor extends AbstractSqlAccessor {
   private static final MajorType TYPE = Types.optional(MinorType.VARCHAR);
 
   private final VarCharVector ac;
+  private byte[] scratch = new byte[64];
 
   public VarCharAccessor(VarCharVector vector) {
     this.ac = vector;
@@ -90,6 +92,14 @@ public class VarCharAccessor extends AbstractSqlAccessor {
     if (ac.isNull(index)) {
       return null;
     }
-    return new String(getBytes(index), StandardCharsets.UTF_8);
+    // decode from the data buffer through a reused array instead of a copy per value
+    final int start =
+        ac.getOffsetBuffer().getInt((long) index * BaseVariableWidthVector.OFFSET_WIDTH);
+    final int length = ac.getValueLength(index);
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    ac.getDataBuffer().getBytes(start, scratch, 0, length);
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
   }
 }
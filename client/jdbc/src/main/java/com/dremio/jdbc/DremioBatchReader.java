@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.jdbc;
+
+import java.sql.SQLException;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+/**
+ * Columnar access to the rows of a {@link DremioResultSet}, a batch at a time, without converting
+ * the values. Obtained with {@code resultSet.unwrap(DremioBatchReader.class)}.
+ *
+ * <p>The vectors of a batch are the ones the rows were received in: they are not copied, are owned
+ * by the result set and are only valid until the next batch is loaded or the result set is closed.
+ * Callers must not close or modify them.
+ */
+public interface DremioBatchReader {
+
+  /**
+   * Loads the batch holding the rows after the current row of the result set, and moves the result
+   * set to the last of these rows.
+   *
+   * @return whether a batch was loaded, false after the last row
+   * @throws InvalidCursorStateSqlException if the result set is positioned before the last row of
+   *     a batch
+   * @throws SQLException if the result set is closed or the next batch couldn't be received
+   */
+  boolean loadNextBatch() throws SQLException;
+
+  /**
+   * Returns the vectors of the batch loaded by the last call to {@link #loadNextBatch()}.
+   *
+   * @return the vectors and row count of the batch
+   * @throws SQLException if the result set is closed or no batch is loaded
+   */
+  VectorSchemaRoot getVectorSchemaRoot() throws SQLException;
+}
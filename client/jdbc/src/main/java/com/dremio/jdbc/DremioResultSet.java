@@ -36,7 +36,8 @@ public interface DremioResultSet extends ResultSet {
   /**
    * {@inheritDoc}
    *
-   * <p><strong>Dremio</strong>: Accepts {@code DremioResultSet.class}.
+   * <p><strong>Dremio</strong>: Accepts {@code DremioResultSet.class}, and {@code
+   * DremioBatchReader.class} to read the rows a batch of Arrow vectors at a time.
    */
   @Override
   <T> T unwrap(Class<T> iface) throws SQLException;
@@ -44,7 +45,8 @@ public interface DremioResultSet extends ResultSet {
   /**
    * {@inheritDoc}
    *
-   * <p><strong>Dremio</strong>: Returns true for {@code DremioResultSet.class}.
+   * <p><strong>Dremio</strong>: Returns true for {@code DremioResultSet.class} and {@code
+   * DremioBatchReader.class}.
    */
   @Override
   boolean isWrapperFor(Class<?> iface) throws SQLException;
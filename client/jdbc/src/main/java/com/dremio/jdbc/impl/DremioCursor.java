@@ -28,7 +28,9 @@ import com.dremio.exec.proto.UserProtos.PreparedStatement;
 import com.dremio.exec.proto.UserProtos.PreparedStatementParameterValue;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.RecordBatchLoader;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.rpc.ConnectionThrottle;
+import com.dremio.jdbc.InvalidCursorStateSqlException;
 import com.dremio.jdbc.SchemaChangeListener;
 import com.dremio.jdbc.SqlTimeoutException;
 import com.dremio.sabot.rpc.user.QueryDataBatch;
@@ -45,6 +47,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.calcite.avatica.AvaticaStatement;
 import org.apache.calcite.avatica.ColumnMetaData;
 import org.apache.calcite.avatica.Meta;
@@ -372,6 +377,9 @@ class DremioCursor implements Cursor {
   /** Zero-based offset of current record in record batch. (Not <i>row</i> number.) */
   private int currentRecordNumber = -1;
 
+  /** Vectors of the current batch exposed to {@link #getCurrentBatch()} callers (lazily built). */
+  private VectorSchemaRoot currentBatchRoot;
+
   /**
    * @param statement
    * @param signature
@@ -495,6 +503,7 @@ class DremioCursor implements Cursor {
           // End of batches--clean up, set state to done, report after last row.
 
           currentBatchHolder.clear(); // (We load it so we clear it.)
+          currentBatchRoot = null;
           afterLastRow = true;
           return false;
         } else {
@@ -503,6 +512,7 @@ class DremioCursor implements Cursor {
           // to next().
 
           currentRecordNumber = 0;
+          currentBatchRoot = null;
 
           final boolean schemaChanged;
           try {
@@ -651,6 +661,61 @@ class DremioCursor implements Cursor {
     }
   }
 
+  /**
+   * Advances this cursor to the last row of the next batch holding rows, for callers reading the
+   * rows a batch at a time.
+   *
+   * @return whether cursor is positioned at a row (false when after end of results)
+   * @throws InvalidCursorStateSqlException if rows of the current batch were not read yet
+   */
+  boolean nextBatch() throws SQLException {
+    if (!initialSchemaLoaded) {
+      throw new IllegalStateException("nextBatch() called but loadInitialSchema() was not called");
+    }
+
+    if (afterLastRow) {
+      return false;
+    } else if (returnTrueForNextCallToNext) {
+      // The first batch, already loaded, holds rows and the cursor is before them.
+      returnTrueForNextCallToNext = false;
+    } else {
+      if (currentRowNumber >= 0 && currentRecordNumber + 1 < currentBatchHolder.getRecordCount()) {
+        throw new InvalidCursorStateSqlException(
+            "Result set cursor is positioned before the last row of a batch.  Call next() until"
+                + " the end of the batch first.");
+      }
+      accessors.clearLastColumnIndexedInRow();
+      // skip what is left of the current batch, i.e. nothing or its rows when before first
+      currentRecordNumber = Math.max(currentRecordNumber, currentBatchHolder.getRecordCount() - 1);
+      if (!nextRowInternally()) {
+        return false;
+      }
+    }
+
+    currentRowNumber += currentBatchHolder.getRecordCount() - currentRecordNumber;
+    currentRecordNumber = currentBatchHolder.getRecordCount() - 1;
+    return true;
+  }
+
+  /**
+   * Returns the vectors of the current batch, without copying them.
+   *
+   * @return the vectors, valid until the next batch is loaded
+   */
+  VectorSchemaRoot getCurrentBatch() {
+    if (currentBatchRoot == null) {
+      final List<Field> fields = new ArrayList<>();
+      final List<FieldVector> vectors = new ArrayList<>();
+      for (VectorWrapper<?> wrapper : currentBatchHolder) {
+        fields.add(wrapper.getField());
+        vectors.add((FieldVector) wrapper.getValueVector());
+      }
+      currentBatchRoot =
+          new VectorSchemaRoot(fields, vectors, currentBatchHolder.getRecordCount());
+    }
+    return currentBatchRoot;
+  }
+
   public void cancel() {
     close();
   }
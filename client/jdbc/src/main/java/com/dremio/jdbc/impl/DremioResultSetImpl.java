@@ -17,8 +17,10 @@ package com.dremio.jdbc.impl;
 
 import com.dremio.common.SuppressForbidden;
 import com.dremio.jdbc.AlreadyClosedSqlException;
+import com.dremio.jdbc.DremioBatchReader;
 import com.dremio.jdbc.DremioResultSet;
 import com.dremio.jdbc.ExecutionCanceledSqlException;
+import com.dremio.jdbc.InvalidCursorStateSqlException;
 import com.dremio.jdbc.SchemaChangeListener;
 import java.io.InputStream;
 import java.io.Reader;
@@ -43,6 +45,7 @@ import java.sql.Types;
 import java.util.Calendar;
 import java.util.Map;
 import java.util.TimeZone;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaResultSet;
 import org.apache.calcite.avatica.AvaticaSite;
 import org.apache.calcite.avatica.AvaticaStatement;
@@ -52,7 +55,8 @@ import org.apache.calcite.avatica.QueryState;
 import org.apache.calcite.avatica.util.Cursor;
 
 /** Dremio's implementation of {@link ResultSet}. */
-class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
+class DremioResultSetImpl extends AvaticaResultSet
+    implements DremioResultSet, DremioBatchReader {
   @SuppressWarnings("unused")
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(DremioResultSetImpl.class);
@@ -61,6 +65,8 @@ class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
 
   SchemaChangeListener changeListener;
   boolean hasPendingCancelationNotification;
+  // whether the last call to loadNextBatch() loaded a batch
+  private boolean batchLoaded;
 
   DremioResultSetImpl(
       AvaticaStatement statement,
@@ -1729,6 +1735,28 @@ class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
     return null;
   }
 
+  ////////////////////////////////////////
+  // DremioBatchReader methods:
+
+  @Override
+  public boolean loadNextBatch() throws SQLException {
+    throwIfClosed();
+    if (!(cursor instanceof DremioCursor)) {
+      throw new SQLFeatureNotSupportedException("Result set is not read in batches.");
+    }
+    batchLoaded = ((DremioCursor) cursor).nextBatch();
+    return batchLoaded;
+  }
+
+  @Override
+  public VectorSchemaRoot getVectorSchemaRoot() throws SQLException {
+    throwIfClosed();
+    if (!batchLoaded || !(cursor instanceof DremioCursor)) {
+      throw new InvalidCursorStateSqlException("No batch loaded.  Call loadNextBatch() first.");
+    }
+    return ((DremioCursor) cursor).getCurrentBatch();
+  }
+
   ////////////////////////////////////////
 
   @Override
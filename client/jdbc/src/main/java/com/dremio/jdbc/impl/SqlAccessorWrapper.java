@@ -92,51 +92,56 @@ class SqlAccessorWrapper implements Accessor {
 
   @Override
   public boolean getBoolean() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
-        ? BOOLEAN_NULL_VALUE
-        : underlyingAccessor.getBoolean(getCurrentRecordNumber());
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row) ? BOOLEAN_NULL_VALUE : underlyingAccessor.getBoolean(row);
   }
 
   @Override
   public byte getByte() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getByte(getCurrentRecordNumber());
+        : underlyingAccessor.getByte(row);
   }
 
   @Override
   public short getShort() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getShort(getCurrentRecordNumber());
+        : underlyingAccessor.getShort(row);
   }
 
   @Override
   public int getInt() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getInt(getCurrentRecordNumber());
+        : underlyingAccessor.getInt(row);
   }
 
   @Override
   public long getLong() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getLong(getCurrentRecordNumber());
+        : underlyingAccessor.getLong(row);
   }
 
   @Override
   public float getFloat() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getFloat(getCurrentRecordNumber());
+        : underlyingAccessor.getFloat(row);
   }
 
   @Override
   public double getDouble() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int row = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(row)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getDouble(getCurrentRecordNumber());
+        : underlyingAccessor.getDouble(row);
   }
 
   @Override
@@ -16,6 +16,7 @@
 package com.dremio.jdbc.impl;
 
 import com.dremio.common.types.TypeProtos.MajorType;
+import com.dremio.common.types.TypeProtos.MinorType;
 import com.dremio.exec.vector.accessor.InvalidAccessException;
 import com.dremio.exec.vector.accessor.SqlAccessor;
 import com.dremio.jdbc.SQLConversionOverflowException;
@@ -34,9 +35,12 @@ import java.util.Calendar;
  */
 class TypeConvertingSqlAccessor implements SqlAccessor {
   private final SqlAccessor innerAccessor;
+  // the type of the column, resolved once rather than for each value converted
+  private final MinorType minorType;
 
   public TypeConvertingSqlAccessor(SqlAccessor innerAccessor) {
     this.innerAccessor = innerAccessor;
+    this.minorType = innerAccessor.getType().getMinorType();
   }
 
   @Override
@@ -266,7 +270,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public byte getByte(int rowOffset) throws InvalidAccessException {
     final byte result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case TINYINT:
         result = innerAccessor.getByte(rowOffset);
@@ -335,7 +339,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public short getShort(int rowOffset) throws InvalidAccessException {
     final short result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case SMALLINT:
         result = innerAccessor.getShort(rowOffset);
@@ -403,7 +407,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public int getInt(int rowOffset) throws InvalidAccessException {
     final int result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case INT:
         result = innerAccessor.getInt(rowOffset);
@@ -462,7 +466,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public long getLong(int rowOffset) throws InvalidAccessException {
     final long result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case BIGINT:
         result = innerAccessor.getLong(rowOffset);
@@ -512,7 +516,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public float getFloat(int rowOffset) throws InvalidAccessException {
     final float result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case FLOAT4:
         result = innerAccessor.getFloat(rowOffset);
@@ -562,7 +566,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public double getDouble(int rowOffset) throws InvalidAccessException {
     final double result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case FLOAT8:
         result = innerAccessor.getDouble(rowOffset);
@@ -600,7 +604,7 @@ class TypeConvertingSqlAccessor implements SqlAccessor {
   @Override
   public BigDecimal getBigDecimal(int rowOffset) throws InvalidAccessException {
     final BigDecimal result;
-    switch (getType().getMinorType()) {
+    switch (minorType) {
         // 1. Regular type:
       case DECIMAL9:
       case DECIMAL18:
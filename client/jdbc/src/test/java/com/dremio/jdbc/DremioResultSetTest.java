@@ -21,6 +21,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.junit.Test;
 
 public class DremioResultSetTest extends JdbcWithServerTestBase {
@@ -99,6 +102,37 @@ public class DremioResultSetTest extends JdbcWithServerTestBase {
     assertThat(resultSet.getRow()).isEqualTo(0);
   }
 
+  @Test
+  public void test_loadNextBatch_readsAllRows() throws Exception {
+    Statement statement = getConnection().createStatement();
+    ResultSet resultSet = statement.executeQuery("SELECT * FROM (VALUES (1), (2), (3)) t(x)");
+    DremioBatchReader reader = resultSet.unwrap(DremioBatchReader.class);
+
+    List<Object> values = new ArrayList<>();
+    while (reader.loadNextBatch()) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertThat(root.getFieldVectors()).hasSize(1);
+      for (int i = 0; i < root.getRowCount(); i++) {
+        values.add(root.getVector(0).getObject(i));
+      }
+    }
+    assertThat(values).containsExactly(1, 2, 3);
+
+    // The result set is after the rows read through the batches.
+    assertThat(reader.loadNextBatch()).isFalse();
+    assertThat(resultSet.next()).isFalse();
+  }
+
+  @Test
+  public void test_getVectorSchemaRoot_requiresLoadedBatch() throws Exception {
+    Statement statement = getConnection().createStatement();
+    ResultSet resultSet = statement.executeQuery("VALUES (1)");
+    DremioBatchReader reader = resultSet.unwrap(DremioBatchReader.class);
+
+    assertThatThrownBy(reader::getVectorSchemaRoot)
+        .isInstanceOf(InvalidCursorStateSqlException.class);
+  }
+
   // TODO:  Ideally, test other methods.
 
 }
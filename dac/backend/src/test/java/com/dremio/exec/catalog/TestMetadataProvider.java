@@ -269,7 +269,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(32, tables.size());
+    assertEquals(34, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -277,6 +277,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("INFORMATION_SCHEMA", "SCHEMATA", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "TABLES", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "VIEWS", iterator.next());
+    verifyTable("sys", "block_cache", iterator.next());
     verifyTable("sys", "boot", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
@@ -286,6 +287,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "parquet_footer_cache", iterator.next());
     verifyTable("sys", "privileges", iterator.next());
     verifyTable("sys", "reflection_dependencies", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
@@ -329,7 +331,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(31, tables.size());
+    assertEquals(33, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
@@ -337,6 +339,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("INFORMATION_SCHEMA", "SCHEMATA", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "TABLES", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "VIEWS", iterator.next());
+    verifyTable("sys", "block_cache", iterator.next());
     verifyTable("sys", "boot", iterator.next());
     verifyTable("sys", "fragments", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
@@ -346,6 +349,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "parquet_footer_cache", iterator.next());
     verifyTable("sys", "privileges", iterator.next());
     verifyTable("sys", "reflection_dependencies", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
@@ -375,12 +379,13 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(20, tables.size());
+    assertEquals(22, tables.size());
 
     Iterator<TableMetadata> iterator = tables.iterator();
     verifyTable("INFORMATION_SCHEMA", "CATALOGS", iterator.next());
     verifyTable("INFORMATION_SCHEMA", "COLUMNS", iterator.next());
 
+    verifyTable("sys", "block_cache", iterator.next());
     verifyTable("sys", "boot", iterator.next());
     verifyTable("sys", "jobs", iterator.next());
     verifyTable("sys", "jobs_recent", iterator.next());
@@ -388,6 +393,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyTable("sys", "memory", iterator.next());
     verifyTable("sys", "nodes", iterator.next());
     verifyTable("sys", "options", iterator.next());
+    verifyTable("sys", "parquet_footer_cache", iterator.next());
     verifyTable("sys", "reflection_dependencies", iterator.next());
     verifyTable("sys", "reflections", iterator.next());
     verifyTable("sys", "roles", iterator.next());
@@ -431,7 +437,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     assertEquals(RequestStatus.OK, resp1.getStatus());
 
     final List<ColumnMetadata> columns1 = resp1.getColumnsList();
-    assertEquals(345, columns1.size());
+    assertEquals(372, columns1.size());
     assertTrue(
         "incremental update column shouldn't be returned",
         columns1.stream()
@@ -455,7 +461,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<ColumnMetadata> columns = resp.getColumnsList();
-    assertEquals(27, columns.size());
+    assertEquals(29, columns.size());
 
     Iterator<ColumnMetadata> iterator = columns.iterator();
     verifyColumn("INFORMATION_SCHEMA", "COLUMNS", "ORDINAL_POSITION", iterator.next());
@@ -466,6 +472,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     verifyColumn("cp", "tpch/customer.parquet", "c_phone", iterator.next());
 
+    verifyColumn("sys", "block_cache", "fabric_port", iterator.next());
     verifyColumn("sys", "fragments", "rows_processed", iterator.next());
     verifyColumn("sys", "jobs", "execution_planning_ts", iterator.next());
     verifyColumn("sys", "jobs", "execution_planning_epoch_millis", iterator.next());
@@ -478,6 +485,7 @@ public class TestMetadataProvider extends BaseTestQuery {
     verifyColumn("sys", "memory", "fabric_port", iterator.next());
     verifyColumn("sys", "nodes", "user_port", iterator.next());
     verifyColumn("sys", "nodes", "fabric_port", iterator.next());
+    verifyColumn("sys", "parquet_footer_cache", "fabric_port", iterator.next());
     verifyColumn("sys", "reflection_dependencies", "dependency_path", iterator.next());
     verifyColumn("sys", "services", "user_port", iterator.next());
     verifyColumn("sys", "services", "fabric_port", iterator.next());
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+
+/**
+ * Generates synthetic Arrow batches for the benchmarks. Data is deterministic for a given seed so
+ * that results are comparable across runs and commits.
+ */
+public final class BenchmarkData {
+
+  /** Shape of the (grouping, join or sort) keys of a batch */
+  public enum KeyShape {
+    /** a single 4 byte key */
+    INT,
+    /** a single 8 byte key */
+    BIGINT,
+    /** two 8 byte keys */
+    BIGINT_BIGINT,
+    /** a single variable width key */
+    VARCHAR,
+    /** a 4 byte key and a variable width key */
+    INT_VARCHAR,
+    /** a 8 byte key and two variable width keys */
+    BIGINT_VARCHAR_VARCHAR;
+
+    boolean hasVariableWidth() {
+      return this == VARCHAR || this == INT_VARCHAR || this == BIGINT_VARCHAR_VARCHAR;
+    }
+  }
+
+  private BenchmarkData() {}
+
+  /**
+   * Create and populate the key vectors of the given shape.
+   *
+   * @param allocator allocator for the vectors
+   * @param shape key shape
+   * @param records number of records
+   * @param cardinality number of distinct values per key column
+   * @param nullPercentage percentage [0-100] of null values
+   * @param varcharLength length of the generated strings
+   * @param seed random seed
+   * @return populated vectors, owned by the caller
+   */
+  public static List<FieldVector> keys(
+      BufferAllocator allocator,
+      KeyShape shape,
+      int records,
+      int cardinality,
+      int nullPercentage,
+      int varcharLength,
+      long seed) {
+    final Random random = new Random(seed);
+    final List<FieldVector> vectors = new ArrayList<>();
+    switch (shape) {
+      case INT:
+        vectors.add(ints(allocator, "k0", records, cardinality, nullPercentage, random));
+        break;
+      case BIGINT:
+        vectors.add(bigints(allocator, "k0", records, cardinality, nullPercentage, random));
+        break;
+      case BIGINT_BIGINT:
+        vectors.add(bigints(allocator, "k0", records, cardinality, nullPercentage, random));
+        vectors.add(bigints(allocator, "k1", records, cardinality, nullPercentage, random));
+        break;
+      case VARCHAR:
+        vectors.add(
+            varchars(allocator, "k0", records, cardinality, nullPercentage, varcharLength, random));
+        break;
+      case INT_VARCHAR:
+        vectors.add(ints(allocator, "k0", records, cardinality, nullPercentage, random));
+        vectors.add(
+            varchars(allocator, "k1", records, cardinality, nullPercentage, varcharLength, random));
+        break;
+      case BIGINT_VARCHAR_VARCHAR:
+        vectors.add(bigints(allocator, "k0", records, cardinality, nullPercentage, random));
+        vectors.add(
+            varchars(allocator, "k1", records, cardinality, nullPercentage, varcharLength, random));
+        vectors.add(
+            varchars(allocator, "k2", records, cardinality, nullPercentage, varcharLength, random));
+        break;
+      default:
+        throw new UnsupportedOperationException("Unknown key shape " + shape);
+    }
+    return vectors;
+  }
+
+  public static IntVector ints(
+      BufferAllocator allocator,
+      String name,
+      int records,
+      int cardinality,
+      int nullPercentage,
+      Random random) {
+    final IntVector vector = new IntVector(name, allocator);
+    vector.allocateNew(records);
+    for (int i = 0; i < records; i++) {
+      if (!isNull(random, nullPercentage)) {
+        vector.set(i, random.nextInt(cardinality));
+      }
+    }
+    vector.setValueCount(records);
+    return vector;
+  }
+
+  public static BigIntVector bigints(
+      BufferAllocator allocator,
+      String name,
+      int records,
+      int cardinality,
+      int nullPercentage,
+      Random random) {
+    final BigIntVector vector = new BigIntVector(name, allocator);
+    vector.allocateNew(records);
+    for (int i = 0; i < records; i++) {
+      if (!isNull(random, nullPercentage)) {
+        // spread the values so that they don't all fall in the low bits
+        vector.set(i, random.nextInt(cardinality) * 0x9E3779B97F4A7C15L);
+      }
+    }
+    vector.setValueCount(records);
+    return vector;
+  }
+
+  public static VarCharVector varchars(
+      BufferAllocator allocator,
+      String name,
+      int records,
+      int cardinality,
+      int nullPercentage,
+      int length,
+      Random random) {
+    final VarCharVector vector = new VarCharVector(name, allocator);
+    vector.allocateNew((long) records * length, records);
+    for (int i = 0; i < records; i++) {
+      if (!isNull(random, nullPercentage)) {
+        vector.setSafe(i, paddedValue(random.nextInt(cardinality), length));
+      }
+    }
+    vector.setValueCount(records);
+    return vector;
+  }
+
+  private static byte[] paddedValue(int value, int length) {
+    final String digits = Integer.toString(value);
+    final StringBuilder sb = new StringBuilder(Math.max(length, digits.length()));
+    for (int i = digits.length(); i < length; i++) {
+      sb.append('x');
+    }
+    return sb.append(digits).toString().getBytes(UTF_8);
+  }
+
+  private static boolean isNull(Random random, int nullPercentage) {
+    return nullPercentage > 0 && random.nextInt(100) < nullPercentage;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the Sabot benchmarks and writes the results as JSON so that runs can be compared against
+ * each other to track regressions.
+ *
+ * <p>Arguments are regular expressions selecting the benchmarks to run (all of them by default).
+ * The result file defaults to {@code target/jmh-result.json} and can be changed with the {@code
+ * dremio.benchmarks.result} system property.
+ */
+public final class BenchmarkRunner {
+
+  private static final String RESULT_PROPERTY = "dremio.benchmarks.result";
+  private static final String DEFAULT_RESULT = "target/jmh-result.json";
+
+  private BenchmarkRunner() {}
+
+  public static void main(String[] args) throws RunnerException {
+    final ChainedOptionsBuilder options =
+        new OptionsBuilder()
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty(RESULT_PROPERTY, DEFAULT_RESULT));
+    if (args.length == 0) {
+      options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+    } else {
+      for (String include : args) {
+        options.include(include);
+      }
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.benchmarks.BenchmarkData.KeyShape;
+import com.dremio.sabot.op.copier.FieldBufferCopier;
+import com.dremio.sabot.op.copier.FieldBufferCopierFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the vectorized copiers used by filters/selection vector removal (2 byte, SV2) and by
+ * sort/merge outputs (4 byte, SV4 over several batches).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldBufferCopierBenchmark {
+
+  private static final int NUM_BATCHES = 8;
+
+  @Param({"INT", "BIGINT_BIGINT", "VARCHAR", "BIGINT_VARCHAR_VARCHAR"})
+  public KeyShape columns;
+
+  @Param({"4096"})
+  public int batchSize;
+
+  /** percentage of the input records that are selected */
+  @Param({"10", "50", "100"})
+  public int selectivity;
+
+  @Param({"0", "20"})
+  public int nullPercentage;
+
+  @Param({"16"})
+  public int varcharLength;
+
+  private BufferAllocator allocator;
+  private final List<List<FieldVector>> batches = new ArrayList<>();
+  private final List<FieldVector> outputs = new ArrayList<>();
+  private List<FieldBufferCopier> copiers2;
+  private List<FieldBufferCopier> copiers4;
+  private ArrowBuf sv2;
+  private ArrowBuf sv4;
+  private int sv2Count;
+  private int sv4Count;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    for (int b = 0; b < NUM_BATCHES; b++) {
+      batches.add(
+          BenchmarkData.keys(
+              allocator, columns, batchSize, batchSize, nullPercentage, varcharLength, b));
+    }
+    for (FieldVector vector : batches.get(0)) {
+      outputs.add(vector.getField().createVector(allocator));
+    }
+
+    final FieldBufferCopierFactory factory = new FieldBufferCopierFactory(null);
+    copiers2 = factory.getTwoByteCopiers(batches.get(0), outputs, false);
+    final List<FieldVector[]> hyperInputs = new ArrayList<>();
+    for (int c = 0; c < outputs.size(); c++) {
+      final FieldVector[] hyper = new FieldVector[NUM_BATCHES];
+      for (int b = 0; b < NUM_BATCHES; b++) {
+        hyper[b] = batches.get(b).get(c);
+      }
+      hyperInputs.add(hyper);
+    }
+    copiers4 = factory.getFourByteCopiers(hyperInputs, outputs);
+
+    final Random random = new Random(0);
+    sv2 = allocator.buffer(batchSize * 2L);
+    sv4 = allocator.buffer(batchSize * 4L);
+    for (int i = 0; i < batchSize; i++) {
+      if (random.nextInt(100) < selectivity) {
+        sv2.setShort(sv2Count * 2L, i);
+        sv2Count++;
+      }
+      // sv4 entries: upper 2 bytes hold the batch index, lower 2 bytes the record index
+      if (random.nextInt(100) < selectivity) {
+        sv4.setInt(sv4Count * 4L, (random.nextInt(NUM_BATCHES) << 16) | i);
+        sv4Count++;
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(sv2, sv4);
+    AutoCloseables.close(outputs);
+    for (List<FieldVector> batch : batches) {
+      AutoCloseables.close(batch);
+    }
+    allocator.close();
+  }
+
+  @Benchmark
+  public int copySv2() {
+    for (FieldBufferCopier copier : copiers2) {
+      copier.copy(sv2.memoryAddress(), sv2Count);
+    }
+    return sv2Count;
+  }
+
+  @Benchmark
+  public int copySv4() {
+    for (FieldBufferCopier copier : copiers4) {
+      copier.copy(sv4.memoryAddress(), sv4Count);
+    }
+    return sv4Count;
+  }
+}
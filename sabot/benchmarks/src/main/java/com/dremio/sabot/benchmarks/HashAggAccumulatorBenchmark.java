@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.HTORDINAL_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.KEYINDEX_OFFSET;
+import static com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator.PARTITIONINDEX_HTORDINAL_WIDTH;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.aggregate.vectorized.Accumulator;
+import com.dremio.sabot.op.aggregate.vectorized.AccumulatorSet;
+import com.dremio.sabot.op.aggregate.vectorized.CountColumnAccumulator;
+import com.dremio.sabot.op.aggregate.vectorized.MaxAccumulators;
+import com.dremio.sabot.op.aggregate.vectorized.SumAccumulators;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the accumulation step of {@code VectorizedHashAggOperator}: given the hash table
+ * ordinals of an incoming batch, fold the measure columns into the accumulation vectors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashAggAccumulatorBenchmark {
+
+  private static final int JOINT_ALLOCATION_MIN = 4 * 1024;
+  private static final int JOINT_ALLOCATION_MAX = 64 * 1024;
+
+  /** Measures computed for every batch */
+  public enum Measures {
+    SUM_INT,
+    SUM_BIGINT_SUM_DOUBLE,
+    SUM_MAX_COUNT_BIGINT
+  }
+
+  @Param({"SUM_INT", "SUM_BIGINT_SUM_DOUBLE", "SUM_MAX_COUNT_BIGINT"})
+  public Measures measures;
+
+  /** number of groups in the hash table */
+  @Param({"1000", "100000"})
+  public int groups;
+
+  /** must be a power of two, like the hash table batch size */
+  @Param({"4096"})
+  public int batchSize;
+
+  @Param({"0", "20"})
+  public int nullPercentage;
+
+  private BufferAllocator allocator;
+  private final List<FieldVector> vectors = new ArrayList<>();
+  private AccumulatorSet accumulators;
+  private ArrowBuf ordinals;
+  private int bitsInChunk;
+  private int chunkOffsetMask;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final Random random = new Random(0);
+    final IntVector ints =
+        BenchmarkData.ints(allocator, "i", batchSize, 1000, nullPercentage, random);
+    final BigIntVector bigints =
+        BenchmarkData.bigints(allocator, "b", batchSize, 1000, nullPercentage, random);
+    final Float8Vector doubles = new Float8Vector("d", allocator);
+    doubles.allocateNew(batchSize);
+    for (int i = 0; i < batchSize; i++) {
+      if (random.nextInt(100) >= nullPercentage) {
+        doubles.set(i, random.nextDouble());
+      }
+    }
+    doubles.setValueCount(batchSize);
+    vectors.add(ints);
+    vectors.add(bigints);
+    vectors.add(doubles);
+
+    final List<Accumulator> children = new ArrayList<>();
+    switch (measures) {
+      case SUM_INT:
+        {
+          final FieldVector sum = output(new BigIntVector("s0", allocator));
+          children.add(
+              new SumAccumulators.IntSumAccumulator(ints, sum, sum, batchSize, allocator));
+          break;
+        }
+      case SUM_BIGINT_SUM_DOUBLE:
+        {
+          final FieldVector sum0 = output(new BigIntVector("s0", allocator));
+          final FieldVector sum1 = output(new Float8Vector("s1", allocator));
+          children.add(
+              new SumAccumulators.BigIntSumAccumulator(bigints, sum0, sum0, batchSize, allocator));
+          children.add(
+              new SumAccumulators.DoubleSumAccumulator(doubles, sum1, sum1, batchSize, allocator));
+          break;
+        }
+      case SUM_MAX_COUNT_BIGINT:
+        {
+          final FieldVector sum = output(new BigIntVector("s0", allocator));
+          final FieldVector max = output(new BigIntVector("m0", allocator));
+          final FieldVector count = output(new BigIntVector("c0", allocator));
+          children.add(
+              new SumAccumulators.BigIntSumAccumulator(bigints, sum, sum, batchSize, allocator));
+          children.add(
+              new MaxAccumulators.BigIntMaxAccumulator(bigints, max, max, batchSize, allocator));
+          children.add(new CountColumnAccumulator(bigints, count, count, batchSize, allocator));
+          break;
+        }
+      default:
+        throw new UnsupportedOperationException("Unknown measures " + measures);
+    }
+    accumulators =
+        new AccumulatorSet(
+            JOINT_ALLOCATION_MIN,
+            JOINT_ALLOCATION_MAX,
+            allocator,
+            children.toArray(new Accumulator[0]));
+
+    // one accumulation batch per hash table batch
+    final int tableBatches = (groups + batchSize - 1) / batchSize;
+    for (int i = 0; i < tableBatches; i++) {
+      accumulators.addBatch();
+    }
+    bitsInChunk = Integer.numberOfTrailingZeros(batchSize);
+    chunkOffsetMask = batchSize - 1;
+
+    // (hash table ordinal, record index) pairs, as produced by the hash table insertion
+    ordinals = allocator.buffer((long) batchSize * PARTITIONINDEX_HTORDINAL_WIDTH);
+    for (int i = 0; i < batchSize; i++) {
+      final long offset = (long) i * PARTITIONINDEX_HTORDINAL_WIDTH;
+      ordinals.setInt(offset + HTORDINAL_OFFSET, random.nextInt(groups));
+      ordinals.setInt(offset + KEYINDEX_OFFSET, i);
+    }
+  }
+
+  private FieldVector output(FieldVector vector) {
+    vectors.add(vector);
+    return vector;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(accumulators, ordinals);
+    AutoCloseables.close(vectors);
+    allocator.close();
+  }
+
+  @Benchmark
+  public void accumulate() {
+    accumulators.accumulate(ordinals.memoryAddress(), batchSize, bitsInChunk, chunkOffsetMask);
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.vector.accessor.BoundCheckingAccessor;
+import com.dremio.exec.vector.accessor.InvalidAccessException;
+import com.dremio.exec.vector.accessor.SqlAccessor;
+import com.dremio.exec.vector.accessor.SqlAccessorBuilder;
+import com.dremio.sabot.benchmarks.BenchmarkData.KeyShape;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the rows per second a JDBC client reads from a batch of results, through the per row
+ * accessors of the driver (as {@code ResultSet.getObject} and {@code getString} do) and directly
+ * from the vectors (as {@code DremioBatchReader} callers do).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JdbcAccessorBenchmark {
+
+  private static final int ROWS = 4096;
+
+  @Param({"INT", "BIGINT_BIGINT", "VARCHAR", "BIGINT_VARCHAR_VARCHAR"})
+  public KeyShape columns;
+
+  @Param({"0", "20"})
+  public int nullPercentage;
+
+  @Param({"16"})
+  public int varcharLength;
+
+  private BufferAllocator allocator;
+  private List<FieldVector> vectors;
+  private SqlAccessor[] accessors;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    vectors =
+        BenchmarkData.keys(allocator, columns, ROWS, ROWS, nullPercentage, varcharLength, 0);
+    accessors = new SqlAccessor[vectors.size()];
+    for (int i = 0; i < accessors.length; i++) {
+      accessors[i] =
+          new BoundCheckingAccessor(
+              vectors.get(i),
+              SqlAccessorBuilder.getSqlAccessor(vectors.get(i), TimeZone.getDefault()));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(vectors);
+    allocator.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void getObject(Blackhole blackhole) throws InvalidAccessException {
+    for (int row = 0; row < ROWS; row++) {
+      for (SqlAccessor accessor : accessors) {
+        blackhole.consume(accessor.getObject(row));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void getString(Blackhole blackhole) throws InvalidAccessException {
+    for (int row = 0; row < ROWS; row++) {
+      for (SqlAccessor accessor : accessors) {
+        blackhole.consume(accessor.getString(row));
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void vectors(Blackhole blackhole) {
+    for (FieldVector vector : vectors) {
+      if (vector instanceof IntVector) {
+        final IntVector ints = (IntVector) vector;
+        for (int row = 0; row < ROWS; row++) {
+          if (!ints.isNull(row)) {
+            blackhole.consume(ints.get(row));
+          }
+        }
+      } else if (vector instanceof BigIntVector) {
+        final BigIntVector bigints = (BigIntVector) vector;
+        for (int row = 0; row < ROWS; row++) {
+          if (!bigints.isNull(row)) {
+            blackhole.consume(bigints.get(row));
+          }
+        }
+      } else {
+        // reads the first byte of each value in place, as a columnar consumer would
+        final BaseVariableWidthVector varchars = (BaseVariableWidthVector) vector;
+        for (int row = 0; row < ROWS; row++) {
+          if (!varchars.isNull(row) && varchars.getValueLength(row) > 0) {
+            blackhole.consume(
+                varchars
+                    .getDataBuffer()
+                    .getByte(
+                        varchars
+                            .getOffsetBuffer()
+                            .getInt((long) row * BaseVariableWidthVector.OFFSET_WIDTH)));
+          }
+        }
+      }
+    }
+  }
+}
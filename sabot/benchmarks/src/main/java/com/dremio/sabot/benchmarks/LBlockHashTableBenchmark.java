@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.benchmarks.BenchmarkData.KeyShape;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
+import com.dremio.sabot.op.common.ht2.LBlockHashTable;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import com.koloboke.collect.hash.HashConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-batch cost of hashing pivoted keys and of inserting and probing them in {@link
+ * LBlockHashTable}, as done by the vectorized hash aggregation and hash join operators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LBlockHashTableBenchmark {
+
+  private static final int NUM_BATCHES = 16;
+
+  @Param({"INT", "BIGINT_BIGINT", "VARCHAR", "INT_VARCHAR"})
+  public KeyShape keyShape;
+
+  /** number of distinct keys per key column */
+  @Param({"1000", "1000000"})
+  public int cardinality;
+
+  @Param({"4096"})
+  public int batchSize;
+
+  @Param({"0", "10"})
+  public int nullPercentage;
+
+  @Param({"16"})
+  public int varcharLength;
+
+  private BufferAllocator allocator;
+  private final List<List<FieldVector>> batches = new ArrayList<>();
+  private final List<FixedBlockVector> fixedBlocks = new ArrayList<>();
+  private final List<VariableBlockVector> variableBlocks = new ArrayList<>();
+  private final List<ArrowBuf> hashes = new ArrayList<>();
+  private PivotDef pivot;
+  private ArrowBuf ordinals;
+  private LBlockHashTable table;
+  private int nextBatch;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    for (int b = 0; b < NUM_BATCHES; b++) {
+      final List<FieldVector> keys =
+          BenchmarkData.keys(
+              allocator, keyShape, batchSize, cardinality, nullPercentage, varcharLength, b);
+      batches.add(keys);
+      final List<FieldVectorPair> pairs = new ArrayList<>();
+      for (FieldVector key : keys) {
+        pairs.add(new FieldVectorPair(key, key));
+      }
+      pivot = PivotBuilder.getBlockDefinition(pairs);
+      final FixedBlockVector fixed = new FixedBlockVector(allocator, pivot.getBlockWidth());
+      final VariableBlockVector variable =
+          new VariableBlockVector(allocator, pivot.getVariableCount());
+      Pivots.pivot(pivot, batchSize, fixed, variable);
+      fixedBlocks.add(fixed);
+      variableBlocks.add(variable);
+      hashes.add(allocator.buffer(batchSize * 8L));
+    }
+    ordinals = allocator.buffer(batchSize * 4L);
+  }
+
+  @Setup(Level.Iteration)
+  public void setupTable() {
+    for (int b = 0; b < NUM_BATCHES; b++) {
+      computeHash(b);
+    }
+    // the probe benchmark looks up keys that all exist in the table
+    table = buildTable();
+    nextBatch = 0;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownTable() throws Exception {
+    table.close();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(fixedBlocks);
+    AutoCloseables.close(variableBlocks);
+    AutoCloseables.close(hashes);
+    ordinals.close();
+    for (List<FieldVector> batch : batches) {
+      AutoCloseables.close(batch);
+    }
+    allocator.close();
+  }
+
+  private ArrowBuf variableBuf(int batch) {
+    return pivot.getVariableCount() == 0 ? null : variableBlocks.get(batch).getBuf();
+  }
+
+  private void computeHash(int batch) {
+    final VariableBlockVector variable = variableBlocks.get(batch);
+    HashComputation.computeHash(
+        new BlockChunk(
+            fixedBlocks.get(batch).getMemoryAddress(),
+            variable.getMemoryAddress(),
+            variable.getCapacity(),
+            pivot.getVariableCount() == 0,
+            pivot.getBlockWidth(),
+            batchSize,
+            hashes.get(batch).memoryAddress(),
+            0));
+  }
+
+  private LBlockHashTable buildTable() {
+    final LBlockHashTable newTable =
+        new LBlockHashTable(HashConfig.getDefault(), pivot, allocator, 16384, 32, true, batchSize);
+    for (int b = 0; b < NUM_BATCHES; b++) {
+      newTable.add(
+          batchSize, fixedBlocks.get(b).getBuf(), variableBuf(b), hashes.get(b), ordinals);
+    }
+    return newTable;
+  }
+
+  private int nextBatch() {
+    final int batch = nextBatch;
+    nextBatch = (nextBatch + 1) % NUM_BATCHES;
+    return batch;
+  }
+
+  /** Hash a batch of pivoted keys */
+  @Benchmark
+  public void hash() {
+    computeHash(nextBatch());
+  }
+
+  /** Build a table from scratch out of all the batches, including the cost of growing it */
+  @Benchmark
+  public int build() throws Exception {
+    try (LBlockHashTable newTable = buildTable()) {
+      return newTable.size();
+    }
+  }
+
+  /** Look up a batch of keys that are all present in the table */
+  @Benchmark
+  public void probe() {
+    final int batch = nextBatch();
+    table.find(
+        batchSize,
+        fixedBlocks.get(batch).getBuf(),
+        variableBuf(batch),
+        hashes.get(batch),
+        ordinals);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.benchmarks.BenchmarkData.KeyShape;
+import com.dremio.sabot.op.common.ht2.FieldVectorPair;
+import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.PivotBuilder;
+import com.dremio.sabot.op.common.ht2.PivotDef;
+import com.dremio.sabot.op.common.ht2.Pivots;
+import com.dremio.sabot.op.common.ht2.Unpivots;
+import com.dremio.sabot.op.common.ht2.VariableBlockVector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures {@link Pivots#pivot} and {@link Unpivots#unpivot} throughput in records per second. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PivotBenchmark {
+
+  @Param({"INT", "BIGINT_BIGINT", "VARCHAR", "BIGINT_VARCHAR_VARCHAR"})
+  public KeyShape keyShape;
+
+  @Param({"4096"})
+  public int batchSize;
+
+  @Param({"0", "20"})
+  public int nullPercentage;
+
+  @Param({"16"})
+  public int varcharLength;
+
+  private BufferAllocator allocator;
+  private List<FieldVector> inputs;
+  private List<FieldVector> outputs;
+  private PivotDef pivot;
+  private FixedBlockVector fixed;
+  private VariableBlockVector variable;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    inputs =
+        BenchmarkData.keys(
+            allocator, keyShape, batchSize, batchSize, nullPercentage, varcharLength, 1L);
+    outputs = new ArrayList<>();
+    final List<FieldVectorPair> pairs = new ArrayList<>();
+    for (FieldVector input : inputs) {
+      final FieldVector output = input.getField().createVector(allocator);
+      outputs.add(output);
+      pairs.add(new FieldVectorPair(input, output));
+    }
+    pivot = PivotBuilder.getBlockDefinition(pairs);
+    fixed = new FixedBlockVector(allocator, pivot.getBlockWidth(), batchSize, true);
+    variable = new VariableBlockVector(allocator, pivot.getVariableCount());
+
+    // pre-pivot once so that the unpivot benchmark has data to work on
+    Pivots.pivot(pivot, batchSize, fixed, variable);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(fixed, variable);
+    AutoCloseables.close(inputs);
+    AutoCloseables.close(outputs);
+    allocator.close();
+  }
+
+  @Benchmark
+  public int pivot() {
+    Pivots.pivot(pivot, batchSize, fixed, variable);
+    return fixed.getBufferLength();
+  }
+
+  @Benchmark
+  public int unpivot() {
+    Unpivots.unpivot(pivot, fixed, variable, 0, batchSize);
+    return outputs.get(0).getValueCount();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.benchmarks;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.sabot.op.sort.external.SplayTree;
+import com.dremio.sabot.op.sort.external.SplayTree.SplayIterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the in-memory sort of {@code ExternalSortOperator} when using the splay sorter: every
+ * record is inserted in a {@link SplayTree} that compares records through their index, like the
+ * generated comparator does, and the tree is then traversed in order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SplaySortBenchmark {
+
+  /** Type of the sort key */
+  public enum SortKey {
+    BIGINT,
+    VARCHAR
+  }
+
+  @Param({"BIGINT", "VARCHAR"})
+  public SortKey sortKey;
+
+  @Param({"65536"})
+  public int records;
+
+  /** number of distinct key values, low values produce many ties */
+  @Param({"100", "1000000"})
+  public int cardinality;
+
+  @Param({"0", "10"})
+  public int nullPercentage;
+
+  @Param({"16"})
+  public int varcharLength;
+
+  private BufferAllocator allocator;
+  private BigIntVector bigints;
+  private VarCharVector varchars;
+  private ArrowBuf treeData;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    final Random random = new Random(0);
+    bigints = BenchmarkData.bigints(allocator, "b", records, cardinality, nullPercentage, random);
+    varchars =
+        BenchmarkData.varchars(
+            allocator, "v", records, cardinality, nullPercentage, varcharLength, random);
+    // node 0 is reserved as the null node
+    treeData = allocator.buffer((long) (records + 1) * SplayTree.NODE_SIZE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    AutoCloseables.close(treeData, bigints, varchars);
+    allocator.close();
+  }
+
+  @Benchmark
+  public long sort() {
+    treeData.setZero(0, treeData.capacity());
+    final SplayTree tree =
+        sortKey == SortKey.BIGINT ? new BigIntSplayTree(bigints) : new VarCharSplayTree(varchars);
+    tree.setData(treeData);
+    for (int i = 0; i < records; i++) {
+      tree.put(i);
+    }
+
+    long checksum = 0;
+    final SplayIterator iterator = tree.iterator();
+    while (iterator.hasNext()) {
+      checksum = checksum * 31 + iterator.next();
+    }
+    return checksum;
+  }
+
+  /** Nulls first, ascending */
+  private static final class BigIntSplayTree extends SplayTree {
+    private final BigIntVector vector;
+
+    private BigIntSplayTree(BigIntVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    public int compareValues(int leftVal, int rightVal) {
+      final boolean leftNull = vector.isNull(leftVal);
+      final boolean rightNull = vector.isNull(rightVal);
+      if (leftNull || rightNull) {
+        return Boolean.compare(rightNull, leftNull);
+      }
+      return Long.compare(vector.get(leftVal), vector.get(rightVal));
+    }
+  }
+
+  /** Nulls first, ascending byte order */
+  private static final class VarCharSplayTree extends SplayTree {
+    private final VarCharVector vector;
+
+    private VarCharSplayTree(VarCharVector vector) {
+      this.vector = vector;
+    }
+
+    @Override
+    public int compareValues(int leftVal, int rightVal) {
+      final boolean leftNull = vector.isNull(leftVal);
+      final boolean rightNull = vector.isNull(rightVal);
+      if (leftNull || rightNull) {
+        return Boolean.compare(rightNull, leftNull);
+      }
+      final ArrowBuf offsets = vector.getOffsetBuffer();
+      final ArrowBuf data = vector.getDataBuffer();
+      final int leftStart = offsets.getInt((long) leftVal * 4);
+      final int leftEnd = offsets.getInt((long) (leftVal + 1) * 4);
+      final int rightStart = offsets.getInt((long) rightVal * 4);
+      final int rightEnd = offsets.getInt((long) (rightVal + 1) * 4);
+      final int length = Math.min(leftEnd - leftStart, rightEnd - rightStart);
+      for (int i = 0; i < length; i++) {
+        final int cmp =
+            Integer.compare(
+                data.getByte(leftStart + i) & 0xFF, data.getByte(rightStart + i) & 0xFF);
+        if (cmp != 0) {
+          return cmp;
+        }
+      }
+      return Integer.compare(leftEnd - leftStart, rightEnd - rightStart);
+    }
+  }
+}
@@ -63,6 +63,33 @@ public interface ExecConstants {
 
   String SPOOLING_BUFFER_DELETE = "dremio.exec.buffer.spooling.delete";
   String SPOOLING_BUFFER_SIZE = "dremio.exec.buffer.spooling.size";
+  String SPOOLING_BUFFER_THREADS = "dremio.exec.buffer.spooling.threads";
+
+  /* compress the batches spooled to disk by the exchange buffers with LZ4 */
+  BooleanValidator SPOOLING_BUFFER_COMPRESSION =
+      new BooleanValidator("exec.buffer.spooling.compression.enabled", false);
+
+  /* spool batches to disk and read them back on a background thread instead of the fragment */
+  BooleanValidator SPOOLING_BUFFER_ASYNC =
+      new BooleanValidator("exec.buffer.spooling.async.enabled", false);
+
+  /* number of spooled batches read back ahead of the receiver, when spooling in the background */
+  RangeLongValidator SPOOLING_BUFFER_READ_AHEAD =
+      new RangeLongValidator("exec.buffer.spooling.read_ahead", 0, 64, 2);
+
+  /* compress the buffers of the batches sent by exchanges to other nodes with LZ4 */
+  BooleanValidator EXCHANGE_COMPRESSION =
+      new BooleanValidator("exec.exchange.compression.enabled", false);
+
+  /* buffers smaller than this are sent uncompressed */
+  RangeLongValidator EXCHANGE_COMPRESSION_MIN_BUFFER_BYTES =
+      new RangeLongValidator(
+          "exec.exchange.compression.min_buffer_bytes", 0, Integer.MAX_VALUE, 1024);
+
+  /* buffers, and batches, that don't compress below this fraction of their size are sent as is */
+  RangeDoubleValidator EXCHANGE_COMPRESSION_MAX_RATIO =
+      new RangeDoubleValidator("exec.exchange.compression.max_ratio", 0, 1, 0.9);
+
   String BATCH_PURGE_THRESHOLD = "dremio.exec.sort.purge.threshold";
   String SPILL_DIRS = "dremio.exec.sort.external.spill.directories";
   String HTTP_ENABLE = "dremio.exec.http.enabled";
@@ -504,6 +531,15 @@ public interface ExecConstants {
   String BOOTSTRAP_STORAGE_PLUGINS_FILE = "bootstrap-storage-plugins.json";
   String MAX_LOADING_CACHE_SIZE_CONFIG = "dremio.exec.compile.cache_max_size";
   String MAX_SPLIT_CACHE_SIZE_CONFIG = "dremio.exec.compile.split_cache_max_size";
+  String CODE_CACHE_PATH_CONFIG = "dremio.exec.compile.persistent_cache.path";
+  String CODE_CACHE_MAX_SIZE_CONFIG = "dremio.exec.compile.persistent_cache.max_size_bytes";
+  String CODE_CACHE_MAX_WARMED_SIZE_CONFIG =
+      "dremio.exec.compile.persistent_cache.max_warmed_bytes";
+  String BLOCK_CACHE_PATH_CONFIG = "dremio.exec.block_cache.path";
+  String BLOCK_CACHE_MAX_SIZE_CONFIG = "dremio.exec.block_cache.max_size_bytes";
+  String BLOCK_CACHE_BLOCK_SIZE_CONFIG = "dremio.exec.block_cache.block_size_bytes";
+  String BLOCK_CACHE_ADMISSION_CONFIG = "dremio.exec.block_cache.admission_reads";
+  String BLOCK_CACHE_THREADS_CONFIG = "dremio.exec.block_cache.threads";
 
   // enable EXTEND on SELECT
   BooleanValidator ENABLE_EXTEND_ON_SELECT =
@@ -592,6 +628,36 @@ public interface ExecConstants {
   BooleanValidator PARQUET_COLUMN_ORDERING =
       new BooleanValidator("store.parquet.column_ordering", false);
 
+  // Executor wide cache of parquet footers and page indexes, bounded by the estimated heap size of
+  // the cached entries
+  BooleanValidator PARQUET_FOOTER_CACHE_ENABLED =
+      new BooleanValidator("store.parquet.footer_cache.enabled", true);
+  PositiveLongValidator PARQUET_FOOTER_CACHE_SIZE_BYTES =
+      new PositiveLongValidator(
+          "store.parquet.footer_cache.size_bytes", Long.MAX_VALUE, 256 * 1024 * 1024);
+
+  // Column chunks read per column are fetched up front with async reads, merging the chunks
+  // separated by at most max_gap_bytes into reads of at most max_size_bytes. A reader holds at
+  // most max_total_bytes of them, and streams the others. Reads taking longer than timeout_millis
+  // are given up, and the chunks are streamed
+  BooleanValidator PARQUET_COALESCED_READS =
+      new BooleanValidator("store.parquet.coalesced_reads.enabled", false);
+  LongValidator PARQUET_COALESCED_READS_MAX_GAP =
+      new RangeLongValidator(
+          "store.parquet.coalesced_reads.max_gap_bytes", 0, 64 * 1024 * 1024, 1024 * 1024);
+  LongValidator PARQUET_COALESCED_READS_MAX_SIZE =
+      new RangeLongValidator(
+          "store.parquet.coalesced_reads.max_size_bytes",
+          1,
+          Integer.MAX_VALUE,
+          8 * 1024 * 1024);
+  LongValidator PARQUET_COALESCED_READS_MAX_TOTAL =
+      new PositiveLongValidator(
+          "store.parquet.coalesced_reads.max_total_bytes", Long.MAX_VALUE, 32 * 1024 * 1024);
+  LongValidator PARQUET_COALESCED_READS_TIMEOUT_MILLIS =
+      new PositiveLongValidator(
+          "store.parquet.coalesced_reads.timeout_millis", Long.MAX_VALUE, 60_000);
+
   BooleanValidator HIVE_COMPLEXTYPES_ENABLED =
       new BooleanValidator("store.hive.parquet.support_complex_types", true);
   String PARQUET_LIST_ITEMS_KEY = "store.parquet.list_items.threshold";
@@ -643,6 +709,9 @@ public interface ExecConstants {
       new BooleanValidator("exec.operator.sort.external.compress_spill_files", true);
   BooleanValidator EXTERNAL_SORT_ENABLE_SPLAY_SORT =
       new BooleanValidator("exec.operator.sort.external.enable_splay_sort", false);
+  // sorts in memory runs with a radix sort of normalized keys, instead of QuickSort or SplaySort
+  BooleanValidator EXTERNAL_SORT_ENABLE_RADIX_SORT =
+      new BooleanValidator("exec.operator.sort.external.enable_radix_sort", false);
   BooleanValidator EXTERNAL_SORT_ENABLE_MICRO_SPILL =
       new BooleanValidator("exec.operator.sort.external.enable_micro_spill", true);
   PositiveLongValidator SORT_MAX_WRITE_BATCH =
@@ -866,6 +935,10 @@ public interface ExecConstants {
       new TypeValidators.EnumValidator<>(
           "dremio.sliced.observer_type", Observer.Type.class, Observer.Type.BASIC);
 
+  // number of threads of the slicing task pool, 0 means one per available core
+  RangeLongValidator SLICING_NUM_THREADS =
+      new RangeLongValidator("dremio.sliced.num_threads", 0, 1024, 0);
+
   PositiveLongValidator SLICING_THREAD_MIGRATION_MULTIPLE =
       new com.dremio.options.TypeValidators.PositiveLongValidator(
           "dremio.sliced.migration_multiple", Long.MAX_VALUE, 50);
@@ -925,6 +998,19 @@ public interface ExecConstants {
       new RangeLongValidator("exec.runtime_filter.max_key_size", 32, 1_024, 128);
   BooleanValidator ENABLE_ROW_LEVEL_RUNTIME_FILTERING =
       new BooleanValidator("exec.row_level.runtime_filter.enable", true);
+  // Skip the parquet row groups whose statistics rule out all the values of a runtime filter
+  BooleanValidator ENABLE_RUNTIME_FILTER_ROW_GROUP_PRUNING =
+      new BooleanValidator("store.parquet.runtime_filter.prune_row_groups", true);
+  // Minimum number of batches a TopN consumes between two boundaries it sends to its scan
+  RangeLongValidator TOPN_RUNTIME_FILTER_INTERVAL_BATCHES =
+      new RangeLongValidator("exec.operator.topn.runtime_filter.interval_batches", 1, 1_000, 4);
+  // Use cache line sized blocks in the bloom filters of partition column runtime filters
+  BooleanValidator ENABLE_SPLIT_BLOCK_BLOOM_FILTER =
+      new BooleanValidator("exec.runtime_filter.split_block_bloom_filter.enable", false);
+  // Target false positive probability used to size split block bloom filters from the build side
+  RangeDoubleValidator SPLIT_BLOCK_BLOOM_FILTER_FPP =
+      new RangeDoubleValidator(
+          "exec.runtime_filter.split_block_bloom_filter.fpp", 0.001, 0.03, 0.01);
   String ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS_KEY = "exec.parquet.enable_vectorized_complex";
   BooleanValidator ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS =
       new BooleanValidator(ENABLE_PARQUET_VECTORIZED_COMPLEX_READERS_KEY, true);
@@ -1254,6 +1340,21 @@ public interface ExecConstants {
   PositiveLongValidator WINDOW_FRAME_MAX_BOUND_THRESHOLD =
       new PositiveLongValidator("exec.window.max_bound_threshold", Integer.MAX_VALUE, 1000);
 
+  // evaluate the supported window functions without generated code, see VectorizedWindowOperator
+  BooleanValidator ENABLE_VECTORIZED_WINDOW =
+      new BooleanValidator("exec.window.vectorized.enabled", false);
+
+  // bytes of pending batches the vectorized window operator keeps in memory before spilling them
+  PositiveLongValidator VECTORIZED_WINDOW_SPILL_THRESHOLD =
+      new PositiveLongValidator(
+          "exec.window.vectorized.spill_threshold_bytes", Long.MAX_VALUE, 256L * 1024 * 1024);
+
+  // bytes of right batches of a run of duplicate keys the merge join keeps in memory before
+  // spilling them
+  PositiveLongValidator MERGE_JOIN_SPILL_THRESHOLD =
+      new PositiveLongValidator(
+          "exec.operator.join.merge.spill_threshold_bytes", Long.MAX_VALUE, 256L * 1024 * 1024);
+
   PositiveLongValidator NAMED_EXPRESSION_LENGTH_THRESHOLD =
       new PositiveLongValidator(
           "exec.operator.named_expression_length.threshold.", Long.MAX_VALUE, 512);
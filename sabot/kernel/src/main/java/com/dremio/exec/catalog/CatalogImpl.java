@@ -180,6 +180,7 @@ public class CatalogImpl implements Catalog {
   private final CatalogStatusEvents catalogStatusEvents;
   private final VersionedDatasetAdapterFactory versionedDatasetAdapterFactory;
   private final MetadataIOPool metadataIOPool;
+  private final DremioTableCache tableCache;
 
   CatalogImpl(
       MetadataRequestOptions options,
@@ -196,6 +197,40 @@ public class CatalogImpl implements Catalog {
       CatalogStatusEvents catalogStatusEvents,
       VersionedDatasetAdapterFactory versionedDatasetAdapterFactory,
       MetadataIOPool metadataIOPool) {
+    this(
+        options,
+        pluginRetriever,
+        sourceModifier,
+        optionManager,
+        systemNamespaceService,
+        namespaceFactory,
+        orphanage,
+        datasetListingService,
+        viewCreatorFactory,
+        identityResolver,
+        versionContextResolverImpl,
+        catalogStatusEvents,
+        versionedDatasetAdapterFactory,
+        metadataIOPool,
+        null);
+  }
+
+  CatalogImpl(
+      MetadataRequestOptions options,
+      PluginRetriever pluginRetriever,
+      CatalogServiceImpl.SourceModifier sourceModifier,
+      OptionManager optionManager,
+      NamespaceService systemNamespaceService,
+      NamespaceService.Factory namespaceFactory,
+      Orphanage orphanage,
+      DatasetListingService datasetListingService,
+      ViewCreatorFactory viewCreatorFactory,
+      IdentityResolver identityResolver,
+      VersionContextResolverImpl versionContextResolverImpl,
+      CatalogStatusEvents catalogStatusEvents,
+      VersionedDatasetAdapterFactory versionedDatasetAdapterFactory,
+      MetadataIOPool metadataIOPool,
+      DremioTableCache tableCache) {
     this.options = options;
     this.pluginRetriever = pluginRetriever;
     this.sourceModifier = sourceModifier;
@@ -216,6 +251,7 @@ public class CatalogImpl implements Catalog {
 
     this.versionContextResolverImpl = versionContextResolverImpl;
     this.metadataIOPool = metadataIOPool;
+    this.tableCache = tableCache;
     this.datasets =
         new DatasetManager(
             pluginRetriever,
@@ -225,7 +261,8 @@ public class CatalogImpl implements Catalog {
             identityResolver,
             versionContextResolverImpl,
             versionedDatasetAdapterFactory,
-            metadataIOPool);
+            metadataIOPool,
+            tableCache);
     this.iscDelegate =
         new InformationSchemaCatalogImpl(
             userNamespaceService, pluginRetriever, optionManager, namespaceIdentity);
@@ -1467,7 +1504,8 @@ public class CatalogImpl implements Catalog {
         versionContextResolverImpl,
         catalogStatusEvents,
         versionedDatasetAdapterFactory,
-        metadataIOPool);
+        metadataIOPool,
+        tableCache);
   }
 
   @Override
@@ -1488,7 +1526,8 @@ public class CatalogImpl implements Catalog {
         versionContextResolverImpl,
         catalogStatusEvents,
         versionedDatasetAdapterFactory,
-        metadataIOPool);
+        metadataIOPool,
+        tableCache);
   }
 
   @Override
@@ -1508,7 +1547,8 @@ public class CatalogImpl implements Catalog {
         versionContextResolverImpl,
         catalogStatusEvents,
         versionedDatasetAdapterFactory,
-        metadataIOPool);
+        metadataIOPool,
+        tableCache);
   }
 
   @Override
@@ -1530,7 +1570,8 @@ public class CatalogImpl implements Catalog {
         versionContextResolverImpl,
         catalogStatusEvents,
         versionedDatasetAdapterFactory,
-        metadataIOPool);
+        metadataIOPool,
+        tableCache);
   }
 
   private FileSystemPlugin getHomeFilesPlugin() throws ExecutionSetupException {
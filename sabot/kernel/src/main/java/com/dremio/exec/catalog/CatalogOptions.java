@@ -112,6 +112,13 @@ public final class CatalogOptions {
   public static final BooleanValidator SUPPORT_UDF_API =
       new BooleanValidator("catalog.udf.api.enabled", true);
 
+  // Share the metadata of tables and views resolved from the namespace across queries
+  public static final BooleanValidator TABLE_CACHE_ENABLED =
+      new BooleanValidator("catalog.table_cache.enabled", true);
+  // Maximum size in bytes of the schemas, view definitions and keys held by the table cache
+  public static final LongValidator TABLE_CACHE_SIZE_BYTES =
+      new PositiveLongValidator("catalog.table_cache.size_bytes", Long.MAX_VALUE, 64L << 20);
+
   // Do not instantiate
   private CatalogOptions() {}
 }
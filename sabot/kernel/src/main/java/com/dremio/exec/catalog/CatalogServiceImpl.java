@@ -158,6 +158,7 @@ public class CatalogServiceImpl implements CatalogService {
   protected volatile ModifiableSchedulerService modifiableSchedulerService;
   private final Provider<VersionedDatasetAdapterFactory> versionedDatasetAdapterFactoryProvider;
   private final Provider<CatalogStatusEvents> catalogStatusEventsProvider;
+  private DremioTableCache tableCache;
 
   public CatalogServiceImpl(
       Provider<SabotContext> sabotContext,
@@ -251,6 +252,10 @@ public class CatalogServiceImpl implements CatalogService {
     this.modifiableSchedulerService.start();
     this.plugins = newPluginsManager();
     plugins.start();
+    this.tableCache =
+        new DremioTableCache(
+            optionManager.get().getOption(CatalogOptions.TABLE_CACHE_SIZE_BYTES));
+    tableCache.subscribe(catalogStatusEventsProvider.get());
     this.protocol =
         new CatalogProtocol(allocator, new CatalogChangeListener(), config.getSabotConfig());
     tunnelFactory = fabric.get().registerProtocol(protocol);
@@ -856,7 +861,18 @@ public class CatalogServiceImpl implements CatalogService {
         new VersionContextResolverImpl(retriever),
         catalogStatusEventsProvider.get(),
         versionedDatasetAdapterFactoryProvider.get(),
-        sabotContext.get().getMetadataIOPoolProvider().get());
+        sabotContext.get().getMetadataIOPoolProvider().get(),
+        getTableCache());
+  }
+
+  /** @return the table cache sized per the system options, null if it is disabled */
+  private DremioTableCache getTableCache() {
+    final OptionManager systemOptions = optionManager.get();
+    if (tableCache == null || !systemOptions.getOption(CatalogOptions.TABLE_CACHE_ENABLED)) {
+      return null;
+    }
+    tableCache.setMaximumSize(systemOptions.getOption(CatalogOptions.TABLE_CACHE_SIZE_BYTES));
+    return tableCache;
   }
 
   @Override
@@ -17,6 +17,7 @@ package com.dremio.exec.catalog;
 
 import com.dremio.exec.catalog.CatalogInternalRPC.UpdateLastRefreshDateRequest;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.service.namespace.catalogstatusevents.events.SourceRefreshCatalogStatusEvent;
 import com.google.protobuf.Empty;
 import io.grpc.stub.StreamObserver;
 import javax.inject.Provider;
@@ -43,9 +44,10 @@ public class CatalogServiceSynchronizer
       UpdateLastRefreshDateRequest request, StreamObserver<Empty> responseObserver) {
     logger.debug("Request received: {}", request);
     try {
-      final ManagedStoragePlugin plugin =
-          catalogServiceProvider.get().getManagedSource(request.getPluginName());
+      final CatalogService catalogService = catalogServiceProvider.get();
+      final ManagedStoragePlugin plugin = catalogService.getManagedSource(request.getPluginName());
       plugin.setMetadataSyncInfo(request);
+      catalogService.publish(SourceRefreshCatalogStatusEvent.of(request.getPluginName()));
     } catch (Exception e) {
       responseObserver.onError(e);
       return;
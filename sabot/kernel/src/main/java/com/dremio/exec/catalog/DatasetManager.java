@@ -108,6 +108,7 @@ class DatasetManager {
   private final VersionContextResolver versionContextResolver;
   private final VersionedDatasetAdapterFactory versionedDatasetAdapterFactory;
   private final MetadataIOPool metadataIOPool;
+  private final DremioTableCache tableCache;
 
   public DatasetManager(
       PluginRetriever plugins,
@@ -118,6 +119,32 @@ class DatasetManager {
       VersionContextResolver versionContextResolver,
       VersionedDatasetAdapterFactory versionedDatasetAdapterFactory,
       MetadataIOPool metadataIOPool) {
+    this(
+        plugins,
+        userNamespaceService,
+        optionManager,
+        userName,
+        identityProvider,
+        versionContextResolver,
+        versionedDatasetAdapterFactory,
+        metadataIOPool,
+        null);
+  }
+
+  /**
+   * @param tableCache cache of the metadata of tables and views shared across queries, null to
+   *     build it for each lookup
+   */
+  DatasetManager(
+      PluginRetriever plugins,
+      NamespaceService userNamespaceService,
+      OptionManager optionManager,
+      String userName,
+      IdentityResolver identityProvider,
+      VersionContextResolver versionContextResolver,
+      VersionedDatasetAdapterFactory versionedDatasetAdapterFactory,
+      MetadataIOPool metadataIOPool,
+      DremioTableCache tableCache) {
     this.userNamespaceService = userNamespaceService;
     this.plugins = plugins;
     this.optionManager = optionManager;
@@ -126,6 +153,7 @@ class DatasetManager {
     this.versionContextResolver = versionContextResolver;
     this.versionedDatasetAdapterFactory = versionedDatasetAdapterFactory;
     this.metadataIOPool = metadataIOPool;
+    this.tableCache = tableCache;
   }
 
   /**
@@ -433,37 +461,78 @@ class DatasetManager {
                   .buildSilently());
     }
 
+    final DremioTableCache.Entry cached = getCachedTable(datasetConfig, false, options);
+    final BatchSchema schema;
+    List<String> primaryKey = null;
+    boolean cacheable = tableCache != null;
+    if (cached != null) {
+      schema = cached.getSchema();
+      primaryKey = cached.getPrimaryKey();
+    } else {
+      // deserialized now rather than when the planner first needs it, so that it can be cached
+      schema =
+          tableCache != null && DatasetHelper.getSchemaBytes(datasetConfig) != null
+              ? CalciteArrowHelper.fromDataset(datasetConfig)
+              : null;
+      try {
+        primaryKey =
+            getPrimaryKey(
+                plugin.getPlugin(),
+                datasetConfig,
+                options.getSchemaConfig(),
+                key,
+                savePrimaryKeyInKvStore);
+      } catch (Exception ex) {
+        logger.debug("Failed to get primary key", ex);
+        // the lookup is tried again on the next access rather than caching the table without key
+        cacheable = false;
+      }
+    }
+
     final TableMetadata tableMetadata =
         new TableMetadataImpl(
             plugin.getId(),
             datasetConfig,
             accessUserName,
             DatasetSplitsPointer.of(userNamespaceService, datasetConfig),
-            getPrimaryKey(
-                plugin.getPlugin(),
-                datasetConfig,
-                options.getSchemaConfig(),
-                key,
-                savePrimaryKeyInKvStore));
+            primaryKey,
+            schema);
+    if (cached == null && cacheable) {
+      tableCache.put(datasetConfig, false, null, schema, primaryKey);
+    }
     return new NamespaceTable(tableMetadata, plugin.getDatasetMetadataState(datasetConfig), true);
   }
 
+  /** Looks the metadata of the dataset up in the table cache, recording whether it was found. */
+  private DremioTableCache.Entry getCachedTable(
+      DatasetConfig datasetConfig, boolean viewSchema, MetadataRequestOptions options) {
+    if (tableCache == null) {
+      return null;
+    }
+    final Stopwatch stopwatch = Stopwatch.createStarted();
+    final DremioTableCache.Entry cached = tableCache.get(datasetConfig, viewSchema);
+    options
+        .getStatsCollector()
+        .addDatasetStat(
+            new NamespaceKey(datasetConfig.getFullPathList()).getSchemaPath(),
+            cached != null
+                ? DremioTableCache.TableCacheAccessType.TABLE_CACHE_HIT.name()
+                : DremioTableCache.TableCacheAccessType.TABLE_CACHE_MISS.name(),
+            stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    return cached;
+  }
+
   private List<String> getPrimaryKey(
       StoragePlugin plugin,
       DatasetConfig datasetConfig,
       SchemaConfig config,
       NamespaceKey key,
       boolean saveInKvStore) {
-    List<String> primaryKey = null;
     if (plugin instanceof MutablePlugin) {
       MutablePlugin mutablePlugin = (MutablePlugin) plugin;
-      try {
-        primaryKey = mutablePlugin.getPrimaryKey(key, datasetConfig, config, null, saveInKvStore);
-      } catch (Exception ex) {
-        logger.debug("Failed to get primary key", ex);
-      }
+      return mutablePlugin.getPrimaryKey(key, datasetConfig, config, null, saveInKvStore);
     }
-    return primaryKey;
+    return null;
   }
 
   /** Retrieves a source table, checking that things are up to date. */
@@ -832,19 +901,31 @@ class DatasetManager {
   private ViewTable createTableFromVirtualDataset(
       DatasetConfig datasetConfig, MetadataRequestOptions options) {
     try {
-      // 1.4.0 and earlier didn't correctly save virtual dataset schema information.
-      BatchSchema schema =
-          DatasetHelper.getSchemaBytes(datasetConfig) != null
-              ? CalciteArrowHelper.fromDataset(datasetConfig)
-              : null;
-
-      View view =
-          Views.fieldTypesToView(
-              Iterables.getLast(datasetConfig.getFullPathList()),
-              datasetConfig.getVirtualDataset().getSql(),
-              ViewFieldsHelper.getViewFields(datasetConfig),
-              datasetConfig.getVirtualDataset().getContextList(),
-              options.getSchemaConfig().getOptions() != null ? schema : null);
+      final boolean viewSchema = options.getSchemaConfig().getOptions() != null;
+      final DremioTableCache.Entry cached = getCachedTable(datasetConfig, viewSchema, options);
+      final BatchSchema schema;
+      final View view;
+      if (cached != null) {
+        schema = cached.getSchema();
+        view = cached.getView();
+      } else {
+        // 1.4.0 and earlier didn't correctly save virtual dataset schema information.
+        schema =
+            DatasetHelper.getSchemaBytes(datasetConfig) != null
+                ? CalciteArrowHelper.fromDataset(datasetConfig)
+                : null;
+
+        view =
+            Views.fieldTypesToView(
+                Iterables.getLast(datasetConfig.getFullPathList()),
+                datasetConfig.getVirtualDataset().getSql(),
+                ViewFieldsHelper.getViewFields(datasetConfig),
+                datasetConfig.getVirtualDataset().getContextList(),
+                viewSchema ? schema : null);
+        if (tableCache != null) {
+          tableCache.put(datasetConfig, viewSchema, view, schema, null);
+        }
+      }
 
       return new ViewTable(
           new NamespaceKey(datasetConfig.getFullPathList()),
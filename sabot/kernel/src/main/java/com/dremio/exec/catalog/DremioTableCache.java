@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import com.dremio.exec.dotfile.View;
+import com.dremio.exec.record.BatchSchema;
+import com.dremio.service.namespace.DatasetHelper;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.catalogstatusevents.CatalogStatusEvent;
+import com.dremio.service.namespace.catalogstatusevents.CatalogStatusEvents;
+import com.dremio.service.namespace.catalogstatusevents.CatalogStatusSubscriber;
+import com.dremio.service.namespace.catalogstatusevents.events.DatasetDeletionCatalogStatusEvent;
+import com.dremio.service.namespace.catalogstatusevents.events.SourceDeletionCatalogStatusEvent;
+import com.dremio.service.namespace.catalogstatusevents.events.SourceRefreshCatalogStatusEvent;
+import com.dremio.service.namespace.catalogstatusevents.events.SourceUpdateCatalogStatusEvent;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.protostuff.ByteString;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Coordinator wide cache of the metadata of the tables and views resolved from the namespace: the
+ * schema and primary key of tables, the schema and definition of views. It spares the queries of a
+ * coordinator deserializing the same schemas and asking the sources for the same primary keys.
+ *
+ * <p>Entries are keyed by dataset id and hold the tag of the dataset config they were built from.
+ * Callers still read the dataset config of every lookup from the namespace, so an entry built from
+ * an older version of the dataset is never returned: it is replaced. Access checks and splits are
+ * not cached, they are per query. Deleted datasets and the datasets of updated, deleted and
+ * refreshed sources are evicted as the catalog publishes these changes.
+ *
+ * <p>The size of the cache is bounded by the approximate size of the entries in bytes.
+ */
+final class DremioTableCache implements CatalogStatusSubscriber {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(DremioTableCache.class);
+
+  enum TableCacheAccessType {
+    TABLE_CACHE_MISS,
+    TABLE_CACHE_HIT,
+    TABLE_CACHE_STALE
+  }
+
+  private static final Meter.MeterProvider<Counter> LOOKUPS =
+      Counter.builder("catalog.table_cache.lookups")
+          .description("Table cache lookups by result (hit, miss or stale)")
+          .withRegistry(Metrics.globalRegistry);
+
+  // fixed cost of an entry: key, entry, config references and the collections holding them
+  private static final int ENTRY_OVERHEAD = 256;
+
+  private final Cache<Key, Entry> cache;
+  private volatile long maximumSize;
+
+  DremioTableCache(long maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumSize)
+            .weigher((Key key, Entry entry) -> entry.weight)
+            .executor(Runnable::run)
+            .build();
+
+    Gauge.builder("catalog.table_cache.entries", cache, Cache::estimatedSize)
+        .description("Number of table cache entries")
+        .register(Metrics.globalRegistry);
+  }
+
+  /** Subscribes the cache to the catalog changes that evict entries. */
+  void subscribe(CatalogStatusEvents events) {
+    events.subscribe(DatasetDeletionCatalogStatusEvent.getEventTopic(), this);
+    events.subscribe(SourceUpdateCatalogStatusEvent.getEventTopic(), this);
+    events.subscribe(SourceDeletionCatalogStatusEvent.getEventTopic(), this);
+    events.subscribe(SourceRefreshCatalogStatusEvent.getEventTopic(), this);
+  }
+
+  /** Changes the maximum size of the cache in bytes, evicting entries if it shrinks. */
+  void setMaximumSize(long maximumSize) {
+    if (this.maximumSize != maximumSize) {
+      this.maximumSize = maximumSize;
+      cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+    }
+  }
+
+  /**
+   * @param config dataset config read from the namespace
+   * @param viewSchema whether the view is expected to have been built with its schema
+   * @return the entry built from this version of the dataset, null if there is none
+   */
+  @Nullable
+  Entry get(DatasetConfig config, boolean viewSchema) {
+    final Key key = Key.of(config, viewSchema);
+    if (key == null) {
+      return null;
+    }
+    final Entry entry = cache.getIfPresent(key);
+    final TableCacheAccessType accessType;
+    if (entry == null) {
+      accessType = TableCacheAccessType.TABLE_CACHE_MISS;
+    } else if (!entry.tag.equals(config.getTag())) {
+      accessType = TableCacheAccessType.TABLE_CACHE_STALE;
+    } else {
+      accessType = TableCacheAccessType.TABLE_CACHE_HIT;
+    }
+    LOOKUPS.withTags("result", accessType.name()).increment();
+    return accessType == TableCacheAccessType.TABLE_CACHE_HIT ? entry : null;
+  }
+
+  /** Caches the metadata built from the given version of the dataset. */
+  void put(
+      DatasetConfig config,
+      boolean viewSchema,
+      @Nullable View view,
+      @Nullable BatchSchema schema,
+      @Nullable List<String> primaryKey) {
+    final Key key = Key.of(config, viewSchema);
+    if (key == null) {
+      return;
+    }
+    cache.put(
+        key,
+        new Entry(
+            config.getTag(),
+            new NamespaceKey(config.getFullPathList()),
+            view,
+            schema,
+            primaryKey,
+            weigh(config, view, primaryKey)));
+  }
+
+  private static int weigh(DatasetConfig config, View view, List<String> primaryKey) {
+    long weight = ENTRY_OVERHEAD;
+    final ByteString schemaBytes = DatasetHelper.getSchemaBytes(config);
+    if (schemaBytes != null) {
+      // deserialized schema, and the fields of the view built from it
+      weight += (view != null ? 2L : 1L) * schemaBytes.size();
+    }
+    if (view != null) {
+      weight += 2L * view.getSql().length();
+    }
+    if (primaryKey != null) {
+      for (String column : primaryKey) {
+        weight += 2L * column.length();
+      }
+    }
+    return (int) Math.min(weight, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void onCatalogStatusEvent(CatalogStatusEvent event) {
+    if (event instanceof DatasetDeletionCatalogStatusEvent) {
+      final String path = ((DatasetDeletionCatalogStatusEvent) event).getDatasetPath();
+      cache.asMap().values().removeIf(entry -> entry.path.toString().equals(path));
+    } else if (event instanceof SourceUpdateCatalogStatusEvent) {
+      invalidateSource(((SourceUpdateCatalogStatusEvent) event).getAfter().getName());
+    } else if (event instanceof SourceDeletionCatalogStatusEvent) {
+      invalidateSource(((SourceDeletionCatalogStatusEvent) event).getSourceConfig().getName());
+    } else if (event instanceof SourceRefreshCatalogStatusEvent) {
+      invalidateSource(((SourceRefreshCatalogStatusEvent) event).getSourceName());
+    }
+  }
+
+  /** Evicts the entries of the datasets under the given source or space. */
+  void invalidateSource(String sourceName) {
+    logger.debug("Evicting the cached tables of '{}'", sourceName);
+    cache.asMap().values().removeIf(entry -> entry.path.getRoot().equalsIgnoreCase(sourceName));
+  }
+
+  @VisibleForTesting
+  long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  /** Metadata built from a version of a dataset */
+  static final class Entry {
+    private final String tag;
+    private final NamespaceKey path;
+    private final View view;
+    private final BatchSchema schema;
+    private final List<String> primaryKey;
+    private final int weight;
+
+    private Entry(
+        String tag,
+        NamespaceKey path,
+        View view,
+        BatchSchema schema,
+        List<String> primaryKey,
+        int weight) {
+      this.tag = tag;
+      this.path = path;
+      this.view = view;
+      this.schema = schema;
+      this.primaryKey = primaryKey;
+      this.weight = weight;
+    }
+
+    @Nullable
+    View getView() {
+      return view;
+    }
+
+    @Nullable
+    BatchSchema getSchema() {
+      return schema;
+    }
+
+    @Nullable
+    List<String> getPrimaryKey() {
+      return primaryKey;
+    }
+  }
+
+  private static final class Key {
+    private final String datasetId;
+    private final boolean viewSchema;
+
+    private Key(String datasetId, boolean viewSchema) {
+      this.datasetId = datasetId;
+      this.viewSchema = viewSchema;
+    }
+
+    // configs not saved in the namespace have neither id nor tag and are not cached
+    @Nullable
+    private static Key of(DatasetConfig config, boolean viewSchema) {
+      if (config.getId() == null || config.getId().getId() == null || config.getTag() == null) {
+        return null;
+      }
+      return new Key(config.getId().getId(), viewSchema);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return viewSchema == key.viewSchema && datasetId.equals(key.datasetId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(datasetId, viewSchema);
+    }
+  }
+}
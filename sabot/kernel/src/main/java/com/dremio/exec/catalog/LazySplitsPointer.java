@@ -17,12 +17,12 @@ package com.dremio.exec.catalog;
 
 import com.dremio.datastore.SearchTypes.SearchQuery;
 import com.dremio.exec.store.SplitsPointer;
-import com.dremio.service.namespace.DelegatingPartitionChunkMetadata;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.namespace.PartitionChunkMetadata;
-import com.dremio.service.namespace.dataset.proto.PartitionProtobuf;
-import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.AbstractIterator;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
 
 /**
  * Base class to {@code SplitPointer} types whose data is loaded lazily until {@code
@@ -31,12 +31,13 @@ import com.google.common.collect.Iterables;
 abstract class LazySplitsPointer extends AbstractSplitsPointer {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(LazySplitsPointer.class);
+  // chunks read ahead of the one consumed, the size of the batches the splits are fetched in
+  private static final int PREFETCH_CHUNKS = 100;
 
   private final NamespaceService namespaceService;
   private final long splitVersion;
   private final int totalSplitCount;
   private volatile Iterable<PartitionChunkMetadata> splitsIterable;
-  private volatile boolean mayGetDataSplitsFired;
 
   protected LazySplitsPointer(
       NamespaceService namespaceService, long splitVersion, int totalSplitCount) {
@@ -75,11 +76,16 @@ abstract class LazySplitsPointer extends AbstractSplitsPointer {
 
   protected abstract Iterable<PartitionChunkMetadata> findSplits();
 
+  /**
+   * The chunks are not kept by the pointer: each iteration reads them from the store, in a single
+   * pass.
+   */
   @Override
   public Iterable<PartitionChunkMetadata> getPartitionChunks() {
     if (splitsIterable == null) {
       // Re-using the iterable allows for caching/batching in the underlying implementation.
-      splitsIterable = Iterables.transform(findSplits(), InterceptingPartitionChunkMetadata::new);
+      final Iterable<PartitionChunkMetadata> chunks = findSplits();
+      splitsIterable = () -> new PrefetchingIterator(chunks.iterator());
     }
     return splitsIterable;
   }
@@ -89,28 +95,27 @@ abstract class LazySplitsPointer extends AbstractSplitsPointer {
     return totalSplitCount;
   }
 
-  private void checkAndFireMayGetDataSplits() {
-    if (mayGetDataSplitsFired) {
-      return;
-    }
-
-    Preconditions.checkNotNull(splitsIterable);
-    for (PartitionChunkMetadata partitionChunkMetadata : splitsIterable) {
-      partitionChunkMetadata.mayGetDatasetSplits();
-    }
-    mayGetDataSplitsFired = true;
-  }
+  /**
+   * Reads the chunks a window ahead of the one returned and tells them that their splits may be
+   * asked for, so that the splits of the chunks of a window are fetched in a single batch.
+   */
+  private static final class PrefetchingIterator extends AbstractIterator<PartitionChunkMetadata> {
+    private final Iterator<PartitionChunkMetadata> chunks;
+    private final Queue<PartitionChunkMetadata> window = new ArrayDeque<>(PREFETCH_CHUNKS);
 
-  private class InterceptingPartitionChunkMetadata extends DelegatingPartitionChunkMetadata {
-    InterceptingPartitionChunkMetadata(PartitionChunkMetadata inner) {
-      super(inner);
+    private PrefetchingIterator(Iterator<PartitionChunkMetadata> chunks) {
+      this.chunks = chunks;
     }
 
-    // Assume that if getDatasetSplits() is invoked for one, it will be done for the rest too.
     @Override
-    public Iterable<PartitionProtobuf.DatasetSplit> getDatasetSplits() {
-      checkAndFireMayGetDataSplits();
-      return super.getDatasetSplits();
+    protected PartitionChunkMetadata computeNext() {
+      while (window.size() < PREFETCH_CHUNKS && chunks.hasNext()) {
+        final PartitionChunkMetadata chunk = chunks.next();
+        chunk.mayGetDatasetSplits();
+        window.add(chunk);
+      }
+      final PartitionChunkMetadata next = window.poll();
+      return next != null ? next : endOfData();
     }
   }
 }
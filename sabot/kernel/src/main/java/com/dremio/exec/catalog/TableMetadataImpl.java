@@ -50,11 +50,26 @@ public class TableMetadataImpl implements TableMetadata {
       String user,
       SplitsPointer splits,
       List<String> primaryKey) {
+    this(pluginId, config, user, splits, primaryKey, null);
+  }
+
+  /**
+   * @param schema schema already deserialized from the dataset config, null to deserialize it on
+   *     first use
+   */
+  TableMetadataImpl(
+      StoragePluginId pluginId,
+      DatasetConfig config,
+      String user,
+      SplitsPointer splits,
+      List<String> primaryKey,
+      BatchSchema schema) {
     this.pluginId = Preconditions.checkNotNull(pluginId);
     this.config = config;
     this.splits = splits;
     this.user = user;
     this.primaryKey = primaryKey;
+    this.schema = schema;
   }
 
   @Override
@@ -90,7 +105,7 @@ public class TableMetadataImpl implements TableMetadata {
   public TableMetadata prune(SearchQuery partitionFilterQuery) {
     SplitsPointer splits2 = splits.prune(partitionFilterQuery);
     if (splits2 != splits) {
-      return new TableMetadataImpl(pluginId, config, user, splits2, primaryKey);
+      return new TableMetadataImpl(pluginId, config, user, splits2, primaryKey, schema);
     }
     return this;
   }
@@ -98,7 +113,7 @@ public class TableMetadataImpl implements TableMetadata {
   @Override
   public TableMetadata prune(Predicate<PartitionChunkMetadata> partitionPredicate) {
     return new TableMetadataImpl(
-        pluginId, config, user, splits.prune(partitionPredicate), primaryKey);
+        pluginId, config, user, splits.prune(partitionPredicate), primaryKey, schema);
   }
 
   @Override
@@ -108,7 +123,8 @@ public class TableMetadataImpl implements TableMetadata {
         config,
         user,
         MaterializedSplitsPointer.prune(splits, newPartitionChunks),
-        primaryKey);
+        primaryKey,
+        schema);
   }
 
   @Override
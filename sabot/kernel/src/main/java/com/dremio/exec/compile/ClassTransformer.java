@@ -23,6 +23,7 @@ import com.dremio.options.OptionManager;
 import com.dremio.options.Options;
 import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.util.function.Consumer;
 import org.codehaus.commons.compiler.CompileException;
 
 @Options
@@ -173,14 +174,49 @@ public class ClassTransformer {
       final String materializedClassName)
       throws ClassTransformationException {
     return getExtendedImplementationClass(
-        classLoader, templateDefinition, entireClass, materializedClassName);
+        classLoader, templateDefinition, entireClass, materializedClassName, null);
+  }
+
+  /**
+   * Same as {@link #getImplementationClass(QueryClassLoader, TemplateClassDefinition, String,
+   * String)}, handing the compiled bytecode to the given consumer so that it can be reused.
+   */
+  public Class<?> getImplementationClass(
+      final QueryClassLoader classLoader,
+      final TemplateClassDefinition<?> templateDefinition,
+      final String entireClass,
+      final String materializedClassName,
+      final Consumer<ClassBytes[]> compiledClassesConsumer)
+      throws ClassTransformationException {
+    return getExtendedImplementationClass(
+        classLoader,
+        templateDefinition,
+        entireClass,
+        materializedClassName,
+        compiledClassesConsumer);
+  }
+
+  /** Loads classes previously compiled for the given template, without compiling anything. */
+  public Class<?> loadImplementationClass(
+      final QueryClassLoader classLoader,
+      final TemplateClassDefinition<?> templateDefinition,
+      final String className,
+      final ClassBytes[] implementationClasses)
+      throws ClassTransformationException {
+    try {
+      return defineImplementationClass(
+          classLoader, templateDefinition, className, implementationClasses);
+    } catch (IOException | ClassNotFoundException | LinkageError e) {
+      throw new ClassTransformationException("Failure loading precompiled classes.", e);
+    }
   }
 
   private Class<?> getExtendedImplementationClass(
       final QueryClassLoader classLoader,
       final TemplateClassDefinition<?> templateDefinition,
       final String entireClass,
-      final String materializedClassName)
+      final String materializedClassName,
+      final Consumer<ClassBytes[]> compiledClassesConsumer)
       throws ClassTransformationException {
 
     try {
@@ -190,25 +226,23 @@ public class ClassTransformer {
       final ClassBytes[] implementationClasses =
           classLoader.getClassByteCode(set.generated, entireClass);
 
-      long totalBytecodeSize = 0;
-      for (ClassBytes clazz : implementationClasses) {
-        totalBytecodeSize += clazz.getBytes().length;
-        classLoader.injectByteCode(clazz.getName(), clazz.getBytes());
-      }
-
-      Class<?> c = classLoader.findClass(set.generated.dot);
-      if (templateDefinition.getExternalInterface().isAssignableFrom(c)) {
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "Done compiling (bytecode size={}, time:{} millis).",
-              DremioStringUtils.readable(totalBytecodeSize),
-              (System.nanoTime() - t1) / 1000000);
+      final Class<?> c =
+          defineImplementationClass(
+              classLoader, templateDefinition, set.generated.dot, implementationClasses);
+      if (logger.isDebugEnabled()) {
+        long totalBytecodeSize = 0;
+        for (ClassBytes clazz : implementationClasses) {
+          totalBytecodeSize += clazz.getBytes().length;
         }
-        return c;
+        logger.debug(
+            "Done compiling (bytecode size={}, time:{} millis).",
+            DremioStringUtils.readable(totalBytecodeSize),
+            (System.nanoTime() - t1) / 1000000);
       }
-
-      throw new ClassTransformationException(
-          "The requested class did not implement the expected interface.");
+      if (compiledClassesConsumer != null) {
+        compiledClassesConsumer.accept(implementationClasses);
+      }
+      return c;
     } catch (CompileException | IOException | ClassNotFoundException e) {
       if (optionManager.getOption(ExecConstants.JAVA_CODE_DUMP)) {
         logger.info(
@@ -218,4 +252,23 @@ public class ClassTransformer {
       throw new ClassTransformationException("Failure generating transformation classes.", e);
     }
   }
+
+  private static Class<?> defineImplementationClass(
+      final QueryClassLoader classLoader,
+      final TemplateClassDefinition<?> templateDefinition,
+      final String className,
+      final ClassBytes[] implementationClasses)
+      throws IOException, ClassNotFoundException, ClassTransformationException {
+    for (ClassBytes clazz : implementationClasses) {
+      classLoader.injectByteCode(clazz.getName(), clazz.getBytes());
+    }
+
+    Class<?> c = classLoader.findClass(className);
+    if (templateDefinition.getExternalInterface().isAssignableFrom(c)) {
+      return c;
+    }
+
+    throw new ClassTransformationException(
+        "The requested class did not implement the expected interface.");
+  }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time spent by {@link CodeCompiler} to get the classes generated for an operator, split between
+ * classes that had to be compiled and classes found in the persistent code cache. Classes found in
+ * the in-memory caches are not accounted for.
+ */
+public class CodeCompilationStats {
+  private final AtomicLong compiledClasses = new AtomicLong();
+  private final AtomicLong compileNanos = new AtomicLong();
+  private final AtomicLong persistentCacheHits = new AtomicLong();
+  private final AtomicLong persistentCacheNanos = new AtomicLong();
+
+  void compiled(long nanos) {
+    compiledClasses.incrementAndGet();
+    compileNanos.addAndGet(nanos);
+  }
+
+  void loadedFromPersistentCache(long nanos) {
+    persistentCacheHits.incrementAndGet();
+    persistentCacheNanos.addAndGet(nanos);
+  }
+
+  public long getCompiledClasses() {
+    return compiledClasses.get();
+  }
+
+  public long getCompileNanos() {
+    return compileNanos.get();
+  }
+
+  public long getPersistentCacheHits() {
+    return persistentCacheHits.get();
+  }
+
+  public long getPersistentCacheNanos() {
+    return persistentCacheNanos.get();
+  }
+}
@@ -23,6 +23,9 @@ import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.exec.expr.ExpressionEvalInfo;
 import com.dremio.options.OptionManager;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -30,10 +33,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class CodeCompiler {
@@ -42,10 +47,12 @@ public class CodeCompiler {
 
   private final ClassTransformer transformer;
   private final ClassCompilerSelector selector;
-  private final LoadingCache<CodeGenerator.CodeDefinition<?>, GeneratedClassEntry>
+  private final Cache<CodeGenerator.CodeDefinition<?>, GeneratedClassEntry>
       generatedCodeToCompiledClazzCache;
   private final LoadingCache<ExpressionsHolder, GeneratedClassEntryWithFunctionErrorContextSizeInfo>
       expressionsToCompiledClazzCache;
+  // optional, null when no directory is configured
+  private final PersistentCodeCache persistentCache;
 
   @SuppressWarnings("NoGuavaCacheUsage") // TODO: fix as part of DX-51884
   public CodeCompiler(final SabotConfig config, final OptionManager optionManager) {
@@ -53,15 +60,29 @@ public class CodeCompiler {
     selector = new ClassCompilerSelector(config, optionManager);
     final int cacheMaxSize = config.getInt(ExecConstants.MAX_LOADING_CACHE_SIZE_CONFIG);
     generatedCodeToCompiledClazzCache =
-        CacheBuilder.newBuilder()
-            .softValues()
-            .maximumSize(cacheMaxSize)
-            .build(new GeneratedCodeToCompiledClazzCacheLoader());
+        CacheBuilder.newBuilder().softValues().maximumSize(cacheMaxSize).build();
     expressionsToCompiledClazzCache =
         CacheBuilder.newBuilder()
             .softValues()
             .maximumSize(cacheMaxSize)
             .build(new ExpressionsToCompiledClazzCacheLoader());
+    persistentCache = createPersistentCache(config);
+  }
+
+  private static PersistentCodeCache createPersistentCache(SabotConfig config) {
+    final String path = config.getString(ExecConstants.CODE_CACHE_PATH_CONFIG);
+    if (Strings.isNullOrEmpty(path)) {
+      return null;
+    }
+    try {
+      return new PersistentCodeCache(
+          Paths.get(path),
+          config.getLong(ExecConstants.CODE_CACHE_MAX_SIZE_CONFIG),
+          config.getLong(ExecConstants.CODE_CACHE_MAX_WARMED_SIZE_CONFIG));
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Unable to use {} to persist compiled code, disabling the cache", path, e);
+      return null;
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -82,7 +103,17 @@ public class CodeCompiler {
         }
       }
       cg.generate();
-      final GeneratedClassEntry ce = generatedCodeToCompiledClazzCache.get(cg.getCodeDefinition());
+      final CodeGenerator.CodeDefinition<?> cgd = cg.getCodeDefinition();
+      final CodeCompilationStats stats = getStats(cg);
+      final GeneratedClassEntry ce =
+          generatedCodeToCompiledClazzCache.get(
+              cgd,
+              () -> {
+                logger.debug("In Cache load; Compile code");
+                final GeneratedClassEntry entry = new GeneratedClassEntry(compile(cgd, stats));
+                logger.debug("Exit Cache load");
+                return entry;
+              });
       return getInstances(instanceNumber, ce);
     } catch (ExecutionException
         | InstantiationException
@@ -119,6 +150,56 @@ public class CodeCompiler {
     }
   }
 
+  private static CodeCompilationStats getStats(CodeGenerator<?> cg) {
+    return cg.getFunctionContext() != null
+        ? cg.getFunctionContext().getCodeCompilationStats()
+        : null;
+  }
+
+  /**
+   * Compiles the given code, or loads the classes compiled for the same code from the persistent
+   * cache if there is one.
+   */
+  private Class<?> compile(final CodeGenerator.CodeDefinition<?> cgd, CodeCompilationStats stats)
+      throws ClassTransformationException {
+    final String key = persistentCache != null ? persistentCache.getKey(cgd) : null;
+    if (key != null) {
+      final Stopwatch watch = Stopwatch.createStarted();
+      final PersistentCodeCache.CachedClasses cached = persistentCache.get(key);
+      if (cached != null) {
+        try {
+          final Class<?> c =
+              transformer.loadImplementationClass(
+                  new QueryClassLoader(selector),
+                  cgd.getDefinition(),
+                  cached.getClassName(),
+                  cached.getClasses());
+          if (stats != null) {
+            stats.loadedFromPersistentCache(watch.elapsed(TimeUnit.NANOSECONDS));
+          }
+          return c;
+        } catch (ClassTransformationException e) {
+          logger.warn("Unable to load cached classes {}, compiling them again", key, e);
+        }
+      }
+    }
+
+    final Stopwatch watch = Stopwatch.createStarted();
+    final Class<?> c =
+        transformer.getImplementationClass(
+            new QueryClassLoader(selector),
+            cgd.getDefinition(),
+            cgd.getGeneratedCode(),
+            cgd.getMaterializedClassName(),
+            key == null
+                ? null
+                : classes -> persistentCache.put(key, cgd.getMaterializedClassName(), classes));
+    if (stats != null) {
+      stats.compiled(watch.elapsed(TimeUnit.NANOSECONDS));
+    }
+    return c;
+  }
+
   private <T> List<T> getInstances(int instanceNumber, GeneratedClassEntry ce)
       throws InstantiationException,
           IllegalAccessException,
@@ -141,7 +222,6 @@ public class CodeCompiler {
     @Override
     public GeneratedClassEntryWithFunctionErrorContextSizeInfo load(
         final ExpressionsHolder expressionsHolder) throws Exception {
-      final QueryClassLoader loader = new QueryClassLoader(selector);
       ClassGenerator<?> rootGenerator = expressionsHolder.cg.getRoot();
       // adjust count as the root generator is per operator while the cache entry is per split. So
       // cached counts
@@ -150,10 +230,7 @@ public class CodeCompiler {
       CodeGenerator<?> cg = expressionsHolder.cg;
       cg.getRoot().evaluateAllLazyExps();
       cg.generate();
-      final CodeGenerator.CodeDefinition<?> cgd = cg.getCodeDefinition();
-      final Class<?> c =
-          transformer.getImplementationClass(
-              loader, cgd.getDefinition(), cgd.getGeneratedCode(), cgd.getMaterializedClassName());
+      final Class<?> c = compile(cg.getCodeDefinition(), getStats(cg));
       final GeneratedClassEntryWithFunctionErrorContextSizeInfo ce =
           new GeneratedClassEntryWithFunctionErrorContextSizeInfo(
               c, rootGenerator.getFunctionErrorContextsCount() - currentCount);
@@ -162,20 +239,6 @@ public class CodeCompiler {
     }
   }
 
-  private class GeneratedCodeToCompiledClazzCacheLoader
-      extends CacheLoader<CodeGenerator.CodeDefinition<?>, GeneratedClassEntry> {
-    @Override
-    public GeneratedClassEntry load(final CodeGenerator.CodeDefinition<?> cgd) throws Exception {
-      logger.debug("In Cache load; Compile code");
-      final QueryClassLoader loader = new QueryClassLoader(selector);
-      final Class<?> c =
-          transformer.getImplementationClass(
-              loader, cgd.getDefinition(), cgd.getGeneratedCode(), cgd.getMaterializedClassName());
-      logger.debug("Exit Cache load");
-      return new GeneratedClassEntry(c);
-    }
-  }
-
   private static class GeneratedClassEntry {
     private final Class<?> clazz;
 
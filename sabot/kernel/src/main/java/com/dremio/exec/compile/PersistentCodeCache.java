@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import com.dremio.common.util.DremioVersionInfo;
+import com.dremio.exec.expr.CodeGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk tier behind the in-memory caches of {@link CodeCompiler}, so that a restarted executor
+ * doesn't have to compile again the classes it generated before.
+ *
+ * <p>Each compiled class is stored in its own file named after a hash of the generated code, of
+ * the template it extends and of a fingerprint of the running Dremio and Java versions, so that
+ * files written by another version are never loaded. On startup the most recent files are read in
+ * the background to warm an in-memory cache of class bytes, bounded by its own size limit. The
+ * other files are read from disk when their classes are requested.
+ */
+class PersistentCodeCache {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(PersistentCodeCache.class);
+
+  private static final int MAGIC = 0x44434331; // DCC1
+  private static final String SUFFIX = ".classes";
+  private static final String TMP_SUFFIX = ".tmp";
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final long maxWarmedBytes;
+  private final String fingerprint;
+  private final Cache<String, CachedClasses> warmed;
+  private final ConcurrentMap<String, String> templateFingerprints = new ConcurrentHashMap<>();
+  private final AtomicLong sizeOnDisk = new AtomicLong();
+  private final Thread warmer;
+
+  PersistentCodeCache(Path directory, long maxSizeBytes, long maxWarmedBytes) throws IOException {
+    this(directory, maxSizeBytes, maxWarmedBytes, defaultFingerprint());
+  }
+
+  @VisibleForTesting
+  PersistentCodeCache(Path directory, long maxSizeBytes, long maxWarmedBytes, String fingerprint)
+      throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.maxSizeBytes = maxSizeBytes;
+    this.maxWarmedBytes = maxWarmedBytes;
+    this.fingerprint = fingerprint;
+    this.warmed =
+        Caffeine.newBuilder()
+            .maximumWeight(maxWarmedBytes)
+            .weigher((String key, CachedClasses classes) -> classes.getWeight())
+            .build();
+    this.warmer = new Thread(this::warm, "code-cache-warmer");
+    warmer.setDaemon(true);
+    warmer.start();
+  }
+
+  private static String defaultFingerprint() {
+    return DremioVersionInfo.getVersion()
+        + "/"
+        + System.getProperty("java.specification.version");
+  }
+
+  /** Key of the classes compiled out of the given code definition */
+  String getKey(CodeGenerator.CodeDefinition<?> cgd) {
+    final TemplateClassDefinition<?> definition = cgd.getDefinition();
+    final Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(fingerprint, StandardCharsets.UTF_8);
+    hasher.putString(definition.getTemplateClassName(), StandardCharsets.UTF_8);
+    hasher.putString(getTemplateFingerprint(definition), StandardCharsets.UTF_8);
+    hasher.putString(cgd.getGenerifiedCode(), StandardCharsets.UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Templates can change between two builds of the same version, make sure that classes compiled
+   * against a different template are not loaded.
+   */
+  private String getTemplateFingerprint(TemplateClassDefinition<?> definition) {
+    return templateFingerprints.computeIfAbsent(
+        definition.getTemplateClassName(),
+        name -> {
+          final String resource = name.replace('.', '/') + ".class";
+          try (InputStream is =
+              definition.getExternalInterface().getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+              return "";
+            }
+            return Hashing.sha256().hashBytes(ByteStreams.toByteArray(is)).toString();
+          } catch (IOException e) {
+            logger.warn("Unable to read template class {}", name, e);
+            return "";
+          }
+        });
+  }
+
+  /**
+   * Returns the classes stored under the given key.
+   *
+   * @return the classes, or null if they are not cached.
+   */
+  CachedClasses get(String key) {
+    final CachedClasses cached = warmed.asMap().remove(key);
+    if (cached != null) {
+      // the in-memory caches of the compiler hold the class from now on
+      return cached;
+    }
+    try {
+      return read(getFile(key));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.warn("Unable to read cached classes {}, ignoring them", key, e);
+      return null;
+    }
+  }
+
+  /** Stores the classes compiled for the given key. Failures are logged and ignored. */
+  void put(String key, String className, ClassBytes[] classes) {
+    final Path file = getFile(key);
+    if (Files.exists(file)) {
+      return;
+    }
+    try {
+      final Path tmp = Files.createTempFile(directory, key, TMP_SUFFIX);
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+          out.writeInt(MAGIC);
+          out.writeUTF(fingerprint);
+          out.writeUTF(className);
+          out.writeInt(classes.length);
+          for (ClassBytes clazz : classes) {
+            out.writeUTF(clazz.getName());
+            out.writeInt(clazz.getBytes().length);
+            out.write(clazz.getBytes());
+          }
+        }
+        final long size = Files.size(tmp);
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        if (sizeOnDisk.addAndGet(size) > maxSizeBytes) {
+          prune();
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException e) {
+      logger.warn("Unable to persist compiled classes for {}", className, e);
+    }
+  }
+
+  private Path getFile(String key) {
+    return directory.resolve(key + SUFFIX);
+  }
+
+  private static CachedClasses read(Path file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Unexpected content in " + file);
+      }
+      in.readUTF(); // fingerprint, part of the key
+      final String className = in.readUTF();
+      final ClassBytes[] classes = new ClassBytes[in.readInt()];
+      for (int i = 0; i < classes.length; i++) {
+        final String name = in.readUTF();
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        classes[i] = new ClassBytes(name, bytes);
+      }
+      return new CachedClasses(className, classes);
+    }
+  }
+
+  private List<Path> listFiles() throws IOException {
+    final List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      stream.forEach(files::add);
+    }
+    return files;
+  }
+
+  private static long lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Loads the most recent files in memory up to the in-memory limit, and removes the ones that
+   * don't fit in the cache.
+   */
+  private void warm() {
+    try {
+      final List<Path> files = listFiles();
+      files.sort(Comparator.comparingLong(PersistentCodeCache::lastModified).reversed());
+      long size = 0;
+      long loadedSize = 0;
+      int loaded = 0;
+      for (Path file : files) {
+        final long fileSize = Files.size(file);
+        if (size + fileSize > maxSizeBytes) {
+          Files.deleteIfExists(file);
+          continue;
+        }
+        size += fileSize;
+        if (loadedSize + fileSize > maxWarmedBytes) {
+          // left on disk, read when requested
+          continue;
+        }
+        final String name = file.getFileName().toString();
+        final String key = name.substring(0, name.length() - SUFFIX.length());
+        try {
+          warmed.asMap().putIfAbsent(key, read(file));
+          loadedSize += fileSize;
+          loaded++;
+        } catch (IOException e) {
+          logger.debug("Removing unreadable cached classes {}", file, e);
+          Files.deleteIfExists(file);
+          size -= fileSize;
+        }
+      }
+      sizeOnDisk.addAndGet(size);
+      logger.info(
+          "Loaded {} cached classes ({} bytes) from {}, {} bytes on disk",
+          loaded,
+          loadedSize,
+          directory,
+          size);
+    } catch (IOException e) {
+      logger.warn("Unable to load cached classes from {}", directory, e);
+    }
+  }
+
+  /** Removes the oldest files until the cache is back to 90% of its size. */
+  private synchronized void prune() throws IOException {
+    if (sizeOnDisk.get() <= maxSizeBytes) {
+      return;
+    }
+    final List<Path> files = listFiles();
+    files.sort(Comparator.comparingLong(PersistentCodeCache::lastModified));
+    final long target = maxSizeBytes / 10 * 9;
+    for (Path file : files) {
+      if (sizeOnDisk.get() <= target) {
+        break;
+      }
+      final long size = Files.size(file);
+      if (Files.deleteIfExists(file)) {
+        sizeOnDisk.addAndGet(-size);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  void awaitWarmup() throws InterruptedException {
+    warmer.join();
+  }
+
+  @VisibleForTesting
+  long getWarmedCount() {
+    warmed.cleanUp();
+    return warmed.estimatedSize();
+  }
+
+  /** Compiled classes, along with the name of the generated class among them */
+  static final class CachedClasses {
+    private final String className;
+    private final ClassBytes[] classes;
+
+    CachedClasses(String className, ClassBytes[] classes) {
+      this.className = className;
+      this.classes = classes;
+    }
+
+    String getClassName() {
+      return className;
+    }
+
+    ClassBytes[] getClasses() {
+      return classes;
+    }
+
+    /** Size of the class bytes, to bound the memory used by the warmed classes */
+    private int getWeight() {
+      long weight = 0;
+      for (ClassBytes clazz : classes) {
+        weight += clazz.getBytes().length;
+      }
+      return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+  }
+}
@@ -22,6 +22,7 @@ import com.dremio.common.expression.CompleteType;
 import com.dremio.common.expression.ErrorCollector;
 import com.dremio.common.expression.ErrorCollectorImpl;
 import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.compile.CodeCompilationStats;
 import com.dremio.exec.compile.CodeCompiler;
 import com.dremio.exec.compile.TemplateClassDefinition;
 import com.dremio.exec.expr.fn.FunctionErrorContext;
@@ -160,6 +161,8 @@ public class ClassProducerImpl implements ClassProducer {
 
     private final List<FunctionErrorContext> errorContexts;
 
+    private final CodeCompilationStats codeCompilationStats = new CodeCompilationStats();
+
     public ProducerFunctionContext() {
       this.constantValueHolderCache = Maps.newHashMap();
       this.errorContexts = Lists.newArrayList();
@@ -254,6 +257,11 @@ public class ClassProducerImpl implements ClassProducer {
       return compilationOptions;
     }
 
+    @Override
+    public CodeCompilationStats getCodeCompilationStats() {
+      return codeCompilationStats;
+    }
+
     @Override
     public PartitionStatsValue getSurvivingRowCountWithPruneFilter(
         FilterableScan scan, PruneFilterCondition pruneCondition) {
@@ -37,6 +37,7 @@ public class HashAggregate extends AbstractSingle {
   private final boolean useSpill;
   private final float cardinality;
   private final int hashTableBatchSize;
+  private final boolean partial;
 
   /* testing related parameters */
   private VectorizedHashAggSpillStats spillStats;
@@ -50,7 +51,8 @@ public class HashAggregate extends AbstractSingle {
       @JsonProperty("vectorize") boolean vectorize,
       @JsonProperty("useSpill") boolean useSpill,
       @JsonProperty("cardinality") float cardinality,
-      @JsonProperty("hashTableBatchSize") int hashTableBatchSize) {
+      @JsonProperty("hashTableBatchSize") int hashTableBatchSize,
+      @JsonProperty("partial") boolean partial) {
     super(props, child);
     this.groupByExprs = groupByExprs;
     this.aggrExprs = aggrExprs;
@@ -58,6 +60,28 @@ public class HashAggregate extends AbstractSingle {
     this.useSpill = useSpill;
     this.cardinality = cardinality;
     this.hashTableBatchSize = hashTableBatchSize;
+    this.partial = partial;
+  }
+
+  public HashAggregate(
+      OpProps props,
+      PhysicalOperator child,
+      List<NamedExpression> groupByExprs,
+      List<NamedExpression> aggrExprs,
+      boolean vectorize,
+      boolean useSpill,
+      float cardinality,
+      int hashTableBatchSize) {
+    this(
+        props,
+        child,
+        groupByExprs,
+        aggrExprs,
+        vectorize,
+        useSpill,
+        cardinality,
+        hashTableBatchSize,
+        false);
   }
 
   public HashAggregate(
@@ -108,7 +132,15 @@ public class HashAggregate extends AbstractSingle {
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
     return new HashAggregate(
-        props, child, groupByExprs, aggrExprs, vectorize, useSpill, cardinality);
+        props,
+        child,
+        groupByExprs,
+        aggrExprs,
+        vectorize,
+        useSpill,
+        cardinality,
+        props.getTargetBatchSize(),
+        partial);
   }
 
   @Override
@@ -120,6 +152,11 @@ public class HashAggregate extends AbstractSingle {
     return hashTableBatchSize;
   }
 
+  /** Whether this is the first phase of a two phase aggregation, merged again after an exchange. */
+  public boolean isPartial() {
+    return partial;
+  }
+
   @VisibleForTesting
   public VectorizedHashAggSpillStats getSpillStats() {
     return spillStats;
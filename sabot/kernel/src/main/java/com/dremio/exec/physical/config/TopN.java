@@ -29,6 +29,13 @@ import java.util.List;
 public class TopN extends AbstractSort {
 
   private final int limit;
+  // scan of the fragment the first sort key comes from, null if there is none
+  private final RuntimeFilterProbeTarget runtimeFilterProbeTarget;
+
+  public TopN(
+      OpProps props, PhysicalOperator child, int limit, List<Ordering> orderings, boolean reverse) {
+    this(props, child, limit, orderings, reverse, null);
+  }
 
   @JsonCreator
   public TopN(
@@ -36,9 +43,11 @@ public class TopN extends AbstractSort {
       @JsonProperty("child") PhysicalOperator child,
       @JsonProperty("limit") int limit,
       @JsonProperty("orderings") List<Ordering> orderings,
-      @JsonProperty("reverse") boolean reverse) {
+      @JsonProperty("reverse") boolean reverse,
+      @JsonProperty("runtimeFilterProbeTarget") RuntimeFilterProbeTarget runtimeFilterProbeTarget) {
     super(props, child, orderings, reverse);
     this.limit = limit;
+    this.runtimeFilterProbeTarget = runtimeFilterProbeTarget;
   }
 
   @Override
@@ -55,6 +64,14 @@ public class TopN extends AbstractSort {
     return limit;
   }
 
+  /**
+   * @return the scan the operator sends the boundary of the rows it keeps to, the sort key of the
+   *     operator and the column of the scan it comes from being the non partition keys
+   */
+  public RuntimeFilterProbeTarget getRuntimeFilterProbeTarget() {
+    return runtimeFilterProbeTarget;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value)
       throws E {
@@ -63,7 +80,7 @@ public class TopN extends AbstractSort {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new TopN(props, child, limit, orderings, reverse);
+    return new TopN(props, child, limit, orderings, reverse, runtimeFilterProbeTarget);
   }
 
   @Override
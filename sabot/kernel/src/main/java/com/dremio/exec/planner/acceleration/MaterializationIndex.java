@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.acceleration;
+
+import com.dremio.catalog.model.dataset.TableVersionContext;
+import com.dremio.exec.calcite.logical.ScanCrel;
+import com.dremio.exec.planner.RoutingShuttle;
+import com.dremio.exec.planner.acceleration.descriptor.ExpandedMaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.descriptor.MaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.ExternalQueryDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.VersionedPath;
+import com.dremio.exec.tablefunctions.ExternalQueryScanCrel;
+import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.TableScan;
+
+/**
+ * Inverted index of the tables, views and external queries used by the plans of expanded
+ * materializations. It finds the materializations a query may be accelerated by without walking
+ * the plan of every materialization: a materialization is a candidate when its plan uses one of
+ * the tables, views or external queries of the query, as {@link
+ * MaterializationDescriptor#isApplicable} checks. Materializations that are not expanded are
+ * always candidates.
+ *
+ * <p>The index is immutable. It is rebuilt when the materializations change, reusing the keys of
+ * the descriptors already indexed.
+ */
+public final class MaterializationIndex {
+  public static final MaterializationIndex EMPTY =
+      new MaterializationIndex(ImmutableList.of(), null);
+
+  private final List<MaterializationDescriptor> descriptors;
+  private final Map<MaterializationDescriptor, Keys> keys = new IdentityHashMap<>();
+  // descriptors using each table, view and external query, by position in descriptors
+  private final Map<VersionedPath, BitSet> tables = new HashMap<>();
+  private final Map<VersionedPath, BitSet> views = new HashMap<>();
+  private final Map<ExternalQueryDescriptor, BitSet> externalQueries = new HashMap<>();
+  private final BitSet unindexed = new BitSet();
+
+  private MaterializationIndex(
+      List<MaterializationDescriptor> descriptors, MaterializationIndex previous) {
+    this.descriptors = descriptors;
+    for (int i = 0; i < descriptors.size(); i++) {
+      final MaterializationDescriptor descriptor = descriptors.get(i);
+      if (!(descriptor instanceof ExpandedMaterializationDescriptor)) {
+        unindexed.set(i);
+        continue;
+      }
+      Keys descriptorKeys = previous != null ? previous.keys.get(descriptor) : null;
+      if (descriptorKeys == null) {
+        descriptorKeys =
+            Keys.of(((ExpandedMaterializationDescriptor) descriptor).getMaterialization());
+      }
+      keys.put(descriptor, descriptorKeys);
+      add(tables, descriptorKeys.tables, i);
+      add(views, descriptorKeys.views, i);
+      add(externalQueries, descriptorKeys.externalQueries, i);
+    }
+  }
+
+  /**
+   * Indexes the descriptors.
+   *
+   * @param descriptors the descriptors, in the order the candidates are returned
+   * @param previous index the keys of the descriptors are reused from, may be null
+   */
+  public static MaterializationIndex create(
+      Iterable<? extends MaterializationDescriptor> descriptors, MaterializationIndex previous) {
+    return new MaterializationIndex(ImmutableList.copyOf(descriptors), previous);
+  }
+
+  private static <K> void add(Map<K, BitSet> postings, Set<K> descriptorKeys, int position) {
+    for (K key : descriptorKeys) {
+      postings.computeIfAbsent(key, k -> new BitSet()).set(position);
+    }
+  }
+
+  private static <K> void collect(Map<K, BitSet> postings, Set<K> queryKeys, BitSet candidates) {
+    for (K key : queryKeys) {
+      final BitSet positions = postings.get(key);
+      if (positions != null) {
+        candidates.or(positions);
+      }
+    }
+  }
+
+  /**
+   * @return the descriptors whose plan uses one of the given tables, views or external queries,
+   *     and the descriptors not expanded, in the order they were indexed
+   */
+  public List<MaterializationDescriptor> getCandidates(
+      Set<VersionedPath> queryTables,
+      Set<VersionedPath> queryViews,
+      Set<ExternalQueryDescriptor> queryExternalQueries) {
+    final BitSet candidates = (BitSet) unindexed.clone();
+    collect(tables, queryTables, candidates);
+    collect(views, queryViews, candidates);
+    collect(externalQueries, queryExternalQueries, candidates);
+
+    final ImmutableList.Builder<MaterializationDescriptor> builder = ImmutableList.builder();
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      builder.add(descriptors.get(i));
+    }
+    return builder.build();
+  }
+
+  /** @return whether the plan of the descriptor was indexed */
+  public boolean isIndexed(MaterializationDescriptor descriptor) {
+    return keys.containsKey(descriptor);
+  }
+
+  /** @return number of descriptors indexed */
+  public int size() {
+    return descriptors.size();
+  }
+
+  /** Tables, views and external queries used by the plan of a materialization */
+  private static final class Keys {
+    private final Set<VersionedPath> tables = new HashSet<>();
+    private final Set<VersionedPath> views = new HashSet<>();
+    private final Set<ExternalQueryDescriptor> externalQueries = new HashSet<>();
+
+    // visits the plan the same way as SubstitutionUtils.usesTableOrVds
+    private static Keys of(DremioMaterialization materialization) {
+      final Keys keys = new Keys();
+      materialization
+          .getQueryRel()
+          .accept(
+              new RoutingShuttle() {
+                @Override
+                public RelNode visit(TableScan scan) {
+                  TableVersionContext versionContext = null;
+                  if (scan instanceof ScanCrel) {
+                    versionContext = ((ScanCrel) scan).getTableMetadata().getVersionContext();
+                  }
+                  keys.tables.add(
+                      VersionedPath.of(scan.getTable().getQualifiedName(), versionContext));
+                  return scan;
+                }
+
+                @Override
+                public RelNode visit(RelNode other) {
+                  if (other instanceof ExternalQueryScanCrel) {
+                    keys.externalQueries.add(
+                        SubstitutionUtils.descriptor((ExternalQueryScanCrel) other));
+                  }
+                  if (other instanceof ExpansionNode) {
+                    keys.views.add(VersionedPath.of((ExpansionNode) other));
+                  }
+                  return super.visit(other);
+                }
+              });
+      return keys;
+    }
+  }
+}
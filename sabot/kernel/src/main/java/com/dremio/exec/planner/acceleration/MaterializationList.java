@@ -25,6 +25,7 @@ import com.dremio.exec.server.MaterializationDescriptorProvider;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.calcite.rel.RelNode;
 
@@ -120,6 +122,7 @@ public class MaterializationList implements MaterializationProvider {
       return ImmutableList.of();
     }
 
+    final Stopwatch stopwatch = Stopwatch.createStarted();
     final Set<SubstitutionUtils.VersionedPath> queryTablesUsed =
         SubstitutionUtils.findTables(userQueryNode);
     final Set<SubstitutionUtils.VersionedPath> queryVdsUsed =
@@ -131,7 +134,11 @@ public class MaterializationList implements MaterializationProvider {
     final Set<String> inclusions = getInclusions();
     final boolean hasInclusions = !inclusions.isEmpty();
     final List<DremioMaterialization> materializations = Lists.newArrayList();
-    for (final MaterializationDescriptor descriptor : provider.get()) {
+    final List<MaterializationDescriptor> candidates =
+        isCandidateIndexEnabled()
+            ? provider.get(queryTablesUsed, queryVdsUsed, externalQueries)
+            : provider.get();
+    for (final MaterializationDescriptor descriptor : candidates) {
 
       if ((hasInclusions && !inclusions.contains(descriptor.getLayoutId()))
           || exclusions.contains(descriptor.getLayoutId())
@@ -168,6 +175,16 @@ public class MaterializationList implements MaterializationProvider {
       }
     }
     this.materializations = materializations;
+
+    final long millisTaken = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+    logger.debug(
+        "Considered {} of {} candidate materializations in {} ms",
+        materializations.size(),
+        candidates.size(),
+        millisTaken);
+    if (converter.getObserver() != null) {
+      converter.getObserver().planFindMaterializations(millisTaken);
+    }
     return materializations;
   }
 
@@ -197,6 +214,13 @@ public class MaterializationList implements MaterializationProvider {
     return converter.getFunctionContext().getOptions().getOption(PlannerSettings.NO_REFLECTIONS);
   }
 
+  public boolean isCandidateIndexEnabled() {
+    return converter
+        .getFunctionContext()
+        .getOptions()
+        .getOption(PlannerSettings.REFLECTION_CANDIDATE_INDEX_ENABLED);
+  }
+
   public boolean isCurrentIcebergDataOnly() {
     return converter
         .getFunctionContext()
@@ -41,9 +41,11 @@ public class PlannerMetrics {
 
   public static final String PLAN_CACHE_SYNC = "plan_cache_sync";
   public static final String PLAN_CACHE_ENTRIES = "plan_cache_entries";
+  public static final String PLAN_CACHE_LOOKUPS = "plan_cache_lookups";
   public static final String AMBIGUOUS_COLUMN = "ambiguous_column";
   // Metric tags
   public static final String TAG_REASON = "reason";
+  public static final String TAG_RESULT = "result";
   public static final String ERROR_TYPE_KEY = "error_type";
   public static final String ERROR_ORIGIN_KEY = "error_origin";
   public static final String WORKLOAD_TYPE_KEY = "workload_type";
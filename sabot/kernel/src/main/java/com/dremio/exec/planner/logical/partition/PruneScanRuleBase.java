@@ -691,6 +691,8 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
           "Partition pruning using search index took {} ms",
           stopwatch.elapsed(TimeUnit.MILLISECONDS));
       final boolean evalPruned;
+      // null when the splits were only pruned with the search index: they are then left in the
+      // store, to be streamed from the pruned pointer rather than copied into the plan
       final List<PartitionChunkMetadata> finalNewSplits;
       if (!outputCondition.value.isAlwaysTrue()) {
         // do interpreter-based evaluation
@@ -713,7 +715,7 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
             "Partition pruning using expression evaluation took {} ms",
             stopwatch.elapsed(TimeUnit.MILLISECONDS));
       } else {
-        finalNewSplits = ImmutableList.copyOf(dataset.value.getSplits());
+        finalNewSplits = null;
         evalPruned = false;
       }
 
@@ -762,8 +764,11 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
           // filter changed but scan did not. avoid generating another scan
           inputRel = scanRel;
         }
-      } else if (finalNewSplits.isEmpty()) {
-        // no splits left, replace with an empty rel.
+      } else if (finalNewSplits != null
+          ? finalNewSplits.isEmpty()
+          : dataset.value.getSplitCount() == 0) {
+        // no splits left, replace with an empty rel. The split count of the pruned pointer was
+        // computed when pruning, the chunks are not read again to find out.
         inputRel =
             new EmptyRel(
                 scanRel.getCluster(),
@@ -772,7 +777,9 @@ public abstract class PruneScanRuleBase<T extends ScanRelBase & PruneableScan> e
                 scanRel.getProjectedSchema());
       } else {
         // some splits but less than original.
-        inputRel = scanRel.applyDatasetPointer(dataset.value.prune(finalNewSplits));
+        inputRel =
+            scanRel.applyDatasetPointer(
+                finalNewSplits != null ? dataset.value.prune(finalNewSplits) : dataset.value);
       }
 
       if (hasSampleRel) {
@@ -260,7 +260,9 @@ public class HashAggMemoryEstimator {
   }
 
   private int computeForAuxStructures() {
-    return memFixedBlockSinglePartition + memVariableBlockSinglePartition;
+    return memFixedBlockSinglePartition
+        + memVariableBlockSinglePartition
+        + Numbers.nextPowerOfTwo(hashTableBatchSize * VectorizedHashAggOperator.HASH_VALUE_WIDTH);
   }
 
   private int computeForOrdinals() {
@@ -392,6 +392,10 @@ public class PlannerSettings implements Context {
       new StringValidator("reflections.planning.choose_reflections", "");
   public static final BooleanValidator NO_REFLECTIONS =
       new BooleanValidator("reflections.planning.no_reflections", false);
+  // Look up the reflections using the tables, views and external queries of the query through an
+  // index instead of checking the plan of every reflection
+  public static final BooleanValidator REFLECTION_CANDIDATE_INDEX_ENABLED =
+      new BooleanValidator("reflections.planning.candidate_index.enabled", true);
   public static final BooleanValidator CURRENT_ICEBERG_DATA_ONLY =
       new BooleanValidator("reflections.planning.current_iceberg_data_only", false);
 
@@ -699,6 +703,10 @@ public class PlannerSettings implements Context {
   public static final BooleanValidator QUERY_PLAN_CACHE_ENABLED_SECURED_USER_BASED_CACHING =
       new BooleanValidator("planner.query_plan_cache_enabled_secured_user_based_caching", true);
 
+  /** Share plan cache invalidations, like ALTER SYSTEM CLEAR PLAN CACHE, across coordinators */
+  public static final BooleanValidator QUERY_PLAN_CACHE_SHARED_INVALIDATION =
+      new BooleanValidator("planner.query_plan_cache_shared_invalidation", true);
+
   public static final BooleanValidator REFLECTION_ROUTING_INHERITANCE_ENABLED =
       new BooleanValidator("planner.reflection_routing_inheritance_enabled", false);
 
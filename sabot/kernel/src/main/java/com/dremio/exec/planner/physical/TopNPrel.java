@@ -16,11 +16,14 @@
 package com.dremio.exec.planner.physical;
 
 import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.config.RuntimeFilterProbeTarget;
 import com.dremio.exec.physical.config.TopN;
 import com.dremio.exec.planner.cost.DremioCost;
 import com.dremio.exec.planner.cost.DremioCost.Factory;
+import com.dremio.exec.planner.physical.explain.PrelSequencer;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.options.Options;
+import com.dremio.options.TypeValidators.BooleanValidator;
 import com.dremio.options.TypeValidators.LongValidator;
 import com.dremio.options.TypeValidators.PositiveLongValidator;
 import java.io.IOException;
@@ -33,6 +36,8 @@ import org.apache.calcite.rel.RelCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelWriter;
 import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
 
 @Options
 public class TopNPrel extends SinglePrel {
@@ -41,6 +46,9 @@ public class TopNPrel extends SinglePrel {
       new PositiveLongValidator("planner.op.topn.reserve_bytes", Long.MAX_VALUE, DEFAULT_RESERVE);
   public static final LongValidator LIMIT =
       new PositiveLongValidator("planner.op.topn.limit_bytes", Long.MAX_VALUE, DEFAULT_LIMIT);
+  // Send the boundary of the rows kept by the operator to the scan of its fragment
+  public static final BooleanValidator RUNTIME_FILTER =
+      new BooleanValidator("planner.op.topn.runtime_filter", true);
 
   protected int limit;
   protected final RelCollation collation;
@@ -77,7 +85,46 @@ public class TopNPrel extends SinglePrel {
         childPOP,
         limit,
         PrelUtil.getOrdering(this.collation, getInput().getRowType()),
-        false);
+        false,
+        creator.getOptionManager().getOption(RUNTIME_FILTER) ? findProbeTarget(creator) : null);
+  }
+
+  /**
+   * Finds the scan the first sort key comes from, if it runs in the fragment of this TopN: the
+   * scan can skip the row groups in which no value of the key can beat the rows kept so far.
+   */
+  private RuntimeFilterProbeTarget findProbeTarget(PhysicalPlanCreator creator) {
+    if (collation.getFieldCollations().isEmpty()) {
+      return null;
+    }
+    int index = collation.getFieldCollations().get(0).getFieldIndex();
+    final String sortField = getInput().getRowType().getFieldNames().get(index);
+    RelNode rel = getInput();
+    while (true) {
+      if (rel instanceof ProjectPrel) {
+        final RexNode project = ((ProjectPrel) rel).getProjects().get(index);
+        if (!(project instanceof RexInputRef)) {
+          return null;
+        }
+        index = ((RexInputRef) project).getIndex();
+      } else if (!(rel instanceof FilterPrel) && !(rel instanceof SelectionVectorRemoverPrel)) {
+        break;
+      }
+      rel = rel.getInput(0);
+    }
+
+    if (!(rel instanceof ScanPrelBase)
+        && !(rel instanceof TableFunctionPrel && ((TableFunctionPrel) rel).isDataScan())) {
+      return null;
+    }
+    final PrelSequencer.OpId scanId = creator.getOpId((Prel) rel);
+    final PrelSequencer.OpId topNId = creator.getOpId(this);
+    if (scanId == null || topNId == null || scanId.getFragmentId() != topNId.getFragmentId()) {
+      return null;
+    }
+    return new RuntimeFilterProbeTarget.Builder(scanId.getFragmentId(), scanId.getAsSingleInt())
+        .addNonPartitionKey(sortField, rel.getRowType().getFieldNames().get(index))
+        .build();
   }
 
   /**
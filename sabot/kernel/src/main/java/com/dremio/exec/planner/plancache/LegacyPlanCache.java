@@ -27,7 +27,9 @@ import com.dremio.service.namespace.source.proto.SourceConfig;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.collect.Multimap;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Metrics;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,6 +40,12 @@ import org.slf4j.LoggerFactory;
 public class LegacyPlanCache implements PlanCache {
   private static final Logger LOGGER = LoggerFactory.getLogger(LegacyPlanCache.class);
 
+  private static final Meter.MeterProvider<Counter> LOOKUPS =
+      Counter.builder(
+              PlannerMetrics.createName(PlannerMetrics.PREFIX, PlannerMetrics.PLAN_CACHE_LOOKUPS))
+          .description("Plan cache lookups by workload type and result (hit, miss or stale)")
+          .withRegistry(Metrics.globalRegistry);
+
   private final Cache<String, CachedPlan> cachePlans;
   private final Multimap<String, String> datasetMap;
 
@@ -106,14 +114,30 @@ public class LegacyPlanCache implements PlanCache {
   @Override
   public @Nullable CachedPlan getIfPresentAndValid(
       SqlHandlerConfig sqlHandlerConfig, PlanCacheKey planCacheKey) {
+    final CachedPlan present =
+        cachePlans != null ? cachePlans.getIfPresent(planCacheKey.getHash()) : null;
+    final CachedPlan cachedPlan = lookup(sqlHandlerConfig, planCacheKey, present);
+    if (sqlHandlerConfig.getContext().getPlannerSettings().isPlanCacheEnabled()) {
+      final String result = cachedPlan != null ? "hit" : present != null ? "stale" : "miss";
+      LOOKUPS
+          .withTags(
+              PlannerMetrics.WORKLOAD_TYPE_KEY,
+              sqlHandlerConfig.getContext().getWorkloadType().name(),
+              PlannerMetrics.TAG_RESULT,
+              result)
+          .increment();
+    }
+    return cachedPlan;
+  }
+
+  private @Nullable CachedPlan lookup(
+      SqlHandlerConfig sqlHandlerConfig,
+      PlanCacheKey planCacheKey,
+      @Nullable CachedPlan cachedPlan) {
     CatalogService catalogService = sqlHandlerConfig.getContext().getCatalogService();
     final PlannerCatalog catalog =
         Preconditions.checkNotNull(sqlHandlerConfig.getConverter().getPlannerCatalog());
 
-    if (cachePlans == null) {
-      return null;
-    }
-    final CachedPlan cachedPlan = cachePlans.getIfPresent(planCacheKey.getHash());
     if (cachedPlan != null) {
       Iterable<DremioTable> datasets = catalog.getAllRequestedTables();
       for (DremioTable dataset : datasets) {
@@ -182,6 +206,11 @@ public class LegacyPlanCache implements PlanCache {
 
   @Override
   public void invalidateCacheOnDataset(String datasetId) {
+    invalidateLocalCacheOnDataset(datasetId);
+  }
+
+  /** Invalidates the plans of this coordinator that read the given dataset. */
+  public void invalidateLocalCacheOnDataset(String datasetId) {
     List<String> affectedCaches = datasetMap.get(datasetId).stream().collect(Collectors.toList());
     for (String cacheId : affectedCaches) {
       cachePlans.invalidate(cacheId);
@@ -196,9 +225,20 @@ public class LegacyPlanCache implements PlanCache {
 
   @Override
   public void invalidateAll() {
+    invalidateLocalCache();
+  }
+
+  /** Invalidates all the plans of this coordinator. */
+  public void invalidateLocalCache() {
     cachePlans.invalidateAll();
   }
 
+  /**
+   * Applies the invalidations made on other coordinators since the last call. Nothing to do when
+   * the cache is local to this coordinator.
+   */
+  public void syncInvalidations() {}
+
   public void clearDatasetMapOnCacheGC(String cacheId) {
     synchronized (datasetMap) {
       datasetMap.entries().removeIf(datasetMapEntry -> datasetMapEntry.getValue().equals(cacheId));
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.plancache;
+
+import com.dremio.datastore.api.LegacyKVStore;
+import com.dremio.datastore.api.LegacyKVStoreCreationFunction;
+import com.dremio.datastore.api.LegacyKVStoreProvider;
+import com.dremio.datastore.api.LegacyStoreBuildingFactory;
+import com.dremio.datastore.format.Format;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import java.util.Map;
+import javax.inject.Provider;
+
+/**
+ * KVStore of the plan cache invalidations made on any coordinator, keyed by dataset id (or {@link
+ * #ALL_DATASETS}) with the version of the last invalidation as value.
+ */
+public class PlanCacheInvalidationStore {
+  private static final String TABLE_NAME = "plan_cache_invalidations";
+
+  /** Key of the invalidations of the whole plan cache */
+  public static final String ALL_DATASETS = "*";
+
+  private final Supplier<LegacyKVStore<String, Long>> store;
+
+  public PlanCacheInvalidationStore(final Provider<LegacyKVStoreProvider> provider) {
+    Preconditions.checkNotNull(provider, "kvStore provider required");
+    store = Suppliers.memoize(() -> provider.get().getStore(StoreCreator.class));
+  }
+
+  public Long get(String key) {
+    return store.get().get(key);
+  }
+
+  public void put(String key, long version) {
+    store.get().put(key, version);
+  }
+
+  public Iterable<Map.Entry<String, Long>> find() {
+    return store.get().find();
+  }
+
+  public void delete(String key) {
+    store.get().delete(key);
+  }
+
+  /** {@link PlanCacheInvalidationStore} creator */
+  public static final class StoreCreator implements LegacyKVStoreCreationFunction<String, Long> {
+    @Override
+    public LegacyKVStore<String, Long> build(LegacyStoreBuildingFactory factory) {
+      return factory
+          .<String, Long>newStore()
+          .name(TABLE_NAME)
+          .keyFormat(Format.ofString())
+          .valueFormat(
+              Format.wrapped(Long.class, String::valueOf, Long::valueOf, Format.ofString()))
+          .build();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.plancache;
+
+import static com.dremio.exec.planner.plancache.PlanCacheInvalidationStore.ALL_DATASETS;
+
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.options.OptionResolver;
+import com.google.common.cache.Cache;
+import com.google.common.collect.Multimap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plan cache whose explicit invalidations (dataset rollbacks, ALTER SYSTEM CLEAR PLAN CACHE) are
+ * shared with the other coordinators through the {@link PlanCacheInvalidationStore}.
+ *
+ * <p>Only invalidations are distributed: the plans themselves stay in the local cache of the
+ * coordinator that planned them, and the other coordinators plan the same query again.
+ * Invalidations driven by reflection changes are not shared either, as every coordinator computes
+ * them from the reflection stores already.
+ *
+ * <p>Invalidations are ordered by the version stored with each key rather than by the clocks of the
+ * coordinators: publishing an invalidation stores a version greater than the ones in the store for
+ * the key and for {@link PlanCacheInvalidationStore#ALL_DATASETS}, and a coordinator applies every
+ * key whose version differs from the last one it saw. Two coordinators invalidating the same key at
+ * once may store the same version, which the others then apply once, as they should.
+ */
+public class SharedInvalidationPlanCache extends LegacyPlanCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedInvalidationPlanCache.class);
+
+  private final PlanCacheInvalidationStore store;
+  private final OptionResolver options;
+  // version of the last invalidation published or applied, per key
+  private final Map<String, Long> knownInvalidations = new HashMap<>();
+  private boolean baselined;
+
+  public SharedInvalidationPlanCache(
+      Cache<String, CachedPlan> cachePlans,
+      Multimap<String, String> map,
+      PlanCacheInvalidationStore store,
+      OptionResolver options) {
+    super(cachePlans, map);
+    this.store = store;
+    this.options = options;
+    try {
+      baseline();
+    } catch (RuntimeException e) {
+      LOGGER.warn("Unable to read the shared plan cache invalidations, retrying on sync", e);
+    }
+  }
+
+  /**
+   * Records the invalidations made before this coordinator started without applying them, as its
+   * plans are all more recent.
+   */
+  private synchronized void baseline() {
+    for (Map.Entry<String, Long> invalidation : store.find()) {
+      knownInvalidations.put(invalidation.getKey(), invalidation.getValue());
+    }
+    baselined = true;
+  }
+
+  @Override
+  public void invalidateCacheOnDataset(String datasetId) {
+    invalidateLocalCacheOnDataset(datasetId);
+    publish(datasetId);
+  }
+
+  @Override
+  public void invalidateAll() {
+    invalidateLocalCache();
+    publish(ALL_DATASETS);
+  }
+
+  private boolean isShared() {
+    return options.getOption(PlannerSettings.QUERY_PLAN_CACHE_SHARED_INVALIDATION);
+  }
+
+  private synchronized void publish(String key) {
+    if (!isShared()) {
+      return;
+    }
+    try {
+      final long version;
+      if (ALL_DATASETS.equals(key)) {
+        long last = 0;
+        final List<String> datasets = new ArrayList<>();
+        for (Map.Entry<String, Long> invalidation : store.find()) {
+          last = Math.max(last, invalidation.getValue());
+          if (!ALL_DATASETS.equals(invalidation.getKey())) {
+            datasets.add(invalidation.getKey());
+          }
+        }
+        version = last + 1;
+        store.put(ALL_DATASETS, version);
+        // superseded by the invalidation of the whole cache, which keeps the store small
+        for (String dataset : datasets) {
+          store.delete(dataset);
+          knownInvalidations.remove(dataset);
+        }
+      } else {
+        version = Math.max(versionOf(key), versionOf(ALL_DATASETS)) + 1;
+        store.put(key, version);
+      }
+      knownInvalidations.put(key, version);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Unable to share the invalidation of plan cache entries for {}", key, e);
+    }
+  }
+
+  private long versionOf(String key) {
+    final Long version = store.get(key);
+    return version != null ? version : 0;
+  }
+
+  /** Applies the invalidations published by other coordinators since the last call. */
+  @Override
+  public synchronized void syncInvalidations() {
+    if (!isShared()) {
+      return;
+    }
+    if (!baselined) {
+      baseline();
+      return;
+    }
+    final Set<String> current = new HashSet<>();
+    int applied = 0;
+    for (Map.Entry<String, Long> invalidation : store.find()) {
+      final String key = invalidation.getKey();
+      current.add(key);
+      final Long known = knownInvalidations.put(key, invalidation.getValue());
+      if (Objects.equals(known, invalidation.getValue())) {
+        continue;
+      }
+      if (ALL_DATASETS.equals(key)) {
+        invalidateLocalCache();
+      } else {
+        invalidateLocalCacheOnDataset(key);
+      }
+      applied++;
+    }
+    // keys removed by an invalidation of the whole cache come back with a greater version
+    knownInvalidations.keySet().retainAll(current);
+    if (applied > 0) {
+      LOGGER.debug("Applied {} plan cache invalidations from other coordinators", applied);
+    }
+  }
+}
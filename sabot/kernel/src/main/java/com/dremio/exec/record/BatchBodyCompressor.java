@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
+import com.dremio.options.OptionResolver;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+
+/**
+ * Compresses the bodies of the batches sent by exchanges to other nodes, and decompresses them on
+ * the receiving side.
+ *
+ * <p>Each buffer of the body is compressed with LZ4 on its own, and the compressed buffers are sent
+ * one after the other. Buffers smaller than {@link
+ * ExecConstants#EXCHANGE_COMPRESSION_MIN_BUFFER_BYTES} or not compressing well enough are sent as
+ * is, and so is the whole body when it doesn't get smaller enough. The header lists the length of
+ * each compressed buffer, -1 for the ones sent as is, while the arrow record batch of the header
+ * still describes the uncompressed body.
+ *
+ * <p>Not thread safe, an operator uses its own instance.
+ */
+public class BatchBodyCompressor {
+  private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+  private static final LZ4FastDecompressor DECOMPRESSOR =
+      LZ4Factory.fastestInstance().fastDecompressor();
+
+  private final BufferAllocator allocator;
+  private final long minBufferBytes;
+  private final double maxRatio;
+
+  // size of the bodies before and after compression, and time spent (de)compressing them
+  private long uncompressedBytes;
+  private long compressedBytes;
+  private long nanos;
+
+  public BatchBodyCompressor(BufferAllocator allocator, OptionResolver options) {
+    this(
+        allocator,
+        options.getOption(ExecConstants.EXCHANGE_COMPRESSION_MIN_BUFFER_BYTES),
+        options.getOption(ExecConstants.EXCHANGE_COMPRESSION_MAX_RATIO));
+  }
+
+  public BatchBodyCompressor(BufferAllocator allocator, long minBufferBytes, double maxRatio) {
+    this.allocator = allocator;
+    this.minBufferBytes = minBufferBytes;
+    this.maxRatio = maxRatio;
+  }
+
+  /**
+   * Compresses the body of the batch.
+   *
+   * @return the batch with a compressed body, the buffers of the given batch being released, or
+   *     the given batch when compressing doesn't make it small enough
+   */
+  public FragmentWritableBatch compress(FragmentWritableBatch batch) {
+    final ByteBuf[] buffers = batch.getBuffers();
+    final long bodyLength = batch.getByteCount();
+    if (bodyLength == 0 || batch.isCompressed()) {
+      return batch;
+    }
+
+    final long start = System.nanoTime();
+    long maxLength = 0;
+    for (ByteBuf buf : buffers) {
+      maxLength += COMPRESSOR.maxCompressedLength(buf.readableBytes());
+    }
+    final long[] compressedLengths = new long[buffers.length];
+    try (ArrowBuf scratch = allocator.buffer(maxLength)) {
+      long position = 0;
+      for (int i = 0; i < buffers.length; i++) {
+        final ByteBuf buf = buffers[i];
+        final int length = buf.readableBytes();
+        compressedLengths[i] = -1;
+        if (length > 0 && length >= minBufferBytes) {
+          final int maxCompressedLength = COMPRESSOR.maxCompressedLength(length);
+          final int compressedLength =
+              COMPRESSOR.compress(
+                  buf.nioBuffer(buf.readerIndex(), length),
+                  0,
+                  length,
+                  scratch.nioBuffer(position, maxCompressedLength),
+                  0,
+                  maxCompressedLength);
+          if (compressedLength <= length * maxRatio) {
+            compressedLengths[i] = compressedLength;
+            position += compressedLength;
+            continue;
+          }
+        }
+        scratch.setBytes(position, buf.nioBuffer(buf.readerIndex(), length));
+        position += length;
+      }
+
+      if (position > bodyLength * maxRatio) {
+        return batch;
+      }
+      final ArrowBuf body = allocator.buffer(position);
+      body.setBytes(0, scratch, 0, position);
+      body.writerIndex(position);
+      batch.release();
+
+      uncompressedBytes += bodyLength;
+      compressedBytes += position;
+      return batch.withCompressedBody(NettyArrowBuf.unwrapBuffer(body), compressedLengths);
+    } finally {
+      nanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Decompresses the body of a received batch.
+   *
+   * @return the batch with an uncompressed body, the given batch being closed, or the given batch
+   *     when its body isn't compressed
+   */
+  public RawFragmentBatch decompress(RawFragmentBatch batch) {
+    if (batch == null || batch.getHeader().getCompressedBufferLengthCount() == 0) {
+      return batch;
+    }
+
+    final long start = System.nanoTime();
+    final FragmentRecordBatch header = batch.getHeader();
+    final ArrowBuf compressed = batch.getBody();
+    try {
+      final RecordBatch recordBatch =
+          RecordBatch.getRootAsRecordBatch(header.getArrowRecordBatch().asReadOnlyByteBuffer());
+      Preconditions.checkState(
+          recordBatch.buffersLength() == header.getCompressedBufferLengthCount(),
+          "Expected %s compressed buffer lengths, received %s",
+          recordBatch.buffersLength(),
+          header.getCompressedBufferLengthCount());
+      long bodyLength = 0;
+      for (int i = 0; i < recordBatch.buffersLength(); i++) {
+        final Buffer buffer = recordBatch.buffers(i);
+        bodyLength = Math.max(bodyLength, buffer.offset() + buffer.length());
+      }
+
+      try (ArrowBuf body = allocator.buffer(bodyLength)) {
+        long position = 0;
+        for (int i = 0; i < recordBatch.buffersLength(); i++) {
+          final Buffer buffer = recordBatch.buffers(i);
+          final int length = (int) buffer.length();
+          final long compressedLength = header.getCompressedBufferLength(i);
+          if (compressedLength < 0) {
+            body.setBytes(buffer.offset(), compressed, position, length);
+            position += length;
+            continue;
+          }
+          if (length > 0) {
+            final int read =
+                DECOMPRESSOR.decompress(
+                    compressed.nioBuffer(position, (int) compressedLength),
+                    0,
+                    body.nioBuffer(buffer.offset(), length),
+                    0,
+                    length);
+            Preconditions.checkState(
+                read == compressedLength,
+                "Read %s bytes of a compressed buffer of %s bytes",
+                read,
+                compressedLength);
+          }
+          position += compressedLength;
+        }
+        body.writerIndex(bodyLength);
+
+        uncompressedBytes += bodyLength;
+        compressedBytes += position;
+        return new RawFragmentBatch(
+            header.toBuilder().clearCompressedBufferLength().build(), body, null);
+      }
+    } finally {
+      // the ack was sent when the batch was queued, the new batch retains the body
+      batch.close();
+      nanos += System.nanoTime() - start;
+    }
+  }
+
+  /** Returns the size of the bodies compressed or decompressed, before compression */
+  public long getUncompressedBytes() {
+    return uncompressedBytes;
+  }
+
+  /** Returns the size of the bodies compressed or decompressed, after compression */
+  public long getCompressedBytes() {
+    return compressedBytes;
+  }
+
+  /** Returns the time spent compressing or decompressing bodies */
+  public long getNanos() {
+    return nanos;
+  }
+}
@@ -130,6 +130,53 @@ public class FragmentWritableBatch {
     this.header = builder.build();
   }
 
+  private FragmentWritableBatch(FragmentRecordBatch header, ByteBuf[] buffers, int recordCount) {
+    this.header = header;
+    this.buffers = buffers;
+    this.recordCount = recordCount;
+  }
+
+  /**
+   * Returns a batch with the given compressed body, see {@link BatchBodyCompressor}.
+   *
+   * @param body the compressed buffers, one after the other
+   * @param compressedLengths length of each compressed buffer, -1 for the uncompressed ones
+   */
+  FragmentWritableBatch withCompressedBody(ByteBuf body, long[] compressedLengths) {
+    final FragmentRecordBatch.Builder builder = header.toBuilder().clearCompressedBufferLength();
+    for (long length : compressedLengths) {
+      builder.addCompressedBufferLength(length);
+    }
+    return new FragmentWritableBatch(builder.build(), new ByteBuf[] {body}, recordCount);
+  }
+
+  /**
+   * Returns the same batch sent to other minor fragments. The buffers are shared and retained once
+   * for the returned batch.
+   */
+  public FragmentWritableBatch withReceivers(final int... receiveMinorFragmentId) {
+    final FragmentRecordBatch.Builder builder =
+        header.toBuilder().clearReceivingMinorFragmentId();
+    for (final int i : receiveMinorFragmentId) {
+      builder.addReceivingMinorFragmentId(i);
+    }
+    for (final ByteBuf buf : buffers) {
+      buf.retain();
+    }
+    return new FragmentWritableBatch(builder.build(), buffers, recordCount);
+  }
+
+  /** Releases the buffers of the batch, when it is not sent. */
+  public void release() {
+    for (final ByteBuf buf : buffers) {
+      buf.release();
+    }
+  }
+
+  public boolean isCompressed() {
+    return header.getCompressedBufferLengthCount() > 0;
+  }
+
   public ByteBuf[] getBuffers() {
     return buffers;
   }
@@ -38,6 +38,8 @@ import com.dremio.exec.planner.cost.RelMetadataQuerySupplier;
 import com.dremio.exec.planner.observer.QueryObserverFactory;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.cache.BlockCache;
+import com.dremio.exec.store.cache.BlockCacheFileSystemWrapper;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.dremio.exec.store.dfs.LoggedFileSystemWrapper;
 import com.dremio.exec.store.dfs.MetadataIOPool;
@@ -310,15 +312,18 @@ public class ContextService implements Service, Provider<SabotContext> {
     CodeCompiler compiler = new CodeCompiler(sConfig, optionManager);
     FileSystemWrapper fileSystemWrapper =
         new LoggedFileSystemWrapper(
-            sConfig.getInstance(
-                FileSystemWrapper.FILE_SYSTEM_WRAPPER_CLASS,
-                FileSystemWrapper.class,
-                (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs,
-                dremioConfig,
-                optionManager,
-                allocator,
-                new ServiceSetDecorator(coordinator.getServiceSet(Role.EXECUTOR)),
-                identity),
+            new BlockCacheFileSystemWrapper(
+                sConfig.getInstance(
+                    FileSystemWrapper.FILE_SYSTEM_WRAPPER_CLASS,
+                    FileSystemWrapper.class,
+                    (fs, storageId, conf, operatorContext, enableAsync, isMetadataEnabled) -> fs,
+                    dremioConfig,
+                    optionManager,
+                    allocator,
+                    new ServiceSetDecorator(coordinator.getServiceSet(Role.EXECUTOR)),
+                    identity),
+                BlockCache.create(sConfig),
+                optionManager),
             optionManager);
 
     return new SabotContext(
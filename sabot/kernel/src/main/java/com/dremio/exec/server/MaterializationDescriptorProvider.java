@@ -16,10 +16,13 @@
 package com.dremio.exec.server;
 
 import com.dremio.exec.planner.acceleration.descriptor.MaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.ExternalQueryDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.VersionedPath;
 import com.dremio.exec.planner.logical.ViewTable;
 import com.google.common.collect.ImmutableList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /** A materialization provider */
 public interface MaterializationDescriptorProvider {
@@ -30,6 +33,20 @@ public interface MaterializationDescriptorProvider {
    */
   List<MaterializationDescriptor> get();
 
+  /**
+   * Provides the materialization instances that may be used to accelerate a query using the given
+   * tables, views and external queries. Implementations may return materializations that turn out
+   * not to be applicable, but must return all the applicable ones.
+   *
+   * @return a list of {@code Materialization} instances. Might be empty.
+   */
+  default List<MaterializationDescriptor> get(
+      Set<VersionedPath> tables,
+      Set<VersionedPath> vdsPaths,
+      Set<ExternalQueryDescriptor> externalQueries) {
+    return get();
+  }
+
   /**
    * Returns the default raw materialization that provider considers for substitution for the VDS
    * with the given path
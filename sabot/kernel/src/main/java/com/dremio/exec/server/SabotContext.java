@@ -42,6 +42,7 @@ import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.dfs.FileSystemWrapper;
 import com.dremio.exec.store.dfs.MetadataIOPool;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
 import com.dremio.exec.store.sys.accesscontrol.AccessControlListingManager;
@@ -102,6 +103,7 @@ public class SabotContext implements AutoCloseable, SabotQueryContext {
   private final Provider<WorkStats> workStatsProvider;
   private final CodeCompiler compiler;
   private final ExpressionSplitCache expressionSplitCache;
+  private final ParquetFooterCache parquetFooterCache;
   private final ScanResult classpathScan;
   private final LogicalPlanPersistence lpPersistence;
   private final Provider<MaterializationDescriptorProvider> materializationProvider;
@@ -269,6 +271,7 @@ public class SabotContext implements AutoCloseable, SabotQueryContext {
     this.sourceVerifierProvider = sourceVerifierProvider;
     this.secretsCreator = secretsCreatorProvider;
     expressionSplitCache = new ExpressionSplitCache(optionManager, config);
+    parquetFooterCache = new ParquetFooterCache(optionManager);
     this.nodeDebugContext =
         (allocator instanceof DremioRootAllocator)
             ? new SabotContext.NodeDebugContextProviderImpl((DremioRootAllocator) allocator)
@@ -595,6 +598,11 @@ public class SabotContext implements AutoCloseable, SabotQueryContext {
     return expressionSplitCache;
   }
 
+  /** Cache of parquet footers and page indexes shared by the fragments of the node */
+  public ParquetFooterCache getParquetFooterCache() {
+    return parquetFooterCache;
+  }
+
   @Override
   public QueryContextCreator getQueryContextCreator() {
     return new QueryContextCreatorImpl(this);
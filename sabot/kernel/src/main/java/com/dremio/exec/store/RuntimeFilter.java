@@ -50,6 +50,7 @@ public class RuntimeFilter implements AutoCloseable {
   private List<CompositeColumnFilter> nonPartitionColumnFilters;
   private String senderInfo;
   private List<UserBitShared.RunTimeFilterDetailsInfoInScan> filterDetails;
+  private final TopNThresholdFilter topNThreshold;
 
   public RuntimeFilter(
       CompositeColumnFilter partitionColumnFilter,
@@ -63,10 +64,20 @@ public class RuntimeFilter implements AutoCloseable {
       List<CompositeColumnFilter> nonPartitionColumnFilters,
       String senderInfo,
       List<UserBitShared.RunTimeFilterDetailsInfoInScan> filterDetails) {
+    this(partitionColumnFilter, nonPartitionColumnFilters, senderInfo, filterDetails, null);
+  }
+
+  private RuntimeFilter(
+      CompositeColumnFilter partitionColumnFilter,
+      List<CompositeColumnFilter> nonPartitionColumnFilters,
+      String senderInfo,
+      List<UserBitShared.RunTimeFilterDetailsInfoInScan> filterDetails,
+      TopNThresholdFilter topNThreshold) {
     this.partitionColumnFilter = partitionColumnFilter;
     this.nonPartitionColumnFilters = nonPartitionColumnFilters;
     this.senderInfo = senderInfo;
     this.filterDetails = filterDetails;
+    this.topNThreshold = topNThreshold;
   }
 
   public CompositeColumnFilter getPartitionColumnFilter() {
@@ -85,6 +96,49 @@ public class RuntimeFilter implements AutoCloseable {
     return filterDetails;
   }
 
+  /**
+   * @return the boundary of the rows kept by the TopN which sent this filter, null for the filters
+   *     sent by joins
+   */
+  public TopNThresholdFilter getTopNThreshold() {
+    return topNThreshold;
+  }
+
+  /** Creates the filter holding the boundary of the rows kept by a TopN, with no column filter. */
+  public static RuntimeFilter getInstance(
+      final ExecProtos.TopNThreshold threshold, final String senderInfo) {
+    return new RuntimeFilter(
+        null,
+        new ArrayList<>(0),
+        senderInfo,
+        Collections.emptyList(),
+        new TopNThresholdFilter(threshold));
+  }
+
+  /**
+   * Tightens the boundary received before from the same TopN, or adds the filter holding it.
+   *
+   * @param filters filters received by the scan
+   * @param threshold boundary of the rows kept by the TopN
+   * @param senderInfo the TopN which sent the boundary
+   * @return the filter added, which the readers of the scan need, null if one was tightened
+   */
+  public static RuntimeFilter addTopNThreshold(
+      final List<RuntimeFilter> filters,
+      final ExecProtos.TopNThreshold threshold,
+      final String senderInfo) {
+    for (RuntimeFilter filter : filters) {
+      if (filter.getTopNThreshold() != null && filter.getSenderInfo().equals(senderInfo)) {
+        filter.getTopNThreshold().update(threshold.getValue());
+        return null;
+      }
+    }
+    logger.debug("TopN threshold on {} received from {}", threshold.getColumn(), senderInfo);
+    final RuntimeFilter filter = getInstance(threshold, senderInfo);
+    filters.add(filter);
+    return filter;
+  }
+
   public static RuntimeFilter getInstance(
       final ExecProtos.RuntimeFilter protoFilter,
       final List<ArrowBuf> buffers,
@@ -124,7 +178,8 @@ public class RuntimeFilter implements AutoCloseable {
       UserBitShared.RunTimeFilterDetailsInfoInScan.Builder runTimeFilterDetails =
           UserBitShared.RunTimeFilterDetailsInfoInScan.newBuilder();
       try {
-        final BloomFilter bloomFilter = BloomFilter.prepareFrom(pcBuffer);
+        final BloomFilter bloomFilter =
+            BloomFilter.prepareFrom(pcBuffer, partitionColFilterProto.getSplitBlockBloomFilter());
         checkState(
             bloomFilter.getNumBitsSet() == partitionColFilterProto.getValueCount(),
             "BloomFilter value count mismatched. Expected %s, Actual %s",
@@ -233,7 +288,9 @@ public class RuntimeFilter implements AutoCloseable {
     return new RuntimeFilter(
         filter.getPartitionColumnFilter(),
         new ArrayList<>(filter.getNonPartitionColumnFilters()),
-        filter.getSenderInfo());
+        filter.getSenderInfo(),
+        Collections.emptyList(),
+        filter.getTopNThreshold());
   }
 
   /**
@@ -243,7 +300,8 @@ public class RuntimeFilter implements AutoCloseable {
    * @return
    */
   public boolean isOnSameColumns(final RuntimeFilter that) {
-    if (((this.getPartitionColumnFilter() == null) != (that.getPartitionColumnFilter() == null))
+    if (((this.getTopNThreshold() == null) != (that.getTopNThreshold() == null))
+        || ((this.getPartitionColumnFilter() == null) != (that.getPartitionColumnFilter() == null))
         || (this.getNonPartitionColumnFilters().size()
             != that.getNonPartitionColumnFilters().size())) {
       return false;
@@ -273,6 +331,7 @@ public class RuntimeFilter implements AutoCloseable {
         + ", senderInfo='"
         + senderInfo
         + '\''
+        + (topNThreshold == null ? "" : ", topNThreshold=" + topNThreshold)
         + '}';
   }
 
@@ -25,7 +25,10 @@ import com.dremio.exec.util.KeyFairSliceCalculator;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.scan.ScanOperator;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -35,6 +38,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVectorHelper;
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,14 +67,122 @@ public class RuntimeFilterEvaluator {
     return !mightContain(split, partitionValues);
   }
 
+  /**
+   * Checks a batch of splits against the filter, probing the keys of all of them at once.
+   *
+   * @param splits splits to check
+   * @param partitionValues partition values of each split, in the same order
+   * @return for each split, true if it can be skipped
+   */
+  public boolean[] canBeSkipped(
+      final List<SplitAndPartitionInfo> splits,
+      final List<List<NameValuePair<?>>> partitionValues) {
+    Preconditions.checkArgument(splits.size() == partitionValues.size());
+    final boolean[] skipped = new boolean[splits.size()];
+    final CompositeColumnFilter partitionColumnFilter = getBloomFilterColumnFilter();
+    if (partitionColumnFilter == null) {
+      return skipped;
+    }
+
+    final List<Integer> probedSplits = new ArrayList<>();
+    final List<List<NameValuePair<?>>> probedValues = new ArrayList<>();
+    for (int i = 0; i < splits.size(); i++) {
+      final List<NameValuePair<?>> partitionValuesToCheck =
+          getPartitionValuesToCheck(partitionColumnFilter, partitionValues.get(i));
+      if (partitionValuesToCheck != null) {
+        probedSplits.add(i);
+        probedValues.add(partitionValuesToCheck);
+      }
+    }
+    if (probedSplits.isEmpty()) {
+      return skipped;
+    }
+
+    final int numKeys = probedSplits.size();
+    try (BatchKeyBuilder keyBuilder = new BatchKeyBuilder(probedValues, allocator, maxKeySize);
+        ArrowBuf matches = allocator.buffer(BitVectorHelper.getValidityBufferSize(numKeys))) {
+      BloomFilter bloomFilter = partitionColumnFilter.getBloomFilter();
+      final long probeStart = System.nanoTime();
+      final int numMatches =
+          bloomFilter.mightContain(
+              keyBuilder.getKeys(), keyBuilder.getKeyLength(), numKeys, matches);
+      stats.addLongStat(ScanOperator.Metric.NUM_RUNTIME_FILTER_PROBES, numKeys);
+      stats.addLongStat(
+          ScanOperator.Metric.RUNTIME_FILTER_PROBE_TIME_NS, System.nanoTime() - probeStart);
+      stats.addLongStat(ScanOperator.Metric.NUM_PARTITIONS_PRUNED, numKeys - numMatches);
+      for (int i = 0; i < numKeys; i++) {
+        if (BitVectorHelper.get(matches, i) == 0) {
+          final int split = probedSplits.get(i);
+          skipped[split] = true;
+          logSkippedPartition(splits.get(split), partitionColumnFilter.getColumnsList());
+        }
+      }
+    } catch (Exception ex) {
+      logger.warn(
+          "Failed to add runtime filter. RuntimeFilter sender info: {}. ",
+          runtimeFilter.getSenderInfo(),
+          ex);
+      Arrays.fill(skipped, false);
+    }
+    return skipped;
+  }
+
   private boolean mightContain(
       final SplitAndPartitionInfo split, final List<NameValuePair<?>> partitionValues) {
+    final CompositeColumnFilter partitionColumnFilter = getBloomFilterColumnFilter();
+    if (partitionColumnFilter == null) {
+      return true;
+    }
+    final List<NameValuePair<?>> partitionValuesToCheck =
+        getPartitionValuesToCheck(partitionColumnFilter, partitionValues);
+    if (partitionValuesToCheck == null) {
+      return true;
+    }
+
+    try (BloomFilterKeyBuilder keyBuilder =
+        new BloomFilterKeyBuilder(partitionValuesToCheck, allocator, maxKeySize)) {
+      BloomFilter bloomFilter = partitionColumnFilter.getBloomFilter();
+      final long probeStart = System.nanoTime();
+      final boolean mightContain =
+          bloomFilter.mightContain(keyBuilder.getKey(), keyBuilder.getTotalSize());
+      stats.addLongStat(ScanOperator.Metric.NUM_RUNTIME_FILTER_PROBES, 1);
+      stats.addLongStat(
+          ScanOperator.Metric.RUNTIME_FILTER_PROBE_TIME_NS, System.nanoTime() - probeStart);
+      if (!mightContain) {
+        stats.addLongStat(ScanOperator.Metric.NUM_PARTITIONS_PRUNED, 1);
+        logSkippedPartition(split, partitionColumnFilter.getColumnsList());
+        return false;
+      }
+    } catch (Exception ex) {
+      logger.warn(
+          "Failed to add runtime filter. RuntimeFilter sender info: {}. ",
+          runtimeFilter.getSenderInfo(),
+          ex);
+    }
+
+    return true;
+  }
+
+  /** Partition column filter of the runtime filter, null if it is not a bloom filter. */
+  private CompositeColumnFilter getBloomFilterColumnFilter() {
     final CompositeColumnFilter partitionColumnFilter = runtimeFilter.getPartitionColumnFilter();
     if (partitionColumnFilter == null
-        || CollectionUtils.isEmpty(partitionValues)
         || partitionColumnFilter.getFilterType()
             != CompositeColumnFilter.RuntimeFilterType.BLOOM_FILTER) {
-      return true;
+      return null;
+    }
+    return partitionColumnFilter;
+  }
+
+  /**
+   * Partition values of the filter columns, in the order of the filter columns. Null if the split
+   * can't be checked against the filter.
+   */
+  private List<NameValuePair<?>> getPartitionValuesToCheck(
+      final CompositeColumnFilter partitionColumnFilter,
+      final List<NameValuePair<?>> partitionValues) {
+    if (CollectionUtils.isEmpty(partitionValues)) {
+      return null;
     }
 
     final List<String> partionColumnsInFilter =
@@ -93,25 +205,9 @@ public class RuntimeFilterEvaluator {
           partitionColumnFilter.getColumnsList(),
           partitionValues.stream().map(NameValuePair::getName).collect(Collectors.toList()),
           runtimeFilter.getSenderInfo());
-      return true;
-    }
-
-    try (BloomFilterKeyBuilder keyBuilder =
-        new BloomFilterKeyBuilder(partitionValuesToCheck, allocator, maxKeySize)) {
-      BloomFilter bloomFilter = partitionColumnFilter.getBloomFilter();
-      if (!bloomFilter.mightContain(keyBuilder.getKey(), keyBuilder.getTotalSize())) {
-        stats.addLongStat(ScanOperator.Metric.NUM_PARTITIONS_PRUNED, 1);
-        logSkippedPartition(split, partitionColumnFilter.getColumnsList());
-        return false;
-      }
-    } catch (Exception ex) {
-      logger.warn(
-          "Failed to add runtime filter. RuntimeFilter sender info: {}. ",
-          runtimeFilter.getSenderInfo(),
-          ex);
+      return null;
     }
-
-    return true;
+    return partitionValuesToCheck;
   }
 
   private void logSkippedPartition(
@@ -222,4 +318,55 @@ public class RuntimeFilterEvaluator {
       keyBuf.close();
     }
   }
+
+  /**
+   * BatchKeyBuilder lays out the bloom filter keys of several splits one after the other. All the
+   * keys have the same length since it only depends on the types of the filter columns.
+   */
+  private static class BatchKeyBuilder implements AutoCloseable {
+    private ArrowBuf keysBuf;
+    private int keyLength;
+
+    private BatchKeyBuilder(
+        List<List<NameValuePair<?>>> nameValuePairs, BufferAllocator allocator, int keyMaxSize) {
+      try (AutoCloseables.RollbackCloseable rollbackCloseable =
+          new AutoCloseables.RollbackCloseable()) {
+        ArrowBuf keysBuf = null;
+        for (int i = 0; i < nameValuePairs.size(); i++) {
+          try (BloomFilterKeyBuilder keyBuilder =
+              new BloomFilterKeyBuilder(nameValuePairs.get(i), allocator, keyMaxSize)) {
+            if (keysBuf == null) {
+              this.keyLength = keyBuilder.getTotalSize();
+              keysBuf =
+                  rollbackCloseable.add(
+                      allocator.buffer((long) keyLength * nameValuePairs.size()));
+            }
+            Preconditions.checkState(
+                keyBuilder.getTotalSize() == keyLength,
+                "Key of size %s in a batch of keys of size %s",
+                keyBuilder.getTotalSize(),
+                keyLength);
+            keysBuf.setBytes((long) i * keyLength, keyBuilder.getKey(), 0, keyLength);
+          }
+        }
+        this.keysBuf = keysBuf;
+        rollbackCloseable.commit();
+      } catch (Exception ex) {
+        throw new RuntimeException("Failed to create keys for BloomFilter", ex);
+      }
+    }
+
+    public ArrowBuf getKeys() {
+      return keysBuf;
+    }
+
+    public int getKeyLength() {
+      return keyLength;
+    }
+
+    @Override
+    public void close() throws Exception {
+      keysBuf.close();
+    }
+  }
 }
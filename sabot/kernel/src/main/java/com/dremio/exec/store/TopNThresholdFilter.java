@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store;
+
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.proto.ExecProtos;
+
+/**
+ * The boundary of the rows kept so far by a TopN, received by the scan feeding it. The TopN sends
+ * tighter boundaries as it consumes more rows: the readers of the scan share this filter, so that a
+ * tighter boundary applies to all the row groups not read yet.
+ *
+ * <p>A row whose value of the column is worse than the boundary can't make it to the output of the
+ * TopN. A row with the boundary value still can, as the next sort keys may break the tie.
+ */
+public class TopNThresholdFilter {
+  private final String column;
+  private final MinorType type;
+  private final boolean descending;
+  private final boolean nullsFirst;
+  private volatile long value;
+
+  public TopNThresholdFilter(ExecProtos.TopNThreshold threshold) {
+    this.column = threshold.getColumn();
+    this.type = threshold.getType();
+    this.descending = threshold.getDescending();
+    this.nullsFirst = threshold.getNullsFirst();
+    this.value = threshold.getValue();
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  /**
+   * @return the type of the column, the value is encoded as in the vectors of this type
+   */
+  public MinorType getType() {
+    return type;
+  }
+
+  public boolean isNullsFirst() {
+    return nullsFirst;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  /**
+   * Tightens the boundary.
+   *
+   * @return false if the given value is not tighter than the current boundary
+   */
+  public boolean update(long newValue) {
+    if (descending ? newValue <= value : newValue >= value) {
+      return false;
+    }
+    value = newValue;
+    return true;
+  }
+
+  /**
+   * @param min the smallest non null value of the column in a set of rows
+   * @param max the largest non null value of the column in a set of rows
+   * @param hasNulls whether the column may be null in some of the rows
+   * @return true if none of the rows can make it to the output of the TopN
+   */
+  public boolean canSkip(long min, long max, boolean hasNulls) {
+    if (hasNulls && nullsFirst) {
+      return false;
+    }
+    final long current = value;
+    return descending ? max < current : min > current;
+  }
+
+  @Override
+  public String toString() {
+    return "TopNThresholdFilter{"
+        + "column='"
+        + column
+        + '\''
+        + ", descending="
+        + descending
+        + ", nullsFirst="
+        + nullsFirst
+        + ", value="
+        + value
+        + '}';
+  }
+}
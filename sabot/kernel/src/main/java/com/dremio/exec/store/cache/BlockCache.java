@@ -0,0 +1,438 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import com.dremio.common.concurrent.NamedThreadFactory;
+import com.dremio.common.config.SabotConfig;
+import com.dremio.exec.ExecConstants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor-local cache of fixed size blocks of the files read through {@link
+ * CachingAsyncByteReader}, stored on local disk.
+ *
+ * <p>A block is only cached after it was read {@link ExecConstants#BLOCK_CACHE_ADMISSION_CONFIG}
+ * times, so that files scanned once don't evict the hot ones. Blocks are written in the background
+ * by a bounded pool, fills are dropped when the pool can't keep up. The least recently read blocks
+ * are evicted once the size of the cache, or the share of the cache a source may use, is exceeded.
+ *
+ * <p>The index of the cache is only kept in memory, the directory is cleared on startup.
+ */
+public class BlockCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(BlockCache.class);
+
+  private static final String SUFFIX = ".block";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int FILL_QUEUE_SIZE = 256;
+  private static final long MAX_CANDIDATES = 1 << 20;
+
+  private final Path directory;
+  private final long maxSizeBytes;
+  private final int blockSize;
+  private final int admissionReads;
+
+  // access ordered, guarded by this
+  private final LinkedHashMap<BlockKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> sourceSizes = new HashMap<>();
+  private long size;
+
+  private final Cache<BlockKey, AtomicInteger> candidates;
+  private final Set<BlockKey> pendingFills = ConcurrentHashMap.newKeySet();
+  private final ThreadPoolExecutor fillPool;
+  private final ExecutorService readPool;
+  private final AtomicLong nextFileId = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong fills = new AtomicLong();
+  private final AtomicLong fillBytes = new AtomicLong();
+  private final AtomicLong fillFailures = new AtomicLong();
+  private final AtomicLong rejectedFills = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  @VisibleForTesting
+  BlockCache(Path directory, long maxSizeBytes, int blockSize, int admissionReads, int threads)
+      throws IOException {
+    Preconditions.checkArgument(blockSize > 0, "block size must be positive");
+    this.directory = Files.createDirectories(directory);
+    this.maxSizeBytes = maxSizeBytes;
+    this.blockSize = blockSize;
+    this.admissionReads = admissionReads;
+    this.candidates = Caffeine.newBuilder().maximumSize(MAX_CANDIDATES).build();
+    this.fillPool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(FILL_QUEUE_SIZE),
+            new NamedThreadFactory("block-cache-fill-"));
+    this.readPool =
+        Executors.newFixedThreadPool(threads, new NamedThreadFactory("block-cache-read-"));
+    clear();
+  }
+
+  /** Creates the cache configured in the given config, or returns null if it is not enabled */
+  public static BlockCache create(SabotConfig config) {
+    final String path = config.getString(ExecConstants.BLOCK_CACHE_PATH_CONFIG);
+    if (Strings.isNullOrEmpty(path)) {
+      return null;
+    }
+    try {
+      return new BlockCache(
+          Paths.get(path),
+          config.getLong(ExecConstants.BLOCK_CACHE_MAX_SIZE_CONFIG),
+          config.getInt(ExecConstants.BLOCK_CACHE_BLOCK_SIZE_CONFIG),
+          config.getInt(ExecConstants.BLOCK_CACHE_ADMISSION_CONFIG),
+          config.getInt(ExecConstants.BLOCK_CACHE_THREADS_CONFIG));
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Unable to use {} to cache blocks, disabling the cache", path, e);
+      return null;
+    }
+  }
+
+  private void clear() throws IOException {
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path file : stream) {
+        final String name = file.getFileName().toString();
+        if (name.endsWith(SUFFIX) || name.endsWith(TMP_SUFFIX)) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  public int getBlockSize() {
+    return blockSize;
+  }
+
+  /**
+   * Reads len bytes starting at offset in the first of the given consecutive blocks.
+   *
+   * @return the future of the read, or null if one of the blocks is not cached
+   */
+  public CompletableFuture<Void> read(
+      List<BlockKey> keys, int offset, ByteBuf dst, int dstOffset, int len) {
+    final List<Path> files = new ArrayList<>(keys.size());
+    synchronized (this) {
+      long end = offset + (long) len;
+      for (BlockKey key : keys) {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.length < Math.min(end, blockSize)) {
+          misses.incrementAndGet();
+          return null;
+        }
+        files.add(entry.file);
+        end -= blockSize;
+      }
+    }
+
+    // files evicted from here are still readable once opened
+    final List<FileChannel> channels = new ArrayList<>(files.size());
+    try {
+      for (Path file : files) {
+        channels.add(FileChannel.open(file, StandardOpenOption.READ));
+      }
+    } catch (IOException e) {
+      if (!(e instanceof NoSuchFileException)) {
+        logger.warn("Unable to open cached block", e);
+      }
+      closeQuietly(channels);
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            int position = offset;
+            int done = 0;
+            for (FileChannel channel : channels) {
+              final int length = Math.min(blockSize - position, len - done);
+              final ByteBuffer buffer = dst.nioBuffer(dstOffset + done, length);
+              int read = 0;
+              while (read < length) {
+                final int n = channel.read(buffer, position + read);
+                if (n < 0) {
+                  throw new IOException("Cached block is shorter than expected");
+                }
+                read += n;
+              }
+              done += length;
+              position = 0;
+            }
+            bytesRead.addAndGet(len);
+          } catch (IOException e) {
+            throw new CompletionException(new UncheckedIOException(e));
+          } finally {
+            closeQuietly(channels);
+          }
+        },
+        readPool);
+  }
+
+  private static void closeQuietly(List<FileChannel> channels) {
+    for (FileChannel channel : channels) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.debug("Unable to close cached block", e);
+      }
+    }
+  }
+
+  /**
+   * Records a read of a block that is not cached.
+   *
+   * @return true if the block was read often enough to be cached, the caller must then fill it
+   */
+  public boolean admit(BlockKey key) {
+    final int reads = candidates.get(key, k -> new AtomicInteger()).incrementAndGet();
+    if (reads < admissionReads) {
+      return false;
+    }
+    synchronized (this) {
+      if (entries.containsKey(key)) {
+        return false;
+      }
+    }
+    return pendingFills.add(key);
+  }
+
+  /**
+   * Caches in the background the given bytes of an admitted block, and releases them.
+   *
+   * @return future completed once the block is cached or given up, never exceptionally
+   */
+  public CompletableFuture<Void> fill(BlockKey key, int sourceLimitPct, ByteBuf data) {
+    final FillTask task = new FillTask(key, sourceLimitPct, data);
+    try {
+      fillPool.execute(task);
+    } catch (RejectedExecutionException e) {
+      rejectedFills.incrementAndGet();
+      task.cancel();
+    }
+    return task.done;
+  }
+
+  /** Gives up the fill of an admitted block */
+  public void cancelFill(BlockKey key) {
+    pendingFills.remove(key);
+  }
+
+  /** Executor of the blocking calls needed to load the blocks to fill */
+  Executor getLoadExecutor() {
+    return readPool;
+  }
+
+  private void write(BlockKey key, int sourceLimitPct, ByteBuf data) throws IOException {
+    final int length = data.readableBytes();
+    final long sourceLimit = maxSizeBytes * sourceLimitPct / 100;
+    if (length > sourceLimit) {
+      rejectedFills.incrementAndGet();
+      return;
+    }
+    final Path file =
+        directory.resolve(String.format("%016x%s", nextFileId.incrementAndGet(), SUFFIX));
+    final Path tmp = directory.resolve(file.getFileName() + TMP_SUFFIX);
+    try (FileChannel channel =
+        FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      final ByteBuffer buffer = data.nioBuffer();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+
+    final List<Path> evicted = new ArrayList<>();
+    synchronized (this) {
+      final Entry previous = entries.put(key, new Entry(file, length));
+      if (previous != null) {
+        account(key.getSource(), -previous.length);
+        evicted.add(previous.file);
+      }
+      account(key.getSource(), length);
+      evict(key.getSource(), sourceLimit, evicted);
+    }
+    fills.incrementAndGet();
+    fillBytes.addAndGet(length);
+    for (Path path : evicted) {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  private void account(String source, long delta) {
+    size += delta;
+    sourceSizes.merge(source, delta, Long::sum);
+  }
+
+  /** Evicts the least recently read blocks until the cache and the source fit in their limits */
+  private void evict(String source, long sourceLimit, List<Path> evicted) {
+    final Iterator<Map.Entry<BlockKey, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()
+        && (size > maxSizeBytes || sourceSizes.getOrDefault(source, 0L) > sourceLimit)) {
+      final Map.Entry<BlockKey, Entry> entry = iterator.next();
+      final String entrySource = entry.getKey().getSource();
+      if (size <= maxSizeBytes && !entrySource.equals(source)) {
+        continue;
+      }
+      iterator.remove();
+      account(entrySource, -entry.getValue().length);
+      evicted.add(entry.getValue().file);
+      evictions.incrementAndGet();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /** Number of bytes read from the cache instead of the source */
+  public long getBytesRead() {
+    return bytesRead.get();
+  }
+
+  public long getFillCount() {
+    return fills.get();
+  }
+
+  public long getFillBytes() {
+    return fillBytes.get();
+  }
+
+  public long getFillFailureCount() {
+    return fillFailures.get();
+  }
+
+  /** Number of admitted blocks that were not cached because the cache couldn't keep up */
+  public long getRejectedFillCount() {
+    return rejectedFills.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public synchronized long getSize() {
+    return size;
+  }
+
+  public synchronized long getEntryCount() {
+    return entries.size();
+  }
+
+  public long getMaximumSize() {
+    return maxSizeBytes;
+  }
+
+  @VisibleForTesting
+  void awaitFills() throws InterruptedException {
+    while (!pendingFills.isEmpty()) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Override
+  public void close() {
+    for (Runnable task : fillPool.shutdownNow()) {
+      ((FillTask) task).cancel();
+    }
+    readPool.shutdownNow();
+  }
+
+  /** Writes an admitted block, owns its bytes until then */
+  private final class FillTask implements Runnable {
+    private final BlockKey key;
+    private final int sourceLimitPct;
+    private final ByteBuf data;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private FillTask(BlockKey key, int sourceLimitPct, ByteBuf data) {
+      this.key = key;
+      this.sourceLimitPct = sourceLimitPct;
+      this.data = data;
+    }
+
+    @Override
+    public void run() {
+      try {
+        write(key, sourceLimitPct, data);
+      } catch (Exception e) {
+        fillFailures.incrementAndGet();
+        logger.debug("Unable to cache block {}", key, e);
+      } finally {
+        cancel();
+      }
+    }
+
+    private void cancel() {
+      data.release();
+      pendingFills.remove(key);
+      done.complete(null);
+    }
+  }
+
+  private static final class Entry {
+    private final Path file;
+    private final int length;
+
+    private Entry(Path file, int length) {
+      this.file = file;
+      this.length = length;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FilterFileSystem;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.Map;
+
+/** File system reading the files of a source through the {@link BlockCache} */
+class BlockCacheFileSystem extends FilterFileSystem {
+  private final BlockCache cache;
+  private final String storageId;
+  private final int sourceLimitPct;
+  private final OperatorStats stats;
+
+  BlockCacheFileSystem(
+      FileSystem fs, BlockCache cache, String storageId, int sourceLimitPct, OperatorStats stats) {
+    super(fs);
+    this.cache = cache;
+    this.storageId = storageId;
+    this.sourceLimitPct = sourceLimitPct;
+    this.stats = stats;
+  }
+
+  @Override
+  public AsyncByteReader getAsyncByteReader(
+      AsyncByteReader.FileKey fileKey, Map<String, String> options) throws IOException {
+    final AsyncByteReader reader = super.getAsyncByteReader(fileKey, options);
+    // without a version, a rewritten file can't be told apart from the cached one
+    if (Strings.isNullOrEmpty(fileKey.getVersion())) {
+      return reader;
+    }
+    return new CachingAsyncByteReader(
+        reader,
+        cache,
+        this,
+        storageId,
+        fileKey.getPath(),
+        fileKey.getVersion(),
+        sourceLimitPct,
+        stats);
+  }
+}
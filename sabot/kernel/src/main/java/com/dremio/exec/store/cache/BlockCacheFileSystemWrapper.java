@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import com.dremio.exec.store.dfs.AsyncStreamConf;
+import com.dremio.exec.store.dfs.CacheProperties;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.io.file.FileSystem;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+import java.io.IOException;
+
+/**
+ * A {@link FileSystemWrapper} implementation which reads the files of the sources requesting
+ * caching through {@link CacheProperties} through the executor {@link BlockCache}, when it is
+ * configured. Only asynchronous reads of scans are cached.
+ */
+public class BlockCacheFileSystemWrapper implements FileSystemWrapper {
+  private final FileSystemWrapper defaultWrapper;
+  private final BlockCache cache;
+  private final OptionManager globalOptions;
+
+  public BlockCacheFileSystemWrapper(
+      FileSystemWrapper defaultWrapper, BlockCache cache, OptionManager globalOptions) {
+    this.defaultWrapper = defaultWrapper;
+    this.cache = cache;
+    this.globalOptions = globalOptions;
+  }
+
+  @Override
+  public FileSystem wrap(
+      FileSystem fs,
+      String storageId,
+      AsyncStreamConf conf,
+      OperatorContext context,
+      boolean enableAsync,
+      boolean isMetadataRefresh)
+      throws IOException {
+    final FileSystem wrappedFs =
+        defaultWrapper.wrap(fs, storageId, conf, context, enableAsync, isMetadataRefresh);
+    if (cache == null || conf == null || !enableAsync || isMetadataRefresh) {
+      return wrappedFs;
+    }
+    final OptionManager options =
+        context != null && context.getOptions() != null ? context.getOptions() : globalOptions;
+    final CacheProperties cacheProperties = conf.getCacheProperties();
+    if (!cacheProperties.isCachingEnabled(options)) {
+      return wrappedFs;
+    }
+    return new BlockCacheFileSystem(
+        wrappedFs,
+        cache,
+        storageId,
+        cacheProperties.cacheMaxSpaceLimitPct(),
+        context != null ? context.getStats() : null);
+  }
+
+  /** The block cache of this executor, null if it is not configured */
+  public BlockCache getCache() {
+    return cache;
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> clazz) {
+    if (clazz.isInstance(this)) {
+      return clazz.cast(this);
+    }
+
+    return defaultWrapper.unwrap(clazz);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> clazz) {
+    return clazz.isInstance(this) || defaultWrapper.isWrapperFor(clazz);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (cache != null) {
+      cache.close();
+    }
+    defaultWrapper.close();
+  }
+}
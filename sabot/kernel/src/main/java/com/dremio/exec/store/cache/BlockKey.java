@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import com.google.common.base.MoreObjects;
+import java.util.Objects;
+
+/** Identifies a block of a version of a file, of the size of the blocks of the {@link BlockCache} */
+public final class BlockKey {
+  private final String source;
+  private final String path;
+  private final String version;
+  private final long block;
+
+  public BlockKey(String source, String path, String version, long block) {
+    this.source = Objects.requireNonNull(source);
+    this.path = Objects.requireNonNull(path);
+    this.version = Objects.requireNonNull(version);
+    this.block = block;
+  }
+
+  /** Id of the storage plugin the file is read from */
+  public String getSource() {
+    return source;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /** Index of the block in the file */
+  public long getBlock() {
+    return block;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BlockKey)) {
+      return false;
+    }
+    final BlockKey other = (BlockKey) o;
+    return block == other.block
+        && source.equals(other.source)
+        && path.equals(other.path)
+        && version.equals(other.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, path, version, block);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("source", source)
+        .add("path", path)
+        .add("version", version)
+        .add("block", block)
+        .toString();
+  }
+}
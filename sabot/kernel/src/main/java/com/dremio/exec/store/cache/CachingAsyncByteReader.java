@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.scan.ScanOperator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@link AsyncByteReader} serving the reads of a version of a file from the {@link BlockCache} when
+ * all the blocks they cover are cached, and filling the cache with the blocks read from the source
+ * otherwise.
+ *
+ * <p>Blocks entirely covered by a read are cached from a retained slice of the read buffer, the
+ * others are loaded asynchronously into direct buffers. Fills still in flight are awaited on close,
+ * so that neither the delegate nor the read buffers are used once the reader is closed.
+ */
+class CachingAsyncByteReader implements AsyncByteReader {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(CachingAsyncByteReader.class);
+
+  private final AsyncByteReader delegate;
+  private final BlockCache cache;
+  private final FileSystem fs;
+  private final String source;
+  private final Path path;
+  private final String version;
+  private final int sourceLimitPct;
+  private final OperatorStats stats;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong cachedBytes = new AtomicLong();
+  private final Set<CompletableFuture<Void>> fills = ConcurrentHashMap.newKeySet();
+  private volatile CompletableFuture<Long> fileLength;
+  private volatile boolean closed;
+
+  CachingAsyncByteReader(
+      AsyncByteReader delegate,
+      BlockCache cache,
+      FileSystem fs,
+      String source,
+      Path path,
+      String version,
+      int sourceLimitPct,
+      OperatorStats stats) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.fs = fs;
+    this.source = source;
+    this.path = path;
+    this.version = version;
+    this.sourceLimitPct = sourceLimitPct;
+    this.stats = stats;
+  }
+
+  @Override
+  public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+    if (len <= 0) {
+      return delegate.readFully(offset, dst, dstOffset, len);
+    }
+    final int blockSize = cache.getBlockSize();
+    final long first = offset / blockSize;
+    final long last = (offset + len - 1) / blockSize;
+    final List<BlockKey> keys = new ArrayList<>((int) (last - first + 1));
+    for (long block = first; block <= last; block++) {
+      keys.add(new BlockKey(source, path.toString(), version, block));
+    }
+
+    final CompletableFuture<Void> cached =
+        cache.read(keys, (int) (offset - first * blockSize), dst, dstOffset, len);
+    if (cached != null) {
+      hits.incrementAndGet();
+      cachedBytes.addAndGet(len);
+      return cached
+          .handle(
+              (v, e) -> {
+                if (e == null) {
+                  return completedFuture;
+                }
+                logger.debug("Unable to read {} from the block cache", path, e);
+                return delegate.readFully(offset, dst, dstOffset, len);
+              })
+          .thenCompose(Function.identity());
+    }
+
+    misses.incrementAndGet();
+    return delegate
+        .readFully(offset, dst, dstOffset, len)
+        .thenRun(() -> fill(keys, offset, dst, dstOffset, len));
+  }
+
+  /** Caches the admitted blocks, those entirely read from the read buffer, the others loaded */
+  private synchronized void fill(
+      List<BlockKey> keys, long offset, ByteBuf dst, int dstOffset, int len) {
+    final int blockSize = cache.getBlockSize();
+    for (BlockKey key : keys) {
+      if (closed || !cache.admit(key)) {
+        continue;
+      }
+      final long blockStart = key.getBlock() * blockSize;
+      if (blockStart >= offset && blockStart + blockSize <= offset + len) {
+        track(
+            cache.fill(
+                key,
+                sourceLimitPct,
+                dst.retainedSlice(dstOffset + (int) (blockStart - offset), blockSize)));
+      } else {
+        track(load(key, blockStart));
+      }
+    }
+  }
+
+  private void track(CompletableFuture<Void> fill) {
+    fills.add(fill);
+    fill.whenComplete((v, e) -> fills.remove(fill));
+  }
+
+  /** Reads an admitted block from the source and caches it */
+  private CompletableFuture<Void> load(BlockKey key, long blockStart) {
+    return getFileLength()
+        .thenCompose(
+            fileLength -> {
+              if (closed) {
+                throw new IllegalStateException("Reader closed");
+              }
+              final int length = (int) Math.min(cache.getBlockSize(), fileLength - blockStart);
+              final ByteBuf buf = Unpooled.directBuffer(length);
+              return delegate
+                  .readFully(blockStart, buf, 0, length)
+                  .whenComplete(
+                      (v, e) -> {
+                        if (e != null) {
+                          buf.release();
+                        }
+                      })
+                  .thenCompose(v -> cache.fill(key, sourceLimitPct, buf.writerIndex(length)));
+            })
+        .exceptionally(
+            e -> {
+              logger.debug("Unable to load block {} of {}", key.getBlock(), path, e);
+              cache.cancelFill(key);
+              return null;
+            });
+  }
+
+  private CompletableFuture<Long> getFileLength() {
+    CompletableFuture<Long> length = fileLength;
+    if (length == null) {
+      try {
+        length =
+            CompletableFuture.supplyAsync(
+                () -> {
+                  try {
+                    return fs.getFileAttributes(path).size();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                },
+                cache.getLoadExecutor());
+      } catch (RejectedExecutionException e) {
+        // the cache is closing
+        final CompletableFuture<Long> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e);
+        return failed;
+      }
+      fileLength = length;
+    }
+    return length;
+  }
+
+  @Override
+  public CompletableFuture<Void> checkVersion(String version) {
+    return delegate.checkVersion(version);
+  }
+
+  @Override
+  public List<ReaderStat> getStats() {
+    return delegate.getStats();
+  }
+
+  @Override
+  public void close() throws Exception {
+    final CompletableFuture<?>[] inFlight;
+    synchronized (this) {
+      closed = true;
+      inFlight = fills.toArray(new CompletableFuture<?>[0]);
+    }
+    // fills never complete exceptionally
+    CompletableFuture.allOf(inFlight).join();
+    if (stats != null) {
+      stats.addLongStat(ScanOperator.Metric.NUM_CACHE_HITS, hits.get());
+      stats.addLongStat(ScanOperator.Metric.NUM_CACHE_MISSES, misses.get());
+      stats.addLongStat(ScanOperator.Metric.CACHE_BYTES_READ, cachedBytes.get());
+    }
+    delegate.close();
+  }
+}
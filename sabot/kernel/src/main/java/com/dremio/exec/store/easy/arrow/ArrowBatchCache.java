@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import com.dremio.io.file.Path;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Objects;
+
+/**
+ * Bounded in-memory cache of the serialized record batches recently read from arrow files, so that
+ * paging through the same results doesn't read the files again. The files are expected to be
+ * immutable.
+ */
+public class ArrowBatchCache {
+  private final Cache<BatchKey, byte[]> cache;
+
+  public ArrowBatchCache(long maxBytes) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .<BatchKey, byte[]>weigher((key, value) -> value.length)
+            .recordStats()
+            .build();
+  }
+
+  byte[] get(Path file, int batchIndex) {
+    return cache.getIfPresent(new BatchKey(file, batchIndex));
+  }
+
+  void put(Path file, int batchIndex, byte[] batch) {
+    cache.put(new BatchKey(file, batchIndex), batch);
+  }
+
+  /** Drops the batches of the files under the given directory. */
+  public void invalidate(Path directory) {
+    final String prefix = directory.toString() + "/";
+    cache.asMap().keySet().removeIf(key -> key.file.toString().startsWith(prefix));
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  private static final class BatchKey {
+    private final Path file;
+    private final int batchIndex;
+
+    private BatchKey(Path file, int batchIndex) {
+      this.file = file;
+      this.batchIndex = batchIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BatchKey)) {
+        return false;
+      }
+      final BatchKey that = (BatchKey) o;
+      return batchIndex == that.batchIndex && file.equals(that.file);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(file, batchIndex);
+    }
+  }
+}
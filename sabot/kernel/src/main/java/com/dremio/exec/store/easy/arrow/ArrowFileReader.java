@@ -48,14 +48,24 @@ import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 
 /** Reader which takes a file and reads the record batches. */
 public class ArrowFileReader implements AutoCloseable {
@@ -66,18 +76,38 @@ public class ArrowFileReader implements AutoCloseable {
   private final ArrowFileMetadata metadata;
   private final BufferAllocator allocator;
   private final Path path;
+  private final ArrowBatchCache cache;
+  private final boolean memoryMap;
 
   private FSInputStream inputStream;
+  private ByteBuffer mappedFile;
+  private boolean mapAttempted;
 
   public ArrowFileReader(
       final FileSystem dfs,
       Path basePath,
       final ArrowFileMetadata metadata,
       final BufferAllocator allocator) {
+    this(dfs, basePath, metadata, allocator, null, false);
+  }
+
+  /**
+   * @param cache cache of the serialized batches to read them from, null to always read the file
+   * @param memoryMap whether to read local files through a memory mapping
+   */
+  public ArrowFileReader(
+      final FileSystem dfs,
+      Path basePath,
+      final ArrowFileMetadata metadata,
+      final BufferAllocator allocator,
+      final ArrowBatchCache cache,
+      final boolean memoryMap) {
     this.dfs = dfs;
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+    this.cache = cache;
+    this.memoryMap = memoryMap;
   }
 
   private void openFile() throws IOException {
@@ -130,6 +160,20 @@ public class ArrowFileReader implements AutoCloseable {
    * @return
    */
   public List<RecordBatchHolder> read(final long start, final long limit) throws IOException {
+    return read(start, limit, batchStarts(metadata.getFooter()));
+  }
+
+  /**
+   * Read the record batches containing the rows in given range, looking for the first one in the
+   * start rows of the batches.
+   *
+   * @param start Starting record number in file (0 based index)
+   * @param limit number of records to read
+   * @param batchStarts start rows of the batches as computed by {@link #batchStarts}
+   * @return
+   */
+  public List<RecordBatchHolder> read(final long start, final long limit, final long[] batchStarts)
+      throws IOException {
     // Make sure the range is valid according to the metadata in footer
     checkArgument(
         start == 0 && metadata.getRecordCount() == 0
@@ -144,40 +188,20 @@ public class ArrowFileReader implements AutoCloseable {
         limit,
         metadata.getRecordCount());
 
-    openFile();
-
-    final VectorAccessibleSerializable vectorAccessibleSerializable =
-        new VectorAccessibleSerializable(allocator);
     final List<RecordBatchHolder> batches = Lists.newArrayList();
-    final ArrowFileFooter footer = metadata.getFooter();
-
-    long runningCount = 0;
     long remaining = limit;
-    final int numBatches = footer.getBatchList() == null ? 0 : footer.getBatchList().size();
-    for (int batchIndex = 0; batchIndex < numBatches; batchIndex++) {
-      ArrowRecordBatchSummary batchSummary = footer.getBatchList().get(batchIndex);
+    final int numBatches = batchStarts.length - 1;
+    for (int batchIndex = firstBatch(batchStarts, start); batchIndex < numBatches; batchIndex++) {
+      final long currentBatchCount = batchStarts[batchIndex + 1] - batchStarts[batchIndex];
       // Skip past empty batches
-      if (batchSummary.getRecordCount() == 0) {
+      if (currentBatchCount == 0) {
         continue;
       }
 
-      runningCount += batchSummary.getRecordCount();
-
-      // Skip batches until we reach a batch that contains the start index
-      if (start >= runningCount) {
-        // valid indices in up until the current batch are in range [0, runningCount - 1]
-        continue;
-      }
-
-      final long currentBatchCount = batchSummary.getRecordCount();
-
-      // Seek to the place where the batch starts and read
-      inputStream.setPosition(batchSummary.getOffset());
-      vectorAccessibleSerializable.readFromStream(inputStream);
-      final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
+      final VectorContainer vectorContainer = readBatch(batchIndex);
 
       // Find the start and end indices within the batch.
-      final int batchStart = Math.max(0, (int) (start - (runningCount - currentBatchCount)));
+      final int batchStart = (int) Math.max(0, start - batchStarts[batchIndex]);
       final int batchEnd = (int) Math.min(currentBatchCount, batchStart + remaining);
 
       final RecordBatchHolder batchHolder =
@@ -200,6 +224,86 @@ public class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  /**
+   * Computes the start row of each batch in the file, followed by the number of records in the
+   * file, so that the batch holding a row can be found by a binary search.
+   *
+   * @param footer the footer of the file
+   * @return the start rows of the batches
+   */
+  public static long[] batchStarts(ArrowFileFooter footer) {
+    final List<ArrowRecordBatchSummary> batchList =
+        footer.getBatchList() == null ? Collections.emptyList() : footer.getBatchList();
+    final long[] batchStarts = new long[batchList.size() + 1];
+    for (int i = 0; i < batchList.size(); i++) {
+      batchStarts[i + 1] = batchStarts[i] + batchList.get(i).getRecordCount();
+    }
+    return batchStarts;
+  }
+
+  private static int firstBatch(long[] batchStarts, long row) {
+    // when empty batches start at the same row as the one holding it, any of them can be returned
+    // as they are skipped
+    final int index = Arrays.binarySearch(batchStarts, 0, batchStarts.length - 1, row);
+    return index >= 0 ? index : Math.max(0, -index - 2);
+  }
+
+  private VectorContainer readBatch(int batchIndex) throws IOException {
+    final VectorAccessibleSerializable vectorAccessibleSerializable =
+        new VectorAccessibleSerializable(allocator);
+    final byte[] cached = cache != null ? cache.get(path, batchIndex) : null;
+    if (cached != null) {
+      vectorAccessibleSerializable.readFromStream(new ByteArrayInputStream(cached));
+      return vectorAccessibleSerializable.get();
+    }
+
+    final InputStream input =
+        openBatch(metadata.getFooter().getBatchList().get(batchIndex).getOffset());
+    if (cache == null) {
+      vectorAccessibleSerializable.readFromStream(input);
+      return vectorAccessibleSerializable.get();
+    }
+
+    // keep the bytes of the batch as they are deserialized
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    vectorAccessibleSerializable.readFromStream(new TeeInputStream(input, batch));
+    cache.put(path, batchIndex, batch.toByteArray());
+    return vectorAccessibleSerializable.get();
+  }
+
+  private InputStream openBatch(long offset) throws IOException {
+    if (memoryMap && !mapAttempted) {
+      mapAttempted = true;
+      mappedFile = mapFile();
+    }
+    if (mappedFile != null) {
+      final ByteBuffer batch = mappedFile.duplicate();
+      batch.position(Math.toIntExact(offset));
+      return new ByteBufInputStream(Unpooled.wrappedBuffer(batch));
+    }
+
+    if (inputStream == null) {
+      openFile();
+    }
+    inputStream.setPosition(offset);
+    return inputStream;
+  }
+
+  /** Maps the file if it is a local file smaller than 2GB, returns null otherwise. */
+  private ByteBuffer mapFile() throws IOException {
+    if (!"file".equals(dfs.getScheme())) {
+      return null;
+    }
+    try (FileChannel channel =
+        FileChannel.open(
+            Paths.get(Path.withoutSchemeAndAuthority(path).toString()), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        return null;
+      }
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
   @Override
   public void close() throws IOException {
     if (inputStream != null) {
@@ -215,6 +319,9 @@ public class ArrowFileReader implements AutoCloseable {
    * @throws IOException
    */
   private RecordBatchHolder getEmptyBatch() throws IOException {
+    if (inputStream == null) {
+      openFile();
+    }
     final FileAttributes fileAttributes = dfs.getFileAttributes(path);
     final long size = fileAttributes.size();
     inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+/**
+ * Plans the reads of a set of column chunks, merging the chunks close to each other in the file
+ * into a single read so that narrow columns don't cost a request each.
+ */
+public final class ColumnChunkReadPlanner {
+
+  private ColumnChunkReadPlanner() {}
+
+  /** A range of the file covering one or more column chunks */
+  public static final class Range {
+    private final long offset;
+    private long end;
+    private final List<ColumnChunkMetaData> chunks = new ArrayList<>();
+
+    private Range(ColumnChunkMetaData chunk) {
+      this.offset = chunk.getStartingPos();
+      this.end = offset + chunk.getTotalSize();
+      chunks.add(chunk);
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public long getLength() {
+      return end - offset;
+    }
+
+    /** The column chunks in the range, by increasing offset */
+    public List<ColumnChunkMetaData> getChunks() {
+      return chunks;
+    }
+  }
+
+  /**
+   * @param chunks the column chunks to read
+   * @param maxGap largest number of bytes between two chunks read together
+   * @param maxSize largest size of a read covering more than one chunk
+   * @return the ranges to read, by increasing offset
+   */
+  public static List<Range> plan(List<ColumnChunkMetaData> chunks, long maxGap, long maxSize) {
+    Preconditions.checkArgument(maxGap >= 0 && maxSize > 0);
+    final List<ColumnChunkMetaData> sorted = new ArrayList<>(chunks);
+    sorted.sort(Comparator.comparingLong(ColumnChunkMetaData::getStartingPos));
+
+    final List<Range> ranges = new ArrayList<>();
+    Range current = null;
+    for (ColumnChunkMetaData chunk : sorted) {
+      final long start = chunk.getStartingPos();
+      final long end = start + chunk.getTotalSize();
+      if (current != null
+          && start - current.end <= maxGap
+          && Math.max(end, current.end) - current.offset <= maxSize) {
+        current.end = Math.max(end, current.end);
+        current.chunks.add(chunk);
+      } else {
+        current = new Range(chunk);
+        ranges.add(current);
+      }
+    }
+    return ranges;
+  }
+}
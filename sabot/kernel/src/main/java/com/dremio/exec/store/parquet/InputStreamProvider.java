@@ -38,6 +38,12 @@ public interface InputStreamProvider extends AutoCloseable {
    */
   Path getStreamPath();
 
+  /**
+   * Hints that the streams of the given column chunks are about to be requested, so that the
+   * provider can fetch them ahead of time.
+   */
+  default void prefetchColumns(List<ColumnChunkMetaData> columns) throws IOException {}
+
   /** Reads the footer -- or returns the cached one */
   MutableParquetMetadata getFooter() throws IOException;
 
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+
+/**
+ * Executor wide cache of parquet footers, column indexes and offset indexes, shared by all the
+ * fragments running on the node.
+ *
+ * <p>Entries are keyed by file path, modification time and length so that a rewritten file is
+ * never served a stale footer. The cache is bounded by the estimated heap size of the decoded
+ * entries, see {@link #DECODED_SIZE_FACTOR}, and uses Caffeine's W-TinyLFU eviction so that
+ * footers read once by a large scan don't evict the footers of frequently queried files.
+ *
+ * <p>The node's cache is owned by the {@link com.dremio.exec.server.SabotContext}, and operators
+ * reach it through {@link OperatorContext#getParquetFooterCache()}.
+ */
+public final class ParquetFooterCache {
+
+  /**
+   * Ratio of the heap size of decoded footers and page indexes to their serialized size. Thrift's
+   * compact encoding stores small integers in a byte or two and shares nothing across objects,
+   * while the decoded objects hold their fields in object headers, boxed statistics and one buffer
+   * per min and max value, so the same metadata takes about five times as much space on heap.
+   */
+  @VisibleForTesting static final int DECODED_SIZE_FACTOR = 5;
+
+  private final Cache<Key, Entry> cache;
+  private volatile long maximumSize;
+
+  /**
+   * Creates the node's cache, sized by {@link ExecConstants#PARQUET_FOOTER_CACHE_SIZE_BYTES}. The
+   * cache is resized when the option changes.
+   */
+  public ParquetFooterCache(OptionManager options) {
+    this(ExecConstants.PARQUET_FOOTER_CACHE_SIZE_BYTES.getDefault().getNumVal());
+    // options may not be loaded yet, the configured size is applied when they are loaded or changed
+    options.addOptionChangeListener(
+        () -> setMaximumSize(options.getOption(ExecConstants.PARQUET_FOOTER_CACHE_SIZE_BYTES)));
+  }
+
+  @VisibleForTesting
+  ParquetFooterCache(long maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maximumSize)
+            .weigher((Key key, Entry entry) -> entry.weight)
+            .recordStats()
+            // evict on the calling thread, so that the cache never grows past its bound
+            .executor(Runnable::run)
+            .build();
+  }
+
+  /**
+   * Whether entries of the given file can be cached by the cache of the operator's node. Files
+   * without a known modification time and length can't be told apart from a later version of the
+   * same file, and are not cached.
+   */
+  public static boolean isCacheable(OperatorContext context, long mtime, long fileLength) {
+    return context != null
+        && context.getParquetFooterCache() != null
+        && context.getOptions() != null
+        && context.getOptions().getOption(ExecConstants.PARQUET_FOOTER_CACHE_ENABLED)
+        && mtime > 0
+        && fileLength > 0;
+  }
+
+  void setMaximumSize(long newMaximumSize) {
+    if (newMaximumSize != maximumSize) {
+      maximumSize = newMaximumSize;
+      cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(newMaximumSize));
+    }
+  }
+
+  /**
+   * Returns the footer of the given file, reading it from the stream if it is not cached.
+   *
+   * <p>The returned footer owns its list of row groups, so that callers can trim it (see {@link
+   * MutableParquetMetadata}) without affecting other readers of the same file.
+   *
+   * @param streamProvider provider of the stream to read the footer from, only asked for a stream
+   *     on a cache miss
+   */
+  public ParquetMetadata getFooter(
+      InputStreamProvider streamProvider,
+      FileSystem fs,
+      long mtime,
+      long fileLength,
+      long maxFooterLen) {
+    final Path path = streamProvider.getStreamPath();
+    final Key key = new Key(path.toString(), mtime, fileLength, Kind.FOOTER, -1);
+    final Entry entry;
+    try {
+      entry =
+          cache.get(
+              key,
+              k -> {
+                try {
+                  final byte[] bytes =
+                      SingletonParquetFooterCache.readFooterBytes(
+                          streamProvider.getStream(null), k.path, fileLength, fs, maxFooterLen);
+                  return new Entry(
+                      SingletonParquetFooterCache.parseFooter(
+                          bytes, ParquetMetadataConverter.NO_FILTER),
+                      bytes.length);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    } catch (UncheckedIOException e) {
+      throw SingletonParquetFooterCache.footerReadError(e.getCause(), path.toString());
+    }
+
+    final ParquetMetadata footer = (ParquetMetadata) entry.value;
+    return new ParquetMetadata(footer.getFileMetaData(), new ArrayList<>(footer.getBlocks()));
+  }
+
+  /**
+   * Returns the cached offset indexes of the given columns, or null if any of them is missing from
+   * the cache.
+   */
+  public OffsetIndexProvider getOffsetIndexProvider(
+      Path path, long mtime, long fileLength, List<ColumnChunkMetaData> columns) {
+    final Map<Long, OffsetIndex> indexes = new HashMap<>();
+    for (ColumnChunkMetaData column : columns) {
+      final IndexReference ref = column.getOffsetIndexReference();
+      if (ref == null) {
+        continue;
+      }
+      final Entry entry =
+          cache.getIfPresent(
+              new Key(path.toString(), mtime, fileLength, Kind.OFFSET_INDEX, ref.getOffset()));
+      if (entry == null) {
+        return null;
+      }
+      indexes.put(ref.getOffset(), (OffsetIndex) entry.value);
+    }
+    return new OffsetIndexProvider(indexes);
+  }
+
+  /** Adds the offset indexes read by the given provider to the cache. */
+  public void putOffsetIndexes(
+      Path path,
+      long mtime,
+      long fileLength,
+      List<ColumnChunkMetaData> columns,
+      OffsetIndexProvider provider) {
+    for (ColumnChunkMetaData column : columns) {
+      final IndexReference ref = column.getOffsetIndexReference();
+      final OffsetIndex index = provider.getOffsetIndex(column);
+      if (ref != null && index != null) {
+        cache.put(
+            new Key(path.toString(), mtime, fileLength, Kind.OFFSET_INDEX, ref.getOffset()),
+            new Entry(index, ref.getLength()));
+      }
+    }
+  }
+
+  /**
+   * Returns the cached column indexes of the given columns, or null if any of them is missing from
+   * the cache.
+   */
+  public ColumnIndexProvider getColumnIndexProvider(
+      Path path, long mtime, long fileLength, List<ColumnChunkMetaData> columns) {
+    final Map<Long, ColumnIndex> indexes = new HashMap<>();
+    for (ColumnChunkMetaData column : columns) {
+      final IndexReference ref = column.getColumnIndexReference();
+      if (ref == null) {
+        continue;
+      }
+      final Entry entry =
+          cache.getIfPresent(
+              new Key(path.toString(), mtime, fileLength, Kind.COLUMN_INDEX, ref.getOffset()));
+      if (entry == null) {
+        return null;
+      }
+      indexes.put(ref.getOffset(), (ColumnIndex) entry.value);
+    }
+    return new ColumnIndexProvider(indexes);
+  }
+
+  /** Adds the column indexes read by the given provider to the cache. */
+  public void putColumnIndexes(
+      Path path,
+      long mtime,
+      long fileLength,
+      List<ColumnChunkMetaData> columns,
+      ColumnIndexProvider provider) {
+    for (ColumnChunkMetaData column : columns) {
+      final IndexReference ref = column.getColumnIndexReference();
+      final ColumnIndex index = provider.getColumnIndex(column);
+      if (ref != null && index != null) {
+        cache.put(
+            new Key(path.toString(), mtime, fileLength, Kind.COLUMN_INDEX, ref.getOffset()),
+            new Entry(index, ref.getLength()));
+      }
+    }
+  }
+
+  public long getEntryCount() {
+    return cache.estimatedSize();
+  }
+
+  /** Estimated heap size of the cached entries, in bytes */
+  public long getSize() {
+    return cache
+        .policy()
+        .eviction()
+        .map(eviction -> eviction.weightedSize().orElse(0L))
+        .orElse(0L);
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  @VisibleForTesting
+  void invalidateAll() {
+    cache.invalidateAll();
+    cache.cleanUp();
+  }
+
+  private enum Kind {
+    FOOTER,
+    OFFSET_INDEX,
+    COLUMN_INDEX
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long mtime;
+    private final long fileLength;
+    private final Kind kind;
+    private final long offset;
+
+    private Key(String path, long mtime, long fileLength, Kind kind, long offset) {
+      this.path = path;
+      this.mtime = mtime;
+      this.fileLength = fileLength;
+      this.kind = kind;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return mtime == key.mtime
+          && fileLength == key.fileLength
+          && offset == key.offset
+          && kind == key.kind
+          && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, mtime, fileLength, kind, offset);
+    }
+  }
+
+  private static final class Entry {
+    private final Object value;
+    private final int weight;
+
+    private Entry(Object value, int serializedSize) {
+      this.value = value;
+      this.weight = (int) Math.min((long) serializedSize * DECODED_SIZE_FACTOR, Integer.MAX_VALUE);
+    }
+  }
+}
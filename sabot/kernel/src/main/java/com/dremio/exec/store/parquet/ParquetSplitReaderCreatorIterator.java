@@ -578,13 +578,20 @@ public class ParquetSplitReaderCreatorIterator implements SplitReaderCreatorIter
 
   protected void filterIfNecessary() {
     if (prefetchReader) {
+      final List<SplitAndPartitionInfo> splits = new ArrayList<>();
+      for (SplitReaderCreator creator = first; creator != null; creator = creator.getNext()) {
+        splits.add(creator.getSplit());
+      }
+      final boolean[] filtered = shouldBeFiltered(splits);
+
       SplitReaderCreator prev = null;
       SplitReaderCreator curr = first;
       first = null;
 
       int numCreators = 0;
+      int index = 0;
       while (curr != null) { // filter the already constructed splitReaderCreators
-        if (shouldBeFiltered(curr.getSplit())) {
+        if (filtered[index++]) {
           decrementRowGroupCount(curr.getSplitXAttr().getOriginalPath());
           try {
             curr.close();
@@ -864,6 +871,34 @@ public class ParquetSplitReaderCreatorIterator implements SplitReaderCreatorIter
     }
   }
 
+  /** Checks a batch of splits against the runtime filters, probing each filter once. */
+  private boolean[] shouldBeFiltered(List<SplitAndPartitionInfo> splits) {
+    final boolean[] filtered = new boolean[splits.size()];
+    if (runtimeFilterEvaluators.isEmpty() || splits.isEmpty()) {
+      return filtered;
+    }
+    final List<List<NameValuePair<?>>> nameValuePairs = new ArrayList<>(splits.size());
+    try {
+      for (SplitAndPartitionInfo split : splits) {
+        nameValuePairs.add(
+            split == null
+                ? Collections.emptyList()
+                : this.readerConfig.getPartitionNVPairs(this.context.getAllocator(), split));
+      }
+      for (RuntimeFilterEvaluator runtimeFilterEvaluator : runtimeFilterEvaluators) {
+        final boolean[] skipped = runtimeFilterEvaluator.canBeSkipped(splits, nameValuePairs);
+        for (int i = 0; i < filtered.length; i++) {
+          filtered[i] |= skipped[i];
+        }
+      }
+      return filtered;
+    } finally {
+      for (List<NameValuePair<?>> pairs : nameValuePairs) {
+        com.dremio.common.AutoCloseables.close(RuntimeException.class, pairs);
+      }
+    }
+  }
+
   public InputStreamProvider createInputStreamProvider(
       InputStreamProvider lastInputStreamProvider,
       MutableParquetMetadata lastFooter,
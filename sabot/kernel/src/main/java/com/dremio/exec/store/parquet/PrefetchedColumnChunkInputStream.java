@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import com.dremio.common.AutoCloseables;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.NettyArrowBuf;
+
+/**
+ * Stream over a column chunk fetched ahead of time, reading the parts of the file outside the
+ * chunk through a stream opened on demand.
+ */
+class PrefetchedColumnChunkInputStream implements BulkInputStream {
+
+  /** Opens a stream over the whole file */
+  @FunctionalInterface
+  interface StreamOpener {
+    BulkInputStream open() throws IOException;
+  }
+
+  private final ArrowBuf chunk;
+  private final ByteBuf view;
+  private final long start;
+  private final long end;
+  private final StreamOpener opener;
+  private BulkInputStream fallback;
+  private long pos;
+
+  /**
+   * @param chunk the bytes of the chunk, released when the stream is closed
+   * @param start offset of the chunk in the file
+   */
+  PrefetchedColumnChunkInputStream(ArrowBuf chunk, long start, StreamOpener opener) {
+    this.chunk = chunk;
+    this.view = NettyArrowBuf.unwrapBuffer(chunk);
+    this.start = start;
+    this.end = start + chunk.capacity();
+    this.opener = opener;
+    this.pos = start;
+  }
+
+  @Override
+  public void seek(long offset) throws IOException {
+    pos = offset;
+  }
+
+  @Override
+  public void readFully(ByteBuf buf, int length) throws IOException {
+    if (pos >= start && pos + length <= end) {
+      buf.writeBytes(view, (int) (pos - start), length);
+    } else {
+      if (fallback == null) {
+        fallback = opener.open();
+      }
+      fallback.seek(pos);
+      fallback.readFully(buf, length);
+    }
+    pos += length;
+  }
+
+  @Override
+  public long getPos() throws IOException {
+    return pos;
+  }
+
+  @Override
+  public void close() throws IOException {
+    AutoCloseables.close(IOException.class, chunk, fallback);
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import com.dremio.exec.store.CompositeColumnFilter;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.store.TopNThresholdFilter;
+import com.dremio.exec.util.ValueListFilter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+/**
+ * Checks the value lists of the runtime filters against the statistics of a row group, to skip the
+ * row groups in which no row can pass the filters before any of their pages is read.
+ *
+ * <p>The min/max statistics of the column chunk are checked first. When they can't rule the row
+ * group out and the file has page indexes, the min/max values of each page are checked as well, as
+ * the values of the filter can fall between the pages of a chunk. Only integer columns are
+ * supported for now.
+ *
+ * <p>The boundary of the rows kept by a TopN is checked the same way: the row group is skipped when
+ * no value of its chunk, or of its pages, can make it to the output of the TopN. Integer and
+ * timestamp columns are supported.
+ */
+class RuntimeFilterRowGroupPruner {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(RuntimeFilterRowGroupPruner.class);
+
+  private final BlockMetaData block;
+  private final ParquetColumnResolver columnResolver;
+  private final InputStreamProvider inputStreamProvider;
+
+  /**
+   * @param block row group to check
+   * @param columnResolver resolver of the parquet columns of the filtered fields
+   * @param inputStreamProvider provider of the page indexes, null to only use the chunk statistics
+   */
+  RuntimeFilterRowGroupPruner(
+      BlockMetaData block,
+      ParquetColumnResolver columnResolver,
+      InputStreamProvider inputStreamProvider) {
+    this.block = block;
+    this.columnResolver = columnResolver;
+    this.inputStreamProvider = inputStreamProvider;
+  }
+
+  /**
+   * @return true if no row of the row group can pass one of the given runtime filters
+   */
+  boolean canSkip(Collection<RuntimeFilter> runtimeFilters) {
+    if (block == null) {
+      return false;
+    }
+    for (RuntimeFilter runtimeFilter : runtimeFilters) {
+      final TopNThresholdFilter threshold = runtimeFilter.getTopNThreshold();
+      if (threshold != null) {
+        try {
+          if (canSkip(threshold)) {
+            logger.debug(
+                "Skipping row group at {}, no value of {} can beat TopN threshold {}",
+                block.getStartingPos(),
+                threshold.getColumn(),
+                threshold.getValue());
+            return true;
+          }
+        } catch (RuntimeException e) {
+          logger.debug("Unable to check TopN threshold on {}", threshold.getColumn(), e);
+        }
+      }
+      for (CompositeColumnFilter filter : runtimeFilter.getNonPartitionColumnFilters()) {
+        try {
+          if (canSkip(filter)) {
+            logger.debug(
+                "Skipping row group at {}, no value of runtime filter {} on {} in range",
+                block.getStartingPos(),
+                runtimeFilter.getSenderInfo(),
+                filter.getColumnsList());
+            return true;
+          }
+        } catch (RuntimeException e) {
+          logger.debug("Unable to check runtime filter on {}", filter.getColumnsList(), e);
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean canSkip(CompositeColumnFilter filter) {
+    final ValueListFilter valueList = filter.getValueList();
+    if (valueList == null
+        || valueList.isContainsNull()
+        || valueList.isBoolField()
+        || filter.getColumnsList().size() != 1) {
+      return false;
+    }
+    final ColumnChunkMetaData column = findColumn(filter.getColumnsList().get(0));
+    if (column == null || !isSupported(valueList, column.getPrimitiveType())) {
+      return false;
+    }
+
+    final long[] values = getSortedValues(valueList);
+    final Statistics<?> statistics = column.getStatistics();
+    if (statistics != null && !statistics.isEmpty()) {
+      if (!statistics.hasNonNullValue()) {
+        // only nulls, which never pass the filter
+        return statistics.getNumNulls() == column.getValueCount();
+      }
+      if (!anyValueInRange(
+          values,
+          ((Number) statistics.genericGetMin()).longValue(),
+          ((Number) statistics.genericGetMax()).longValue())) {
+        return true;
+      }
+    }
+    return !anyPageMatches(
+        column, false, (min, max, hasNulls) -> anyValueInRange(values, min, max));
+  }
+
+  private boolean canSkip(TopNThresholdFilter threshold) {
+    final ColumnChunkMetaData column = findColumn(threshold.getColumn());
+    if (column == null || !isSupported(threshold, column.getPrimitiveType())) {
+      return false;
+    }
+
+    final PrimitiveType type = column.getPrimitiveType();
+    final Statistics<?> statistics = column.getStatistics();
+    if (statistics != null && !statistics.isEmpty()) {
+      if (!statistics.hasNonNullValue()) {
+        // only nulls, which only make it to the output when sorted first
+        return !threshold.isNullsFirst() && statistics.getNumNulls() == column.getValueCount();
+      }
+      if (threshold.canSkip(
+          toVectorValue(((Number) statistics.genericGetMin()).longValue(), type, false),
+          toVectorValue(((Number) statistics.genericGetMax()).longValue(), type, true),
+          !statistics.isNumNullsSet() || statistics.getNumNulls() > 0)) {
+        return true;
+      }
+    }
+    return !anyPageMatches(
+        column,
+        threshold.isNullsFirst(),
+        (min, max, hasNulls) ->
+            !threshold.canSkip(
+                toVectorValue(min, type, false), toVectorValue(max, type, true), hasNulls));
+  }
+
+  private ColumnChunkMetaData findColumn(String fieldName) {
+    final String parquetName = columnResolver.getParquetColumnName(fieldName);
+    if (parquetName == null) {
+      return null;
+    }
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getPath().size() == 1
+          && column.getPath().toDotString().equalsIgnoreCase(parquetName)) {
+        return column;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isSignedInteger(PrimitiveType type) {
+    final LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+    return annotation == null
+        || (annotation instanceof LogicalTypeAnnotation.IntLogicalTypeAnnotation
+            && ((LogicalTypeAnnotation.IntLogicalTypeAnnotation) annotation).isSigned());
+  }
+
+  private static boolean isSupported(ValueListFilter valueList, PrimitiveType type) {
+    if (!isSignedInteger(type)) {
+      return false;
+    }
+    switch (valueList.getFieldType()) {
+      case INT:
+        return valueList.getBlockSize() == 4
+            && type.getPrimitiveTypeName() == PrimitiveTypeName.INT32;
+      case BIGINT:
+        return valueList.getBlockSize() == 8
+            && type.getPrimitiveTypeName() == PrimitiveTypeName.INT64;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isSupported(TopNThresholdFilter threshold, PrimitiveType type) {
+    switch (threshold.getType()) {
+      case INT:
+        return type.getPrimitiveTypeName() == PrimitiveTypeName.INT32 && isSignedInteger(type);
+      case BIGINT:
+        return type.getPrimitiveTypeName() == PrimitiveTypeName.INT64 && isSignedInteger(type);
+      case TIMESTAMP:
+        return type.getPrimitiveTypeName() == PrimitiveTypeName.INT64
+            && type.getLogicalTypeAnnotation() instanceof TimestampLogicalTypeAnnotation;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Converts a value of the column to the encoding of its vector, in which timestamps are in
+   * milliseconds. More precise timestamps are rounded down or up, so that the converted min/max
+   * values still bound the values read.
+   */
+  private static long toVectorValue(long value, PrimitiveType type, boolean roundUp) {
+    final LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+    if (!(annotation instanceof TimestampLogicalTypeAnnotation)) {
+      return value;
+    }
+    final long unitsPerMilli;
+    switch (((TimestampLogicalTypeAnnotation) annotation).getUnit()) {
+      case MICROS:
+        unitsPerMilli = 1_000L;
+        break;
+      case NANOS:
+        unitsPerMilli = 1_000_000L;
+        break;
+      default:
+        return value;
+    }
+    return roundUp ? -Math.floorDiv(-value, unitsPerMilli) : Math.floorDiv(value, unitsPerMilli);
+  }
+
+  private static long[] getSortedValues(ValueListFilter valueList) {
+    final long[] values = new long[valueList.getValueCount()];
+    final int blockSize = valueList.getBlockSize();
+    for (int i = 0; i < values.length; i++) {
+      values[i] =
+          blockSize == 4
+              ? valueList.valOnlyBuf().getInt((long) i * blockSize)
+              : valueList.valOnlyBuf().getLong((long) i * blockSize);
+    }
+    Arrays.sort(values);
+    return values;
+  }
+
+  private static boolean anyValueInRange(long[] sortedValues, long min, long max) {
+    final int idx = Arrays.binarySearch(sortedValues, min);
+    if (idx >= 0) {
+      return true;
+    }
+    final int insertionPoint = -idx - 1;
+    return insertionPoint < sortedValues.length && sortedValues[insertionPoint] <= max;
+  }
+
+  /** Min/max values of a page, as read from the page index. */
+  private interface PageRange {
+    boolean matches(long min, long max, boolean hasNulls);
+  }
+
+  /**
+   * @param nullPagesMatch whether the pages holding only nulls match
+   * @return false if none of the pages of the column match
+   */
+  private boolean anyPageMatches(
+      ColumnChunkMetaData column, boolean nullPagesMatch, PageRange pageRange) {
+    if (inputStreamProvider == null) {
+      return true;
+    }
+    final ColumnIndexProvider provider =
+        inputStreamProvider.getColumnIndexProvider(Collections.singletonList(column));
+    if (provider == null) {
+      return true;
+    }
+    try {
+      final ColumnIndex index = provider.getColumnIndex(column);
+      if (index == null) {
+        return true;
+      }
+      final boolean isInt32 =
+          column.getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.INT32;
+      final List<Boolean> nullPages = index.getNullPages();
+      final List<Long> nullCounts = index.getNullCounts();
+      final List<ByteBuffer> minValues = index.getMinValues();
+      final List<ByteBuffer> maxValues = index.getMaxValues();
+      for (int page = 0; page < nullPages.size(); page++) {
+        if (nullPages.get(page)) {
+          if (nullPagesMatch) {
+            return true;
+          }
+          continue;
+        }
+        if (pageRange.matches(
+            readValue(minValues.get(page), isInt32),
+            readValue(maxValues.get(page), isInt32),
+            nullCounts == null || nullCounts.get(page) > 0)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      provider.close();
+    }
+  }
+
+  private static long readValue(ByteBuffer buffer, boolean isInt32) {
+    final ByteBuffer value = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    return isInt32 ? value.getInt(value.position()) : value.getLong(value.position());
+  }
+}
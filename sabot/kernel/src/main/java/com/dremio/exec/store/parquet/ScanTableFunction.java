@@ -277,6 +277,10 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
         String.format(
             "Frag %d, OpId %d",
             message.getSendingMajorFragmentId(), message.getSendingOperatorId());
+    if (message.hasPayloadOfType(ExecProtos.TopNThreshold.class)) {
+      addTopNThreshold(message.getPayload(ExecProtos.TopNThreshold.parser()), senderInfo);
+      return;
+    }
     if (message.getBuffers() == null || message.getBuffers().length == 0) {
       logger.warn("Empty runtime filter received from {}", senderInfo);
       return;
@@ -336,6 +340,21 @@ public abstract class ScanTableFunction extends AbstractTableFunction {
     }
   }
 
+  /**
+   * Adds the boundary of the rows kept by the TopN fed by this scan, or tightens the one received
+   * before, which the readers share.
+   */
+  private void addTopNThreshold(ExecProtos.TopNThreshold threshold, String senderInfo) {
+    final RuntimeFilter filter =
+        RuntimeFilter.addTopNThreshold(runtimeFilters, threshold, senderInfo);
+    if (filter == null) {
+      return;
+    }
+    getRecordReaderIterator().addRuntimeFilter(filter);
+    Optional.ofNullable(currentRecordReader).ifPresent(c -> c.addRuntimeFilter(filter));
+    context.getStats().addLongStat(ScanOperator.Metric.NUM_RUNTIME_FILTERS, 1);
+  }
+
   @VisibleForTesting
   List<RuntimeFilter> getRuntimeFilters() {
     return this.runtimeFilters;
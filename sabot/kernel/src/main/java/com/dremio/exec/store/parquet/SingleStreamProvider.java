@@ -27,6 +27,7 @@ import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.OutOfMemoryException;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 import org.apache.parquet.io.SeekableInputStream;
 
 /**
@@ -39,6 +40,7 @@ public class SingleStreamProvider implements InputStreamProvider {
   private final BufferAllocator allocator;
   private final long fileLength;
   private final long maxFooterLen;
+  private final long mTime;
   private final boolean readFullFile;
   private BulkInputStream stream;
   private OperatorContext context;
@@ -60,9 +62,40 @@ public class SingleStreamProvider implements InputStreamProvider {
       boolean readColumnOffsetIndices,
       ParquetFilters parquetFilters,
       ParquetFilterCreator parquetFilterCreator) {
+    this(
+        fs,
+        path,
+        fileLength,
+        -1,
+        maxFooterLen,
+        readFullFile,
+        footer,
+        context,
+        readColumnOffsetIndices,
+        parquetFilters,
+        parquetFilterCreator);
+  }
+
+  /**
+   * @param mTime modification time of the file, footers and page indexes are only shared through
+   *     the {@link ParquetFooterCache} when it is known
+   */
+  public SingleStreamProvider(
+      FileSystem fs,
+      Path path,
+      long fileLength,
+      long mTime,
+      long maxFooterLen,
+      boolean readFullFile,
+      MutableParquetMetadata footer,
+      OperatorContext context,
+      boolean readColumnOffsetIndices,
+      ParquetFilters parquetFilters,
+      ParquetFilterCreator parquetFilterCreator) {
     this.fs = fs;
     this.path = path;
     this.fileLength = fileLength;
+    this.mTime = mTime;
     this.maxFooterLen = maxFooterLen;
     this.readFullFile = readFullFile;
     this.footer = footer;
@@ -124,9 +157,22 @@ public class SingleStreamProvider implements InputStreamProvider {
       if ((columns.size() == 0) || (columns.get(0).getOffsetIndexReference() == null)) {
         return null;
       }
+      final boolean cacheable = ParquetFooterCache.isCacheable(context, mTime, fileLength);
+      if (cacheable) {
+        final OffsetIndexProvider cached =
+            context.getParquetFooterCache()
+                .getOffsetIndexProvider(path, mTime, fileLength, columns);
+        if (cached != null) {
+          return cached;
+        }
+      }
       try (BulkInputStream inputStream = BulkInputStream.wrap(Streams.wrap(fs.open(path)))) {
         OffsetIndexProvider offsetIndexProvider;
         offsetIndexProvider = new OffsetIndexProvider(inputStream, allocator, columns);
+        if (cacheable) {
+          context.getParquetFooterCache()
+              .putOffsetIndexes(path, mTime, fileLength, columns, offsetIndexProvider);
+        }
         if ((context != null) && (context.getStats() != null)) {
           context
               .getStats()
@@ -146,9 +192,22 @@ public class SingleStreamProvider implements InputStreamProvider {
       if ((columns.size() == 0) || (columns.get(0).getColumnIndexReference() == null)) {
         return null;
       }
+      final boolean cacheable = ParquetFooterCache.isCacheable(context, mTime, fileLength);
+      if (cacheable) {
+        final ColumnIndexProvider cached =
+            context.getParquetFooterCache()
+                .getColumnIndexProvider(path, mTime, fileLength, columns);
+        if (cached != null) {
+          return cached;
+        }
+      }
       try (BulkInputStream inputStream = BulkInputStream.wrap(Streams.wrap(fs.open(path)))) {
         ColumnIndexProvider columnIndexProvider;
         columnIndexProvider = new ColumnIndexProvider(inputStream, allocator, columns);
+        if (cacheable) {
+          context.getParquetFooterCache()
+              .putColumnIndexes(path, mTime, fileLength, columns, columnIndexProvider);
+        }
         if ((context != null) && (context.getStats() != null)) {
           context
               .getStats()
@@ -165,11 +224,16 @@ public class SingleStreamProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if (footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer =
-          new MutableParquetMetadata(
-              footerCache.getFooter(getStream(null), path.toString(), fileLength, fs, maxFooterLen),
-              path.getName());
+      final ParquetMetadata parquetMetadata;
+      if (ParquetFooterCache.isCacheable(context, mTime, fileLength)) {
+        parquetMetadata =
+            context.getParquetFooterCache().getFooter(this, fs, mTime, fileLength, maxFooterLen);
+      } else {
+        SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
+        parquetMetadata =
+            footerCache.getFooter(getStream(null), path.toString(), fileLength, fs, maxFooterLen);
+      }
+      footer = new MutableParquetMetadata(parquetMetadata, path.getName());
     }
     return footer;
   }
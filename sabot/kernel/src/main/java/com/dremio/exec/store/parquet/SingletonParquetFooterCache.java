@@ -50,25 +50,30 @@ public class SingletonParquetFooterCache {
   public ParquetMetadata getFooter(
       BulkInputStream is, String path, long fileLength, FileSystem fs, long maxFooterLen) {
     if (footer == null || !lastFile.equals(path)) {
-      String non_Parquet_Error_Message = "not a parquet file";
       try {
         footer = readFooter(is, path, fileLength, fs, maxFooterLen);
       } catch (IOException ioe) {
-        if (ioe.getMessage() != null
-            && ioe.getMessage().toLowerCase().contains(non_Parquet_Error_Message)) {
-          throw UserException.dataReadError(ioe)
-              .message(
-                  "The file %s is not in Parquet format. Please check the size and format of the files you are promoting and select the format from the dropdown box accordingly.",
-                  path)
-              .build(logger);
-        }
-        throw new RuntimeException("Failed to read parquet footer for file " + path, ioe);
+        throw footerReadError(ioe, path);
       }
       lastFile = path;
     }
     return footer;
   }
 
+  /** Translates a failure to read the footer of the given file into the error reported to users */
+  static RuntimeException footerReadError(IOException ioe, String path) {
+    String non_Parquet_Error_Message = "not a parquet file";
+    if (ioe.getMessage() != null
+        && ioe.getMessage().toLowerCase().contains(non_Parquet_Error_Message)) {
+      return UserException.dataReadError(ioe)
+          .message(
+              "The file %s is not in Parquet format. Please check the size and format of the files you are promoting and select the format from the dropdown box accordingly.",
+              path)
+          .build(logger);
+    }
+    return new RuntimeException("Failed to read parquet footer for file " + path, ioe);
+  }
+
   private static void checkMagicBytes(String path, byte[] data, int offset) throws IOException {
     for (int i = 0, v = offset; i < MAGIC_LENGTH; i++, v++) {
       if (ParquetFileWriter.MAGIC[i] != data[v]) {
@@ -127,6 +132,19 @@ public class SingletonParquetFooterCache {
       FileSystem fs,
       long maxFooterLen)
       throws IOException {
+    return parseFooter(readFooterBytes(file, path, fileLength, fs, maxFooterLen), filter);
+  }
+
+  static ParquetMetadata parseFooter(byte[] footerBytes, MetadataFilter filter)
+      throws IOException {
+    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(
+        new ByteArrayInputStream(footerBytes), filter);
+  }
+
+  /** Reads the serialized footer of the given file, without the trailing length and magic. */
+  static byte[] readFooterBytes(
+      BulkInputStream file, String path, long fileLength, FileSystem fs, long maxFooterLen)
+      throws IOException {
     Preconditions.checkArgument(
         fileLength >= MIN_FILE_SIZE || fileLength == -1,
         "%s is not a Parquet file (too small)",
@@ -171,7 +189,6 @@ public class SingletonParquetFooterCache {
     }
     logger.debug(
         "Read footer of {} of length {} in {} ms ", path, size, w.elapsed(TimeUnit.MILLISECONDS));
-    return ParquetFormatPlugin.parquetMetadataConverter.readParquetMetadata(
-        new ByteArrayInputStream(footerBytes), filter);
+    return footerBytes;
   }
 }
@@ -16,24 +16,49 @@
 package com.dremio.exec.store.parquet;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.AsyncByteReader;
 import com.dremio.io.FSInputStream;
 import com.dremio.io.file.FileSystem;
 import com.dremio.io.file.Path;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.op.scan.ScanOperator;
 import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.NettyArrowBuf;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
 
-/** An InputStreamProvider that opens a separate stream for each column. */
+/**
+ * An InputStreamProvider that opens a separate stream for each column.
+ *
+ * <p>When the file system supports async reads, the column chunks announced through {@link
+ * #prefetchColumns} are fetched ahead of time, with the chunks close to each other read together,
+ * and their streams are served from memory.
+ */
 public class StreamPerColumnProvider implements InputStreamProvider {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(StreamPerColumnProvider.class);
+
   private final FileSystem fs;
   private final Path path;
   private final long length;
   private MutableParquetMetadata footer;
   private final long maxFooterLen;
+  private final long mTime;
   private boolean readColumnOffsetIndexes;
   private final BufferAllocator allocator;
   private final OperatorContext context;
@@ -42,6 +67,9 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   private ParquetFilterCreator parquetFilterCreator;
 
   private final List<BulkInputStream> streams = new ArrayList<>();
+  // prefetched column chunks by starting position
+  private final Map<Long, ArrowBuf> prefetchedChunks = new HashMap<>();
+  private AsyncByteReader asyncReader;
 
   public StreamPerColumnProvider(
       FileSystem fs,
@@ -53,9 +81,38 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       boolean readColumnOffsetIndexes,
       ParquetFilters parquetFilters,
       ParquetFilterCreator parquetFilterCreator) {
+    this(
+        fs,
+        path,
+        length,
+        -1,
+        maxFooterLen,
+        footer,
+        context,
+        readColumnOffsetIndexes,
+        parquetFilters,
+        parquetFilterCreator);
+  }
+
+  /**
+   * @param mTime modification time of the file, footers and page indexes are only shared through
+   *     the {@link ParquetFooterCache} when it is known
+   */
+  public StreamPerColumnProvider(
+      FileSystem fs,
+      Path path,
+      long length,
+      long mTime,
+      long maxFooterLen,
+      MutableParquetMetadata footer,
+      OperatorContext context,
+      boolean readColumnOffsetIndexes,
+      ParquetFilters parquetFilters,
+      ParquetFilterCreator parquetFilterCreator) {
     this.fs = fs;
     this.path = path;
     this.length = length;
+    this.mTime = mTime;
     this.maxFooterLen = maxFooterLen;
     this.footer = footer;
     this.readColumnOffsetIndexes = readColumnOffsetIndexes;
@@ -76,12 +133,140 @@ public class StreamPerColumnProvider implements InputStreamProvider {
 
   @Override
   public BulkInputStream getStream(ColumnChunkMetaData column) throws IOException {
+    final ArrowBuf chunk =
+        column != null ? prefetchedChunks.remove(column.getStartingPos()) : null;
+    if (chunk != null) {
+      final BulkInputStream stream =
+          new PrefetchedColumnChunkInputStream(
+              chunk,
+              column.getStartingPos(),
+              () -> BulkInputStream.wrap(Streams.wrap(fs.open(path))));
+      streams.add(stream);
+      return stream;
+    }
     FSInputStream is = fs.open(path);
     BulkInputStream stream = BulkInputStream.wrap(Streams.wrap(is));
     streams.add(stream);
     return stream;
   }
 
+  @Override
+  public void prefetchColumns(List<ColumnChunkMetaData> columns) throws IOException {
+    if (allocator == null || !fs.supportsAsync()) {
+      return;
+    }
+    final OptionManager options = context.getOptions();
+    if (!options.getOption(ExecConstants.PARQUET_COALESCED_READS)) {
+      return;
+    }
+    final long maxSize = options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_SIZE);
+    final List<ColumnChunkMetaData> chunks = new ArrayList<>();
+    for (ColumnChunkMetaData column : columns) {
+      // larger chunks are streamed page by page rather than held in memory
+      if (column != null
+          && column.getTotalSize() <= maxSize
+          && !prefetchedChunks.containsKey(column.getStartingPos())) {
+        chunks.add(column);
+      }
+    }
+    if (chunks.size() < 2) {
+      return;
+    }
+
+    final List<ColumnChunkReadPlanner.Range> ranges =
+        ColumnChunkReadPlanner.plan(
+            chunks,
+            options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_GAP),
+            maxSize);
+    // the chunks past the memory cap are streamed
+    final long maxTotal = options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_TOTAL);
+    long total = 0;
+    int numRanges = 0;
+    int numChunks = 0;
+    while (numRanges < ranges.size() && total + ranges.get(numRanges).getLength() <= maxTotal) {
+      total += ranges.get(numRanges).getLength();
+      numChunks += ranges.get(numRanges).getChunks().size();
+      numRanges++;
+    }
+    if (numChunks < 2) {
+      return;
+    }
+    ranges.subList(numRanges, ranges.size()).clear();
+    if (asyncReader == null) {
+      asyncReader =
+          fs.getAsyncByteReader(
+              AsyncByteReader.FileKey.of(
+                  path,
+                  mTime >= 0 ? Long.toString(mTime) : "",
+                  AsyncByteReader.FileKey.FileType.PARQUET),
+              Collections.emptyMap());
+    }
+
+    final List<ArrowBuf> buffers = new ArrayList<>(ranges.size());
+    final CompletableFuture<?>[] reads = new CompletableFuture<?>[ranges.size()];
+    long gapBytes = 0;
+    try {
+      for (int i = 0; i < ranges.size(); i++) {
+        final ColumnChunkReadPlanner.Range range = ranges.get(i);
+        final ArrowBuf buffer = allocator.buffer(range.getLength());
+        buffers.add(buffer);
+        reads[i] =
+            asyncReader.readFully(
+                range.getOffset(),
+                NettyArrowBuf.unwrapBuffer(buffer),
+                0,
+                (int) range.getLength());
+        gapBytes += range.getLength();
+        for (ColumnChunkMetaData chunk : range.getChunks()) {
+          gapBytes -= chunk.getTotalSize();
+        }
+      }
+      CompletableFuture.allOf(reads)
+          .get(
+              options.getOption(ExecConstants.PARQUET_COALESCED_READS_TIMEOUT_MILLIS),
+              TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      releaseAfterReads(buffers, reads);
+      throw new InterruptedIOException("Interrupted while reading column chunks of " + path);
+    } catch (ExecutionException | TimeoutException | RuntimeException e) {
+      // the chunks will be read through their own streams
+      logger.debug("Unable to prefetch the column chunks of {}", path, e);
+      releaseAfterReads(buffers, reads);
+      return;
+    }
+
+    for (int i = 0; i < ranges.size(); i++) {
+      final ColumnChunkReadPlanner.Range range = ranges.get(i);
+      try (ArrowBuf buffer = buffers.get(i)) {
+        for (ColumnChunkMetaData chunk : range.getChunks()) {
+          final ArrowBuf slice =
+              buffer.slice(chunk.getStartingPos() - range.getOffset(), chunk.getTotalSize());
+          slice.getReferenceManager().retain();
+          prefetchedChunks.put(chunk.getStartingPos(), slice);
+        }
+      }
+    }
+
+    if (context.getStats() != null) {
+      context.getStats().addLongStat(ScanOperator.Metric.COLUMN_CHUNKS_REQUESTED, numChunks);
+      context.getStats().addLongStat(ScanOperator.Metric.COALESCED_READS_ISSUED, ranges.size());
+      context.getStats().addLongStat(ScanOperator.Metric.COALESCED_READS_GAP_BYTES, gapBytes);
+    }
+  }
+
+  /** Releases the buffers once the reads still writing into them are done */
+  private static void releaseAfterReads(List<ArrowBuf> buffers, CompletableFuture<?>[] reads) {
+    final List<CompletableFuture<?>> issued = new ArrayList<>();
+    for (CompletableFuture<?> read : reads) {
+      if (read != null) {
+        issued.add(read);
+      }
+    }
+    CompletableFuture.allOf(issued.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((v, e) -> AutoCloseables.close(RuntimeException.class, buffers));
+  }
+
   @Override
   public boolean isSingleStream() {
     return false;
@@ -101,8 +286,20 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       OffsetIndexProvider offsetIndexProvider;
       Preconditions.checkState(
           allocator != null, "Allocator null when trying to getOffsetIndexProvider");
+      final boolean cacheable = ParquetFooterCache.isCacheable(context, mTime, length);
+      if (cacheable) {
+        offsetIndexProvider =
+            context.getParquetFooterCache().getOffsetIndexProvider(path, mTime, length, columns);
+        if (offsetIndexProvider != null) {
+          return offsetIndexProvider;
+        }
+      }
       try (BulkInputStream inputStream = BulkInputStream.wrap(Streams.wrap(fs.open(path)))) {
         offsetIndexProvider = new OffsetIndexProvider(inputStream, allocator, columns);
+        if (cacheable) {
+          context.getParquetFooterCache()
+              .putOffsetIndexes(path, mTime, length, columns, offsetIndexProvider);
+        }
         if ((context != null) && (context.getStats() != null)) {
           context
               .getStats()
@@ -124,9 +321,21 @@ public class StreamPerColumnProvider implements InputStreamProvider {
       }
       Preconditions.checkState(
           allocator != null, "Allocator null when trying to getColumnIndexProvider");
+      final boolean cacheable = ParquetFooterCache.isCacheable(context, mTime, length);
+      if (cacheable) {
+        final ColumnIndexProvider cached =
+            context.getParquetFooterCache().getColumnIndexProvider(path, mTime, length, columns);
+        if (cached != null) {
+          return cached;
+        }
+      }
       try (BulkInputStream inputStream = BulkInputStream.wrap(Streams.wrap(fs.open(path)))) {
         ColumnIndexProvider columnIndexProvider;
         columnIndexProvider = new ColumnIndexProvider(inputStream, allocator, columns);
+        if (cacheable) {
+          context.getParquetFooterCache()
+              .putColumnIndexes(path, mTime, length, columns, columnIndexProvider);
+        }
         if ((context != null) && (context.getStats() != null)) {
           context
               .getStats()
@@ -143,11 +352,16 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   @Override
   public MutableParquetMetadata getFooter() throws IOException {
     if (footer == null) {
-      SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
-      footer =
-          new MutableParquetMetadata(
-              footerCache.getFooter(getStream(null), path.toString(), length, fs, maxFooterLen),
-              path.getName());
+      final ParquetMetadata parquetMetadata;
+      if (ParquetFooterCache.isCacheable(context, mTime, length)) {
+        parquetMetadata =
+            context.getParquetFooterCache().getFooter(this, fs, mTime, length, maxFooterLen);
+      } else {
+        SingletonParquetFooterCache footerCache = new SingletonParquetFooterCache();
+        parquetMetadata =
+            footerCache.getFooter(getStream(null), path.toString(), length, fs, maxFooterLen);
+      }
+      footer = new MutableParquetMetadata(parquetMetadata, path.getName());
     }
     return footer;
   }
@@ -155,7 +369,9 @@ public class StreamPerColumnProvider implements InputStreamProvider {
   @Override
   public void close() throws IOException {
     try {
-      AutoCloseables.close(streams);
+      AutoCloseables.close(
+          streams, prefetchedChunks.values(), Collections.singletonList(asyncReader));
+      prefetchedChunks.clear();
     } catch (IOException | RuntimeException e) {
       throw e;
     } catch (Exception e) {
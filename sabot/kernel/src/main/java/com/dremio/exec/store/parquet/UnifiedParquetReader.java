@@ -117,6 +117,8 @@ public class UnifiedParquetReader implements RecordReader {
   private InputStreamProvider inputStreamProvider;
   private boolean ignoreSchemaLearning;
   private List<RuntimeFilter> runtimeFilters;
+  // set when a runtime filter received during the scan rules out the rest of the row group
+  private boolean skipRemainingRows;
 
   private OutputMutator outputMutator;
   private ArrowBuf validityBuf;
@@ -252,7 +254,8 @@ public class UnifiedParquetReader implements RecordReader {
       this.validityBuf = context.getAllocator().buffer(maxValidityBufSize);
     }
 
-    final ExecutionPath execPath = getExecutionPath();
+    final ExecutionPath execPath =
+        canSkipRowGroup(runtimeFilters) ? ExecutionPath.SKIP_ALL : getExecutionPath();
     delegates = execPath.getReaders(this);
 
     Preconditions.checkArgument(
@@ -406,6 +409,10 @@ public class UnifiedParquetReader implements RecordReader {
 
   @Override
   public int next() {
+    if (skipRemainingRows) {
+      return 0;
+    }
+
     // at most one filter
     if (validityBuf == null) {
       return readEnsuringReadersReturnSameNumberOfRecords();
@@ -1090,7 +1097,33 @@ public class UnifiedParquetReader implements RecordReader {
           RuntimeFilter.getInstanceWithNewNonPartitionColFiltersList(runtimeFilter);
       this.runtimeFilters.add(filterWithNewNonPartColFilterList);
       this.delegates.forEach(d -> d.addRuntimeFilter(filterWithNewNonPartColFilterList));
+      // no row left to read can pass a filter that rules out the whole row group
+      if (columnResolver != null
+          && !skipRemainingRows
+          && canSkipRowGroup(Collections.singletonList(filterWithNewNonPartColFilterList))) {
+        skipRemainingRows = true;
+      }
+    }
+  }
+
+  /** Checks the value lists of the given runtime filters against the row group statistics. */
+  private boolean canSkipRowGroup(List<RuntimeFilter> filters) {
+    if (filters.isEmpty()
+        || !context.getOptions().getOption(ExecConstants.ENABLE_RUNTIME_FILTER_ROW_GROUP_PRUNING)) {
+      return false;
+    }
+    final List<BlockMetaData> blocks = footer.getBlocks();
+    final int rowGroupIndex = readEntry.getRowGroupIndex();
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(
+            rowGroupIndex < blocks.size() ? blocks.get(rowGroupIndex) : null,
+            columnResolver,
+            inputStreamProvider);
+    if (!pruner.canSkip(filters)) {
+      return false;
     }
+    addMetricValue(Metric.NUM_ROW_GROUPS_PRUNED, 1L);
+    return true;
   }
 
   /**
@@ -408,6 +408,14 @@ public class ParquetRowiseReader extends AbstractParquetReader {
         for (ColumnChunkMetaData md : footer.getBlocks().get(rowGroupIndex).getColumns()) {
           paths.put(md.getPath(), md);
         }
+        List<ColumnChunkMetaData> projectedChunks = new ArrayList<>();
+        for (String[] path : projection.getPaths()) {
+          Type type = schema.getType(path);
+          if (type.isPrimitive()) {
+            projectedChunks.add(paths.get(ColumnPath.get(path)));
+          }
+        }
+        inputStreamProvider.prefetchColumns(projectedChunks);
         for (String[] path : projection.getPaths()) {
           Type type = schema.getType(path);
           if (type.isPrimitive()) {
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import com.dremio.exec.store.cache.BlockCache;
+
+/** Usage of the block cache of a SabotNode */
+public class BlockCacheInfo {
+  public final String node_id;
+
+  /** The SabotNode hostname */
+  public final String hostname;
+
+  /** The SabotNode fabric port */
+  public final long fabric_port;
+
+  public final long entries;
+  public final long size_bytes;
+  public final long max_size_bytes;
+  public final long block_size_bytes;
+  public final long hit_count;
+  public final long miss_count;
+
+  /** share of the reads entirely served from the cache */
+  public final double hit_ratio;
+
+  /** bytes read from the cache instead of the sources */
+  public final long bytes_saved;
+
+  public final long fill_count;
+  public final long fill_bytes;
+  public final long fill_failure_count;
+
+  /** blocks read often enough to be cached but dropped as the cache couldn't keep up */
+  public final long rejected_fill_count;
+
+  public final long eviction_count;
+
+  public BlockCacheInfo(String hostname, long fabric_port, BlockCache cache) {
+    this.hostname = hostname;
+    this.fabric_port = fabric_port;
+    this.node_id = hostname + ":" + fabric_port;
+    this.entries = cache.getEntryCount();
+    this.size_bytes = cache.getSize();
+    this.max_size_bytes = cache.getMaximumSize();
+    this.block_size_bytes = cache.getBlockSize();
+    this.hit_count = cache.getHitCount();
+    this.miss_count = cache.getMissCount();
+    this.hit_ratio =
+        hit_count + miss_count == 0 ? 0 : (double) hit_count / (hit_count + miss_count);
+    this.bytes_saved = cache.getBytesRead();
+    this.fill_count = cache.getFillCount();
+    this.fill_bytes = cache.getFillBytes();
+    this.fill_failure_count = cache.getFillFailureCount();
+    this.rejected_fill_count = cache.getRejectedFillCount();
+    this.eviction_count = cache.getEvictionCount();
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.sys;
+
+import com.dremio.exec.store.parquet.ParquetFooterCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/** Usage of the parquet footer and page index cache of a SabotNode */
+public class ParquetFooterCacheInfo {
+  public final String node_id;
+
+  /** The SabotNode hostname */
+  public final String hostname;
+
+  /** The SabotNode fabric port */
+  public final long fabric_port;
+
+  public final long entries;
+
+  /** estimated heap size of the cached footers and page indexes */
+  public final long size_bytes;
+
+  public final long max_size_bytes;
+  public final long hit_count;
+  public final long miss_count;
+  public final long load_success_count;
+  public final long load_failure_count;
+  public final long eviction_count;
+
+  public ParquetFooterCacheInfo(String hostname, long fabric_port, ParquetFooterCache cache) {
+    final CacheStats stats = cache.getStats();
+    this.hostname = hostname;
+    this.fabric_port = fabric_port;
+    this.node_id = hostname + ":" + fabric_port;
+    this.entries = cache.getEntryCount();
+    this.size_bytes = cache.getSize();
+    this.max_size_bytes = cache.getMaximumSize();
+    this.hit_count = stats.hitCount();
+    this.miss_count = stats.missCount();
+    this.load_success_count = stats.loadSuccessCount();
+    this.load_failure_count = stats.loadFailureCount();
+    this.eviction_count = stats.evictionCount();
+  }
+}
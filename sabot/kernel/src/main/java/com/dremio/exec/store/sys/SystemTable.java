@@ -29,6 +29,10 @@ import com.dremio.exec.proto.CoordinationProtos;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.store.RecordDataType;
+import com.dremio.exec.store.cache.BlockCache;
+import com.dremio.exec.store.cache.BlockCacheFileSystemWrapper;
+import com.dremio.exec.store.dfs.FileSystemWrapper;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.store.pojo.PojoDataType;
 import com.dremio.exec.store.sys.OptionIterator.OptionValueWrapper;
 import com.dremio.exec.store.sys.accel.AccelerationListManager;
@@ -147,6 +151,38 @@ public enum SystemTable implements DatasetHandle, DatasetMetadata, PartitionChun
     }
   },
 
+  PARQUET_FOOTER_CACHE(true, ParquetFooterCacheInfo.class, "parquet_footer_cache") {
+    @Override
+    public Iterator<?> getIterator(SabotContext sContext, OperatorContext context) {
+      final ParquetFooterCache cache = sContext.getParquetFooterCache();
+      if (cache == null) {
+        return ImmutableList.of().iterator();
+      }
+      final CoordinationProtos.NodeEndpoint endpoint = sContext.getEndpoint();
+      return ImmutableList.of(
+              new ParquetFooterCacheInfo(endpoint.getAddress(), endpoint.getFabricPort(), cache))
+          .iterator();
+    }
+  },
+
+  BLOCK_CACHE(true, BlockCacheInfo.class, "block_cache") {
+    @Override
+    public Iterator<?> getIterator(SabotContext sContext, OperatorContext context) {
+      final FileSystemWrapper wrapper = sContext.getFileSystemWrapper();
+      final BlockCache cache =
+          wrapper != null && wrapper.isWrapperFor(BlockCacheFileSystemWrapper.class)
+              ? wrapper.unwrap(BlockCacheFileSystemWrapper.class).getCache()
+              : null;
+      if (cache == null) {
+        return ImmutableList.of().iterator();
+      }
+      final CoordinationProtos.NodeEndpoint endpoint = sContext.getEndpoint();
+      return ImmutableList.of(
+              new BlockCacheInfo(endpoint.getAddress(), endpoint.getFabricPort(), cache))
+          .iterator();
+    }
+  },
+
   DEPENDENCIES(false, AccelerationListManager.DependencyInfo.class, "dependencies") {
     @Override
     public Iterator<?> getIterator(final SabotContext sContext, final OperatorContext context) {
@@ -28,6 +28,7 @@ import java.nio.charset.StandardCharsets;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVectorHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +40,13 @@ import org.slf4j.LoggerFactory;
  * reused for all keys See "Less Hashing, Same Performance: Building a Better Bloom Filter" by Adam
  * Kirsch and Michael Mitzenmacher. The paper argues that this trick doesn't significantly
  * deteriorate the performance of a Bloom filter (yet only needs two hash functions).
+ *
+ * <p>In the split block layout, the bits are divided in 64 byte (cache line sized) blocks of eight
+ * 64 bit words. A key sets a single bit in each word of one block, picked by the first hash value,
+ * so that adding or checking a key touches a single cache line and the eight word checks have no
+ * dependency on each other. See "Cache-, Hash- and Space-Efficient Bloom Filters" by Putze,
+ * Sanders and Singler; this is the scheme of the Parquet bloom filters, with wider words. Both
+ * sides of a runtime filter must agree on the layout, which is not part of the serialized bits.
  */
 @NotThreadSafe
 public class BloomFilter implements AutoCloseable {
@@ -46,6 +54,11 @@ public class BloomFilter implements AutoCloseable {
   private static final double FPP = 0.01;
   private static final int META_BYTES_CNT = 32; // should always be a multiple of 8
   private static final int SEED = 0;
+  private static final int BLOCK_BYTES = 64;
+  // odd constants used to pick one bit per word in the split block layout
+  private static final int[] SALT = {
+    0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+  };
 
   private BufferAllocator allocator;
   private long sizeInBits;
@@ -54,6 +67,8 @@ public class BloomFilter implements AutoCloseable {
   private String name;
   private ArrowBuf dataBuffer;
   private long numBitsSetLoc = 0;
+  private final boolean splitBlock;
+  private long numBlocks;
 
   /**
    * Initialise. The dataBuffer memory is used for keeping the bloomfilter bits. The num of hash
@@ -65,18 +80,34 @@ public class BloomFilter implements AutoCloseable {
    *     considering the rounding policy used by the allocator.
    */
   public BloomFilter(BufferAllocator bufferAllocator, String name, long minSizeBytes) {
+    this(bufferAllocator, name, minSizeBytes, false);
+  }
+
+  /**
+   * Initialise a filter with the given layout. With the split block layout, the data size is
+   * rounded down to a multiple of the block size.
+   *
+   * @param bufferAllocator
+   * @param name
+   * @param minSizeBytes Min size for the filter, including the meta bytes.
+   * @param splitBlock true for the split block layout
+   */
+  public BloomFilter(
+      BufferAllocator bufferAllocator, String name, long minSizeBytes, boolean splitBlock) {
     // Enables filter to do 64 bit operations during merge.
     checkArgument(minSizeBytes % 8 == 0, "Data size should be multiple of 8 bytes");
     checkArgument(minSizeBytes > META_BYTES_CNT, "Invalid data size");
     checkNotNull(bufferAllocator);
 
     // Last 32 bytes are used for meta purposes. 24 bytes for name, and 8 bytes for numBitsSet.
-    this.sizeInBytes = minSizeBytes - META_BYTES_CNT;
+    this.splitBlock = splitBlock;
+    this.sizeInBytes = getDataSize(minSizeBytes);
     this.allocator = bufferAllocator;
     this.name = name;
   }
 
-  private BloomFilter(ArrowBuf dataBuffer) {
+  private BloomFilter(ArrowBuf dataBuffer, boolean splitBlock) {
+    this.splitBlock = splitBlock;
     setup(dataBuffer);
 
     byte[] nameBytes = new byte[24];
@@ -124,12 +155,23 @@ public class BloomFilter implements AutoCloseable {
     checkArgument(dataSize % 8 == 0, "Data size should be multiple of 8 bytes");
     checkArgument(dataSize > META_BYTES_CNT, "Invalid data size");
     this.dataBuffer = dataBuffer;
-    this.sizeInBytes = dataSize - META_BYTES_CNT;
+    this.sizeInBytes = getDataSize(dataSize);
     this.sizeInBits = this.sizeInBytes * 8;
-    this.numHashFunctions = getOptimalNumOfHashFunctions();
+    this.numBlocks = this.sizeInBytes / BLOCK_BYTES;
+    this.numHashFunctions = splitBlock ? SALT.length : getOptimalNumOfHashFunctions();
     this.allocator = null;
   }
 
+  /** Size of the bits of a filter stored in a buffer of the given size. */
+  private long getDataSize(long bufferSize) {
+    final long dataSize = bufferSize - META_BYTES_CNT;
+    if (!splitBlock) {
+      return dataSize;
+    }
+    checkArgument(dataSize >= BLOCK_BYTES, "Invalid data size for a split block filter");
+    return dataSize / BLOCK_BYTES * BLOCK_BYTES;
+  }
+
   public String getName() {
     return name;
   }
@@ -146,7 +188,22 @@ public class BloomFilter implements AutoCloseable {
    * @return
    */
   public static BloomFilter prepareFrom(ArrowBuf dataBuffer) {
-    return new BloomFilter(dataBuffer);
+    return new BloomFilter(dataBuffer, false);
+  }
+
+  /**
+   * Deserialization helper for a filter of the given layout.
+   *
+   * @param dataBuffer ArrowBuf containing bloomfilter set bits
+   * @param splitBlock true if the filter uses the split block layout
+   * @return
+   */
+  public static BloomFilter prepareFrom(ArrowBuf dataBuffer, boolean splitBlock) {
+    return new BloomFilter(dataBuffer, splitBlock);
+  }
+
+  public boolean isSplitBlock() {
+    return splitBlock;
   }
 
   /**
@@ -170,7 +227,34 @@ public class BloomFilter implements AutoCloseable {
    * @return
    */
   public boolean mightContain(ArrowBuf bloomFilterKey, int length) {
-    HashValPair hashValPair = MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED);
+    return mightContain(MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED));
+  }
+
+  /**
+   * Checks a batch of fixed width keys against the filter.
+   *
+   * @param keys ArrowBuf containing the keys one after the other, starting at index zero
+   * @param keyLength length of each key
+   * @param numKeys number of keys
+   * @param matches bitmap with a bit per key, set if the key might be present and unset otherwise
+   * @return number of keys that might be present
+   */
+  public int mightContain(ArrowBuf keys, int keyLength, int numKeys, ArrowBuf matches) {
+    int numMatches = 0;
+    long keyStart = 0;
+    for (int i = 0; i < numKeys; i++, keyStart += keyLength) {
+      final boolean match =
+          mightContain(MurmurHash3.murmur3_128(keyStart, keyStart + keyLength, keys, SEED));
+      BitVectorHelper.setValidityBit(matches, i, match ? 1 : 0);
+      numMatches += match ? 1 : 0;
+    }
+    return numMatches;
+  }
+
+  private boolean mightContain(HashValPair hashValPair) {
+    if (splitBlock) {
+      return blockContains(hashValPair.getHash1());
+    }
     long combinedHash = hashValPair.getHash1();
     for (int i = 0; i < numHashFunctions; i++) {
       // Make the combined hash positive and indexable
@@ -192,6 +276,9 @@ public class BloomFilter implements AutoCloseable {
    */
   public boolean put(ArrowBuf bloomFilterKey, int length) {
     HashValPair hashValPair = MurmurHash3.murmur3_128(0, length, bloomFilterKey, SEED);
+    if (splitBlock) {
+      return blockPut(hashValPair.getHash1());
+    }
     boolean bitsChanged = false;
     long combinedHash = hashValPair.getHash1();
     long numBitsSet = getNumBitsSet();
@@ -210,6 +297,45 @@ public class BloomFilter implements AutoCloseable {
     return bitsChanged;
   }
 
+  /** Address of the block of the split block layout in which the given hash is stored */
+  private long getBlockAddress(long hash) {
+    // maps the upper 32 bits of the hash to [0, numBlocks) without a division
+    final long block = ((hash >>> 32) * numBlocks) >>> 32;
+    return dataBuffer.memoryAddress() + block * BLOCK_BYTES;
+  }
+
+  private boolean blockPut(long hash) {
+    final long blockAddr = getBlockAddress(hash);
+    final int key = (int) hash;
+    int newBitsSet = 0;
+    for (int i = 0; i < SALT.length; i++) {
+      final long wordAddr = blockAddr + i * 8L;
+      final long word = PlatformDependent.getLong(wordAddr);
+      final long mask = 1L << ((key * SALT[i]) >>> 26);
+      if ((word & mask) == 0) {
+        PlatformDependent.putLong(wordAddr, word | mask);
+        newBitsSet++;
+      }
+    }
+    if (newBitsSet == 0) {
+      return false;
+    }
+    setNumBitsSet(getNumBitsSet() + newBitsSet);
+    return true;
+  }
+
+  private boolean blockContains(long hash) {
+    final long blockAddr = getBlockAddress(hash);
+    final int key = (int) hash;
+    // no early exit, the checks of the eight words are independent
+    long missing = 0;
+    for (int i = 0; i < SALT.length; i++) {
+      final long mask = 1L << ((key * SALT[i]) >>> 26);
+      missing |= ~PlatformDependent.getLong(blockAddr + i * 8L) & mask;
+    }
+    return missing == 0;
+  }
+
   /**
    * Returns the probability that {@linkplain #mightContain(ArrowBuf, int)} will erroneously return
    * {@code true} for an object that has not actually been put in the {@code BloomFilter}.
@@ -217,12 +343,42 @@ public class BloomFilter implements AutoCloseable {
    * <p>FPP increases exponentially when the number of distinct keys in the bloomfilter increase
    * linearly.
    *
+   * <p>For the split block layout the keys are not spread over the whole filter but over the words
+   * of a single block, so the FPP is averaged over the (Poisson distributed) number of keys that
+   * share a block.
+   *
    * @return
    */
   public double getExpectedFPP() {
+    if (splitBlock) {
+      return getExpectedBlockFPP();
+    }
     return Math.pow((double) getNumBitsSet() / sizeInBits, numHashFunctions);
   }
 
+  private double getExpectedBlockFPP() {
+    final double fractionSet = (double) getNumBitsSet() / sizeInBits;
+    if (fractionSet >= 1) {
+      return 1;
+    }
+    // each key sets one bit in each 64 bit word of its block, hence a fraction of
+    // 1 - e^(-keysPerBlock / 64) of the bits is set
+    final double keysPerBlock = -Long.SIZE * Math.log1p(-fractionSet);
+    final int maxKeysPerBlock =
+        (int) Math.ceil(keysPerBlock + 10 * Math.sqrt(keysPerBlock) + 10);
+    final double logUnsetPerKey = Math.log1p(-1.0 / Long.SIZE);
+    // log of the probability that a block holds i keys
+    double logProbability = -keysPerBlock;
+    double fpp = 0;
+    for (int i = 0; i <= maxKeysPerBlock; i++) {
+      // probability that a word holding i keys has a given bit set
+      final double wordFPP = -Math.expm1(i * logUnsetPerKey);
+      fpp += Math.exp(logProbability) * Math.pow(wordFPP, SALT.length);
+      logProbability += Math.log(keysPerBlock / (i + 1));
+    }
+    return Math.min(1, fpp);
+  }
+
   /**
    * Returns true if expected FPP is greater than five times configured FPP (0.01)
    *
@@ -256,6 +412,27 @@ public class BloomFilter implements AutoCloseable {
     return optimalSize + META_BYTES_CNT;
   }
 
+  /**
+   * Returns optimal size of the filter for "n" insertions and the given FPP, for the given layout.
+   * The split block layout needs more bits than the classic one for the same FPP.
+   *
+   * @param expectedInsertions - number of expected insertions
+   * @param fpp - target false positive probability
+   * @param splitBlock - true for the split block layout
+   * @return
+   */
+  public static long getOptimalSize(long expectedInsertions, double fpp, boolean splitBlock) {
+    if (!splitBlock) {
+      return getOptimalSize(expectedInsertions);
+    }
+    checkArgument(expectedInsertions > 0);
+    checkArgument(fpp > 0 && fpp < 1, "Invalid false positive probability %s", fpp);
+    // Each key sets 8 bits, in a block of 512 bits
+    final double bits = -SALT.length * expectedInsertions / Math.log(1 - Math.pow(fpp, 1.0 / 8));
+    final long numBlocks = Math.max(1, (long) Math.ceil(bits / (BLOCK_BYTES * 8)));
+    return numBlocks * BLOCK_BYTES + META_BYTES_CNT;
+  }
+
   /**
    * Merges the bits from another bloomfilter into this one. This operation will work only if both
    * filters are compatible for merge.
@@ -269,6 +446,8 @@ public class BloomFilter implements AutoCloseable {
     checkArgument(
         this.numHashFunctions == that.numHashFunctions,
         "Incompatible BloomFilter, different hashing technique.");
+    checkArgument(
+        this.splitBlock == that.splitBlock, "Incompatible BloomFilter, different layouts.");
     checkArgument(
         this.sizeInBits == that.sizeInBits,
         "Incompatible BloomFilter, different sizes (%s, %s).",
@@ -355,6 +534,8 @@ public class BloomFilter implements AutoCloseable {
         + sizeInBytes
         + ", numHashFunctions="
         + numHashFunctions
+        + ", splitBlock="
+        + splitBlock
         + ", numBitsSet="
         + getNumBitsSet()
         + ", expectedFpp="
@@ -372,7 +553,7 @@ public class BloomFilter implements AutoCloseable {
           pColFilterData.memoryAddress(),
           pColFilterDataCopy.memoryAddress(),
           pColFilterData.capacity());
-      BloomFilter copyBloomFilter = BloomFilter.prepareFrom(pColFilterDataCopy);
+      BloomFilter copyBloomFilter = BloomFilter.prepareFrom(pColFilterDataCopy, splitBlock);
       rollbackCloseable.commit();
       return copyBloomFilter;
     } catch (Exception e) {
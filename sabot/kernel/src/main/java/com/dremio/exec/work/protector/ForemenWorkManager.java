@@ -42,6 +42,8 @@ import com.dremio.exec.planner.observer.OutOfBandQueryObserver;
 import com.dremio.exec.planner.observer.QueryObserver;
 import com.dremio.exec.planner.plancache.CachedPlan;
 import com.dremio.exec.planner.plancache.LegacyPlanCache;
+import com.dremio.exec.planner.plancache.PlanCacheInvalidationStore;
+import com.dremio.exec.planner.plancache.SharedInvalidationPlanCache;
 import com.dremio.exec.planner.sql.handlers.commands.PreparedPlan;
 import com.dremio.exec.proto.GeneralRPCProtos.Ack;
 import com.dremio.exec.proto.UserBitShared;
@@ -279,8 +281,11 @@ public class ForemenWorkManager implements Service, SafeExit {
             .build();
 
     legacyPlanCache =
-        new LegacyPlanCache(
-            cachedPlans, Multimaps.synchronizedListMultimap(ArrayListMultimap.create()));
+        new SharedInvalidationPlanCache(
+            cachedPlans,
+            Multimaps.synchronizedListMultimap(ArrayListMultimap.create()),
+            new PlanCacheInvalidationStore(() -> dbContext.get().getKVStoreProvider()),
+            dbContext.get().getOptionManager());
 
     partitionStatsCache =
         new PartitionStatsCache(
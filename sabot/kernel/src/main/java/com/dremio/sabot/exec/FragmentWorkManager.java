@@ -40,6 +40,7 @@ import com.dremio.exec.server.NodeDebugContextProvider;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.service.executor.ExecutorServiceImpl;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.work.SafeExit;
 import com.dremio.exec.work.WorkStats;
 import com.dremio.options.OptionManager;
@@ -72,6 +73,9 @@ import com.google.common.collect.Sets;
 import java.sql.Timestamp;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
@@ -103,6 +107,7 @@ public class FragmentWorkManager implements Service, SafeExit {
   private WorkloadTicketDepot ticketDepot;
   private QueriesClerk clerk;
   private CloseableExecutorService executor;
+  private CloseableThreadPool spoolingPool;
   private final Provider<MaestroClientFactory> maestroServiceClientFactoryProvider;
   private final Provider<JobTelemetryExecutorClientFactory> jobTelemetryClientFactoryProvider;
   private final Provider<JobResultsClientFactory> jobResultsClientFactoryProvider;
@@ -309,6 +314,16 @@ public class FragmentWorkManager implements Service, SafeExit {
     bitContext = dbContext.get();
 
     this.executor = new CloseableThreadPool("fragment-work-executor-");
+    final int spoolingThreads = sabotConfig.getInt(ExecConstants.SPOOLING_BUFFER_THREADS);
+    this.spoolingPool =
+        new CloseableThreadPool(
+            "spooling-buffer-",
+            spoolingThreads,
+            spoolingThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+    spoolingPool.allowCoreThreadTimeOut(true);
 
     // start the internal rpc layer.
     this.allocator =
@@ -382,6 +397,8 @@ public class FragmentWorkManager implements Service, SafeExit {
             bitContext.getDecimalFunctionImplementationRegistry(),
             bitContext.getNodeDebugContext(),
             bitContext.getSpillService(),
+            spoolingPool,
+            bitContext.getParquetFooterCache(),
             bitContext.getCompiler(),
             ClusterCoordinator.Role.fromEndpointRoles(identity.get().getRoles()),
             jobResultsClientFactoryProvider,
@@ -442,6 +459,8 @@ public class FragmentWorkManager implements Service, SafeExit {
       FunctionImplementationRegistry decimalFunctionImplementationRegistry,
       NodeDebugContextProvider nodeDebugContext,
       SpillService spillService,
+      Executor spoolingExecutor,
+      ParquetFooterCache parquetFooterCache,
       CodeCompiler compiler,
       Set<Role> roles,
       Provider<JobResultsClientFactory> jobResultsClientFactoryProvider,
@@ -468,6 +487,8 @@ public class FragmentWorkManager implements Service, SafeExit {
         decimalFunctionImplementationRegistry,
         nodeDebugContext,
         spillService,
+        spoolingExecutor,
+        parquetFooterCache,
         compiler,
         roles,
         jobResultsClientFactoryProvider,
@@ -509,6 +530,7 @@ public class FragmentWorkManager implements Service, SafeExit {
         heapMonitorManager,
         executor,
         fragmentExecutors,
+        spoolingPool,
         maestroProxy,
         allocator,
         heapLowMemController);
@@ -17,6 +17,7 @@ package com.dremio.sabot.exec.context;
 
 import static com.dremio.proto.model.PartitionStats.PartitionStatsValue;
 
+import com.dremio.exec.compile.CodeCompilationStats;
 import com.dremio.exec.expr.fn.FunctionErrorContext;
 import com.dremio.exec.planner.logical.partition.PruneFilterCondition;
 import com.dremio.exec.store.EndPointListProvider;
@@ -142,4 +143,13 @@ public interface FunctionContext {
 
   PartitionStatsValue getSurvivingRowCountWithPruneFilter(
       FilterableScan scan, PruneFilterCondition pruneCondition) throws Exception;
+
+  /**
+   * Collects the time spent compiling the classes generated with this context.
+   *
+   * @return the stats, or null if they are not collected.
+   */
+  default CodeCompilationStats getCodeCompilationStats() {
+    return null;
+  }
 }
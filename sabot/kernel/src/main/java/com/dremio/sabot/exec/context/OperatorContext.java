@@ -32,6 +32,7 @@ import com.dremio.exec.proto.UserBitShared.QueryId;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.exec.server.NodeDebugContextProvider;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.testing.ExecutionControls;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.heap.HeapLowMemController;
@@ -133,6 +134,15 @@ public abstract class OperatorContext {
 
   public abstract ExpressionSplitCache getExpressionSplitCache();
 
+  /**
+   * Cache of parquet footers and page indexes of the node.
+   *
+   * @return the cache, or null if the operator doesn't run in a fragment of the node.
+   */
+  public ParquetFooterCache getParquetFooterCache() {
+    return null;
+  }
+
   public static int getChildCount(PhysicalOperator popConfig) {
     Iterator<PhysicalOperator> iter = popConfig.iterator();
     int i = 0;
@@ -37,6 +37,7 @@ import com.dremio.exec.proto.UserBitShared.QueryId;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.exec.server.NodeDebugContextProvider;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.testing.ExecutionControls;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.fragment.FragmentExecutorBuilder;
@@ -264,6 +265,11 @@ public class OperatorContextImpl extends OperatorContext implements AutoCloseabl
     return expressionSplitCache;
   }
 
+  @Override
+  public ParquetFooterCache getParquetFooterCache() {
+    return fragmentExecutorBuilder != null ? fragmentExecutorBuilder.getParquetFooterCache() : null;
+  }
+
   @Override
   public QueryId getQueryIdForLocalQuery() {
     if (fragmentExecutorBuilder == null) {
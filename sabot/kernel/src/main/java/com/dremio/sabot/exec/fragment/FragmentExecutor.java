@@ -90,6 +90,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.arrow.memory.ArrowBuf;
@@ -248,6 +249,7 @@ public class FragmentExecutor implements MemoryArbiterTask {
       DeferredException exception,
       EventProvider eventProvider,
       SpillService spillService,
+      Executor spoolingExecutor,
       NodeDebugContextProvider nodeDebugContext) {
     super();
     this.name = QueryIdHelper.getExecutorThreadName(fragmentFromPlan.getHandle());
@@ -298,6 +300,7 @@ public class FragmentExecutor implements MemoryArbiterTask {
             fragmentOptions,
             executionControls,
             spillService,
+            spoolingExecutor,
             reader.getPlanFragmentsIndex());
     this.eventProvider = eventProvider;
     this.cancelled = SettableFuture.create();
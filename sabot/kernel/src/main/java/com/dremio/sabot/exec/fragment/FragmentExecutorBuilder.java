@@ -42,6 +42,7 @@ import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.server.NodeDebugContextProvider;
 import com.dremio.exec.server.options.FragmentOptionManager;
 import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.parquet.ParquetFooterCache;
 import com.dremio.exec.testing.ControlsInjector;
 import com.dremio.exec.testing.ControlsInjectorFactory;
 import com.dremio.exec.testing.ExecutionControls;
@@ -81,6 +82,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Provider;
 import org.apache.arrow.memory.BufferAllocator;
@@ -123,6 +125,8 @@ public class FragmentExecutorBuilder {
   private final ContextInformationFactory contextInformationFactory;
   private final NodeDebugContextProvider nodeDebugContextProvider;
   private final SpillService spillService;
+  private final Executor spoolingExecutor;
+  private final ParquetFooterCache parquetFooterCache;
   private final Provider<JobResultsClientFactory> jobResultsClientFactoryProvider;
   private final Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider;
   private final HeapLowMemController heapLowMemController;
@@ -147,6 +151,8 @@ public class FragmentExecutorBuilder {
       FunctionImplementationRegistry decimalFunctions,
       NodeDebugContextProvider nodeDebugContextProvider,
       SpillService spillService,
+      Executor spoolingExecutor,
+      ParquetFooterCache parquetFooterCache,
       CodeCompiler codeCompiler,
       Set<ClusterCoordinator.Role> roles,
       Provider<JobResultsClientFactory> jobResultsClientFactoryProvider,
@@ -176,6 +182,8 @@ public class FragmentExecutorBuilder {
     this.contextInformationFactory = contextInformationFactory;
     this.nodeDebugContextProvider = nodeDebugContextProvider;
     this.spillService = spillService;
+    this.spoolingExecutor = spoolingExecutor;
+    this.parquetFooterCache = parquetFooterCache;
     this.jobResultsClientFactoryProvider = jobResultsClientFactoryProvider;
     this.heapLowMemController = heapLowMemController;
   }
@@ -196,6 +204,10 @@ public class FragmentExecutorBuilder {
     return clerk;
   }
 
+  public ParquetFooterCache getParquetFooterCache() {
+    return parquetFooterCache;
+  }
+
   /**
    * Obtains a query ticket, then starts the query with this query ticket
    *
@@ -407,6 +419,7 @@ public class FragmentExecutorBuilder {
                 exception,
                 eventProvider,
                 spillService,
+                spoolingExecutor,
                 nodeDebugContextProvider);
         commit.commit();
 
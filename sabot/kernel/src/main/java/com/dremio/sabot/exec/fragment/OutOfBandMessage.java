@@ -120,6 +120,11 @@ public class OutOfBandMessage {
     }
   }
 
+  /** Whether the payload of the message is of the given type, to parse with its parser. */
+  public boolean hasPayloadOfType(Class<? extends MessageLite> type) {
+    return type.getName().equals(payload.type);
+  }
+
   public boolean isShrinkMemoryRequest() {
     return isShrinkMemoryRequest;
   }
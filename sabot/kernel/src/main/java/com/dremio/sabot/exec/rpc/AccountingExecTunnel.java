@@ -73,6 +73,10 @@ public class AccountingExecTunnel {
     tunnel.sendDLRMessage(statusHandler, message);
   }
 
+  public boolean isBodyCompressionSupported() {
+    return tunnel.isBodyCompressionSupported();
+  }
+
   private static class StatsTrackingListenerWrapper implements RpcOutcomeListener<Ack> {
     private final RpcOutcomeListener<Ack> inner;
     private final Stopwatch watch;
@@ -43,6 +43,11 @@ public interface ExecTunnel {
   void sendDLRMessage(
       RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, DynamicLoadRoutingMessage message);
 
+  /** Returns whether the receiving node accepts record batches with a compressed body. */
+  default boolean isBodyCompressionSupported() {
+    return false;
+  }
+
   static void checkFragmentHandle(ExecProtos.FragmentHandle handle) {
     Preconditions.checkState(handle.hasQueryId(), "must set query id");
     Preconditions.checkState(handle.hasMajorFragmentId(), "must set major fragment id");
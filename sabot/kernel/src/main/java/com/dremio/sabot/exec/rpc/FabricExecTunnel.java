@@ -24,6 +24,7 @@ import com.dremio.exec.rpc.ListeningCommand;
 import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.sabot.exec.DynamicLoadRoutingMessage;
 import com.dremio.sabot.exec.fragment.OutOfBandMessage;
+import com.dremio.services.fabric.FabricCapabilities;
 import com.dremio.services.fabric.ProxyConnection;
 import com.dremio.services.fabric.api.FabricCommandRunner;
 import com.google.common.base.Preconditions;
@@ -64,6 +65,12 @@ public class FabricExecTunnel implements ExecTunnel {
     manager.runCommand(new SendDLRMessage(outcomeListener, message));
   }
 
+  @Override
+  public boolean isBodyCompressionSupported() {
+    // negotiated when connecting, so the first batches sent to a node are never compressed
+    return manager.hasRemoteCapability(FabricCapabilities.BODY_COMPRESSION_LZ4);
+  }
+
   @Override
   public void informReceiverFinished(
       RpcOutcomeListener<Ack> outcomeListener, FinishedReceiver finishedReceiver) {
@@ -111,7 +111,16 @@ public class HashAggStats {
     OOB_DROP_ALREADY_SPILLING, // Number of times operator dropped spilling notification as it was
     // already spilling
     SETUP_MILLIS,
-    CAN_PRODUCE_MILLIS;
+    CAN_PRODUCE_MILLIS,
+
+    // adaptive bypass of partial aggregation
+    ADAPTIVE_BYPASS(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Number of partial aggregations that stopped aggregating as they barely reduced the data"),
+    ADAPTIVE_BYPASS_SAMPLE_GROUP_PERCENT, // groups per 100 records in the sample used to decide
+    ADAPTIVE_BYPASS_SWITCH_RECORDS, // records consumed when the aggregation switched
+    ADAPTIVE_BYPASS_FLUSHES; // number of times the in-memory partitions were output early
 
     private final DisplayType displayType;
     private final AggregationType aggregationType;
@@ -54,9 +54,11 @@ import com.dremio.sabot.op.aggregate.vectorized.HashAggStats.Metric;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggDebug.HashAggErrorType;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggPartitionSpillHandler.SpilledPartitionIterator;
 import com.dremio.sabot.op.aggregate.vectorized.arrayagg.ArrayAggAccumulator;
+import com.dremio.sabot.op.common.ht2.BlockChunk;
 import com.dremio.sabot.op.common.ht2.BoundedPivots;
 import com.dremio.sabot.op.common.ht2.FieldVectorPair;
 import com.dremio.sabot.op.common.ht2.FixedBlockVector;
+import com.dremio.sabot.op.common.ht2.HashComputation;
 import com.dremio.sabot.op.common.ht2.LBlockHashTable;
 import com.dremio.sabot.op.common.ht2.PivotBuilder;
 import com.dremio.sabot.op.common.ht2.PivotBuilder.PivotInfo;
@@ -406,6 +408,23 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
   public static final PositiveLongValidator VECTORIZED_HASHAGG_MAX_LISTAGG_SIZE =
       new PositiveLongValidator("exec.operator.aggregate.listagg.size", 32 * 1024, 32 * 1024);
 
+  /*
+   * When the first phase of an aggregation sees almost as many groups as records, there is little
+   * to gain from growing (and spilling) its hash tables as the second phase does the work again.
+   * Once enough records are seen, the operator then outputs its in-memory partitions as soon as
+   * they hold a batch of groups each, and so streams them to the exchange.
+   */
+  public static final BooleanValidator VECTORIZED_HASHAGG_ADAPTIVE_BYPASS =
+      new BooleanValidator("exec.operator.aggregate.vectorize.adaptive_bypass", true);
+  public static final PositiveLongValidator VECTORIZED_HASHAGG_ADAPTIVE_BYPASS_SAMPLE_RECORDS =
+      new PositiveLongValidator(
+          "exec.operator.aggregate.vectorize.adaptive_bypass.sample_records",
+          Integer.MAX_VALUE,
+          100_000);
+  public static final DoubleValidator VECTORIZED_HASHAGG_ADAPTIVE_BYPASS_GROUP_RATIO =
+      new RangeDoubleValidator(
+          "exec.operator.aggregate.vectorize.adaptive_bypass.group_ratio", 0.0d, 1.0d, .9d);
+
   /* Initial capacity of the accumulator vectors used by ARRAY_AGG */
   public static final PositiveLongValidator VECTORIZED_HASHAGG_ARRAYAGG_INITIAL_SIZE =
       new PositiveLongValidator(
@@ -481,8 +500,10 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
   /* preallocated data structures for hash table insertion */
   private FixedBlockVector fixedBlockVector;
   private VariableBlockVector variableBlockVector;
+  private ArrowBuf keyHashes;
 
   @VisibleForTesting public static final int PARTITIONINDEX_HTORDINAL_WIDTH = 8;
+  public static final int HASH_VALUE_WIDTH = 8;
   public static final int HTORDINAL_OFFSET = 0;
   public static final int KEYINDEX_OFFSET = 4;
   public static final int SKETCH_ACCURACY = StatisticsAggrFunctions.HLL_ACCURACY;
@@ -529,6 +550,17 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
   private final Stopwatch setUpWatch = Stopwatch.createUnstarted();
   private final Stopwatch produceDataWatch = Stopwatch.createUnstarted();
 
+  /* adaptive bypass of partial aggregation */
+  private final boolean adaptiveBypassEnabled;
+  private final long bypassSampleRecords;
+  private final double bypassGroupRatio;
+  private long recordsConsumedFromPipeline;
+  private boolean bypassDecided;
+  private boolean bypassing;
+  private long bypassSwitchRecords;
+  private long bypassSampleGroupPercent;
+  private long bypassFlushes;
+
   public static final String OUT_OF_MEMORY_MSG = "Vectorized Hash Agg ran out of memory";
 
   public static final String PREALLOC_FAILURE_PARTITIONS =
@@ -607,6 +639,10 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     this.maxFieldSizeBytes =
         Math.toIntExact(context.getOptions().getOption(ExecConstants.LIMIT_FIELD_SIZE_BYTES));
     this.memoryGrant = context.getOptions().getOption(ExecConstants.MAX_MEMORY_GRANT_SIZE);
+    this.adaptiveBypassEnabled =
+        popConfig.isPartial() && options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_BYPASS);
+    this.bypassSampleRecords = options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_BYPASS_SAMPLE_RECORDS);
+    this.bypassGroupRatio = options.getOption(VECTORIZED_HASHAGG_ADAPTIVE_BYPASS_GROUP_RATIO);
     logger.debug(
         "partitions:{}, min-hashtable-size:{}, max-hashtable-batch-size:{} variable-width-key-size:{}",
         numPartitions,
@@ -957,6 +993,9 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
    * <p>(2) variableBlockVector - variable block buffer to store the pivoted variable width key
    * column values.
    *
+   * <p>(3) keyHashes - hash values of the pivoted keys, computed for all the pivoted keys at once
+   * before inserting them.
+   *
    * <p>The reason we need (1) and (2) is because we pivot into temporary space and later do
    * memcpy() to hashtable buffers/blocks during insertion. So we don't want to allocate temporary
    * buffers every time upon entry into consumeData().
@@ -969,10 +1008,13 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
       variableBlockVector =
           new VariableBlockVector(
               allocator, pivot.getVariableCount(), maxVariableBlockLength, true);
+      rollbackable.add(variableBlockVector);
+      keyHashes = allocator.buffer(maxHashTableBatchSize * HASH_VALUE_WIDTH);
       rollbackable.commit();
     } catch (OutOfMemoryException e) {
       fixedBlockVector = null;
       variableBlockVector = null;
+      keyHashes = null;
       ooms++;
       throw debug.prepareAndThrowException(
           e, PREALLOC_FAILURE_AUX_STRUCTURES, HashAggErrorType.OOM);
@@ -1173,6 +1215,10 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
       VariableLengthValidator.validateVariable(v, records);
     }
     consumeDataHelper(records);
+    recordsConsumedFromPipeline += records;
+    if (adaptiveBypassEnabled && state == State.CAN_CONSUME) {
+      checkAdaptiveBypass();
+    }
 
     long memoryUsed = allocator.getAllocatedMemory() - oldMemoryUsage;
     long timeTaken = (System.nanoTime() - startTime) / 1000000;
@@ -1200,6 +1246,54 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     }
   }
 
+  /**
+   * Once the sample of records is consumed, decides whether this partial aggregation reduces the
+   * data enough to keep aggregating in its hash tables. If it doesn't, the in-memory partitions are
+   * output whenever they hold as many groups as a hash table batch per partition, so they stay
+   * close to their minimum size instead of growing (and spilling) until the input is over.
+   *
+   * <p>The groups of spilled partitions are not counted, so a sample that spilled is less likely to
+   * switch.
+   */
+  private void checkAdaptiveBypass() {
+    if (!bypassDecided) {
+      if (recordsConsumedFromPipeline < bypassSampleRecords) {
+        return;
+      }
+      bypassDecided = true;
+      final long groups = getHashTableSize();
+      bypassSampleGroupPercent = groups * 100 / recordsConsumedFromPipeline;
+      if (groups < bypassGroupRatio * recordsConsumedFromPipeline) {
+        return;
+      }
+      bypassing = true;
+      bypassSwitchRecords = recordsConsumedFromPipeline;
+      logger.debug(
+          "Bypassing partial aggregation after {} records with {} groups",
+          recordsConsumedFromPipeline,
+          groups);
+      updateStats();
+    }
+
+    if (bypassing && getInmemoryPartitionsSize() >= numPartitions * maxHashTableBatchSize) {
+      bypassFlushes++;
+      outputPartitionIndex = 0;
+      state = State.CAN_PRODUCE;
+      internalStateMachine = InternalState.FLUSH_INMEMORY_PARTITIONS;
+    }
+  }
+
+  /** Number of groups in the partitions that are not spilled. */
+  private int getInmemoryPartitionsSize() {
+    int size = 0;
+    for (VectorizedHashAggPartition partition : hashAggPartitions) {
+      if (!partition.isSpilled()) {
+        size += partition.hashTable.size();
+      }
+    }
+    return size;
+  }
+
   /**
    * Helper function for consuming incoming data from pipeline. With micro spilling, this function
    * also resumes consuming data from an earlier failure (OOM) point.
@@ -1212,6 +1306,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     final VariableBlockVector variableBlockVector = this.variableBlockVector;
     final long keyFixedVectorAddr = fixedBlockVector.getMemoryAddress();
     final long keyVarVectorAddr = variableBlockVector.getMemoryAddress();
+    final long keyVarVectorSize = variableBlockVector.getBuf().capacity();
 
     int recordsConsumed = 0;
     int recordsPivoted = 0;
@@ -1243,6 +1338,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
               recordsPivoted,
               keyFixedVectorAddr,
               keyVarVectorAddr,
+              keyVarVectorSize,
               recordsConsumed,
               resumeFromIndex,
               partitionsUsedMask,
@@ -1289,6 +1385,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
               recordsPivoted,
               keyFixedVectorAddr,
               keyVarVectorAddr,
+              keyVarVectorSize,
               recordsConsumed,
               0,
               0,
@@ -1382,6 +1479,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
       final int recordsPivoted,
       final long keyFixedVectorAddr,
       final long keyVarVectorAddr,
+      final long keyVarVectorSize,
       final int recordsConsumed,
       final int insertStartIndex,
       final long partitionsUsedMask,
@@ -1397,21 +1495,31 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     long partitionsUsed = partitionsUsedMask;
 
     insertWatch.start();
+    /* hash all the keys left to insert at once */
+    HashComputation.computeHash(
+        new BlockChunk(
+            keyFixedAddr,
+            keyVarVectorAddr,
+            keyVarVectorSize,
+            fixedOnly,
+            blockWidth,
+            recordsPivoted - insertStartIndex,
+            keyHashes.memoryAddress(),
+            seed));
+    long keyHashAddr = keyHashes.memoryAddress();
+
     insertAllRecords:
     {
       for (int keyIndex = insertStartIndex;
           keyIndex < recordsPivoted;
-          keyIndex++, keyFixedAddr += blockWidth) {
-        final long keyHash;
+          keyIndex++, keyFixedAddr += blockWidth, keyHashAddr += HASH_VALUE_WIDTH) {
+        final long keyHash = PlatformDependent.getLong(keyHashAddr);
         if (fixedOnly) {
-          keyHash = LBlockHashTable.fixedKeyHashCode(keyFixedAddr, dataWidth, seed);
           keyVarAddr = -1;
           keyVarLen = 0;
         } else {
           keyVarAddr = keyVarVectorAddr + PlatformDependent.getInt(keyFixedAddr + dataWidth);
           keyVarLen = PlatformDependent.getInt(keyVarAddr);
-          keyHash =
-              LBlockHashTable.keyHashCode(keyFixedAddr, dataWidth, keyVarAddr, keyVarLen, seed);
         }
 
         /* get the partition index from higher order bits in hash */
@@ -2231,6 +2339,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
       final ArrowBuf variableWidthPivotedData) {
     final long keyFixedVectorAddr = fixedWidthPivotedData.memoryAddress();
     final long keyVarVectorAddr = variableWidthPivotedData.memoryAddress();
+    final long keyVarVectorSize = variableWidthPivotedData.capacity();
     final long seed = getSeedForRepartitioning();
 
     if (resumableInsertState != null) {
@@ -2255,6 +2364,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
               recordsPivoted,
               keyFixedVectorAddr,
               keyVarVectorAddr,
+              keyVarVectorSize,
               recordsConsumed,
               resumeFromIndex,
               partitionsUsedMask,
@@ -2275,7 +2385,16 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
       /* STEP 1: then we hash partition the dataset and add pivoted data to multiple hash tables */
       long partitionsUsed =
           insertIntoPartitions(
-              records, records, keyFixedVectorAddr, keyVarVectorAddr, 0, 0, 0, true, seed);
+              records,
+              records,
+              keyFixedVectorAddr,
+              keyVarVectorAddr,
+              keyVarVectorSize,
+              0,
+              0,
+              0,
+              true,
+              seed);
 
       if (internalStateMachine == InternalState.SPILL_NEXT_BATCH) {
         state.is(State.CAN_PRODUCE);
@@ -2498,6 +2617,12 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     }
     stats.setLongStat(Metric.SETUP_MILLIS, setUpWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.setLongStat(Metric.CAN_PRODUCE_MILLIS, produceDataWatch.elapsed(TimeUnit.MILLISECONDS));
+    if (bypassDecided) {
+      stats.setLongStat(Metric.ADAPTIVE_BYPASS, bypassing ? 1 : 0);
+      stats.setLongStat(Metric.ADAPTIVE_BYPASS_SAMPLE_GROUP_PERCENT, bypassSampleGroupPercent);
+      stats.setLongStat(Metric.ADAPTIVE_BYPASS_SWITCH_RECORDS, bypassSwitchRecords);
+      stats.setLongStat(Metric.ADAPTIVE_BYPASS_FLUSHES, bypassFlushes);
+    }
   }
 
   private class HashTableStatsHolder {
@@ -2680,6 +2805,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
         forceSpillInmemoryData();
         break;
       case OUTPUT_INMEMORY_PARTITIONS:
+      case FLUSH_INMEMORY_PARTITIONS:
         records = outputPartitions();
         break;
       case TRANSITION_PARTITION_SPILL_STATE:
@@ -2716,7 +2842,13 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
   private int outputPartitions() throws Exception {
 
     if (outputPartitionIndex == numPartitions) {
-      postOutputProcessing();
+      if (internalStateMachine == InternalState.FLUSH_INMEMORY_PARTITIONS) {
+        /* partial aggregation is bypassed, take the next batch from pipeline */
+        state = State.CAN_CONSUME;
+        internalStateMachine = InternalState.NONE;
+      } else {
+        postOutputProcessing();
+      }
       outputPartitionIndex = 0;
       return 0;
     }
@@ -2947,6 +3079,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
     SPILL_NEXT_BATCH,
     RESUME_CONSUMING,
     FORCE_SPILL_INMEMORY_DATA,
+    FLUSH_INMEMORY_PARTITIONS,
     DONE
   }
 
@@ -2988,6 +3121,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
                 variableBlockVector != null
                     ? Collections.singletonList(variableBlockVector)
                     : new ArrayList<>(0),
+                keyHashes != null ? Collections.singletonList(keyHashes) : new ArrayList<>(0),
                 hashAggPartitions != null ? Arrays.asList(hashAggPartitions) : new ArrayList<>(0),
                 outgoing));
       } finally {
@@ -2995,6 +3129,7 @@ public class VectorizedHashAggOperator implements SingleInputOperator, Shrinkabl
         partitionSpillHandler = null;
         fixedBlockVector = null;
         variableBlockVector = null;
+        keyHashes = null;
         closed = true;
       }
     }
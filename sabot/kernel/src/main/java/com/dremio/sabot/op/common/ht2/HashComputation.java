@@ -21,53 +21,56 @@ import io.netty.util.internal.PlatformDependent;
 public final class HashComputation {
   private static final int EIGHT_BYTES = 8;
 
-  private static final long fixedKeyHashCode(long keyDataAddr, int dataWidth, long seed) {
-    return mix(XXH64.xxHash64(keyDataAddr, dataWidth, seed));
-  }
-
-  private static final long keyHashCode(
-      long keyDataAddr, int dataWidth, final long keyVarAddr, int varDataLen, long seed) {
-    final long fixedValue = XXH64.xxHash64(keyDataAddr, dataWidth, seed);
-    return mix(XXH64.xxHash64(keyVarAddr + 4, varDataLen, fixedValue));
-  }
+  private static final long MIX_MASK = 0x7FFFFFFFFFFFFFFFL;
 
+  /**
+   * Computes the hash of all the pivoted keys of the chunk. The fixed part of the keys is hashed
+   * for the whole batch at once by {@link XXH64#xxHash64Batch}, the hash of the fixed part being the
+   * seed of the hash of the variable part, if any.
+   */
   public static final void computeHash(final BlockChunk blockChunk) {
     final long keyFixedVectorAddr = blockChunk.keyFixedVectorAddr;
     final long keyVarVectorAddr = blockChunk.keyVarVectorAddr;
     long keyVarVectorSize = blockChunk.keyVarVectorSize;
     final int blockWidth = blockChunk.blockWidth;
-    long hashValueAddress = blockChunk.hashValueVectorAddr;
+    final long hashValueVectorAddr = blockChunk.hashValueVectorAddr;
 
-    long keyVarAddr;
-    int keyVarLen;
-    long keyHash;
-    final int dataWidth;
-    final long maxAddress = keyFixedVectorAddr + ((blockChunk.records - 1) * blockWidth);
-
-    /*
-     * we can write the loop once but that will require evaluating fixedOnly condition
-     * multiple times.
-     */
     if (blockChunk.isFixedOnly()) {
-      dataWidth = blockWidth;
-      for (long blockAddr = keyFixedVectorAddr; blockAddr <= maxAddress; blockAddr += blockWidth) {
-        keyHash = fixedKeyHashCode(blockAddr, dataWidth, blockChunk.seed);
-        PlatformDependent.putLong(hashValueAddress, keyHash);
-        hashValueAddress += EIGHT_BYTES;
-      }
-    } else {
-      dataWidth = blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
-      for (long blockAddr = keyFixedVectorAddr; blockAddr <= maxAddress; blockAddr += blockWidth) {
-        long keyVarOffset = PlatformDependent.getInt(blockAddr + dataWidth);
-        keyVarAddr = keyVarVectorAddr + keyVarOffset;
-        keyVarLen = PlatformDependent.getInt(keyVarAddr);
-        // check bound of the var section
-        Preconditions.checkState(
-            keyVarOffset + LBlockHashTable.VAR_OFFSET_SIZE + keyVarLen <= keyVarVectorSize);
-        keyHash = keyHashCode(blockAddr, dataWidth, keyVarAddr, keyVarLen, blockChunk.seed);
-        PlatformDependent.putLong(hashValueAddress, keyHash);
-        hashValueAddress += EIGHT_BYTES;
-      }
+      XXH64.xxHash64Batch(
+          keyFixedVectorAddr,
+          blockWidth,
+          blockWidth,
+          blockChunk.records,
+          blockChunk.seed,
+          MIX_MASK,
+          hashValueVectorAddr);
+      return;
+    }
+
+    final int dataWidth = blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
+    // hash of the fixed part of each key, seed of the hash of its variable part
+    XXH64.xxHash64Batch(
+        keyFixedVectorAddr,
+        dataWidth,
+        blockWidth,
+        blockChunk.records,
+        blockChunk.seed,
+        -1L,
+        hashValueVectorAddr);
+
+    final long maxAddress = keyFixedVectorAddr + ((blockChunk.records - 1) * blockWidth);
+    long hashValueAddress = hashValueVectorAddr;
+    for (long blockAddr = keyFixedVectorAddr; blockAddr <= maxAddress; blockAddr += blockWidth) {
+      long keyVarOffset = PlatformDependent.getInt(blockAddr + dataWidth);
+      final long keyVarAddr = keyVarVectorAddr + keyVarOffset;
+      final int keyVarLen = PlatformDependent.getInt(keyVarAddr);
+      // check bound of the var section
+      Preconditions.checkState(
+          keyVarOffset + LBlockHashTable.VAR_OFFSET_SIZE + keyVarLen <= keyVarVectorSize);
+      final long fixedValue = PlatformDependent.getLong(hashValueAddress);
+      PlatformDependent.putLong(
+          hashValueAddress, mix(XXH64.xxHash64(keyVarAddr + 4, keyVarLen, fixedValue)));
+      hashValueAddress += EIGHT_BYTES;
     }
   }
 
@@ -104,6 +107,6 @@ public final class HashComputation {
 
   /** Taken directly from koloboke */
   private static long mix(long hash) {
-    return (hash & 0x7FFFFFFFFFFFFFFFL);
+    return (hash & MIX_MASK);
   }
 }
@@ -152,6 +152,96 @@ public class XXH64 {
     return finalize(hash);
   }
 
+  /**
+   * Hashes count keys of the same length, stride bytes apart, and writes the hash of each key ANDed
+   * with mask at hashAddr. The hashes are the ones of {@link #xxHash64(long, long, long)}.
+   *
+   * <p>Keys shorter than 32 bytes, the usual pivoted keys, are hashed four at a time: the steps of
+   * the hash only depend on the length, so they are decided once for the batch, and the
+   * multiplications of the four keys don't depend on each other.
+   */
+  public static void xxHash64Batch(
+      long addr, int length, int stride, int count, long seed, long mask, long hashAddr) {
+    if (length >= 32) {
+      for (int i = 0; i < count; i++, addr += stride, hashAddr += 8) {
+        PlatformDependent.putLong(hashAddr, xxHash64(addr, length, seed) & mask);
+      }
+      return;
+    }
+
+    final long start = seed + P5 + length;
+    final int words = length >>> 3;
+    final boolean hasInt = (length & 4) != 0;
+    final int bytes = length & 3;
+    int key = 0;
+    for (; key + 4 <= count; key += 4, addr += 4L * stride, hashAddr += 32) {
+      final long a1 = addr + stride;
+      final long a2 = a1 + stride;
+      final long a3 = a2 + stride;
+      long h0 = start;
+      long h1 = start;
+      long h2 = start;
+      long h3 = start;
+      int offset = 0;
+      for (int w = 0; w < words; w++, offset += 8) {
+        h0 = round8(h0, l(addr + offset));
+        h1 = round8(h1, l(a1 + offset));
+        h2 = round8(h2, l(a2 + offset));
+        h3 = round8(h3, l(a3 + offset));
+      }
+      if (hasInt) {
+        h0 = round4(h0, i(addr + offset));
+        h1 = round4(h1, i(a1 + offset));
+        h2 = round4(h2, i(a2 + offset));
+        h3 = round4(h3, i(a3 + offset));
+        offset += 4;
+      }
+      for (int j = 0; j < bytes; j++, offset++) {
+        h0 = round1(h0, b(addr + offset));
+        h1 = round1(h1, b(a1 + offset));
+        h2 = round1(h2, b(a2 + offset));
+        h3 = round1(h3, b(a3 + offset));
+      }
+      PlatformDependent.putLong(hashAddr, finalize(h0) & mask);
+      PlatformDependent.putLong(hashAddr + 8, finalize(h1) & mask);
+      PlatformDependent.putLong(hashAddr + 16, finalize(h2) & mask);
+      PlatformDependent.putLong(hashAddr + 24, finalize(h3) & mask);
+    }
+    for (; key < count; key++, addr += stride, hashAddr += 8) {
+      long hash = start;
+      int offset = 0;
+      for (int w = 0; w < words; w++, offset += 8) {
+        hash = round8(hash, l(addr + offset));
+      }
+      if (hasInt) {
+        hash = round4(hash, i(addr + offset));
+        offset += 4;
+      }
+      for (int j = 0; j < bytes; j++, offset++) {
+        hash = round1(hash, b(addr + offset));
+      }
+      PlatformDependent.putLong(hashAddr, finalize(hash) & mask);
+    }
+  }
+
+  private static long round8(long hash, long k1) {
+    k1 *= P2;
+    k1 = Long.rotateLeft(k1, 31);
+    k1 *= P1;
+    hash ^= k1;
+    return Long.rotateLeft(hash, 27) * P1 + P4;
+  }
+
+  private static long round4(long hash, long k1) {
+    hash ^= k1 * P1;
+    return Long.rotateLeft(hash, 23) * P2 + P3;
+  }
+
+  private static long round1(long hash, int k1) {
+    hash ^= k1 * P5;
+    return Long.rotateLeft(hash, 11) * P1;
+  }
+
   private static long finalize(long hash) {
     hash ^= hash >>> 33;
     hash *= P2;
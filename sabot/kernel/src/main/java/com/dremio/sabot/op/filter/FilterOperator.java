@@ -21,6 +21,7 @@ import com.dremio.common.expression.FieldReference;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.compile.CodeCompilationStats;
 import com.dremio.exec.expr.ExpressionEvaluationOptions;
 import com.dremio.exec.expr.ExpressionSplitter;
 import com.dremio.exec.physical.config.Filter;
@@ -155,6 +156,17 @@ public class FilterOperator implements SingleInputOperator {
     stats.addLongStat(Metric.GANDIVA_EXPRESSIONS, splitter.getNumExprsInGandiva());
     stats.addLongStat(Metric.MIXED_SPLITS, splitter.getNumSplitsInBoth());
     stats.addLongStat(Metric.JAVA_BUILD_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    final CodeCompilationStats compilationStats =
+        context.getClassProducer().getFunctionContext().getCodeCompilationStats();
+    if (compilationStats != null) {
+      stats.setLongStat(
+          Metric.JAVA_COMPILE_TIME,
+          TimeUnit.NANOSECONDS.toMillis(compilationStats.getCompileNanos()));
+      stats.setLongStat(
+          Metric.JAVA_CODE_CACHE_TIME,
+          TimeUnit.NANOSECONDS.toMillis(compilationStats.getPersistentCacheNanos()));
+      stats.setLongStat(Metric.JAVA_CODE_CACHE_HITS, compilationStats.getPersistentCacheHits());
+    }
     stats.addLongStat(
         Metric.GANDIVA_BUILD_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     // only for minor fragment 0 will save profile details
@@ -39,7 +39,10 @@ public class FilterStats {
      * This metric could take one of these 3 values: 0 for built from primary cache 1 for built from
      * secondary cache 2 for code generated using gandiva
      */
-    BUILT_FROM_GANDIVA_CACHE;
+    BUILT_FROM_GANDIVA_CACHE,
+    JAVA_COMPILE_TIME, // time spent compiling generated java code, in millis
+    JAVA_CODE_CACHE_TIME, // time spent loading compiled java code from the persistent cache
+    JAVA_CODE_CACHE_HITS;
 
     private final DisplayType displayType;
     private final AggregationType aggregationType;
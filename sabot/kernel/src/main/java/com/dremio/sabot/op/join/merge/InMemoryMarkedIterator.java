@@ -15,24 +15,41 @@
  */
 package com.dremio.sabot.op.join.merge;
 
+import com.dremio.common.AutoCloseables;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.TreeMap;
+import java.util.function.Supplier;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.util.TransferPair;
 import org.apache.commons.lang3.tuple.Pair;
 
-/** MarkedAsyncIterator implementation using in-memory memory storage only */
+/**
+ * MarkedAsyncIterator implementation storing the batches in memory.
+ *
+ * <p>When a spill manager is given, the batches held for the mark (the batches of a long run of
+ * duplicate keys) are spilled once they grow over the spill threshold. The marked and the current
+ * batches always stay in memory, and a spilled batch is read back into its container when the
+ * iterator reaches it, the previously read back batch being released.
+ */
 class InMemoryMarkedIterator implements MarkedAsyncIterator {
 
   // batches stored internally in the iterator
@@ -59,8 +76,30 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
 
   private final BufferAllocator allocator;
 
+  // spilling of the stored batches, spillManager is null if disabled
+  private final Supplier<SpillManager> spillManager;
+  private final long spillThreshold;
+  // files of the spilled batches, and the batch read back in memory from its file if any
+  private final Map<Integer, SpillFile> spillFiles = new HashMap<>();
+  private Integer loadedSpilledIndex;
+  private long storedBytes;
+  private long peakStoredBytes;
+  private long spillCount;
+  private long spillBytes;
+  private long spillNanos;
+
   InMemoryMarkedIterator(BufferAllocator allocator, BatchSchema schema) {
+    this(allocator, schema, null, Long.MAX_VALUE);
+  }
+
+  InMemoryMarkedIterator(
+      BufferAllocator allocator,
+      BatchSchema schema,
+      Supplier<SpillManager> spillManager,
+      long spillThreshold) {
     this.allocator = allocator;
+    this.spillManager = spillManager;
+    this.spillThreshold = spillThreshold;
     this.storedBatches = new TreeMap<Integer, VectorContainer>();
     dummyBatch = new VectorContainer(allocator);
 
@@ -78,6 +117,7 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
     if (currentBatchIndex.equals(BATCH_NOT_STORED_INDEX)) {
       return Pair.of(batchNotStored, currentBatchOffset);
     } else {
+      load(currentBatchIndex);
       return Pair.of(storedBatches.get(currentBatchIndex), currentBatchOffset);
     }
   }
@@ -144,6 +184,10 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
     marked = true;
     markedBatchIndex = currentBatchIndex;
     markedBatchOffset = currentBatchOffset;
+    if (!markedBatchIndex.equals(BATCH_NOT_STORED_INDEX)) {
+      // the marked batch stays in memory until the mark is cleared
+      load(markedBatchIndex);
+    }
   }
 
   @Override
@@ -173,6 +217,8 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
                 && currentBatchOffset < batchNotStored.getRecordCount())) {
           final VectorContainer batchTransfered = transferBatch(batchNotStored);
           storedBatches.put(newBatchIndexCounter, batchTransfered);
+          storedBytes += getSize(batchTransfered);
+          peakStoredBytes = Math.max(peakStoredBytes, storedBytes);
 
           currentBatchIndex =
               currentBatchIndex.equals(BATCH_NOT_STORED_INDEX)
@@ -190,6 +236,9 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
           }
 
           newBatchIndexCounter++;
+          if (marked && storedBytes > spillThreshold && spillManager != null) {
+            spill();
+          }
         }
 
         batchNotStored = null;
@@ -220,16 +269,131 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
       if (!(marked
           && !markedBatchIndex.equals(BATCH_NOT_STORED_INDEX)
           && markedBatchIndex <= key)) {
-        storedBatches.get(key).close();
         keysToRemove.add(key);
       }
     }
 
     for (Integer key : keysToRemove) {
-      storedBatches.remove(key);
+      release(key);
+    }
+  }
+
+  private void release(Integer index) {
+    final VectorContainer batch = storedBatches.remove(index);
+    storedBytes -= getSize(batch);
+    batch.close();
+    final SpillFile spillFile = spillFiles.remove(index);
+    if (spillFile != null) {
+      try {
+        spillFile.close();
+      } catch (Exception e) {
+        throw new RuntimeException("Failed to delete merge join spill file", e);
+      }
+    }
+    if (index.equals(loadedSpilledIndex)) {
+      loadedSpilledIndex = null;
     }
   }
 
+  /**
+   * Spills the stored batches held for the mark, latest first, until the batches in memory fit in
+   * the spill threshold. The marked and current batches are never spilled, and the batches read
+   * back from their file are only released since their file is kept.
+   */
+  private void spill() {
+    final long start = System.nanoTime();
+    for (Integer key : storedBatches.descendingKeySet()) {
+      if (storedBytes <= spillThreshold) {
+        break;
+      }
+      if (key <= markedBatchIndex || key.equals(currentBatchIndex)) {
+        continue;
+      }
+      final VectorContainer batch = storedBatches.get(key);
+      final long size = getSize(batch);
+      if (size == 0) {
+        continue;
+      }
+      if (!spillFiles.containsKey(key)) {
+        final SpillFile spillFile =
+            spillManager.get().getSpillFile(String.format("mergejoin%05d", spillCount));
+        spillFiles.put(key, spillFile);
+        try (SpillOutputStream out = spillFile.create(true)) {
+          out.writeBatch(batch);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to spill merge join batch", e);
+        }
+        spillCount++;
+        spillBytes += size;
+      }
+      batch.zeroVectors();
+      storedBytes -= size;
+      if (key.equals(loadedSpilledIndex)) {
+        loadedSpilledIndex = null;
+      }
+    }
+    spillNanos += System.nanoTime() - start;
+  }
+
+  // read back a spilled batch into its container, releasing the batch read back before it
+  private void load(Integer index) {
+    final SpillFile spillFile = spillFiles.get(index);
+    if (spillFile == null || index.equals(loadedSpilledIndex)) {
+      return;
+    }
+    final VectorContainer batch = storedBatches.get(index);
+    if (getSize(batch) > 0) {
+      // read back before it was marked, kept in memory for the mark
+      return;
+    }
+
+    final long start = System.nanoTime();
+    if (loadedSpilledIndex != null
+        && !(marked && loadedSpilledIndex.equals(markedBatchIndex))
+        && !loadedSpilledIndex.equals(currentBatchIndex)) {
+      final VectorContainer loaded = storedBatches.get(loadedSpilledIndex);
+      storedBytes -= getSize(loaded);
+      loaded.zeroVectors();
+    }
+    try (SpillInputStream in = spillFile.open(true)) {
+      in.load(batch, allocator);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read back merge join batch", e);
+    }
+    storedBytes += getSize(batch);
+    peakStoredBytes = Math.max(peakStoredBytes, storedBytes);
+    loadedSpilledIndex = index;
+    spillNanos += System.nanoTime() - start;
+  }
+
+  private static long getSize(VectorContainer batch) {
+    long size = 0;
+    for (VectorWrapper<?> wrapper : batch) {
+      size += wrapper.getValueVector().getBufferSize();
+    }
+    return size;
+  }
+
+  /** @return peak size of the batches stored in memory */
+  long getPeakStoredBytes() {
+    return peakStoredBytes;
+  }
+
+  /** @return number of batches spilled */
+  long getSpillCount() {
+    return spillCount;
+  }
+
+  /** @return size of the spilled batches */
+  long getSpillBytes() {
+    return spillBytes;
+  }
+
+  /** @return time spent spilling and reading back the batches */
+  long getSpillNanos() {
+    return spillNanos;
+  }
+
   // transfer ownership of a batch
   private VectorContainer transferBatch(VectorAccessible batch) {
     @SuppressWarnings("resource") // TODO better way to write this?
@@ -258,6 +422,9 @@ class InMemoryMarkedIterator implements MarkedAsyncIterator {
     for (Integer key : storedBatches.keySet()) {
       storedBatches.get(key).close();
     }
+    AutoCloseables.close(spillFiles.values());
+    storedBatches.clear();
+    spillFiles.clear();
 
     if (this.dummyBatch != null) {
       this.dummyBatch.close();
@@ -87,4 +87,9 @@ public interface MergeJoinComparator {
 
   /** reset output batch size counter */
   void resetOutputCounter();
+
+  /**
+   * @return number of right records of runs of duplicate keys joined without comparing their keys
+   */
+  long getReplayedRecords();
 }
@@ -27,6 +27,11 @@ import org.apache.commons.lang3.tuple.Pair;
 /**
  * The comparator handles different join types, and specific merge join looping logic
  *
+ * <p>The keys of a run of duplicate keys on the right are compared once: after the end of the run
+ * was found for the first left record matching it, the following left records with the same key
+ * are only compared to the marked start of the run, and the records of the run are joined to them
+ * without comparing their keys again.
+ *
  * <p>Notable issue TODO: DX-12621 Improve performance by projecting records in the same column at a
  * time
  */
@@ -45,6 +50,12 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
   // keep track of how many output records have we produced
   private int outputRecordsCounter;
 
+  // records of the marked right run yielded for the current left record, and number of records
+  // of the run, -1 until its end was found
+  private int runPosition;
+  private int runLength = -1;
+  private long replayedRecords;
+
   private InternalState state = InternalState.NEEDS_SETUP;
 
   private FunctionContext context;
@@ -131,6 +142,7 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
     // Special logic for reaching end of right table in inner loop
     if (!rightIterator.hasNext() && state == InternalState.IN_INNER_LOOP) {
       state = InternalState.IN_OUTER_LOOP;
+      runLength = runPosition;
       if (leftIterator.hasNext()) {
         leftIterator.next();
         if (leftIterator.hasNext()) {
@@ -177,6 +189,11 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
     this.outputRecordsCounter = 0;
   }
 
+  @Override
+  public long getReplayedRecords() {
+    return replayedRecords;
+  }
+
   /**
    * while (r < s) { advance r, yield <r, null> if left or full join } while (r > s) { advance s,
    * yield <null, s> if right or full join }
@@ -216,6 +233,8 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
 
         rightIterator.mark();
         rightIterator.next();
+        runPosition = 1;
+        runLength = -1;
 
         state = InternalState.IN_INNER_LOOP;
         return;
@@ -246,6 +265,7 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
 
       yieldRecord(left.getLeft(), right.getLeft(), left.getRight(), right.getRight());
       rightIterator.next();
+      runPosition = 1;
 
       state = InternalState.IN_INNER_LOOP;
     }
@@ -255,10 +275,24 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
    * while (r == s) { yield <r, s> advance s }
    *
    * <p>advance r goto outer_loop
+   *
+   * <p>Once the length of the run of s is known, its records are yielded without comparing them.
    */
   private void continueFromInInnerLoop() {
     while (outputRecordsCounter < targetRecordsPerBatch) {
-      if (!leftIterator.hasNext() || !rightIterator.hasNext()) {
+      if (!leftIterator.hasNext()) {
+        // need more data
+        return;
+      }
+
+      if (runPosition == runLength) {
+        // end of the run, no need to read the record after it
+        state = InternalState.IN_OUTER_LOOP;
+        leftIterator.next();
+        return;
+      }
+
+      if (!rightIterator.hasNext()) {
         // need more data
         return;
       }
@@ -266,19 +300,24 @@ public abstract class MergeJoinComparatorTemplate implements MergeJoinComparator
       final Pair<VectorAccessible, Integer> left = leftIterator.peek();
       final Pair<VectorAccessible, Integer> right = rightIterator.peek();
 
-      final int compareOutput =
-          _doCompare(left.getLeft(), right.getLeft(), left.getRight(), right.getRight());
+      if (runLength < 0) {
+        final int compareOutput =
+            _doCompare(left.getLeft(), right.getLeft(), left.getRight(), right.getRight());
 
-      if (compareOutput != 0) {
-        // left != right
-        state = InternalState.IN_OUTER_LOOP;
-        leftIterator.next();
-        return;
+        if (compareOutput != 0) {
+          // left != right
+          runLength = runPosition;
+          state = InternalState.IN_OUTER_LOOP;
+          leftIterator.next();
+          return;
+        }
       } else {
-        yieldRecord(left.getLeft(), right.getLeft(), left.getRight(), right.getRight());
-        rightIterator.next();
-        continue;
+        replayedRecords++;
       }
+
+      yieldRecord(left.getLeft(), right.getLeft(), left.getRight(), right.getRight());
+      rightIterator.next();
+      runPosition++;
     }
   }
 
@@ -22,6 +22,8 @@ import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.CompleteType;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.compile.sig.GeneratorMapping;
 import com.dremio.exec.compile.sig.MappingSet;
 import com.dremio.exec.expr.ClassGenerator;
@@ -30,14 +32,17 @@ import com.dremio.exec.expr.ClassProducer;
 import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.exec.expr.fn.FunctionGenerationHelper;
 import com.dremio.exec.physical.config.MergeJoinPOP;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.common.hashtable.Comparator;
 import com.dremio.sabot.op.join.JoinUtils;
+import com.dremio.sabot.op.sort.external.SpillManager;
 import com.dremio.sabot.op.spi.DualInputOperator;
 import com.google.common.base.Preconditions;
 import com.sun.codemodel.JConditional;
@@ -52,9 +57,27 @@ import org.apache.calcite.rel.core.JoinRelType;
 /**
  * MergeJoinOperator assumes both left and right input is already sorted by join conditions, and
  * merge them.
+ *
+ * <p>The right batches of a run of duplicate keys are held until the left records with that key
+ * were joined, and are spilled once they grow over {@link
+ * ExecConstants#MERGE_JOIN_SPILL_THRESHOLD}.
  */
 public class MergeJoinOperator implements DualInputOperator {
 
+  /** Metrics of the merge join */
+  public enum Metric implements MetricDef {
+    REPLAYED_RECORDS, // right records of runs of duplicate keys joined without comparing keys
+    PEAK_STORED_BYTES, // peak size of the right batches held in memory
+    SPILL_COUNT, // number of right batches spilled
+    SPILL_BYTES, // size of the spilled batches
+    SPILL_NANOS; // time spent spilling and reading back the batches
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   enum InternalState {
     NEEDS_SETUP,
     OUT_OF_LOOPS,
@@ -69,6 +92,7 @@ public class MergeJoinOperator implements DualInputOperator {
   private final OperatorContext context;
   private final OperatorStats stats;
   private final List<JoinCondition> conditions;
+  private final MergeJoinPOP popConfig;
 
   private final VectorContainer outgoing;
 
@@ -84,10 +108,13 @@ public class MergeJoinOperator implements DualInputOperator {
   private boolean noMoreLeft = false;
   private boolean noMoreRight = false;
 
+  private SpillManager spillManager;
+
   public MergeJoinOperator(OperatorContext context, MergeJoinPOP popConfig) {
     this.context = context;
     this.joinType = popConfig.getJoinType();
     this.conditions = popConfig.getConditions();
+    this.popConfig = popConfig;
     this.stats = context.getStats();
 
     this.outgoing = context.createOutputVectorContainer();
@@ -149,11 +176,47 @@ public class MergeJoinOperator implements DualInputOperator {
   }
 
   private void done() throws Exception {
+    updateStats();
     leftIterator.close();
     rightIterator.close();
     state = State.DONE;
   }
 
+  private void updateStats() {
+    if (comparator == null) {
+      return;
+    }
+    final InMemoryMarkedIterator right = (InMemoryMarkedIterator) rightIterator;
+    stats.setLongStat(Metric.REPLAYED_RECORDS, comparator.getReplayedRecords());
+    stats.setLongStat(Metric.PEAK_STORED_BYTES, right.getPeakStoredBytes());
+    stats.setLongStat(Metric.SPILL_COUNT, right.getSpillCount());
+    stats.setLongStat(Metric.SPILL_BYTES, right.getSpillBytes());
+    stats.setLongStat(Metric.SPILL_NANOS, right.getSpillNanos());
+  }
+
+  private SpillManager getSpillManager() {
+    if (spillManager == null) {
+      final FragmentHandle handle = context.getFragmentHandle();
+      final String id =
+          String.format(
+              "mergejoinspill-%s.%s.%s.%s",
+              QueryIdHelper.getQueryId(handle.getQueryId()),
+              handle.getMajorFragmentId(),
+              handle.getMinorFragmentId(),
+              popConfig.getProps().getLocalOperatorId());
+      spillManager =
+          new SpillManager(
+              context.getConfig(),
+              context.getOptions(),
+              id,
+              null,
+              context.getSpillService(),
+              "merge join spilling",
+              stats);
+    }
+    return spillManager;
+  }
+
   @Override
   public <OUT, IN, EXCEP extends Throwable> OUT accept(
       OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
@@ -162,10 +225,14 @@ public class MergeJoinOperator implements DualInputOperator {
 
   @Override
   public void close() throws Exception {
+    if (state != State.DONE) {
+      updateStats();
+    }
     List<AutoCloseable> autoCloseables = new ArrayList<>();
     autoCloseables.add(outgoing);
     autoCloseables.add(leftIterator);
     autoCloseables.add(rightIterator);
+    autoCloseables.add(spillManager);
     AutoCloseables.close(autoCloseables);
   }
 
@@ -180,7 +247,12 @@ public class MergeJoinOperator implements DualInputOperator {
     // TODO get proper child allocator
     // TODO set proper memory limit & initial size
     leftIterator = new InMemoryMarkedIterator(context.getAllocator(), left.getSchema());
-    rightIterator = new InMemoryMarkedIterator(context.getAllocator(), right.getSchema());
+    rightIterator =
+        new InMemoryMarkedIterator(
+            context.getAllocator(),
+            right.getSchema(),
+            this::getSpillManager,
+            context.getOptions().getOption(ExecConstants.MERGE_JOIN_SPILL_THRESHOLD));
 
     outgoing.addSchema(right.getSchema());
     outgoing.addSchema(left.getSchema());
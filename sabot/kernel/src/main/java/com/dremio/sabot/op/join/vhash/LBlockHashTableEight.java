@@ -427,15 +427,23 @@ public final class LBlockHashTableEight implements AutoCloseable {
   }
 
   public Optional<BloomFilter> prepareBloomFilter(final boolean sizeDynamically) throws Exception {
+    return prepareBloomFilter(sizeDynamically, false, 0.01);
+  }
+
+  public Optional<BloomFilter> prepareBloomFilter(
+      final boolean sizeDynamically, final boolean splitBlock, final double fpp) throws Exception {
     final long bloomFilterSize =
         sizeDynamically
-            ? Math.min(BloomFilter.getOptimalSize(size()), BLOOMFILTER_MAX_SIZE)
+            ? Math.min(BloomFilter.getOptimalSize(size(), fpp, splitBlock), BLOOMFILTER_MAX_SIZE)
             : BLOOMFILTER_MAX_SIZE;
     try (ArrowBuf keyHolder = allocator.buffer(9);
         RollbackCloseable closeOnErr = new RollbackCloseable()) {
       final BloomFilter bloomFilter =
           new BloomFilter(
-              allocator, Thread.currentThread().getName(), bloomFilterSize); // fixed to 2MB
+              allocator,
+              Thread.currentThread().getName(),
+              bloomFilterSize, // fixed to 2MB
+              splitBlock);
       closeOnErr.add(bloomFilter);
       bloomFilter.setup();
 
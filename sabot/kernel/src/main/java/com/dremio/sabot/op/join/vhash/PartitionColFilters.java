@@ -46,6 +46,8 @@ public class PartitionColFilters implements AutoCloseable {
   private final PivotDef pivotDef;
   private final long bloomFilterSize;
   private final int maxKeySize;
+  private final boolean splitBlockBloomFilter;
+  private final double bloomFilterFpp;
 
   public PartitionColFilters(
       BufferAllocator allocator,
@@ -53,11 +55,24 @@ public class PartitionColFilters implements AutoCloseable {
       PivotDef pivotDef,
       long bloomFilterSize,
       int maxKeySize) {
+    this(allocator, probeTargets, pivotDef, bloomFilterSize, maxKeySize, false, 0.01);
+  }
+
+  public PartitionColFilters(
+      BufferAllocator allocator,
+      List<RuntimeFilterProbeTarget> probeTargets,
+      PivotDef pivotDef,
+      long bloomFilterSize,
+      int maxKeySize,
+      boolean splitBlockBloomFilter,
+      double bloomFilterFpp) {
     this.allocator = allocator.newChildAllocator("partition-col-filters", 0, allocator.getLimit());
     this.probeTargets = probeTargets;
     this.pivotDef = pivotDef;
     this.bloomFilterSize = bloomFilterSize;
     this.maxKeySize = maxKeySize;
+    this.splitBlockBloomFilter = splitBlockBloomFilter;
+    this.bloomFilterFpp = bloomFilterFpp;
     this.partitionColFilters = build();
   }
 
@@ -76,7 +91,8 @@ public class PartitionColFilters implements AutoCloseable {
       }
 
       final BloomFilter bloomFilter =
-          new BloomFilter(allocator, Thread.currentThread().getName(), bloomFilterSize);
+          new BloomFilter(
+              allocator, Thread.currentThread().getName(), bloomFilterSize, splitBlockBloomFilter);
       HashTableKeyReader.Builder keyReaderBuilder =
           new HashTableKeyReader.Builder()
               .setBufferAllocator(allocator)
@@ -161,6 +177,14 @@ public class PartitionColFilters implements AutoCloseable {
     return probeTargets;
   }
 
+  public boolean isSplitBlockBloomFilter() {
+    return splitBlockBloomFilter;
+  }
+
+  public double getBloomFilterFpp() {
+    return bloomFilterFpp;
+  }
+
   public Optional<BloomFilter> getBloomFilter(int index, RuntimeFilterProbeTarget probeTarget) {
     PartitionColFilter partitionColFilter = partitionColFilters.get(index);
     Preconditions.checkState(partitionColFilter.getProbeTarget() == probeTarget);
@@ -69,6 +69,14 @@ public class RuntimeFilterUtil {
     return (int) operatorContext.getOptions().getOption(RUNTIME_FILTER_KEY_MAX_SIZE);
   }
 
+  public static boolean isSplitBlockBloomFilterEnabled(OperatorContext operatorContext) {
+    return operatorContext.getOptions().getOption(ExecConstants.ENABLE_SPLIT_BLOCK_BLOOM_FILTER);
+  }
+
+  public static double getSplitBlockBloomFilterFpp(OperatorContext operatorContext) {
+    return operatorContext.getOptions().getOption(ExecConstants.SPLIT_BLOCK_BLOOM_FILTER_FPP);
+  }
+
   public static boolean shouldFragBuildRuntimeFilters(
       RuntimeFilterInfo runtimeFilterInfo, int minorFragment) {
     /*
@@ -148,6 +156,7 @@ public class RuntimeFilterUtil {
               .addAllColumns(probeTarget.getPartitionProbeTableKeys())
               .setValueCount(partitionColFilter.get().getNumBitsSet())
               .setSizeBytes(partitionColFilter.get().getSizeInBytes())
+              .setSplitBlockBloomFilter(partitionColFilter.get().isSplitBlock())
               .build();
 
       runtimeFilterBuilder.setPartitionColumnFilter(partitionFilter);
@@ -462,7 +471,8 @@ public class RuntimeFilterUtil {
             "Invalid filter size. " + "Buffer capacity is %s, expected filter size %s",
             pcBuffer.capacity(),
             partitionColFilterProto.getSizeBytes());
-        bloomFilterPiece = BloomFilter.prepareFrom(pcBuffer);
+        bloomFilterPiece =
+            BloomFilter.prepareFrom(pcBuffer, partitionColFilterProto.getSplitBlockBloomFilter());
         Preconditions.checkState(
             bloomFilterPiece.getNumBitsSet() == partitionColFilterProto.getValueCount(),
             "Bloomfilter value count mismatched. Expected %s, Actual %s",
@@ -695,9 +695,12 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
 
   @VisibleForTesting
   public PartitionColFilters createPartitionColFilters() {
+    final boolean splitBlock = RuntimeFilterUtil.isSplitBlockBloomFilterEnabled(context);
+    final double fpp = RuntimeFilterUtil.getSplitBlockBloomFilterFpp(context);
     final long bloomFilterSize =
         config.getRuntimeFilterInfo().isBroadcastJoin()
-            ? Math.min(BloomFilter.getOptimalSize(table.size()), BLOOMFILTER_MAX_SIZE)
+            ? Math.min(
+                BloomFilter.getOptimalSize(table.size(), fpp, splitBlock), BLOOMFILTER_MAX_SIZE)
             : BLOOMFILTER_MAX_SIZE;
     final int maxKeySize = RuntimeFilterUtil.getRuntimeFilterKeyMaxSize(context);
 
@@ -706,7 +709,9 @@ public class VectorizedHashJoinOperator implements DualInputOperator {
         config.getRuntimeFilterInfo().getRuntimeFilterProbeTargets(),
         buildPivot,
         bloomFilterSize,
-        maxKeySize);
+        maxKeySize,
+        splitBlock,
+        fpp);
   }
 
   @VisibleForTesting
@@ -444,7 +444,9 @@ public class VectorizedSpillingHashJoinOperator implements DualInputOperator, Sh
                 probeTargets,
                 buildKeyPivot,
                 BLOOMFILTER_MAX_SIZE,
-                RuntimeFilterUtil.getRuntimeFilterKeyMaxSize(context));
+                RuntimeFilterUtil.getRuntimeFilterKeyMaxSize(context),
+                RuntimeFilterUtil.isSplitBlockBloomFilterEnabled(context),
+                RuntimeFilterUtil.getSplitBlockBloomFilterFpp(context));
         rc.add(partitionColFilters);
 
         if (RuntimeFilterUtil.isRuntimeFilterEnabledForNonPartitionedCols(context)) {
@@ -32,6 +32,7 @@ import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.common.types.TypeProtos.MinorType;
 import com.dremio.common.utils.protos.QueryIdHelper;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.compile.CodeCompilationStats;
 import com.dremio.exec.expr.ClassGenerator;
 import com.dremio.exec.expr.ExpressionEvaluationOptions;
 import com.dremio.exec.expr.ExpressionSplitter;
@@ -176,6 +177,17 @@ public class ProjectOperator implements SingleInputOperator {
     javaCodeGenWatch.stop();
     OperatorStats stats = context.getStats();
     stats.addLongStat(Metric.JAVA_BUILD_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    final CodeCompilationStats compilationStats =
+        context.getClassProducer().getFunctionContext().getCodeCompilationStats();
+    if (compilationStats != null) {
+      stats.setLongStat(
+          Metric.JAVA_COMPILE_TIME,
+          TimeUnit.NANOSECONDS.toMillis(compilationStats.getCompileNanos()));
+      stats.setLongStat(
+          Metric.JAVA_CODE_CACHE_TIME,
+          TimeUnit.NANOSECONDS.toMillis(compilationStats.getPersistentCacheNanos()));
+      stats.setLongStat(Metric.JAVA_CODE_CACHE_HITS, compilationStats.getPersistentCacheHits());
+    }
     stats.addLongStat(
         Metric.GANDIVA_BUILD_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.addLongStat(Metric.GANDIVA_EXPRESSIONS, splitter.getNumExprsInGandiva());
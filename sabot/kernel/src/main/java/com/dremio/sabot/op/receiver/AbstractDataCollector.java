@@ -36,6 +36,7 @@ import com.google.common.base.Throwables;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 import org.apache.arrow.memory.BufferAllocator;
 
 public abstract class AbstractDataCollector implements DataCollector {
@@ -69,6 +70,7 @@ public abstract class AbstractDataCollector implements DataCollector {
       FragmentWorkQueue workQueue,
       TunnelProvider tunnelProvider,
       SpillService spillService,
+      Executor spoolingExecutor,
       EndpointsIndex endpointsIndex) {
     Preconditions.checkNotNull(collector);
     Preconditions.checkNotNull(endpointsIndex);
@@ -126,6 +128,7 @@ public abstract class AbstractDataCollector implements DataCollector {
                     workQueue,
                     handle,
                     spillService,
+                    spoolingExecutor,
                     allocator,
                     bufferCapacity,
                     collector.getOppositeMajorFragmentId(),
@@ -170,6 +173,7 @@ public abstract class AbstractDataCollector implements DataCollector {
                 workQueue,
                 handle,
                 spillService,
+                spoolingExecutor,
                 allocator,
                 bufferCapacity,
                 collector.getOppositeMajorFragmentId(),
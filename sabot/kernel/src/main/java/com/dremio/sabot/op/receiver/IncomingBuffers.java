@@ -48,6 +48,7 @@ import com.google.common.collect.Maps;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.arrow.memory.BufferAllocator;
@@ -99,6 +100,7 @@ public class IncomingBuffers implements BatchStreamProvider, AutoCloseable {
       OptionManager options,
       ExecutionControls executionControls,
       SpillService spillService,
+      Executor spoolingExecutor,
       PlanFragmentsIndex planFragmentsIndex) {
     this.deferredException = exception;
     this.resourceGroup = resourceGroup;
@@ -128,6 +130,7 @@ public class IncomingBuffers implements BatchStreamProvider, AutoCloseable {
                     workQueue,
                     tunnelProvider,
                     spillService,
+                    spoolingExecutor,
                     endpointsIndex)
                 : new PartitionedCollector(
                     resourceGroup,
@@ -139,6 +142,7 @@ public class IncomingBuffers implements BatchStreamProvider, AutoCloseable {
                     workQueue,
                     tunnelProvider,
                     spillService,
+                    spoolingExecutor,
                     endpointsIndex);
         rollbackCloseable.add(newCollector);
         collectors.put(collector.getOppositeMajorFragmentId(), newCollector);
@@ -24,6 +24,7 @@ import com.dremio.sabot.exec.fragment.FragmentWorkQueue;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.threads.sharedres.SharedResourceGroup;
 import com.dremio.service.spill.SpillService;
+import java.util.concurrent.Executor;
 import org.apache.arrow.memory.BufferAllocator;
 
 public class PartitionedCollector extends AbstractDataCollector {
@@ -38,6 +39,7 @@ public class PartitionedCollector extends AbstractDataCollector {
       FragmentWorkQueue workQueue,
       TunnelProvider tunnelProvider,
       SpillService spillService,
+      Executor spoolingExecutor,
       EndpointsIndex endpointsIndex) {
     super(
         resourceGroup,
@@ -51,6 +53,7 @@ public class PartitionedCollector extends AbstractDataCollector {
         workQueue,
         tunnelProvider,
         spillService,
+        spoolingExecutor,
         endpointsIndex);
   }
 
@@ -35,13 +35,20 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.util.LargeMemoryUtil;
@@ -54,6 +61,12 @@ import org.apache.hadoop.fs.FileSystem;
 /**
  * This implementation of RawBatchBuffer starts writing incoming batches to disk once the buffer
  * size reaches a threshold. The order of the incoming buffers is maintained.
+ *
+ * <p>The bodies of the spooled batches can be compressed with LZ4, in chunks of {@link
+ * #COMPRESSION_CHUNK_BYTES} so that spooling needs no buffer the size of the batch. By default the
+ * batches are written and read back on the fragment thread, through its work queue. When {@link
+ * ExecConstants#SPOOLING_BUFFER_ASYNC} is set, they are written on a shared background pool
+ * instead, and the next few spooled batches are read back ahead of the receiver.
  */
 public class SpoolingRawBatchBuffer
     extends BaseRawBatchBuffer<SpoolingRawBatchBuffer.RawFragmentBatchWrapper> {
@@ -76,6 +89,11 @@ public class SpoolingRawBatchBuffer
   public static final long ALLOCATOR_INITIAL_RESERVATION = 1 * 1024 * 1024;
   public static final long ALLOCATOR_MAX_RESERVATION = 20L * 1000 * 1000 * 1000;
 
+  private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+  private static final LZ4FastDecompressor DECOMPRESSOR =
+      LZ4Factory.fastestInstance().fastDecompressor();
+  private static final int COMPRESSION_CHUNK_BYTES = 64 * 1024;
+
   private enum SpoolingState {
     SPOOLING, // added batches will be spooled
     PAUSE_SPOOLING, // added batches won't be spooled
@@ -118,6 +136,20 @@ public class SpoolingRawBatchBuffer
   private SpillManager spillManager;
   private SpillService spillService;
 
+  private final boolean compress;
+  // compressed chunks, one for the writes and one for the reads as they can run concurrently
+  private ArrowBuf compressBuf;
+  private ArrowBuf decompressBuf;
+  private final int readAheadBatches;
+  // runs the writes and read-ahead of this buffer in order, null when spooling on the fragment
+  private final Executor spoolingExecutor;
+  // guards inputStream and inputStreamLastKnownLen, read by both the fragment and spooling threads
+  private final Object readLock = new Object();
+
+  private final AtomicLong spooledBytes = new AtomicLong();
+  private final AtomicLong spooledBytesOnDisk = new AtomicLong();
+  private final AtomicLong spoolingWaitNanos = new AtomicLong();
+
   public SpoolingRawBatchBuffer(
       SharedResource resource,
       final SabotConfig config,
@@ -125,6 +157,7 @@ public class SpoolingRawBatchBuffer
       FragmentWorkQueue workQueue,
       FragmentHandle handle,
       SpillService spillService,
+      Executor spoolingPool,
       BufferAllocator parentAllocator,
       int fragmentCount,
       int oppositeId,
@@ -140,8 +173,15 @@ public class SpoolingRawBatchBuffer
     this.inputStream = null;
     this.inputStreamLastKnownLen = 0;
     this.parentAllocator = parentAllocator;
-
-    workQueue.put(
+    this.compress = options.getOption(ExecConstants.SPOOLING_BUFFER_COMPRESSION);
+    this.readAheadBatches = (int) options.getOption(ExecConstants.SPOOLING_BUFFER_READ_AHEAD);
+    // the pool is shared by the buffers of the node, each buffer runs its own tasks in order
+    this.spoolingExecutor =
+        spoolingPool != null && options.getOption(ExecConstants.SPOOLING_BUFFER_ASYNC)
+            ? MoreExecutors.newSequentialExecutor(spoolingPool)
+            : null;
+
+    runSpoolingTask(
         new Runnable() {
           @Override
           public void run() {
@@ -150,6 +190,29 @@ public class SpoolingRawBatchBuffer
         });
   }
 
+  private void runSpoolingTask(Runnable task) {
+    if (spoolingExecutor != null) {
+      spoolingExecutor.execute(task);
+    } else {
+      workQueue.put(task);
+    }
+  }
+
+  /** Uncompressed size of the batches spooled to disk so far */
+  public long getSpooledBytes() {
+    return spooledBytes.get();
+  }
+
+  /** Size on disk of the batches spooled so far */
+  public long getSpooledBytesOnDisk() {
+    return spooledBytesOnDisk.get();
+  }
+
+  /** Time the receiver was blocked on the disk to get the spooled batches */
+  public long getSpoolingWaitNanos() {
+    return spoolingWaitNanos.get();
+  }
+
   @Override
   public void init() {
     final String name =
@@ -194,11 +257,27 @@ public class SpoolingRawBatchBuffer
       }
       RawFragmentBatchWrapper batchWrapper = buffer.poll();
       if (batchWrapper != null) {
-        return batchWrapper.get();
+        final RawFragmentBatch batch = batchWrapper.get();
+        scheduleReadAhead();
+        return batch;
       }
       return null;
     }
 
+    private void scheduleReadAhead() {
+      if (spoolingExecutor == null || readAheadBatches == 0 || isClosing()) {
+        return;
+      }
+      final Iterator<RawFragmentBatchWrapper> iterator = buffer.iterator();
+      for (int i = 0; i < readAheadBatches && iterator.hasNext(); i++) {
+        final RawFragmentBatchWrapper batchWrapper = iterator.next();
+        if (batchWrapper.state == BatchState.SPILLED && !batchWrapper.readAheadScheduled) {
+          batchWrapper.readAheadScheduled = true;
+          spoolingExecutor.execute(batchWrapper::readAhead);
+        }
+      }
+    }
+
     @Override
     public int size() {
       return buffer.size();
@@ -220,14 +299,16 @@ public class SpoolingRawBatchBuffer
       RawFragmentBatch batch;
       while (!buffer.isEmpty()) {
         batchWrapper = buffer.poll();
-        if (batchWrapper.isWaitingToSpill()) {
-          logger.debug("unspilled buffer, sending ack");
-          batchWrapper.batch.sendOk();
-        }
-        if (batchWrapper.state != BatchState.SPILLED) {
-          batch = batchWrapper.get();
-          if (batch.getBody() != null) {
-            batch.getBody().close();
+        synchronized (batchWrapper) {
+          if (batchWrapper.isWaitingToSpill()) {
+            logger.debug("unspilled buffer, sending ack");
+            batchWrapper.batch.sendOk();
+          }
+          if (batchWrapper.state != BatchState.SPILLED) {
+            batch = batchWrapper.get();
+            if (batch.getBody() != null) {
+              batch.getBody().close();
+            }
           }
         }
       }
@@ -300,6 +381,10 @@ public class SpoolingRawBatchBuffer
   public void close() throws Exception {
 
     stopSpooling();
+    if (spoolingExecutor != null) {
+      // the remaining writes and read-ahead are skipped now, wait for the ones in progress
+      CompletableFuture.runAsync(() -> {}, spoolingExecutor).get();
+    }
 
     final AutoCloseable superCloser =
         new AutoCloseable() {
@@ -310,22 +395,33 @@ public class SpoolingRawBatchBuffer
           }
         };
 
+    // batches read ahead and compression buffers hold memory of the allocator, release them first
     AutoCloseables.close(
-        allocator, outputStream, inputStream, spillFile, this.spillManager, superCloser, deferred);
+        superCloser,
+        compressBuf,
+        decompressBuf,
+        allocator,
+        outputStream,
+        inputStream,
+        spillFile,
+        this.spillManager,
+        deferred);
   }
 
   private void addBatchForSpooling(final RawFragmentBatchWrapper batchWrapper) {
     if (!isClosing()) {
-      workQueue.put(
+      runSpoolingTask(
           new Runnable() {
             @Override
             public void run() {
               try {
-                if (isClosing() || !batchWrapper.isWaitingToSpill()) {
-                  return;
-                }
+                synchronized (batchWrapper) {
+                  if (isClosing() || !batchWrapper.isWaitingToSpill()) {
+                    return;
+                  }
 
-                batchWrapper.writeToStream(outputStream);
+                  batchWrapper.writeToStream(outputStream);
+                }
               } catch (Throwable e) {
                 deferred.addThrowable(e);
               }
@@ -338,13 +434,22 @@ public class SpoolingRawBatchBuffer
     }
   }
 
+  /**
+   * Batch of the buffer. Its state is changed under the lock of the wrapper, as it can be spooled
+   * or read back on the background thread while the receiver gets it.
+   */
   class RawFragmentBatchWrapper {
     private RawFragmentBatch batch;
-    private BatchState state;
+    private volatile BatchState state;
     private int bodyLength;
+    // length of the body on disk, with the chunk headers if compressed
+    private int storedBodyLength;
+    private boolean compressed;
     private int totalLength;
     private long start = -1;
     private long check;
+    // only accessed by the fragment thread
+    private boolean readAheadScheduled;
 
     public RawFragmentBatchWrapper(RawFragmentBatch batch, boolean available) {
       Preconditions.checkNotNull(batch);
@@ -364,8 +469,27 @@ public class SpoolingRawBatchBuffer
     }
 
     public RawFragmentBatch get() {
+      final boolean available = state == BatchState.AVAILABLE;
+      final long startNanos = System.nanoTime();
+      try {
+        // waits for the batch to be spooled or read back if it is on the background thread
+        synchronized (this) {
+          return getLocked();
+        }
+      } finally {
+        if (!available) {
+          spoolingWaitNanos.addAndGet(System.nanoTime() - startNanos);
+        }
+      }
+    }
+
+    private RawFragmentBatch getLocked() {
       if (state != BatchState.SPILLED) {
         assert batch.getHeader() != null : "batch header null";
+        if (state == BatchState.WAIT_TO_SPILL) {
+          // not spooled yet, which no longer needs to happen
+          batch.sendOk();
+        }
         state = BatchState.AVAILABLE;
         return batch;
       } else {
@@ -378,6 +502,18 @@ public class SpoolingRawBatchBuffer
       }
     }
 
+    /** Reads the batch back from disk ahead of the receiver, on the background thread */
+    private synchronized void readAhead() {
+      try {
+        if (isClosing() || state != BatchState.SPILLED) {
+          return;
+        }
+        readFromStream();
+      } catch (Throwable e) {
+        deferred.addThrowable(e);
+      }
+    }
+
     public long getBodySize() {
       if (batch.getBody() == null) {
         return 0;
@@ -401,7 +537,11 @@ public class SpoolingRawBatchBuffer
         } else {
           bodyLength = 0;
         }
-        if (bodyLength > 0) {
+        storedBodyLength = bodyLength;
+        compressed = bodyLength > 0 && compress;
+        if (compressed) {
+          writeCompressed(stream, buf);
+        } else if (bodyLength > 0) {
           buf.getBytes(0, stream, bodyLength);
         }
         stream.hsync();
@@ -411,6 +551,8 @@ public class SpoolingRawBatchBuffer
             "After spooling batch, stream at position {}. File length {}", stream.getPos(), len);
         assert start <= len : String.format("write pos %d is greater than len %d", start, len);
         totalLength = Math.toIntExact(len - start);
+        spooledBytes.addAndGet(totalLength - storedBodyLength + bodyLength);
+        spooledBytesOnDisk.addAndGet(totalLength);
         long t = watch.elapsed(TimeUnit.MICROSECONDS);
         logger.debug("Took {} us to spool {} to disk. Rate {} mb/s", t, bodyLength, bodyLength / t);
       } finally {
@@ -430,7 +572,73 @@ public class SpoolingRawBatchBuffer
       }
     }
 
+    /**
+     * Writes the body in chunks, each preceded by its length on disk. A chunk that doesn't get
+     * smaller is written as is, with its uncompressed length.
+     */
+    private void writeCompressed(FSDataOutputStream stream, ArrowBuf buf) throws IOException {
+      final int maxLength = COMPRESSOR.maxCompressedLength(COMPRESSION_CHUNK_BYTES);
+      if (compressBuf == null) {
+        compressBuf = allocator.buffer(maxLength);
+      }
+      storedBodyLength = 0;
+      for (int offset = 0; offset < bodyLength; offset += COMPRESSION_CHUNK_BYTES) {
+        final int chunkLength = Math.min(COMPRESSION_CHUNK_BYTES, bodyLength - offset);
+        final int length =
+            COMPRESSOR.compress(
+                buf.nioBuffer(offset, chunkLength),
+                0,
+                chunkLength,
+                compressBuf.nioBuffer(0, maxLength),
+                0,
+                maxLength);
+        if (length < chunkLength) {
+          stream.writeInt(length);
+          compressBuf.getBytes(0, stream, length);
+          storedBodyLength += Integer.BYTES + length;
+        } else {
+          stream.writeInt(chunkLength);
+          buf.getBytes(offset, stream, chunkLength);
+          storedBodyLength += Integer.BYTES + chunkLength;
+        }
+      }
+    }
+
+    private void readBody(ArrowBuf buf) throws IOException {
+      if (!compressed) {
+        // readIntoArrowBuf is a blocking operation. Safe to use COPY_BUFFER
+        readIntoArrowBuf(inputStream, buf, bodyLength);
+        return;
+      }
+      if (decompressBuf == null) {
+        decompressBuf = allocator.buffer(COMPRESSION_CHUNK_BYTES);
+      }
+      for (int offset = 0; offset < bodyLength; offset += COMPRESSION_CHUNK_BYTES) {
+        final int chunkLength = Math.min(COMPRESSION_CHUNK_BYTES, bodyLength - offset);
+        final int length = inputStream.readInt();
+        if (length == chunkLength) {
+          readIntoArrowBuf(inputStream, buf, chunkLength);
+          continue;
+        }
+        decompressBuf.writerIndex(0);
+        readIntoArrowBuf(inputStream, decompressBuf, length);
+        DECOMPRESSOR.decompress(
+            decompressBuf.nioBuffer(0, length),
+            0,
+            buf.nioBuffer(offset, chunkLength),
+            0,
+            chunkLength);
+        buf.writerIndex(offset + chunkLength);
+      }
+    }
+
     public void readFromStream() throws IOException, InterruptedException {
+      synchronized (readLock) {
+        readFromStreamLocked();
+      }
+    }
+
+    private void readFromStreamLocked() throws IOException, InterruptedException {
       long pos = start;
       boolean tryAgain = true;
       int duration = 0;
@@ -480,8 +688,7 @@ public class SpoolingRawBatchBuffer
           FragmentRecordBatch header = FragmentRecordBatch.parseDelimitedFrom(inputStream);
           pos = inputStream.getPos();
           assert header != null : "header null after parsing from stream";
-          // readIntoArrowBuf is a blocking operation. Safe to use COPY_BUFFER
-          readIntoArrowBuf(inputStream, buf, bodyLength);
+          readBody(buf);
           pos = inputStream.getPos();
           batch = new RawFragmentBatch(header, buf, null);
           long t = watch.elapsed(TimeUnit.MICROSECONDS);
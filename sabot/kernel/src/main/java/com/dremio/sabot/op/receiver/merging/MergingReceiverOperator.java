@@ -28,6 +28,7 @@ import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.exec.expr.fn.FunctionGenerationHelper;
 import com.dremio.exec.physical.config.MergingReceiverPOP;
 import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.ExpandableHyperContainer;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
@@ -39,6 +40,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.receiver.RawFragmentBatch;
 import com.dremio.sabot.op.receiver.RawFragmentBatchProvider;
 import com.dremio.sabot.op.receiver.ReceiverLatencyTracker;
+import com.dremio.sabot.op.receiver.SpoolingRawBatchBuffer;
 import com.dremio.sabot.op.spi.BatchStreamProvider;
 import com.dremio.sabot.op.spi.ProducerOperator;
 import com.sun.codemodel.JConditional;
@@ -65,6 +67,7 @@ public class MergingReceiverOperator implements ProducerOperator {
   private final BatchStreamProvider streamProvider;
   private final OperatorStats stats;
   private final ReceiverLatencyTracker latencyTracker = new ReceiverLatencyTracker();
+  private final BatchBodyCompressor decompressor;
 
   private static enum OutputState {
     INIT_ON_NEXT,
@@ -86,7 +89,13 @@ public class MergingReceiverOperator implements ProducerOperator {
     SUM_TX_MILLIS,
     MAX_TX_MILLIS,
     SUM_QUEUE_MILLIS,
-    MAX_QUEUE_MILLIS;
+    MAX_QUEUE_MILLIS,
+    SPOOLED_BYTES, // uncompressed size of the batches spooled to disk
+    SPOOLED_BYTES_ON_DISK,
+    SPOOLING_WAIT_NANOS, // time blocked on the disk to get the spooled batches
+    DECOMPRESSION_INPUT_BYTES, // size of the compressed batches received
+    DECOMPRESSION_OUTPUT_BYTES,
+    DECOMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -105,6 +114,8 @@ public class MergingReceiverOperator implements ProducerOperator {
     this.config = config;
     this.outgoingContainer = context.createOutputVectorContainer(config.getSchema());
     this.stats.setLongStat(Metric.NUM_SENDERS, config.getNumSenders());
+    // senders only compress when enabled on their side, batches are decompressed regardless
+    this.decompressor = new BatchBodyCompressor(context.getAllocator(), context.getOptions());
     this.nodes = new Node[config.getNumSenders()];
     RawFragmentBatchProvider[] fragProviders =
         streamProvider.getBuffers(config.getSenderMajorFragmentId());
@@ -331,7 +342,7 @@ public class MergingReceiverOperator implements ProducerOperator {
         clear();
 
         // get next batch.
-        currentBatch = provider.getNext();
+        currentBatch = decompressor.decompress(provider.getNext());
 
         int size;
         // we didn't get a batch. this is because we're pending on a message or we're finished.
@@ -391,6 +402,15 @@ public class MergingReceiverOperator implements ProducerOperator {
       stats.setLongStat(Metric.MAX_TX_MILLIS, latencyTracker.getMaxTxMillis());
       stats.setLongStat(Metric.SUM_QUEUE_MILLIS, latencyTracker.getSumQueueMillis());
       stats.setLongStat(Metric.MAX_QUEUE_MILLIS, latencyTracker.getMaxQueueMillis());
+      stats.setLongStat(Metric.DECOMPRESSION_INPUT_BYTES, decompressor.getCompressedBytes());
+      stats.setLongStat(Metric.DECOMPRESSION_OUTPUT_BYTES, decompressor.getUncompressedBytes());
+      stats.setLongStat(Metric.DECOMPRESSION_NANOS, decompressor.getNanos());
+      if (provider instanceof SpoolingRawBatchBuffer) {
+        final SpoolingRawBatchBuffer buffer = (SpoolingRawBatchBuffer) provider;
+        stats.addLongStat(Metric.SPOOLED_BYTES, buffer.getSpooledBytes());
+        stats.addLongStat(Metric.SPOOLED_BYTES_ON_DISK, buffer.getSpooledBytesOnDisk());
+        stats.addLongStat(Metric.SPOOLING_WAIT_NANOS, buffer.getSpoolingWaitNanos());
+      }
 
       if (currentBatch != null) {
         AutoCloseables.close(currentBatch.getBody(), loader);
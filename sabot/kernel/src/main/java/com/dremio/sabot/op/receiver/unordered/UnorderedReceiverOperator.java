@@ -19,6 +19,7 @@ import com.dremio.common.AutoCloseables;
 import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.exec.physical.config.UnorderedReceiver;
 import com.dremio.exec.record.ArrowRecordBatchLoader;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.sabot.exec.context.MetricDef;
@@ -27,6 +28,7 @@ import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.receiver.RawFragmentBatch;
 import com.dremio.sabot.op.receiver.RawFragmentBatchProvider;
 import com.dremio.sabot.op.receiver.ReceiverLatencyTracker;
+import com.dremio.sabot.op.receiver.SpoolingRawBatchBuffer;
 import com.dremio.sabot.op.spi.BatchStreamProvider;
 import com.dremio.sabot.op.spi.ProducerOperator;
 import com.google.common.base.Preconditions;
@@ -44,6 +46,7 @@ public class UnorderedReceiverOperator implements ProducerOperator {
   private final VectorContainer outgoing;
   private final BatchStreamProvider streams;
   private final ReceiverLatencyTracker latencyTracker = new ReceiverLatencyTracker();
+  private final BatchBodyCompressor decompressor;
 
   public enum Metric implements MetricDef {
     BYTES_RECEIVED,
@@ -52,7 +55,13 @@ public class UnorderedReceiverOperator implements ProducerOperator {
     SUM_TX_MILLIS,
     MAX_TX_MILLIS,
     SUM_QUEUE_MILLIS,
-    MAX_QUEUE_MILLIS;
+    MAX_QUEUE_MILLIS,
+    SPOOLED_BYTES, // uncompressed size of the batches spooled to disk
+    SPOOLED_BYTES_ON_DISK,
+    SPOOLING_WAIT_NANOS, // time blocked on the disk to get the spooled batches
+    DECOMPRESSION_INPUT_BYTES, // size of the compressed batches received
+    DECOMPRESSION_OUTPUT_BYTES,
+    DECOMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -84,6 +93,8 @@ public class UnorderedReceiverOperator implements ProducerOperator {
     // we may need an allocator for the new offset vector. Therefore, here we pass the context's
     // allocator to batchLoader.
     this.batchLoader = new ArrowRecordBatchLoader(outgoing);
+    // senders only compress when enabled on their side, batches are decompressed regardless
+    this.decompressor = new BatchBodyCompressor(context.getAllocator(), context.getOptions());
   }
 
   @Override
@@ -109,7 +120,7 @@ public class UnorderedReceiverOperator implements ProducerOperator {
 
     batchLoader.resetRecordCount();
 
-    try (final RawFragmentBatch batch = fragProvider.getNext()) {
+    try (final RawFragmentBatch batch = decompressor.decompress(fragProvider.getNext())) {
 
       if (batch == null) {
         if (fragProvider.isStreamDone()) {
@@ -143,6 +154,15 @@ public class UnorderedReceiverOperator implements ProducerOperator {
     stats.setLongStat(Metric.MAX_TX_MILLIS, latencyTracker.getMaxTxMillis());
     stats.setLongStat(Metric.SUM_QUEUE_MILLIS, latencyTracker.getSumQueueMillis());
     stats.setLongStat(Metric.MAX_QUEUE_MILLIS, latencyTracker.getMaxQueueMillis());
+    stats.setLongStat(Metric.DECOMPRESSION_INPUT_BYTES, decompressor.getCompressedBytes());
+    stats.setLongStat(Metric.DECOMPRESSION_OUTPUT_BYTES, decompressor.getUncompressedBytes());
+    stats.setLongStat(Metric.DECOMPRESSION_NANOS, decompressor.getNanos());
+    if (fragProvider instanceof SpoolingRawBatchBuffer) {
+      final SpoolingRawBatchBuffer buffer = (SpoolingRawBatchBuffer) fragProvider;
+      stats.addLongStat(Metric.SPOOLED_BYTES, buffer.getSpooledBytes());
+      stats.addLongStat(Metric.SPOOLED_BYTES_ON_DISK, buffer.getSpooledBytesOnDisk());
+      stats.addLongStat(Metric.SPOOLING_WAIT_NANOS, buffer.getSpoolingWaitNanos());
+    }
     AutoCloseables.close((AutoCloseable) batchLoader, outgoing);
   }
 
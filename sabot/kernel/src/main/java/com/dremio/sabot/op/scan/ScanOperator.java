@@ -223,6 +223,21 @@ public class ScanOperator implements ProducerOperator {
     NUM_ORPHAN_FILES, // Number of orphan files
     NUM_READERS_SKIPPED, // The number of readers skipped due to errors (COPY INTO 'skip_file')
     DRY_RUN_READ_TIME_NS, // The read time of the dry-run phase (COPY INTO 'skip_file')
+    NUM_RUNTIME_FILTER_PROBES, // Number of partitions checked against the runtime filters
+    RUNTIME_FILTER_PROBE_TIME_NS, // Time spent checking partitions against the runtime filters
+    CACHE_BYTES_READ(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Bytes read from the block cache"), // Bytes read from the executor block cache
+    COLUMN_CHUNKS_REQUESTED(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Number of column chunks fetched with coalesced reads"),
+    COALESCED_READS_ISSUED(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Number of reads issued for the coalesced column chunks"),
+    COALESCED_READS_GAP_BYTES, // Bytes read between coalesced column chunks and thrown away
     ;
 
     private final DisplayType displayType;
@@ -502,6 +517,10 @@ public class ScanOperator implements ProducerOperator {
         String.format(
             "Frag %d, OpId %d",
             message.getSendingMajorFragmentId(), message.getSendingOperatorId());
+    if (message.hasPayloadOfType(ExecProtos.TopNThreshold.class)) {
+      addTopNThreshold(message.getPayload(ExecProtos.TopNThreshold.parser()), senderInfo);
+      return;
+    }
     if (message.getBuffers() == null || message.getBuffers().length == 0) {
       logger.warn("Empty runtime filter received from {}", senderInfo);
       return;
@@ -565,6 +584,21 @@ public class ScanOperator implements ProducerOperator {
     }
   }
 
+  /**
+   * Adds the boundary of the rows kept by the TopN fed by this scan, or tightens the one received
+   * before, which the readers share.
+   */
+  private void addTopNThreshold(ExecProtos.TopNThreshold threshold, String senderInfo) {
+    final RuntimeFilter filter =
+        RuntimeFilter.addTopNThreshold(runtimeFilters, threshold, senderInfo);
+    if (filter == null) {
+      return;
+    }
+    this.currentReader.addRuntimeFilter(filter);
+    this.readers.addRuntimeFilter(filter);
+    context.getStats().addLongStat(Metric.NUM_RUNTIME_FILTERS, 1);
+  }
+
   @VisibleForTesting
   List<RuntimeFilter> getRuntimeFilters() {
     return runtimeFilters;
@@ -16,12 +16,14 @@
 package com.dremio.sabot.op.sender.broadcast;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.BroadcastSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.sabot.exec.context.MetricDef;
@@ -61,6 +63,8 @@ public class BroadcastOperator extends BaseSender {
   private final OperatorStats stats;
   private final OperatorContext context;
   private final SenderLatencyTracker latencyTracker = new SenderLatencyTracker();
+  // null when the batches are sent uncompressed
+  private final BatchBodyCompressor compressor;
 
   private VectorAccessible incoming;
 
@@ -69,7 +73,10 @@ public class BroadcastOperator extends BaseSender {
     BYTES_SENT,
     BATCHES_SENT,
     SUM_ACK_MILLIS,
-    MAX_ACK_MILLIS;
+    MAX_ACK_MILLIS,
+    COMPRESSION_INPUT_BYTES, // size of the compressed batches before compression
+    COMPRESSION_OUTPUT_BYTES,
+    COMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -85,6 +92,10 @@ public class BroadcastOperator extends BaseSender {
     this.context = context;
     this.handle = context.getFragmentHandle();
     this.stats = context.getStats();
+    this.compressor =
+        context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+            ? new BatchBodyCompressor(context.getAllocator(), context.getOptions())
+            : null;
 
     final List<MinorFragmentEndpoint> destinations =
         config.getDestinations(context.getEndpointsIndex());
@@ -124,6 +135,11 @@ public class BroadcastOperator extends BaseSender {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.length);
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
     stats.addLongStat(Metric.BATCHES_SENT, 1);
+    if (compressor != null) {
+      stats.setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getNanos());
+    }
   }
 
   @Override
@@ -194,28 +210,50 @@ public class BroadcastOperator extends BaseSender {
       }
     }
 
-    for (int i = 0; i < tunnels.length; ++i) {
-      FragmentWritableBatch batch =
-          new FragmentWritableBatch(
-              handle.getQueryId(),
-              handle.getMajorFragmentId(),
-              handle.getMinorFragmentId(),
-              config.getReceiverMajorFragmentId(),
-              new ArrowRecordBatch(
-                  arrowRecordBatch.getLength(),
-                  arrowRecordBatch.getNodes(),
-                  buffers,
-                  NoCompressionCodec.DEFAULT_BODY_COMPRESSION,
-                  false),
-              receivingMinorFragments[i]);
-      updateStats(batch);
-      tunnels[i].sendRecordBatch(batch, latencyTracker.getLatencyObserver());
-      for (ArrowBuf buf : buffers) {
-        buf.close();
+    // compressed once, for all the tunnels to nodes supporting compression
+    FragmentWritableBatch compressed = null;
+    try {
+      for (int i = 0; i < tunnels.length; ++i) {
+        FragmentWritableBatch batch;
+        if (compressor != null && tunnels[i].isBodyCompressionSupported()) {
+          if (compressed == null) {
+            compressed =
+                compressor.compress(
+                    createBatch(arrowRecordBatch, buffers, receivingMinorFragments[i]));
+          }
+          batch = compressed.withReceivers(receivingMinorFragments[i]);
+        } else {
+          batch = createBatch(arrowRecordBatch, buffers, receivingMinorFragments[i]);
+        }
+        updateStats(batch);
+        tunnels[i].sendRecordBatch(batch, latencyTracker.getLatencyObserver());
+        for (ArrowBuf buf : buffers) {
+          buf.close();
+        }
+      }
+    } finally {
+      if (compressed != null) {
+        compressed.release();
       }
     }
   }
 
+  private FragmentWritableBatch createBatch(
+      ArrowRecordBatch arrowRecordBatch, List<ArrowBuf> buffers, int[] receivers) {
+    return new FragmentWritableBatch(
+        handle.getQueryId(),
+        handle.getMajorFragmentId(),
+        handle.getMinorFragmentId(),
+        config.getReceiverMajorFragmentId(),
+        new ArrowRecordBatch(
+            arrowRecordBatch.getLength(),
+            arrowRecordBatch.getNodes(),
+            buffers,
+            NoCompressionCodec.DEFAULT_BODY_COMPRESSION,
+            false),
+        receivers);
+  }
+
   public static class Creator implements TerminalOperator.Creator<BroadcastSender> {
     @Override
     public TerminalOperator create(
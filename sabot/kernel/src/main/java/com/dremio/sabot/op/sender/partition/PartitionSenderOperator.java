@@ -106,7 +106,11 @@ public class PartitionSenderOperator extends BaseSender {
     OOB_PARTITION_COUNTERS_RECEIVES, // Number of times operator received a notification of
     // partition counters from peers.
 
-    OOB_DOP; // Adjusted DOP based on oob messages
+    OOB_DOP, // Adjusted DOP based on oob messages
+
+    COMPRESSION_INPUT_BYTES, // size of the compressed batches before compression
+    COMPRESSION_OUTPUT_BYTES,
+    COMPRESSION_NANOS;
 
     @Override
     public int metricId() {
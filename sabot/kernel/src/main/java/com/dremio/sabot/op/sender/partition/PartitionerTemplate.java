@@ -26,6 +26,7 @@ import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.FragmentWritableBatch;
@@ -72,6 +73,8 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   /** how much memory should a partition use */
   private int targetOutgoingBatchSize;
+  // shared by the outgoing batches, null when the batches are sent uncompressed
+  private BatchBodyCompressor compressor;
 
   public OutgoingRecordBatch newOutgoingRecordBatch(
       OperatorStats stats,
@@ -159,6 +162,9 @@ public abstract class PartitionerTemplate implements Partitioner {
     final int outgoingBatchRecordCount =
         (int) options.getOption(ExecConstants.TARGET_BATCH_RECORDS_MAX);
     targetOutgoingBatchSize = popConfig.getProps().getTargetBatchSize();
+    if (options.getOption(ExecConstants.EXCHANGE_COMPRESSION)) {
+      compressor = new BatchBodyCompressor(context.getAllocator(), options);
+    }
 
     int fieldId = 0;
     for (MinorFragmentEndpoint destination :
@@ -397,6 +403,9 @@ public abstract class PartitionerTemplate implements Partitioner {
         maxRecordCount = Math.min(Character.MAX_VALUE, maxRecordCount * 2);
       }
 
+      if (compressor != null && tunnel.isBodyCompressionSupported()) {
+        writableBatch = compressor.compress(writableBatch);
+      }
       updateStats(writableBatch);
       tunnel.sendRecordBatch(writableBatch, latencyTracker.getLatencyObserver());
 
@@ -414,6 +423,11 @@ public abstract class PartitionerTemplate implements Partitioner {
       stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
       stats.addLongStat(Metric.BATCHES_SENT, 1);
       stats.addLongStat(Metric.RECORDS_SENT, writableBatch.getRecordCount());
+      if (compressor != null) {
+        stats.setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+        stats.setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+        stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getNanos());
+      }
     }
 
     /** Initialize the OutgoingBatch based on the current schema in incoming RecordBatch */
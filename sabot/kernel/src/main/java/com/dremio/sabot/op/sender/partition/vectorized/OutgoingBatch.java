@@ -18,6 +18,7 @@ package com.dremio.sabot.op.sender.partition.vectorized;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.proto.ExecProtos;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
@@ -65,6 +66,8 @@ public class OutgoingBatch extends VectorContainer {
   private volatile boolean dropAll;
 
   private final SenderLatencyTracker senderLatencyTracker;
+  // null when the batches are sent uncompressed
+  private final BatchBodyCompressor compressor;
 
   OutgoingBatch(
       int batchIdx,
@@ -77,7 +80,8 @@ public class OutgoingBatch extends VectorContainer {
       OperatorContext context,
       int oppositeMinorFragmentId,
       OperatorStats stats,
-      SenderLatencyTracker senderLatencyTracker) {
+      SenderLatencyTracker senderLatencyTracker,
+      BatchBodyCompressor compressor) {
     Preconditions.checkArgument(
         maxRecords <= Character.MAX_VALUE, "maxRecords cannot exceed " + Character.MAX_VALUE);
     this.batchIdx = batchIdx;
@@ -91,6 +95,7 @@ public class OutgoingBatch extends VectorContainer {
 
     this.stats = stats;
     this.senderLatencyTracker = senderLatencyTracker;
+    this.compressor = compressor;
 
     for (VectorWrapper<?> v : incoming) {
       ValueVector outgoingVector = TypeHelper.getNewVector(v.getField(), allocator);
@@ -193,6 +198,9 @@ public class OutgoingBatch extends VectorContainer {
             config.getReceiverMajorFragmentId(),
             this,
             oppositeMinorFragmentId);
+    if (compressor != null && tunnel.isBodyCompressionSupported()) {
+      writableBatch = compressor.compress(writableBatch);
+    }
 
     updateStats(writableBatch);
 
@@ -22,10 +22,12 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.util.Numbers;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecRPC;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
@@ -89,6 +91,8 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
   private final Stopwatch preCopyWatch = Stopwatch.createUnstarted();
   private final Stopwatch flushWatch = Stopwatch.createUnstarted();
   private final SenderLatencyTracker latencyTracker = new SenderLatencyTracker();
+  // shared by the outgoing batches, null when the batches are sent uncompressed
+  private final BatchBodyCompressor compressor;
 
   /**
    * number of records before we flush any outgoing batch.<br>
@@ -153,6 +157,10 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     modLookup = new OutgoingBatch[modSize];
     batches = new OutgoingBatch[2 * numReceivers];
     delayAllocSendBatches = context.getOptions().getOption(DELAY_ALLOC_SEND_BATCHES);
+    compressor =
+        context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+            ? new BatchBodyCompressor(context.getAllocator(), context.getOptions())
+            : null;
   }
 
   @Override
@@ -239,7 +247,8 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
               context,
               destination.getMinorFragmentId(),
               stats,
-              latencyTracker);
+              latencyTracker,
+              compressor);
       batches[batchB] =
           new OutgoingBatch(
               batchB,
@@ -252,7 +261,8 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
               context,
               destination.getMinorFragmentId(),
               stats,
-              latencyTracker);
+              latencyTracker,
+              compressor);
 
       if (!delayAllocSendBatches) {
         // Only allocate the primary batch. Backup batch is allocated when it is needed.
@@ -437,6 +447,11 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
   public void close() throws Exception {
     stats.setLongStat(Metric.SUM_ACK_MILLIS, latencyTracker.getSumAckMillis());
     stats.setLongStat(Metric.MAX_ACK_MILLIS, latencyTracker.getMaxAckMillis());
+    if (compressor != null) {
+      stats.setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getNanos());
+    }
     AutoCloseables.close(Arrays.asList(batches), Arrays.asList(copyIndices, partitionIndices));
   }
 
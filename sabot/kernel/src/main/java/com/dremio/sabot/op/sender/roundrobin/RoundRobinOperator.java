@@ -16,12 +16,14 @@
 package com.dremio.sabot.op.sender.roundrobin;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.physical.config.RoundRobinSender;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentStreamComplete;
+import com.dremio.exec.record.BatchBodyCompressor;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.sabot.exec.context.MetricDef;
@@ -62,6 +64,8 @@ public class RoundRobinOperator extends BaseSender {
   private int currentTunnelsIndex;
   private int currentMinorFragmentsIndex;
   private final SenderLatencyTracker latencyTracker = new SenderLatencyTracker();
+  // null when the batches are sent uncompressed
+  private final BatchBodyCompressor compressor;
 
   private VectorAccessible incoming;
 
@@ -70,7 +74,10 @@ public class RoundRobinOperator extends BaseSender {
     BYTES_SENT,
     BATCHES_SENT,
     SUM_ACK_MILLIS,
-    MAX_ACK_MILLIS;
+    MAX_ACK_MILLIS,
+    COMPRESSION_INPUT_BYTES, // size of the compressed batches before compression
+    COMPRESSION_OUTPUT_BYTES,
+    COMPRESSION_NANOS;
 
     @Override
     public int metricId() {
@@ -86,6 +93,10 @@ public class RoundRobinOperator extends BaseSender {
     this.allocator = context.getAllocator();
     this.handle = context.getFragmentHandle();
     this.stats = context.getStats();
+    this.compressor =
+        context.getOptions().getOption(ExecConstants.EXCHANGE_COMPRESSION)
+            ? new BatchBodyCompressor(allocator, context.getOptions())
+            : null;
 
     List<MinorFragmentEndpoint> destinations = config.getDestinations(context.getEndpointsIndex());
     final ArrayListMultimap<NodeEndpoint, Integer> dests = ArrayListMultimap.create();
@@ -119,6 +130,11 @@ public class RoundRobinOperator extends BaseSender {
     stats.setLongStat(Metric.N_RECEIVERS, tunnels.size());
     stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
     stats.addLongStat(Metric.BATCHES_SENT, 1);
+    if (compressor != null) {
+      stats.setLongStat(Metric.COMPRESSION_INPUT_BYTES, compressor.getUncompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_OUTPUT_BYTES, compressor.getCompressedBytes());
+      stats.setLongStat(Metric.COMPRESSION_NANOS, compressor.getNanos());
+    }
   }
 
   @Override
@@ -182,6 +198,7 @@ public class RoundRobinOperator extends BaseSender {
                 })
             .toList();
 
+    final AccountingExecTunnel tunnel = tunnels.get(currentTunnelsIndex);
     FragmentWritableBatch batch =
         new FragmentWritableBatch(
             handle.getQueryId(),
@@ -195,8 +212,11 @@ public class RoundRobinOperator extends BaseSender {
                 NoCompressionCodec.DEFAULT_BODY_COMPRESSION,
                 false),
             minorFragments.get(currentTunnelsIndex).get(currentMinorFragmentsIndex));
+    if (compressor != null && tunnel.isBodyCompressionSupported()) {
+      batch = compressor.compress(batch);
+    }
     updateStats(batch);
-    tunnels.get(currentTunnelsIndex).sendRecordBatch(batch, latencyTracker.getLatencyObserver());
+    tunnel.sendRecordBatch(batch, latencyTracker.getLatencyObserver());
 
     currentMinorFragmentsIndex++;
     if (currentMinorFragmentsIndex >= minorFragments.get(currentTunnelsIndex).size()) {
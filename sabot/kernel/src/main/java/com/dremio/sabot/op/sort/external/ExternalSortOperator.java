@@ -403,6 +403,20 @@ public class ExternalSortOperator implements SingleInputOperator, ShrinkableOper
     stats.setLongStat(
         ExternalSortStats.Metric.NO_MORE_TO_CONSUME_MILLIS,
         noMoreToConsumeWatch.elapsed(TimeUnit.MILLISECONDS));
+    if (vectorSorterStats.containsKey(ExternalSortStats.Metric.RADIX_SORT_RUNS.name())) {
+      stats.setLongStat(
+          ExternalSortStats.Metric.RADIX_SORT_RUNS,
+          vectorSorterStats.get(ExternalSortStats.Metric.RADIX_SORT_RUNS.name()));
+      stats.setLongStat(
+          ExternalSortStats.Metric.RADIX_SORT_COMPARATOR_RUNS,
+          vectorSorterStats.get(ExternalSortStats.Metric.RADIX_SORT_COMPARATOR_RUNS.name()));
+      stats.setLongStat(
+          ExternalSortStats.Metric.RADIX_SORT_TIED_RECORDS,
+          vectorSorterStats.get(ExternalSortStats.Metric.RADIX_SORT_TIED_RECORDS.name()));
+      stats.setLongStat(
+          ExternalSortStats.Metric.RADIX_SORT_NANOS,
+          vectorSorterStats.get(ExternalSortStats.Metric.RADIX_SORT_NANOS.name()));
+    }
   }
 
   @Override
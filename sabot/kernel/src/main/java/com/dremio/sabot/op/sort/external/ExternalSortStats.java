@@ -70,7 +70,19 @@ public class ExternalSortStats {
     CAN_CONSUME_MILLIS,
     CAN_PRODUCE_MILLIS,
     SETUP_MILLIS,
-    NO_MORE_TO_CONSUME_MILLIS;
+    NO_MORE_TO_CONSUME_MILLIS,
+
+    // radix sort related metrics
+    RADIX_SORT_RUNS(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Number of in memory runs sorted on normalized keys"),
+    RADIX_SORT_COMPARATOR_RUNS, // runs sorted with the comparator only, keys could not be encoded
+    RADIX_SORT_TIED_RECORDS, // records with equal normalized keys, ordered by the comparator
+    RADIX_SORT_NANOS(
+        DisplayType.DISPLAY_BY_DEFAULT,
+        AggregationType.SUM,
+        "Time spent sorting in memory runs on normalized keys");
 
     private final UserBitShared.MetricDef.DisplayType displayType;
     private final UserBitShared.MetricDef.AggregationType aggregationType;
@@ -43,7 +43,8 @@ import org.apache.arrow.vector.types.pojo.Schema;
 
 /**
  * Describes a set of ordered batches of data in memory. Sort each batch as it is inserted using the
- * Sorter. Sorter can be configured to use QuickSort (by default) or SplaySort.
+ * Sorter. Sorter can be configured to use QuickSort (by default), SplaySort or a radix sort of
+ * normalized keys.
  *
  * <p>Memory Guarantees Targeted: - Ensure that spilling can be done before accepting a new batch of
  * records. We do this by pre-reserving BATCH_SIZE_MULTIPLIER times the size of the largest batch
@@ -92,6 +93,33 @@ class MemoryRun implements AutoCloseable {
       boolean useSplaySort,
       int targetBatchSize,
       ExecutionControls executionControls) {
+    this(
+        sortOrderings,
+        classProducer,
+        allocator,
+        schema,
+        tracer,
+        batchsizeMultiplier,
+        useSplaySort,
+        null,
+        targetBatchSize,
+        executionControls);
+  }
+
+  /**
+   * @param radixSortStats metrics of the radix sort, null to sort with QuickSort or SplaySort
+   */
+  public MemoryRun(
+      List<Ordering> sortOrderings,
+      ClassProducer classProducer,
+      BufferAllocator allocator,
+      Schema schema,
+      VectorSortTracer tracer,
+      int batchsizeMultiplier,
+      boolean useSplaySort,
+      RadixSorter.Stats radixSortStats,
+      int targetBatchSize,
+      ExecutionControls executionControls) {
     this.schema = schema;
     this.allocator = allocator;
     this.classProducer = classProducer;
@@ -100,7 +128,10 @@ class MemoryRun implements AutoCloseable {
     this.targetBatchSize = targetBatchSize;
     this.executionControls = executionControls;
     try {
-      if (useSplaySort) {
+      if (radixSortStats != null) {
+        this.sorter =
+            new RadixSorter(sortOrderings, classProducer, schema, allocator, radixSortStats);
+      } else if (useSplaySort) {
         this.sorter = new SplaySorter(sortOrderings, classProducer, schema, allocator);
       } else {
         this.sorter = new QuickSorter(sortOrderings, classProducer, schema, allocator);
@@ -0,0 +1,521 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.sort.external;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.exception.ClassTransformationException;
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.expr.ClassGenerator;
+import com.dremio.exec.expr.ClassProducer;
+import com.dremio.exec.expr.CodeGenerator;
+import com.dremio.exec.record.ExpandableHyperContainer;
+import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.exec.record.selection.SelectionVector4;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.memory.util.ByteFunctionHelpers;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.SimpleIntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.hadoop.util.IndexedSortable;
+import org.apache.hadoop.util.QuickSort;
+
+/**
+ * Insert each batch into a QuickSorter as it arrives and encode the sort keys of its records into
+ * normalized keys, which compare as unsigned bytes in the order of the sort. The final sort is a LSD
+ * radix sort of the normalized keys, the generated comparator only ordering the records whose keys
+ * are equal: a normalized key keeps a prefix of strings and stops at the first string or at the
+ * first sort column it can't encode.
+ *
+ * <p>When the first sort column can't be encoded, the records are sorted with the comparator only.
+ */
+public class RadixSorter implements Sorter {
+  static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(RadixSorter.class);
+
+  // bytes of a string kept in its normalized key
+  static final int STRING_PREFIX_BYTES = 8;
+  // sort columns after these bytes are ordered by the comparator
+  static final int MAX_KEY_BYTES = 32;
+
+  // first byte of each column in the normalized keys, before the bytes of a descending column are
+  // inverted
+  private static final byte NULL_LOW = 0;
+  private static final byte NOT_NULL = 1;
+  private static final byte NULL_HIGH = 2;
+
+  private final List<Ordering> sortOrderings;
+  private final ClassProducer classProducer;
+  private final Schema schema;
+  private final BufferAllocator allocator;
+  private final Stats stats;
+  private final List<KeyColumn> keyColumns;
+  private final int keyWidth;
+  private final boolean exactKeys;
+
+  private QuickSorterInterface quickSorter;
+  private SimpleIntVector quickSorterBuffer;
+  // normalized key of each record, in the order of the records in the quick sorter buffer
+  private ArrowBuf keyBuffer;
+  // two arrays of positions of the keys, the radix sort moving them from one to the other
+  private ArrowBuf permutationBuffer;
+  private int totalCount;
+
+  public RadixSorter(
+      List<Ordering> sortOrderings,
+      ClassProducer classProducer,
+      Schema schema,
+      BufferAllocator allocator,
+      Stats stats) {
+    this.sortOrderings = sortOrderings;
+    this.classProducer = classProducer;
+    this.schema = schema;
+    this.allocator = allocator;
+    this.stats = stats;
+
+    final ImmutableList.Builder<KeyColumn> columns = ImmutableList.builder();
+    int width = 0;
+    boolean exact = true;
+    for (Ordering ordering : sortOrderings) {
+      final SchemaPath path = getSimplePath(ordering.getExpr());
+      final Field field = path == null ? null : findField(schema, path);
+      final MinorType type = field == null ? null : CompleteType.fromField(field).toMinorType();
+      final int valueWidth = type == null ? -1 : getValueWidth(type);
+      if (valueWidth < 0 || width + 1 + valueWidth > MAX_KEY_BYTES) {
+        exact = false;
+        break;
+      }
+      columns.add(new KeyColumn(path, type, valueWidth, ordering));
+      width += 1 + valueWidth;
+      if (isVariableWidth(type)) {
+        exact = false;
+        break;
+      }
+    }
+    this.keyColumns = columns.build();
+    this.keyWidth = width;
+    this.exactKeys = exact;
+
+    quickSorterBuffer = new SimpleIntVector("RadixSorterSimpleIntVector", allocator);
+    keyBuffer = allocator.getEmpty();
+    permutationBuffer = allocator.getEmpty();
+  }
+
+  private static SchemaPath getSimplePath(LogicalExpression expr) {
+    if (expr instanceof SchemaPath && ((SchemaPath) expr).isSimplePath()) {
+      return (SchemaPath) expr;
+    }
+    return null;
+  }
+
+  private static Field findField(Schema schema, SchemaPath path) {
+    final String name = path.getRootSegment().getPath();
+    for (Field field : schema.getFields()) {
+      if (field.getName().equalsIgnoreCase(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  /** Width of the encoded values of a type, -1 if the type can't be encoded. */
+  private static int getValueWidth(MinorType type) {
+    switch (type) {
+      case BIT:
+        return 1;
+      case INT:
+      case TIME:
+        return 4;
+      case BIGINT:
+      case DATE:
+      case TIMESTAMP:
+        return 8;
+      case DECIMAL:
+        return 16;
+      case VARCHAR:
+      case VARBINARY:
+        return STRING_PREFIX_BYTES;
+      default:
+        return -1;
+    }
+  }
+
+  private static boolean isVariableWidth(MinorType type) {
+    return type == MinorType.VARCHAR || type == MinorType.VARBINARY;
+  }
+
+  /** Whether the records are sorted on their normalized keys. */
+  boolean usesNormalizedKeys() {
+    return !keyColumns.isEmpty();
+  }
+
+  @Override
+  public boolean expandMemoryIfNecessary(int newRequiredSize) {
+    try {
+      // Realloc QuickSorter SimpleIntVector, doubles size each time.
+      while (quickSorterBuffer.getValueCapacity() < newRequiredSize) {
+        quickSorterBuffer.reAlloc();
+      }
+      if (usesNormalizedKeys()) {
+        keyBuffer = expand(keyBuffer, (long) newRequiredSize * keyWidth, true);
+        permutationBuffer = expand(permutationBuffer, (long) newRequiredSize * 8, false);
+      }
+    } catch (OutOfMemoryException ex) {
+      return false;
+    }
+
+    return true;
+  }
+
+  /** Doubles the size of the buffer until it holds the given number of bytes. */
+  private ArrowBuf expand(ArrowBuf buffer, long requiredSize, boolean copy) {
+    if (buffer.capacity() >= requiredSize) {
+      return buffer;
+    }
+    long newSize = Math.max(buffer.capacity(), 4096);
+    while (newSize < requiredSize) {
+      newSize *= 2;
+    }
+    final ArrowBuf expanded = allocator.buffer(newSize);
+    if (copy) {
+      expanded.setBytes(0, buffer, 0, buffer.capacity());
+    }
+    buffer.close();
+    return expanded;
+  }
+
+  @Override
+  public void setup(VectorAccessible batch)
+      throws ClassTransformationException, SchemaChangeException, IOException {
+    // Compile sorting classes, the comparator orders the records with equal normalized keys.
+    CodeGenerator<QuickSorterInterface> cg =
+        classProducer.createGenerator(QuickSorterInterface.TEMPLATE_DEFINITION);
+    ClassGenerator<QuickSorterInterface> g = cg.getRoot();
+    final Sv4HyperContainer container = new Sv4HyperContainer(allocator, schema);
+    VectorSorter.generateComparisons(g, container, sortOrderings, classProducer);
+    this.quickSorter = cg.getImplementationClass();
+    quickSorter.init(classProducer.getFunctionContext(), container);
+    quickSorter.setDataBuffer(quickSorterBuffer);
+    totalCount = 0;
+
+    for (KeyColumn column : keyColumns) {
+      column.fieldId = batch.getValueVectorId(column.path);
+      if (column.fieldId == null) {
+        throw new SchemaChangeException(
+            String.format("Failure while finding sort column %s.", column.path));
+      }
+    }
+  }
+
+  @Override
+  public void addBatch(RecordBatchData data, BufferAllocator copyTargetAllocator)
+      throws SchemaChangeException {
+    final int recordCount = data.getRecordCount();
+    if (usesNormalizedKeys()) {
+      final VectorAccessible batch = data.getVectorAccessible();
+      final ValueVector[] vectors = new ValueVector[keyColumns.size()];
+      for (int i = 0; i < vectors.length; i++) {
+        vectors[i] =
+            batch
+                .getValueAccessorById(ValueVector.class, keyColumns.get(i).fieldId.getFieldIds())
+                .getValueVector();
+      }
+
+      final SelectionVector2 sv2 = data.getSv2();
+      long offset = (long) totalCount * keyWidth;
+      for (int count = 0; count < recordCount; count++) {
+        final int index = sv2 != null ? sv2.getIndex(count) : count;
+        for (int i = 0; i < vectors.length; i++) {
+          offset = encode(keyColumns.get(i), vectors[i], index, offset);
+        }
+      }
+    }
+
+    quickSorter.add(data);
+    totalCount += recordCount;
+  }
+
+  /**
+   * Writes the normalized key of a value.
+   *
+   * @return the offset following the key
+   */
+  private long encode(KeyColumn column, ValueVector vector, int index, long offset) {
+    if (vector.isNull(index)) {
+      keyBuffer.setByte(offset, column.nullsHigh ? NULL_HIGH : NULL_LOW);
+      keyBuffer.setZero(offset + 1, column.valueWidth);
+    } else {
+      keyBuffer.setByte(offset, NOT_NULL);
+      final long valueOffset = offset + 1;
+      switch (column.type) {
+        case BIT:
+          keyBuffer.setByte(valueOffset, ((BitVector) vector).get(index));
+          break;
+        case INT:
+        case TIME:
+          final int intValue = vector.getDataBuffer().getInt((long) index * 4);
+          keyBuffer.setInt(valueOffset, Integer.reverseBytes(intValue ^ Integer.MIN_VALUE));
+          break;
+        case BIGINT:
+        case DATE:
+        case TIMESTAMP:
+          final long longValue = vector.getDataBuffer().getLong((long) index * 8);
+          keyBuffer.setLong(valueOffset, Long.reverseBytes(longValue ^ Long.MIN_VALUE));
+          break;
+        case DECIMAL:
+          // little endian two's complement 128 bits integers
+          final ArrowBuf decimals = vector.getDataBuffer();
+          final long high = decimals.getLong((long) index * 16 + 8);
+          final long low = decimals.getLong((long) index * 16);
+          keyBuffer.setLong(valueOffset, Long.reverseBytes(high ^ Long.MIN_VALUE));
+          keyBuffer.setLong(valueOffset + 8, Long.reverseBytes(low));
+          break;
+        case VARCHAR:
+        case VARBINARY:
+          final BaseVariableWidthVector strings = (BaseVariableWidthVector) vector;
+          final int length = Math.min(strings.getValueLength(index), column.valueWidth);
+          keyBuffer.setBytes(
+              valueOffset, strings.getDataBuffer(), strings.getStartOffset(index), length);
+          keyBuffer.setZero(valueOffset + length, column.valueWidth - length);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected sort key type " + column.type);
+      }
+    }
+
+    final long end = offset + 1 + column.valueWidth;
+    if (column.descending) {
+      for (long i = offset; i < end; i++) {
+        keyBuffer.setByte(i, ~keyBuffer.getByte(i));
+      }
+    }
+    return end;
+  }
+
+  @Override
+  public ExpandableHyperContainer getHyperBatch() {
+    if (quickSorter != null) {
+      return quickSorter.getHyperBatch();
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public int getHyperBatchSize() {
+    if (quickSorter != null) {
+      return quickSorter.getHyperBatch().size();
+    } else {
+      return 0;
+    }
+  }
+
+  @Override
+  public SelectionVector4 getFinalSort(BufferAllocator copyTargetAllocator, int targetBatchSize) {
+    if (!usesNormalizedKeys()) {
+      stats.comparatorSortedRuns++;
+      return quickSorter.getFinalSort(copyTargetAllocator, targetBatchSize);
+    }
+
+    final Stopwatch watch = Stopwatch.createStarted();
+    quickSorterBuffer.setValueCount(totalCount);
+    final long sorted = radixSort();
+    final int tiedRecords = exactKeys ? 0 : sortTies(sorted);
+
+    SelectionVector4 finalSortedSV4 =
+        new SelectionVector4(
+            copyTargetAllocator.buffer(totalCount * 4), totalCount, targetBatchSize);
+    for (int i = 0; i < totalCount; i++) {
+      finalSortedSV4.set(i, quickSorterBuffer.get(i));
+    }
+
+    stats.radixSortedRuns++;
+    stats.tiedRecords += tiedRecords;
+    stats.sortNanos += watch.elapsed(TimeUnit.NANOSECONDS);
+    logger.debug(
+        "Took {} us to radix sort {} records in {} batches, {} records with equal keys",
+        watch.elapsed(TimeUnit.MICROSECONDS),
+        totalCount,
+        getHyperBatchSize(),
+        tiedRecords);
+
+    return finalSortedSV4;
+  }
+
+  /**
+   * Sorts the normalized keys one byte at a time, from the last one, and reorders the records of
+   * the quick sorter buffer the same way.
+   *
+   * @return the offset in the permutation buffer of the sorted positions of the keys
+   */
+  private long radixSort() {
+    // histograms of all the bytes are built in a single pass over the keys
+    final int[][] counts = new int[keyWidth][256];
+    for (long offset = 0, end = (long) totalCount * keyWidth; offset < end; offset += keyWidth) {
+      for (int b = 0; b < keyWidth; b++) {
+        counts[b][keyBuffer.getByte(offset + b) & 0xFF]++;
+      }
+    }
+
+    long from = 0;
+    long to = (long) totalCount * 4;
+    for (int i = 0; i < totalCount; i++) {
+      permutationBuffer.setInt(from + (long) i * 4, i);
+    }
+
+    final int[] starts = new int[256];
+    for (int b = keyWidth - 1; b >= 0; b--) {
+      if (isSingleBucket(counts[b])) {
+        // all the keys have the same byte, as the null bytes and high bytes of small values
+        continue;
+      }
+      int start = 0;
+      for (int value = 0; value < 256; value++) {
+        starts[value] = start;
+        start += counts[b][value];
+      }
+      for (int i = 0; i < totalCount; i++) {
+        final int position = permutationBuffer.getInt(from + (long) i * 4);
+        final int value = keyBuffer.getByte((long) position * keyWidth + b) & 0xFF;
+        permutationBuffer.setInt(to + (long) starts[value]++ * 4, position);
+      }
+      final long swap = from;
+      from = to;
+      to = swap;
+    }
+
+    for (int i = 0; i < totalCount; i++) {
+      permutationBuffer.setInt(
+          to + (long) i * 4, quickSorterBuffer.get(permutationBuffer.getInt(from + (long) i * 4)));
+    }
+    for (int i = 0; i < totalCount; i++) {
+      quickSorterBuffer.set(i, permutationBuffer.getInt(to + (long) i * 4));
+    }
+    return from;
+  }
+
+  private boolean isSingleBucket(int[] counts) {
+    for (int count : counts) {
+      if (count != 0) {
+        return count == totalCount;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sorts the records with equal normalized keys with the comparator.
+   *
+   * @return the number of records with equal normalized keys
+   */
+  private int sortTies(long sorted) {
+    final IndexedSortable sortable = (IndexedSortable) quickSorter;
+    final QuickSort quickSort = new QuickSort();
+    int tiedRecords = 0;
+    int start = 0;
+    for (int i = 1; i <= totalCount; i++) {
+      if (i == totalCount || !equalKeys(sorted, start, i)) {
+        if (i - start > 1) {
+          quickSort.sort(sortable, start, i);
+          tiedRecords += i - start;
+        }
+        start = i;
+      }
+    }
+    return tiedRecords;
+  }
+
+  private boolean equalKeys(long sorted, int left, int right) {
+    final long leftStart = (long) permutationBuffer.getInt(sorted + (long) left * 4) * keyWidth;
+    final long rightStart = (long) permutationBuffer.getInt(sorted + (long) right * 4) * keyWidth;
+    return ByteFunctionHelpers.equal(
+            keyBuffer,
+            leftStart,
+            leftStart + keyWidth,
+            keyBuffer,
+            rightStart,
+            rightStart + keyWidth)
+        == 1;
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(quickSorterBuffer, keyBuffer, permutationBuffer);
+
+    quickSorterBuffer = null;
+    keyBuffer = null;
+    permutationBuffer = null;
+  }
+
+  /** A sort column encoded in the normalized keys. */
+  private static final class KeyColumn {
+    private final SchemaPath path;
+    private final MinorType type;
+    private final int valueWidth;
+    private final boolean descending;
+    private final boolean nullsHigh;
+    private TypedFieldId fieldId;
+
+    private KeyColumn(SchemaPath path, MinorType type, int valueWidth, Ordering ordering) {
+      this.path = path;
+      this.type = type;
+      this.valueWidth = valueWidth;
+      this.descending = ordering.getDirection() != Direction.ASCENDING;
+      this.nullsHigh = ordering.nullsSortHigh();
+    }
+  }
+
+  /** Radix sort metrics, accumulated over the memory runs of a sort. */
+  static final class Stats {
+    private long radixSortedRuns;
+    private long comparatorSortedRuns;
+    private long tiedRecords;
+    private long sortNanos;
+
+    long getRadixSortedRuns() {
+      return radixSortedRuns;
+    }
+
+    long getComparatorSortedRuns() {
+      return comparatorSortedRuns;
+    }
+
+    long getTiedRecords() {
+      return tiedRecords;
+    }
+
+    long getSortNanos() {
+      return sortNanos;
+    }
+  }
+}
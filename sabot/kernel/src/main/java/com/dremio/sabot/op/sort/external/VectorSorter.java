@@ -84,6 +84,10 @@ public class VectorSorter implements AutoCloseable {
   private static final String OOM_COPY_COUNT = "OOM_COPY_COUNT";
   private static final String SPILL_COPY_NANOS = "SPILL_COPY_NANOS";
   private static final String SETUP_MILLIS = "SETUP_MILLIS";
+  private static final String RADIX_SORT_RUNS = "RADIX_SORT_RUNS";
+  private static final String RADIX_SORT_COMPARATOR_RUNS = "RADIX_SORT_COMPARATOR_RUNS";
+  private static final String RADIX_SORT_TIED_RECORDS = "RADIX_SORT_TIED_RECORDS";
+  private static final String RADIX_SORT_NANOS = "RADIX_SORT_NANOS";
 
   private final int targetBatchSize;
   private final OperatorContext context;
@@ -104,6 +108,7 @@ public class VectorSorter implements AutoCloseable {
   private int maxBatchesInMemory = 0;
   private int batchsizeMultiplier;
   private boolean enableSplaySort;
+  private RadixSorter.Stats radixSortStats;
   private boolean enableMicroSpill;
   private State prevState;
   private SortState prevSortState;
@@ -181,6 +186,10 @@ public class VectorSorter implements AutoCloseable {
       final boolean compressSpilledBatch =
           options.getOption(ExecConstants.EXTERNAL_SORT_COMPRESS_SPILL_FILES);
       this.enableSplaySort = options.getOption(ExecConstants.EXTERNAL_SORT_ENABLE_SPLAY_SORT);
+      this.radixSortStats =
+          options.getOption(ExecConstants.EXTERNAL_SORT_ENABLE_RADIX_SORT)
+              ? new RadixSorter.Stats()
+              : null;
       this.unconsumedRef = null;
       this.enableMicroSpill = options.getOption(ExecConstants.EXTERNAL_SORT_ENABLE_MICRO_SPILL);
       this.consumePendingIncomingBatch = false;
@@ -196,6 +205,7 @@ public class VectorSorter implements AutoCloseable {
               tracer,
               batchsizeMultiplier,
               enableSplaySort,
+              radixSortStats,
               targetBatchSize,
               context.getExecutionControls());
       rollback.add(this.memoryRun);
@@ -626,6 +636,12 @@ public class VectorSorter implements AutoCloseable {
       stats.put(OOM_COPY_COUNT, diskRuns.getOOMCopyCount());
       stats.put(SPILL_COPY_NANOS, diskRuns.getSpillCopyNanos());
     }
+    if (radixSortStats != null) {
+      stats.put(RADIX_SORT_RUNS, radixSortStats.getRadixSortedRuns());
+      stats.put(RADIX_SORT_COMPARATOR_RUNS, radixSortStats.getComparatorSortedRuns());
+      stats.put(RADIX_SORT_TIED_RECORDS, radixSortStats.getTiedRecords());
+      stats.put(RADIX_SORT_NANOS, radixSortStats.getSortNanos());
+    }
     stats.put(SETUP_MILLIS, setUpWatch.elapsed(TimeUnit.MILLISECONDS));
     return stats;
   }
@@ -672,6 +688,7 @@ public class VectorSorter implements AutoCloseable {
               tracer,
               batchsizeMultiplier,
               enableSplaySort,
+              radixSortStats,
               targetBatchSize,
               context.getExecutionControls());
     } catch (Exception e) {
@@ -731,6 +748,7 @@ public class VectorSorter implements AutoCloseable {
             tracer,
             batchsizeMultiplier,
             enableSplaySort,
+            radixSortStats,
             targetBatchSize,
             context.getExecutionControls());
 
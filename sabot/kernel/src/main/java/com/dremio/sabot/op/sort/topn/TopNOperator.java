@@ -20,7 +20,9 @@ import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.exceptions.OutOfMemoryOrResourceExceptionContext;
 import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.logical.data.Order.Ordering;
+import com.dremio.common.types.TypeProtos.MinorType;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.compile.sig.MappingSet;
 import com.dremio.exec.exception.ClassTransformationException;
@@ -31,15 +33,22 @@ import com.dremio.exec.expr.ClassProducer;
 import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.expr.fn.FunctionGenerationHelper;
+import com.dremio.exec.physical.config.RuntimeFilterProbeTarget;
 import com.dremio.exec.physical.config.TopN;
+import com.dremio.exec.proto.CoordExecRPC.FragmentAssignment;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.ExecProtos;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.RecordBatchData;
+import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.record.selection.SelectionVector4;
+import com.dremio.sabot.exec.context.MetricDef;
 import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.exec.fragment.OutOfBandMessage;
 import com.dremio.sabot.op.copier.Copier;
 import com.dremio.sabot.op.copier.CopierOperator;
 import com.dremio.sabot.op.sort.SortRecordBatchBuilder;
@@ -50,8 +59,12 @@ import com.google.common.base.Stopwatch;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JExpr;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.calcite.rel.RelFieldCollation.Direction;
 
@@ -62,6 +75,7 @@ public class TopNOperator implements SingleInputOperator, ShrinkableOperator {
   private final int batchPurgeThreshold;
   private final TopN config;
   private final OperatorContext context;
+  private final int thresholdIntervalBatches;
 
   private State state = State.NEEDS_SETUP;
   private int batchesOutput = 0;
@@ -79,10 +93,30 @@ public class TopNOperator implements SingleInputOperator, ShrinkableOperator {
   private PriorityQueue priorityQueue;
   private Copier copier;
 
+  // boundary of the rows kept, sent to the scan the first sort key comes from
+  private int[] thresholdFieldIds;
+  private MinorType thresholdType;
+  private long recordsConsumed;
+  private int batchesSinceThreshold;
+  private boolean hasThreshold;
+  private long threshold;
+  private long thresholdsSent;
+
+  public enum Metric implements MetricDef {
+    THRESHOLDS_SENT; // number of boundaries of the rows kept sent to the scan
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
   public TopNOperator(OperatorContext context, TopN popConfig) {
     this.config = popConfig;
     this.context = context;
     this.batchPurgeThreshold = context.getConfig().getInt(ExecConstants.BATCH_PURGE_THRESHOLD);
+    this.thresholdIntervalBatches =
+        (int) context.getOptions().getOption(ExecConstants.TOPN_RUNTIME_FILTER_INTERVAL_BATCHES);
   }
 
   @Override
@@ -104,15 +138,42 @@ public class TopNOperator implements SingleInputOperator, ShrinkableOperator {
     copier =
         CopierOperator.getGenerated4Copier(
             context.getClassProducer(), priorityQueue.getHyperBatch(), outgoing);
+    setupThreshold();
     state = State.CAN_CONSUME;
     return outgoing;
   }
 
+  /** Finds the vector of the first sort key, if its boundary can be sent to the scan. */
+  private void setupThreshold() {
+    final RuntimeFilterProbeTarget target = config.getRuntimeFilterProbeTarget();
+    if (target == null || target.getNonPartitionBuildTableKeys().isEmpty()) {
+      return;
+    }
+    final TypedFieldId fieldId =
+        incoming.getSchema()
+            .getFieldId(SchemaPath.getSimplePath(target.getNonPartitionBuildTableKeys().get(0)));
+    if (fieldId == null || fieldId.getFieldIds().length != 1) {
+      return;
+    }
+    final Class<?> vectorClass = fieldId.getIntermediateClass();
+    if (IntVector.class.equals(vectorClass)) {
+      thresholdType = MinorType.INT;
+    } else if (BigIntVector.class.equals(vectorClass)) {
+      thresholdType = MinorType.BIGINT;
+    } else if (TimeStampMilliVector.class.equals(vectorClass)) {
+      thresholdType = MinorType.TIMESTAMP;
+    } else {
+      return;
+    }
+    thresholdFieldIds = fieldId.getFieldIds();
+  }
+
   @Override
   public void consumeData(int records) throws Exception {
 
     countSincePurge += incoming.getRecordCount();
     batchCount++;
+    recordsConsumed += incoming.getRecordCount();
 
     priorityQueue.add(new RecordBatchData(incoming, context.getAllocator()));
 
@@ -121,6 +182,85 @@ public class TopNOperator implements SingleInputOperator, ShrinkableOperator {
       countSincePurge = 0;
       batchCount = 0;
     }
+
+    if (thresholdFieldIds != null
+        && recordsConsumed >= config.getLimit()
+        && ++batchesSinceThreshold >= thresholdIntervalBatches) {
+      batchesSinceThreshold = 0;
+      sendThreshold();
+    }
+  }
+
+  /**
+   * Sends the value of the first sort key in the last row kept to the scan, if tighter than the
+   * one sent before. No row of the scan with a worse value can make it to the output.
+   */
+  private void sendThreshold() {
+    // the heap is full, its top is the last row kept
+    final int index = priorityQueue.getHeapSv4().get(0);
+    final ValueVector vector =
+        priorityQueue
+            .getHyperBatch()
+            .getValueAccessorById(ValueVector.class, thresholdFieldIds)
+            .getValueVectors()[index >>> 16];
+    final int offset = index & 65535;
+    if (vector.isNull(offset)) {
+      return;
+    }
+    final long value =
+        thresholdType == MinorType.INT
+            ? ((IntVector) vector).get(offset)
+            : thresholdType == MinorType.BIGINT
+                ? ((BigIntVector) vector).get(offset)
+                : ((TimeStampMilliVector) vector).get(offset);
+
+    final Ordering ordering = config.getOrderings().get(0);
+    final boolean descending = ordering.getDirection() == Direction.DESCENDING;
+    if (hasThreshold && (descending ? value <= threshold : value >= threshold)) {
+      return;
+    }
+    hasThreshold = true;
+    threshold = value;
+
+    final RuntimeFilterProbeTarget target = config.getRuntimeFilterProbeTarget();
+    final ExecProtos.TopNThreshold message =
+        ExecProtos.TopNThreshold.newBuilder()
+            .setColumn(target.getNonPartitionProbeTableKeys().get(0))
+            .setType(thresholdType)
+            .setDescending(descending)
+            .setNullsFirst(descending == ordering.nullsSortHigh())
+            .setValue(value)
+            .build();
+    final int minorFragmentId = context.getFragmentHandle().getMinorFragmentId();
+    try {
+      for (FragmentAssignment assignment : context.getAssignments()) {
+        if (!assignment.getMinorFragmentIdList().contains(minorFragmentId)) {
+          continue;
+        }
+        // the scan runs in the same minor fragment as this operator
+        final OutOfBandMessage outOfBandMessage =
+            new OutOfBandMessage(
+                context.getFragmentHandle().getQueryId(),
+                target.getProbeScanMajorFragmentId(),
+                Collections.singletonList(minorFragmentId),
+                target.getProbeScanOperatorId(),
+                context.getFragmentHandle().getMajorFragmentId(),
+                minorFragmentId,
+                config.getProps().getOperatorId(),
+                new OutOfBandMessage.Payload(message),
+                null,
+                null,
+                true);
+        final NodeEndpoint endpoint =
+            context.getEndpointsIndex().getNodeEndpoint(assignment.getAssignmentIndex());
+        context.getTunnelProvider().getExecTunnel(endpoint).sendOOBMessage(outOfBandMessage);
+        thresholdsSent++;
+        context.getStats().setLongStat(Metric.THRESHOLDS_SENT, thresholdsSent);
+        return;
+      }
+    } catch (Exception e) {
+      logger.warn("Error while sending the TopN threshold to the scan", e);
+    }
   }
 
   @Override
@@ -0,0 +1,549 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.exec.physical.config.WindowPOP;
+import com.dremio.exec.physical.config.WindowPOP.Bound;
+import com.dremio.exec.physical.config.WindowPOP.BoundType;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.op.windowframe.WindowBatches.WindowBatch;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+
+/**
+ * Window function evaluated column by column by the {@link VectorizedWindowOperator}, without
+ * generated code.
+ *
+ * <p>Ranking functions are computed from the partition and peer boundaries of the rows, lag and
+ * lead copy the values of the rows at their offset, and aggregates use running sums reset at the
+ * start of each partition, so that the aggregate of any frame is the difference of two running
+ * sums.
+ */
+abstract class VectorizedWindowFunction {
+
+  /** Kind of window function, to report the time spent in each kind */
+  enum Kind {
+    RANKING,
+    OFFSET,
+    AGGREGATE
+  }
+
+  private final int id;
+  private final Kind kind;
+
+  VectorizedWindowFunction(int id, Kind kind) {
+    this.id = id;
+    this.kind = kind;
+  }
+
+  Kind getKind() {
+    return kind;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  /** @return number of rows before a row the function reads */
+  int getLookback() {
+    return 0;
+  }
+
+  /** @return number of rows after a row the function reads */
+  int getLookahead() {
+    return 0;
+  }
+
+  /** @return true if the function needs the last row of the peer group of a row */
+  boolean needsPeerEnd() {
+    return false;
+  }
+
+  /** @return true if the function needs the last row of the partition of a row */
+  boolean needsPartitionEnd() {
+    return false;
+  }
+
+  /** Computes the state of the function for a new batch, called once per batch in input order */
+  void addBatch(WindowBatch batch) {}
+
+  /** Writes the values of the function for the rows of the batch in the output vector */
+  abstract void evaluate(WindowBatches batches, WindowBatch batch, ValueVector output);
+
+  /**
+   * @param id index of the function, used to keep its state in the batches
+   * @param call window function
+   * @param output output field of the function
+   * @param config window definition
+   * @param incoming input of the operator
+   * @return the function, null if the window function is not supported
+   */
+  static VectorizedWindowFunction create(
+      int id, FunctionCall call, Field output, WindowPOP config, VectorAccessible incoming) {
+    final String name = call.getName().toLowerCase();
+    switch (name) {
+      case "row_number":
+      case "rank":
+      case "dense_rank":
+      case "percent_rank":
+      case "cume_dist":
+        return new Ranking(id, WindowFunction.Type.valueOf(name.toUpperCase()));
+      case "lag":
+      case "lead":
+        return Offset.create(id, call, output, incoming, name.equals("lag"));
+      case "sum":
+      case "$sum0":
+      case "count":
+      case "avg":
+        return FrameAggregate.create(id, name, call, output, config, incoming);
+      default:
+        return null;
+    }
+  }
+
+  /** @return index of the column in the input, -1 if the expression is not a top level column */
+  static int findColumn(LogicalExpression expr, VectorAccessible incoming) {
+    if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isSimplePath()) {
+      return -1;
+    }
+    try {
+      return incoming.getValueVectorId((SchemaPath) expr).getFieldIds()[0];
+    } catch (RuntimeException e) {
+      return -1;
+    }
+  }
+
+  private static boolean isBigInt(Field field) {
+    return field.getType() instanceof ArrowType.Int
+        && ((ArrowType.Int) field.getType()).getBitWidth() == 64;
+  }
+
+  private static boolean isFloat8(Field field) {
+    return field.getType() instanceof ArrowType.FloatingPoint
+        && ((ArrowType.FloatingPoint) field.getType()).getPrecision()
+            == FloatingPointPrecision.DOUBLE;
+  }
+
+  /** row_number, rank, dense_rank, percent_rank and cume_dist */
+  static final class Ranking extends VectorizedWindowFunction {
+    private final WindowFunction.Type type;
+
+    private Ranking(int id, WindowFunction.Type type) {
+      super(id, Kind.RANKING);
+      this.type = type;
+    }
+
+    @Override
+    boolean needsPeerEnd() {
+      return type == WindowFunction.Type.CUME_DIST;
+    }
+
+    @Override
+    boolean needsPartitionEnd() {
+      return type == WindowFunction.Type.CUME_DIST || type == WindowFunction.Type.PERCENT_RANK;
+    }
+
+    @Override
+    void evaluate(WindowBatches batches, WindowBatch batch, ValueVector output) {
+      final long firstRow = batch.getFirstRow();
+      final int count = batch.getCount();
+      switch (type) {
+        case ROW_NUMBER:
+          for (int i = 0; i < count; i++) {
+            ((BigIntVector) output).setSafe(i, firstRow + i - batch.getPartitionStart(i) + 1);
+          }
+          break;
+        case RANK:
+          for (int i = 0; i < count; i++) {
+            ((BigIntVector) output)
+                .setSafe(i, batch.getPeerStart(i) - batch.getPartitionStart(i) + 1);
+          }
+          break;
+        case DENSE_RANK:
+          for (int i = 0; i < count; i++) {
+            ((BigIntVector) output).setSafe(i, batch.getDenseRank(i));
+          }
+          break;
+        case PERCENT_RANK:
+          for (int i = 0; i < count; i++) {
+            final long partitionStart = batch.getPartitionStart(i);
+            final long size = batches.getPartitionEnd(batch, i) - partitionStart + 1;
+            final long rank = batch.getPeerStart(i) - partitionStart + 1;
+            ((Float8Vector) output).setSafe(i, size > 1 ? (double) (rank - 1) / (size - 1) : 0);
+          }
+          break;
+        case CUME_DIST:
+          for (int i = 0; i < count; i++) {
+            final long partitionStart = batch.getPartitionStart(i);
+            final long size = batches.getPartitionEnd(batch, i) - partitionStart + 1;
+            final long peers = batches.getPeerEnd(batch, i) - partitionStart + 1;
+            ((Float8Vector) output).setSafe(i, (double) peers / size);
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported ranking function " + type);
+      }
+    }
+  }
+
+  /** lag and lead of a column */
+  static final class Offset extends VectorizedWindowFunction {
+    private final int column;
+    private final int offset;
+    private final boolean lag;
+
+    private Offset(int id, int column, int offset, boolean lag) {
+      super(id, Kind.OFFSET);
+      this.column = column;
+      this.offset = offset;
+      this.lag = lag;
+    }
+
+    static Offset create(
+        int id, FunctionCall call, Field output, VectorAccessible incoming, boolean lag) {
+      if (call.args.isEmpty() || call.args.size() > 2 || output.getType().isComplex()) {
+        return null;
+      }
+      final int column = findColumn(call.args.get(0), incoming);
+      if (column < 0) {
+        return null;
+      }
+      int offset = 1;
+      if (call.args.size() == 2) {
+        if (!(call.args.get(1) instanceof ValueExpressions.IntExpression)) {
+          return null;
+        }
+        offset = ((ValueExpressions.IntExpression) call.args.get(1)).getInt();
+      }
+      return offset < 0 ? null : new Offset(id, column, offset, lag);
+    }
+
+    @Override
+    int getLookback() {
+      return lag ? offset : 0;
+    }
+
+    @Override
+    int getLookahead() {
+      return lag ? 0 : offset;
+    }
+
+    @Override
+    void evaluate(WindowBatches batches, WindowBatch batch, ValueVector output) {
+      WindowBatch source = batch;
+      ValueVector sourceVector = WindowBatches.getVector(batch.getContainer(), column);
+      for (int i = 0; i < batch.getCount(); i++) {
+        final long row = batch.getFirstRow() + i + (lag ? -offset : offset);
+        if (row < source.getFirstRow() || row >= source.getFirstRow() + source.getCount()) {
+          source = batches.find(row);
+          sourceVector =
+              source == null ? null : WindowBatches.getVector(source.getContainer(), column);
+        }
+        final int sourceIndex = source == null ? -1 : (int) (row - source.getFirstRow());
+        if (source == null || source.getPartitionStart(sourceIndex) != batch.getPartitionStart(i)) {
+          // outside of the partition
+          setNull(output, i);
+          source = batch;
+          sourceVector = WindowBatches.getVector(batch.getContainer(), column);
+        } else {
+          output.copyFromSafe(sourceIndex, i, sourceVector);
+        }
+      }
+    }
+
+    private static void setNull(ValueVector output, int index) {
+      if (output instanceof BaseFixedWidthVector) {
+        ((BaseFixedWidthVector) output).setNull(index);
+      } else if (output instanceof BaseVariableWidthVector) {
+        ((BaseVariableWidthVector) output).setNull(index);
+      }
+    }
+  }
+
+  /** sum, $sum0, count and avg over a ROWS frame, or a RANGE frame ending at the current row */
+  static final class FrameAggregate extends VectorizedWindowFunction {
+    private final String name;
+    // input column, -1 for count(<literal>)
+    private final int column;
+    private final boolean integral;
+    private final boolean doubleOutput;
+
+    // first, last row of the frame relative to the row, null if unbounded
+    private final Integer lowerOffset;
+    private final Integer upperOffset;
+    // whether the frame ends with the peers of the row
+    private final boolean upperPeers;
+
+    // running count and sum of the last row added
+    private long runningCount;
+    private long runningLongSum;
+    private double runningDoubleSum;
+
+    private FrameAggregate(
+        int id,
+        String name,
+        int column,
+        boolean integral,
+        boolean doubleOutput,
+        Integer lowerOffset,
+        Integer upperOffset,
+        boolean upperPeers) {
+      super(id, Kind.AGGREGATE);
+      this.name = name;
+      this.column = column;
+      this.integral = integral;
+      this.doubleOutput = doubleOutput;
+      this.lowerOffset = lowerOffset;
+      this.upperOffset = upperOffset;
+      this.upperPeers = upperPeers;
+    }
+
+    static FrameAggregate create(
+        int id,
+        String name,
+        FunctionCall call,
+        Field output,
+        WindowPOP config,
+        VectorAccessible incoming) {
+      if (call.args.size() != 1) {
+        return null;
+      }
+      final LogicalExpression arg = call.args.get(0);
+      final boolean countRows =
+          name.equals("count")
+              && (arg instanceof ValueExpressions.LongExpression
+                  || arg instanceof ValueExpressions.IntExpression);
+      final int column = countRows ? -1 : findColumn(arg, incoming);
+      if (!countRows && column < 0) {
+        return null;
+      }
+
+      boolean integral = true;
+      if (column >= 0 && !name.equals("count")) {
+        final ValueVector vector = WindowBatches.getVector(incoming, column);
+        if (vector instanceof FloatingPointVector) {
+          integral = false;
+        } else if (!(vector instanceof BaseIntVector)) {
+          return null;
+        }
+      }
+      final boolean doubleOutput = isFloat8(output);
+      if (!doubleOutput && (!isBigInt(output) || !integral || name.equals("avg"))) {
+        return null;
+      }
+
+      final Bound lower = config.getLowerBound();
+      final Bound upper = config.getUpperBound();
+      final Integer lowerOffset = lower.isUnbounded() ? null : offsetOf(lower);
+      final Integer upperOffset = upper.isUnbounded() ? null : offsetOf(upper);
+      if (!config.isFrameUnitsRows()) {
+        // RANGE frames with an offset compare the values of the order by column
+        if (lowerOffset != null || (upperOffset != null && upperOffset != 0)) {
+          return null;
+        }
+      } else if (lowerOffset != null && !integral) {
+        // the difference of two running sums of floating point values could differ from the sum
+        // of the frame
+        return null;
+      }
+      return new FrameAggregate(
+          id,
+          name,
+          column,
+          integral,
+          doubleOutput,
+          lowerOffset,
+          config.isFrameUnitsRows() ? upperOffset : null,
+          !config.isFrameUnitsRows() && upperOffset != null);
+    }
+
+    private static int offsetOf(Bound bound) {
+      if (bound.getType() == BoundType.PRECEDING) {
+        return -bound.getOffset();
+      }
+      return bound.getType() == BoundType.CURRENT_ROW ? 0 : bound.getOffset();
+    }
+
+    @Override
+    int getLookback() {
+      // the running sum of the row before the frame is needed
+      return lowerOffset == null ? 0 : Math.max(0, 1 - lowerOffset);
+    }
+
+    @Override
+    int getLookahead() {
+      return upperOffset == null ? 0 : Math.max(0, upperOffset);
+    }
+
+    @Override
+    boolean needsPeerEnd() {
+      return upperPeers;
+    }
+
+    @Override
+    boolean needsPartitionEnd() {
+      return upperOffset == null && !upperPeers;
+    }
+
+    @Override
+    void addBatch(WindowBatch batch) {
+      final int count = batch.getCount();
+      final long[] counts = new long[count];
+      final long[] longSums = integral ? new long[count] : null;
+      final double[] doubleSums = integral ? null : new double[count];
+      final ValueVector vector =
+          column < 0 ? null : WindowBatches.getVector(batch.getContainer(), column);
+      final boolean sums = vector != null && !name.equals("count");
+
+      for (int i = 0; i < count; i++) {
+        if (batch.getPartitionStart(i) == batch.getFirstRow() + i) {
+          runningCount = 0;
+          runningLongSum = 0;
+          runningDoubleSum = 0;
+        }
+        if (vector == null || !vector.isNull(i)) {
+          runningCount++;
+          if (sums) {
+            if (integral) {
+              runningLongSum += ((BaseIntVector) vector).getValueAsLong(i);
+            } else {
+              runningDoubleSum += ((FloatingPointVector) vector).getValueAsDouble(i);
+            }
+          }
+        }
+        counts[i] = runningCount;
+        if (integral) {
+          longSums[i] = runningLongSum;
+        } else {
+          doubleSums[i] = runningDoubleSum;
+        }
+      }
+      batch.setState(getId(), new RunningSums(counts, longSums, doubleSums));
+    }
+
+    @Override
+    void evaluate(WindowBatches batches, WindowBatch batch, ValueVector output) {
+      for (int i = 0; i < batch.getCount(); i++) {
+        final long row = batch.getFirstRow() + i;
+        final long partitionStart = batch.getPartitionStart(i);
+        final long start =
+            lowerOffset == null ? partitionStart : Math.max(partitionStart, row + lowerOffset);
+        final long end = getFrameEnd(batches, batch, i, row, partitionStart);
+
+        long count = 0;
+        long longSum = 0;
+        double doubleSum = 0;
+        if (start <= end) {
+          final WindowBatch endBatch = findRow(batches, batch, end);
+          final RunningSums endSums = (RunningSums) endBatch.getState(getId());
+          final int endIndex = (int) (end - endBatch.getFirstRow());
+          count = endSums.counts[endIndex];
+          longSum = integral ? endSums.longSums[endIndex] : 0;
+          doubleSum = integral ? 0 : endSums.doubleSums[endIndex];
+          if (start > partitionStart) {
+            final WindowBatch startBatch = findRow(batches, batch, start - 1);
+            final RunningSums startSums = (RunningSums) startBatch.getState(getId());
+            final int startIndex = (int) (start - 1 - startBatch.getFirstRow());
+            count -= startSums.counts[startIndex];
+            longSum -= integral ? startSums.longSums[startIndex] : 0;
+          }
+        }
+        write(output, i, count, longSum, doubleSum);
+      }
+    }
+
+    private long getFrameEnd(
+        WindowBatches batches, WindowBatch batch, int index, long row, long partitionStart) {
+      if (upperPeers) {
+        return batches.getPeerEnd(batch, index);
+      }
+      if (upperOffset == null) {
+        return batches.getPartitionEnd(batch, index);
+      }
+      final long end = row + upperOffset;
+      if (end < partitionStart) {
+        return partitionStart - 1;
+      }
+      if (end <= row) {
+        return end;
+      }
+      final WindowBatch endBatch = end < batches.getRowCount() ? findRow(batches, batch, end) : null;
+      if (endBatch != null
+          && endBatch.getPartitionStart((int) (end - endBatch.getFirstRow())) == partitionStart) {
+        return end;
+      }
+      return batches.getPartitionEnd(batch, index);
+    }
+
+    private void write(ValueVector output, int index, long count, long longSum, double doubleSum) {
+      if (name.equals("count")) {
+        setLong(output, index, count);
+        return;
+      }
+      if (count == 0 && !name.equals("$sum0")) {
+        // sum and avg of an empty frame, or of nulls only, are null
+        return;
+      }
+      if (name.equals("avg")) {
+        ((Float8Vector) output).setSafe(index, (integral ? longSum : doubleSum) / count);
+      } else if (integral) {
+        setLong(output, index, longSum);
+      } else {
+        ((Float8Vector) output).setSafe(index, doubleSum);
+      }
+    }
+
+    private void setLong(ValueVector output, int index, long value) {
+      if (doubleOutput) {
+        ((Float8Vector) output).setSafe(index, value);
+      } else {
+        ((BigIntVector) output).setSafe(index, value);
+      }
+    }
+
+    private static WindowBatch findRow(WindowBatches batches, WindowBatch batch, long row) {
+      if (row >= batch.getFirstRow() && row < batch.getFirstRow() + batch.getCount()) {
+        return batch;
+      }
+      return batches.find(row);
+    }
+  }
+
+  /** Running count and sums of the rows of a batch */
+  private static final class RunningSums {
+    private final long[] counts;
+    private final long[] longSums;
+    private final double[] doubleSums;
+
+    private RunningSums(long[] counts, long[] longSums, double[] doubleSums) {
+      this.counts = counts;
+      this.longSums = longSums;
+      this.doubleSums = doubleSums;
+    }
+  }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.ErrorCollectorImpl;
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.common.logical.data.Order;
+import com.dremio.common.utils.protos.QueryIdHelper;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.WindowPOP;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.sabot.exec.context.MetricDef;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.spi.SingleInputOperator;
+import com.dremio.sabot.op.windowframe.WindowBatches.WindowBatch;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.TransferPair;
+
+/**
+ * Window operator computing the window functions column by column over the sorted input batches,
+ * without generated code.
+ *
+ * <p>The partition and peer boundaries of each batch are computed once when it is consumed. A batch
+ * is returned as soon as the rows after it needed by its functions (end of partition, end of peer
+ * group or lead offset) were consumed, and the batches before it are kept only as long as lag or
+ * the frames of the aggregates need them. When the pending batches of a large partition or peer
+ * group grow over {@link ExecConstants#VECTORIZED_WINDOW_SPILL_THRESHOLD}, their vectors are
+ * spilled and read back once they are returned.
+ *
+ * <p>Only row_number, rank, dense_rank, percent_rank, cume_dist, lag and lead of a column, and sum,
+ * $sum0, count and avg of numeric columns are supported, over ROWS frames or RANGE frames starting
+ * at the start of the partition. Other windows are evaluated by a {@link WindowFrameOperator} the
+ * operator delegates to.
+ */
+public class VectorizedWindowOperator implements SingleInputOperator {
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(VectorizedWindowOperator.class);
+
+  /** Metrics of the window operators */
+  public enum Metric implements MetricDef {
+    VECTORIZED, // 1 if the window functions were computed by the vectorized operator
+    RANKING_NANOS, // time spent computing the ranking functions
+    OFFSET_NANOS, // time spent computing lag and lead
+    AGGREGATE_NANOS, // time spent computing the aggregates
+    SPILL_COUNT, // number of times batches were spilled
+    SPILL_BYTES, // size of the spilled vectors
+    SPILL_NANOS; // time spent spilling and reading back the batches
+
+    @Override
+    public int metricId() {
+      return ordinal();
+    }
+  }
+
+  private final OperatorContext context;
+  private final WindowPOP config;
+  private final List<VectorizedWindowFunction> functions = new ArrayList<>();
+  private final List<ValueVector> outputVectors = new ArrayList<>();
+  private final long[] functionNanos = new long[VectorizedWindowFunction.Kind.values().length];
+  private final long spillThreshold;
+
+  private SingleInputOperator delegate;
+  private VectorAccessible incoming;
+  private VectorContainer outgoing;
+  private WindowBatches batches;
+  private State state = State.NEEDS_SETUP;
+  private boolean noMoreToConsume;
+  private SpillManager spillManager;
+  private long spillCount;
+  private long spillBytes;
+  private long spillNanos;
+
+  // rows after/before a batch needed to compute its functions
+  private int lookahead;
+  private int lookback;
+  private boolean needsPeerEnd;
+  private boolean needsPartitionEnd;
+
+  public VectorizedWindowOperator(OperatorContext context, WindowPOP config) {
+    this.context = context;
+    this.config = config;
+    this.spillThreshold =
+        context.getOptions().getOption(ExecConstants.VECTORIZED_WINDOW_SPILL_THRESHOLD);
+  }
+
+  @Override
+  public VectorAccessible setup(VectorAccessible accessible) throws Exception {
+    state.is(State.NEEDS_SETUP);
+    incoming = accessible;
+
+    final List<Field> outputFields = new ArrayList<>();
+    final int[] partitionKeys = new int[config.getWithins().size()];
+    final int[] orderKeys = new int[config.getOrderings().size()];
+    if (!resolveKeys(partitionKeys, orderKeys) || !createFunctions(outputFields)) {
+      logger.debug("Window not supported by the vectorized operator, using generated code");
+      context.getStats().setLongStat(Metric.VECTORIZED, 0);
+      delegate = new WindowFrameOperator(context, config);
+      return delegate.setup(accessible);
+    }
+    context.getStats().setLongStat(Metric.VECTORIZED, 1);
+
+    for (VectorizedWindowFunction function : functions) {
+      lookahead = Math.max(lookahead, function.getLookahead());
+      lookback = Math.max(lookback, function.getLookback());
+      needsPeerEnd |= function.needsPeerEnd();
+      needsPartitionEnd |= function.needsPartitionEnd();
+    }
+    batches = new WindowBatches(partitionKeys, orderKeys, functions.size());
+
+    outgoing = context.createOutputVectorContainer();
+    for (VectorWrapper<?> wrapper : incoming) {
+      outgoing.addOrGet(wrapper.getField());
+    }
+    for (Field field : outputFields) {
+      outputVectors.add(outgoing.addOrGet(field));
+    }
+    outgoing.buildSchema();
+    outgoing.setInitialCapacity(context.getTargetBatchSize());
+    state = State.CAN_CONSUME;
+    return outgoing;
+  }
+
+  private boolean resolveKeys(int[] partitionKeys, int[] orderKeys) {
+    for (int i = 0; i < partitionKeys.length; i++) {
+      partitionKeys[i] =
+          VectorizedWindowFunction.findColumn(config.getWithins().get(i).getExpr(), incoming);
+      if (partitionKeys[i] < 0) {
+        return false;
+      }
+    }
+    for (int i = 0; i < orderKeys.length; i++) {
+      final Order.Ordering ordering = config.getOrderings().get(i);
+      orderKeys[i] = VectorizedWindowFunction.findColumn(ordering.getExpr(), incoming);
+      if (orderKeys[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean createFunctions(List<Field> outputFields) {
+    for (NamedExpression ne : config.getAggregations()) {
+      if (!(ne.getExpr() instanceof FunctionCall)) {
+        return false;
+      }
+      final ErrorCollectorImpl collector = new ErrorCollectorImpl();
+      final Field output =
+          WindowFunction.fromExpression(ne)
+              .materialize(
+                  ne,
+                  incoming.getSchema(),
+                  collector,
+                  context.getClassProducer().getFunctionLookupContext());
+      if (output == null || collector.hasErrors()) {
+        return false;
+      }
+      final VectorizedWindowFunction function =
+          VectorizedWindowFunction.create(
+              functions.size(), (FunctionCall) ne.getExpr(), output, config, incoming);
+      if (function == null) {
+        return false;
+      }
+      functions.add(function);
+      outputFields.add(output);
+    }
+    return true;
+  }
+
+  @Override
+  public State getState() {
+    return delegate != null ? delegate.getState() : state;
+  }
+
+  @Override
+  public void consumeData(int records) throws Exception {
+    if (delegate != null) {
+      delegate.consumeData(records);
+      return;
+    }
+    state.is(State.CAN_CONSUME);
+    if (records > 0) {
+      final WindowBatch batch =
+          batches.add(VectorContainer.getTransferClone(incoming, context.getAllocator()));
+      for (VectorizedWindowFunction function : functions) {
+        function.addBatch(batch);
+      }
+      if (batches.getInMemoryBytes() > spillThreshold) {
+        spill();
+      }
+    }
+    if (canEvaluate()) {
+      state = State.CAN_PRODUCE;
+    }
+  }
+
+  private void spill() throws Exception {
+    final long start = System.nanoTime();
+    if (spillManager == null) {
+      final FragmentHandle handle = context.getFragmentHandle();
+      final String id =
+          String.format(
+              "windowspill-%s.%s.%s.%s",
+              QueryIdHelper.getQueryId(handle.getQueryId()),
+              handle.getMajorFragmentId(),
+              handle.getMinorFragmentId(),
+              config.getProps().getLocalOperatorId());
+      spillManager =
+          new SpillManager(
+              context.getConfig(),
+              context.getOptions(),
+              id,
+              null,
+              context.getSpillService(),
+              "window spilling",
+              context.getStats());
+    }
+    final long spilled = batches.spill(spillManager, spillThreshold, lookahead);
+    if (spilled > 0) {
+      spillCount++;
+      spillBytes += spilled;
+    }
+    spillNanos += System.nanoTime() - start;
+  }
+
+  @Override
+  public void noMoreToConsume() throws Exception {
+    if (delegate != null) {
+      delegate.noMoreToConsume();
+      return;
+    }
+    state.is(State.CAN_CONSUME);
+    noMoreToConsume = true;
+    batches.noMoreBatches();
+    state = batches.getFirstPending() != null ? State.CAN_PRODUCE : State.DONE;
+  }
+
+  @Override
+  public int outputData() throws Exception {
+    if (delegate != null) {
+      return delegate.outputData();
+    }
+    state.is(State.CAN_PRODUCE);
+    final WindowBatch batch = batches.getFirstPending();
+    final int recordCount = batch.getCount();
+    if (spillManager != null) {
+      final long start = System.nanoTime();
+      batches.load(batch, lookahead, context.getAllocator());
+      spillNanos += System.nanoTime() - start;
+    }
+
+    outgoing.allocateNew();
+    for (VectorizedWindowFunction function : functions) {
+      final long start = System.nanoTime();
+      function.evaluate(batches, batch, outputVectors.get(function.getId()));
+      functionNanos[function.getKind().ordinal()] += System.nanoTime() - start;
+    }
+
+    // the last batch is compared to the next one, and lag can read the batches before
+    final boolean keepVectors =
+        lookback > 0 || batch.getFirstRow() + recordCount == batches.getRowCount();
+    for (VectorWrapper<?> wrapper : batch.getContainer()) {
+      final TransferPair pair =
+          wrapper
+              .getValueVector()
+              .makeTransferPair(outgoing.addOrGet(wrapper.getField()));
+      if (keepVectors) {
+        pair.splitAndTransfer(0, recordCount);
+      } else {
+        pair.transfer();
+      }
+    }
+    outgoing.setAllCount(recordCount);
+
+    batch.setEmitted();
+    batches.release(lookback);
+    if (batches.getFirstPending() == null) {
+      state = noMoreToConsume ? State.DONE : State.CAN_CONSUME;
+    } else if (!canEvaluate()) {
+      state = State.CAN_CONSUME;
+    }
+    return recordCount;
+  }
+
+  private boolean canEvaluate() {
+    final WindowBatch batch = batches.getFirstPending();
+    return batch != null
+        && batches.canEvaluate(batch, lookahead, needsPeerEnd, needsPartitionEnd);
+  }
+
+  @Override
+  public <OUT, IN, EXCEP extends Throwable> OUT accept(
+      OperatorVisitor<OUT, IN, EXCEP> visitor, IN value) throws EXCEP {
+    return visitor.visitSingleInput(this, value);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (delegate == null) {
+      context.getStats().setLongStat(Metric.RANKING_NANOS, functionNanos[0]);
+      context.getStats().setLongStat(Metric.OFFSET_NANOS, functionNanos[1]);
+      context.getStats().setLongStat(Metric.AGGREGATE_NANOS, functionNanos[2]);
+      context.getStats().setLongStat(Metric.SPILL_COUNT, spillCount);
+      context.getStats().setLongStat(Metric.SPILL_BYTES, spillBytes);
+      context.getStats().setLongStat(Metric.SPILL_NANOS, spillNanos);
+    }
+    AutoCloseables.close(delegate, outgoing, batches, spillManager);
+  }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.windowframe;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.sabot.op.sort.external.SpillManager;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillFile;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillInputStream;
+import com.dremio.sabot.op.sort.external.SpillManager.SpillOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.compare.Range;
+import org.apache.arrow.vector.compare.RangeEqualsVisitor;
+
+/**
+ * Batches held by the {@link VectorizedWindowOperator}, with the partition and peer boundaries of
+ * their rows. Rows are addressed by their position in the input of the operator.
+ *
+ * <p>The boundaries of a batch are computed column by column when it is added, comparing each row
+ * of the partition and order by columns with the row before.
+ *
+ * <p>The vectors of the pending batches can be spilled when a partition or a peer group is too large
+ * to be held in memory. The boundaries and the states of the functions of a spilled batch stay in
+ * memory, only its vectors are written to disk, and they are read back before the batch is
+ * evaluated.
+ */
+class WindowBatches implements AutoCloseable {
+  private final int[] partitionKeys;
+  private final int[] orderKeys;
+  private final int numFunctions;
+  private final List<WindowBatch> batches = new ArrayList<>();
+
+  private long rowCount;
+  private boolean done;
+
+  // size of the vectors of the batches held in memory
+  private long inMemoryBytes;
+  private int spillCount;
+
+  // last partition/peer group whose end was looked up
+  private long partitionEndKey = -1;
+  private long partitionEnd;
+  private long peerEndKey = -1;
+  private long peerEnd;
+
+  /**
+   * @param partitionKeys indexes of the partition by columns
+   * @param orderKeys indexes of the order by columns
+   * @param numFunctions number of window functions keeping state in the batches
+   */
+  WindowBatches(int[] partitionKeys, int[] orderKeys, int numFunctions) {
+    this.partitionKeys = partitionKeys;
+    this.orderKeys = orderKeys;
+    this.numFunctions = numFunctions;
+  }
+
+  /** Adds the next batch of the input, the batches must be added in order */
+  WindowBatch add(VectorContainer container) {
+    final WindowBatch previous = batches.isEmpty() ? null : batches.get(batches.size() - 1);
+    assert previous == null || previous.container.getNumberOfColumns() > 0
+        : "the last batch must keep its vectors";
+    final int count = container.getRecordCount();
+    final boolean[] partitionChanges = new boolean[count];
+    for (int key : partitionKeys) {
+      markChanges(key, previous, container, partitionChanges);
+    }
+    final boolean[] peerChanges = partitionChanges.clone();
+    for (int key : orderKeys) {
+      markChanges(key, previous, container, peerChanges);
+    }
+
+    final WindowBatch batch = new WindowBatch(container, rowCount, count, numFunctions);
+    long partitionStart = previous == null ? 0 : previous.getPartitionStart(previous.count - 1);
+    long peerStart = previous == null ? 0 : previous.getPeerStart(previous.count - 1);
+    long denseRank = previous == null ? 0 : previous.getDenseRank(previous.count - 1);
+    for (int i = 0; i < count; i++) {
+      final long row = rowCount + i;
+      if (partitionChanges[i]) {
+        partitionStart = row;
+        denseRank = 0;
+        if (batch.firstPartitionStart < 0) {
+          batch.firstPartitionStart = i;
+        }
+      }
+      if (peerChanges[i]) {
+        peerStart = row;
+        denseRank++;
+        if (batch.firstPeerStart < 0) {
+          batch.firstPeerStart = i;
+        }
+      }
+      batch.partitionStarts[i] = partitionStart;
+      batch.peerStarts[i] = peerStart;
+      batch.denseRanks[i] = denseRank;
+    }
+
+    batches.add(batch);
+    rowCount += count;
+    inMemoryBytes += batch.computeSize();
+    return batch;
+  }
+
+  /** Marks the rows whose value of the given column differs from the row before */
+  private static void markChanges(
+      int key, WindowBatch previous, VectorContainer container, boolean[] changes) {
+    if (changes.length == 0) {
+      return;
+    }
+    final ValueVector vector = getVector(container, key);
+    if (previous == null) {
+      changes[0] = true;
+    } else if (!changes[0]) {
+      final ValueVector previousVector = getVector(previous.container, key);
+      changes[0] =
+          !new RangeEqualsVisitor(previousVector, vector)
+              .rangeEquals(new Range(previous.count - 1, 0, 1));
+    }
+    final RangeEqualsVisitor visitor = new RangeEqualsVisitor(vector, vector);
+    final Range range = new Range(0, 0, 1);
+    for (int i = 1; i < changes.length; i++) {
+      if (!changes[i]) {
+        changes[i] = !visitor.rangeEquals(range.setLeftStart(i - 1).setRightStart(i));
+      }
+    }
+  }
+
+  static ValueVector getVector(VectorAccessible accessible, int index) {
+    return accessible.getValueAccessorById(ValueVector.class, index).getValueVector();
+  }
+
+  /** Marks the end of the input */
+  void noMoreBatches() {
+    done = true;
+  }
+
+  boolean isEmpty() {
+    return batches.isEmpty();
+  }
+
+  /** @return first batch not returned by the operator yet, null if there is none */
+  WindowBatch getFirstPending() {
+    for (WindowBatch batch : batches) {
+      if (!batch.emitted) {
+        return batch;
+      }
+    }
+    return null;
+  }
+
+  /** @return the batch holding the row, null if it was released */
+  WindowBatch find(long row) {
+    for (int i = batches.size() - 1; i >= 0; i--) {
+      final WindowBatch batch = batches.get(i);
+      if (row >= batch.firstRow) {
+        return row < batch.firstRow + batch.count ? batch : null;
+      }
+    }
+    return null;
+  }
+
+  /** @return size of the vectors of the batches held in memory */
+  long getInMemoryBytes() {
+    return inMemoryBytes;
+  }
+
+  /**
+   * Spills the vectors of the pending batches, latest first, until the batches in memory fit in the
+   * given size. The first pending batch, the batches holding the lookahead rows after it and the
+   * last batch are never spilled.
+   *
+   * @return number of bytes spilled
+   */
+  long spill(SpillManager spillManager, long targetBytes, int lookahead) throws IOException {
+    final WindowBatch pending = getFirstPending();
+    if (pending == null) {
+      return 0;
+    }
+    final long firstSpillable = pending.firstRow + pending.count + lookahead;
+    long spilled = 0;
+    for (int i = batches.size() - 2; i >= 0 && inMemoryBytes > targetBytes; i--) {
+      final WindowBatch batch = batches.get(i);
+      if (batch.firstRow < firstSpillable) {
+        break;
+      }
+      if (batch.spillFile != null) {
+        continue;
+      }
+      final long size = batch.size;
+      batch.spillFile = spillManager.getSpillFile(String.format("window%05d", spillCount++));
+      try (SpillOutputStream out = batch.spillFile.create(true)) {
+        out.writeBatch(batch.container);
+      }
+      batch.container.zeroVectors();
+      batch.size = 0;
+      inMemoryBytes -= size;
+      spilled += size;
+    }
+    return spilled;
+  }
+
+  /** Reads back the vectors of the batch and of the batches holding the lookahead rows after it */
+  void load(WindowBatch batch, int lookahead, BufferAllocator allocator) throws Exception {
+    final long lastNeeded = batch.firstRow + batch.count - 1 + lookahead;
+    for (int i = batches.indexOf(batch); i < batches.size(); i++) {
+      final WindowBatch current = batches.get(i);
+      if (current.firstRow > lastNeeded) {
+        break;
+      }
+      if (current.spillFile == null) {
+        continue;
+      }
+      try (SpillInputStream in = current.spillFile.open(true)) {
+        in.load(current.container, allocator);
+      }
+      current.spillFile.close();
+      current.spillFile = null;
+      inMemoryBytes += current.computeSize();
+    }
+  }
+
+  /** @return number of rows added so far */
+  long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * @param lookahead number of rows needed after the batch, unless its last partition ends before
+   * @param needsPeerEnd whether the end of the last peer group of the batch must be known
+   * @param needsPartitionEnd whether the end of the last partition of the batch must be known
+   * @return true if enough rows were added to compute the window functions of the batch
+   */
+  boolean canEvaluate(
+      WindowBatch batch, int lookahead, boolean needsPeerEnd, boolean needsPartitionEnd) {
+    if (done) {
+      return true;
+    }
+    // the next batch is needed to know if the last row of the batch ends its partition
+    final int index = batches.indexOf(batch);
+    if (index == batches.size() - 1) {
+      return false;
+    }
+    boolean partitionEnded = false;
+    boolean peersEnded = false;
+    for (int i = index + 1; i < batches.size() && !partitionEnded; i++) {
+      partitionEnded = batches.get(i).firstPartitionStart >= 0;
+      peersEnded |= batches.get(i).firstPeerStart >= 0;
+    }
+    final long rowsAfter = rowCount - (batch.firstRow + batch.count);
+    return (!needsPartitionEnd || partitionEnded)
+        && (!needsPeerEnd || peersEnded)
+        && (rowsAfter >= lookahead || partitionEnded);
+  }
+
+  /** @return last row of the partition of the given row */
+  long getPartitionEnd(WindowBatch batch, int index) {
+    final long start = batch.getPartitionStart(index);
+    if (start != partitionEndKey) {
+      partitionEnd = findEnd(batch, index, false);
+      partitionEndKey = start;
+    }
+    return partitionEnd;
+  }
+
+  /** @return last row of the peer group of the given row */
+  long getPeerEnd(WindowBatch batch, int index) {
+    final long start = batch.getPeerStart(index);
+    if (start != peerEndKey) {
+      peerEnd = findEnd(batch, index, true);
+      peerEndKey = start;
+    }
+    return peerEnd;
+  }
+
+  private long findEnd(WindowBatch batch, int index, boolean peers) {
+    int batchIndex = batches.indexOf(batch);
+    int i = index + 1;
+    while (batchIndex < batches.size()) {
+      final WindowBatch current = batches.get(batchIndex);
+      for (; i < current.count; i++) {
+        final long row = current.firstRow + i;
+        if ((peers ? current.peerStarts[i] : current.partitionStarts[i]) == row) {
+          return row - 1;
+        }
+      }
+      batchIndex++;
+      i = 0;
+    }
+    return rowCount - 1;
+  }
+
+  /**
+   * Releases the batches already returned by the operator that are more than lookback rows before
+   * the first pending one
+   */
+  void release(int lookback) throws Exception {
+    final WindowBatch pending = getFirstPending();
+    final long firstNeeded = pending == null ? rowCount - lookback : pending.firstRow - lookback;
+    while (!batches.isEmpty()) {
+      final WindowBatch first = batches.get(0);
+      if (!first.emitted
+          || first.firstRow + first.count > firstNeeded
+          || (batches.size() == 1 && !done)) {
+        break;
+      }
+      batches.remove(0);
+      inMemoryBytes -= first.size;
+      first.close();
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(batches);
+    batches.clear();
+  }
+
+  /** Batch of the input, with the boundaries of its rows */
+  static final class WindowBatch implements AutoCloseable {
+    private final VectorContainer container;
+    private final long firstRow;
+    private final int count;
+    // first row of the partition, the peer group of each row
+    private final long[] partitionStarts;
+    private final long[] peerStarts;
+    private final long[] denseRanks;
+    // index of the first row starting a partition, a peer group, -1 if none
+    private int firstPartitionStart = -1;
+    private int firstPeerStart = -1;
+    // state of each window function
+    private final Object[] states;
+    private boolean emitted;
+    // size of the vectors in memory, 0 when spilled
+    private long size;
+    // file holding the vectors of the batch, null if in memory
+    private SpillFile spillFile;
+
+    private WindowBatch(VectorContainer container, long firstRow, int count, int numFunctions) {
+      this.container = container;
+      this.firstRow = firstRow;
+      this.count = count;
+      this.partitionStarts = new long[count];
+      this.peerStarts = new long[count];
+      this.denseRanks = new long[count];
+      this.states = new Object[numFunctions];
+    }
+
+    VectorContainer getContainer() {
+      return container;
+    }
+
+    long getFirstRow() {
+      return firstRow;
+    }
+
+    int getCount() {
+      return count;
+    }
+
+    long getPartitionStart(int index) {
+      return partitionStarts[index];
+    }
+
+    long getPeerStart(int index) {
+      return peerStarts[index];
+    }
+
+    long getDenseRank(int index) {
+      return denseRanks[index];
+    }
+
+    Object getState(int function) {
+      return states[function];
+    }
+
+    void setState(int function, Object state) {
+      states[function] = state;
+    }
+
+    void setEmitted() {
+      emitted = true;
+    }
+
+    private long computeSize() {
+      size = 0;
+      for (VectorWrapper<?> wrapper : container) {
+        size += wrapper.getValueVector().getBufferSize();
+      }
+      return size;
+    }
+
+    @Override
+    public void close() throws Exception {
+      AutoCloseables.close(container, spillFile);
+    }
+  }
+}
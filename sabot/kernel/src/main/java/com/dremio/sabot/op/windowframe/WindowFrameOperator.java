@@ -20,6 +20,7 @@ import com.dremio.common.exceptions.ExecutionSetupException;
 import com.dremio.common.expression.LogicalExpression;
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.common.logical.data.Order;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.compile.TemplateClassDefinition;
 import com.dremio.exec.compile.sig.GeneratorMapping;
 import com.dremio.exec.compile.sig.MappingSet;
@@ -466,6 +467,9 @@ public class WindowFrameOperator implements SingleInputOperator {
     @Override
     public SingleInputOperator create(OperatorContext context, WindowPOP operator)
         throws ExecutionSetupException {
+      if (context.getOptions().getOption(ExecConstants.ENABLE_VECTORIZED_WINDOW)) {
+        return new VectorizedWindowOperator(context, operator);
+      }
       return new WindowFrameOperator(context, operator);
     }
   }
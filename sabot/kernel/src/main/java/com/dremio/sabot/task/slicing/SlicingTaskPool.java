@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import com.dremio.common.VM;
+import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.SchedulerStats;
+import com.dremio.sabot.task.TaskMonitor;
+import com.dremio.sabot.task.TaskMonitorObserver;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.TaskPoolFactory;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A task pool that runs all tasks on a fixed number of threads (one per core by default).<br>
+ * <br>
+ * Tasks are expected to yield after a short amount of work (a single pump of the fragment) and are
+ * scheduled cooperatively: blocked tasks don't hold a thread, and runnable tasks get a share of the
+ * CPU proportional to their weight and the weights of their scheduling groups (workload, query).
+ */
+public class SlicingTaskPool implements TaskPool, TaskMonitor {
+
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SlicingTaskPool.class);
+
+  private static final long MONITOR_INTERVAL_MS = TimeUnit.SECONDS.toMillis(1);
+
+  /**
+   * Factory for {@code SlicingTaskPool}, selected by setting {@code dremio.task.pool.factory.class}
+   * to this class.
+   */
+  public static final class Factory implements TaskPoolFactory {
+    @Override
+    public TaskPool newInstance(OptionManager options, DremioConfig config) {
+      final long configuredThreads = options.getOption(ExecConstants.SLICING_NUM_THREADS);
+      final int numThreads =
+          configuredThreads > 0 ? (int) configuredThreads : VM.availableProcessors();
+      return new SlicingTaskPool(
+          numThreads, options.getOption(ExecConstants.SLICING_THREAD_MONITOR));
+    }
+  }
+
+  private final WeightedScheduler scheduler;
+  private final List<SlicingThread> threads;
+  private final List<TaskMonitorObserver> observers = new CopyOnWriteArrayList<>();
+  private final MonitorThread monitor;
+
+  public SlicingTaskPool(int numThreads, boolean enableMonitor) {
+    this.scheduler = new WeightedScheduler(numThreads);
+    final ImmutableList.Builder<SlicingThread> builder = ImmutableList.builder();
+    for (int i = 0; i < numThreads; i++) {
+      final SlicingThread thread = new SlicingThread(i, scheduler);
+      thread.start();
+      builder.add(thread);
+    }
+    this.threads = builder.build();
+    if (enableMonitor) {
+      monitor = new MonitorThread();
+      monitor.start();
+    } else {
+      monitor = null;
+    }
+    logger.info("Started slicing task pool with {} threads", numThreads);
+  }
+
+  @Override
+  public void execute(AsyncTaskWrapper task) {
+    // scheduling groups are always created by this pool's group manager, adding the task makes it
+    // runnable
+    task.getSchedulingGroup().addTask(task, task.getTaskWeight());
+  }
+
+  @Override
+  public GroupManager<AsyncTaskWrapper> getGroupManager() {
+    return scheduler;
+  }
+
+  @Override
+  public TaskMonitor getTaskMonitor() {
+    return this;
+  }
+
+  @Override
+  public void addObserver(TaskMonitorObserver observer) {
+    observers.add(observer);
+  }
+
+  @Override
+  public void removeObserver(TaskMonitorObserver observer) {
+    observers.remove(observer);
+  }
+
+  public SchedulerStats getSchedulerStats() {
+    return scheduler;
+  }
+
+  @Override
+  public Iterable<ThreadInfo> getSlicingThreads() {
+    return threads.stream()
+        .map(SlicingThread::getThreadInfo)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  public boolean areAllThreadsAlive() {
+    return threads.stream().allMatch(Thread::isAlive);
+  }
+
+  @VisibleForTesting
+  int getNumRunnableTasks() {
+    return scheduler.getNumRunnable();
+  }
+
+  @Override
+  public void close() throws Exception {
+    scheduler.close();
+    if (monitor != null) {
+      monitor.interrupt();
+    }
+    for (SlicingThread thread : threads) {
+      thread.interrupt();
+    }
+    for (SlicingThread thread : threads) {
+      thread.join(MONITOR_INTERVAL_MS);
+    }
+  }
+
+  /** Periodically logs the scheduler stats and notifies the {@link TaskMonitorObserver}s */
+  private final class MonitorThread extends Thread {
+    private MonitorThread() {
+      setDaemon(true);
+      setName("slicing-thread-monitor");
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        try {
+          Thread.sleep(MONITOR_INTERVAL_MS);
+        } catch (InterruptedException e) {
+          logger.debug("Slicing thread monitor exiting.");
+          return;
+        }
+
+        try {
+          final String stats = scheduler.getStats(false);
+          final boolean statsUpdated = !stats.isEmpty();
+          if (statsUpdated) {
+            logger.debug("Scheduler stats: {}", stats);
+            scheduler.clearStats();
+          }
+          for (TaskMonitorObserver observer : observers) {
+            observer.observeTaskMonitorEvent(statsUpdated);
+          }
+        } catch (Exception e) {
+          // monitor thread should not die due to a random exception
+          logger.warn("Failure while monitoring slicing threads", e);
+        }
+      }
+    }
+  }
+}
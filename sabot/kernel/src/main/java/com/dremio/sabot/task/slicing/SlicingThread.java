@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import com.dremio.common.perf.StatsCollectionEligibilityRegistrar;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.BlockRun;
+import com.dremio.sabot.task.Task;
+import com.dremio.sabot.task.TaskPool;
+import com.dremio.sabot.task.slicing.WeightedScheduler.TaskEntry;
+
+/**
+ * One of the fixed set of threads of a {@link SlicingTaskPool}. Repeatedly asks the scheduler for
+ * the most eligible task, runs it for a single slice and hands it back to the scheduler, or parks
+ * it until it is woken up if the task is now blocked.
+ */
+class SlicingThread extends Thread {
+
+  private static final org.slf4j.Logger logger =
+      org.slf4j.LoggerFactory.getLogger(SlicingThread.class);
+
+  private final int slicingThreadId;
+  private final WeightedScheduler scheduler;
+
+  private volatile boolean running;
+
+  SlicingThread(int slicingThreadId, WeightedScheduler scheduler) {
+    super();
+    setDaemon(true);
+    setName("slicing-thread-" + slicingThreadId);
+    this.slicingThreadId = slicingThreadId;
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public void run() {
+    StatsCollectionEligibilityRegistrar.addSelf();
+
+    while (true) {
+      final TaskEntry entry;
+      try {
+        entry = scheduler.take(slicingThreadId);
+      } catch (InterruptedException e) {
+        logger.info("Thread interrupted, exiting.");
+        return;
+      }
+
+      if (entry == null) {
+        // scheduler closed
+        return;
+      }
+
+      // put try inside the run loop so we don't lose threads with uncaught exceptions.
+      try {
+        runSlice(entry);
+      } catch (Throwable t) {
+        logger.error("Unhandled Exception in slicing thread.", t);
+      }
+    }
+  }
+
+  private void runSlice(TaskEntry entry) throws Exception {
+    final AsyncTaskWrapper task = entry.getTask();
+    running = true;
+    long runTime = 0;
+    Task.State state;
+    try {
+      final String preRunName = task.getAsyncTask().preRunUpdate(entry.getCurrentTaskLoad());
+      final long startTime = System.nanoTime();
+      try {
+        task.run();
+      } finally {
+        runTime = System.nanoTime() - startTime;
+        task.getAsyncTask().postRunUpdate(runTime, preRunName);
+      }
+    } finally {
+      // read the state only once: as soon as the task is back in the run queue, another slicing
+      // thread may pick it up and change it.
+      state = task.getState();
+      running = false;
+      scheduler.runEnded(entry, runTime, state == Task.State.RUNNABLE);
+    }
+
+    switch (state) {
+      case BLOCKED_ON_DOWNSTREAM:
+      case BLOCKED_ON_UPSTREAM:
+      case BLOCKED_ON_SHARED_RESOURCE:
+      case BLOCKED_ON_MEMORY:
+        // the callback may be invoked right away if the task is already available again
+        scheduler.taskBlocked();
+        task.setAvailabilityCallback(new BlockRun(entry));
+        break;
+      case DONE:
+        scheduler.taskDone();
+        task.getCleaner().close();
+        break;
+      case RUNNABLE:
+      default:
+        // already put back in the run queue by the scheduler
+        break;
+    }
+  }
+
+  TaskPool.ThreadInfo getThreadInfo() {
+    return new TaskPool.ThreadInfo(
+        getName(), slicingThreadId, -1, -1, running ? 1 : 0, 0, 0, getId());
+  }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.GroupManager;
+import com.dremio.sabot.task.SchedulerStats;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.TaskManager;
+import com.dremio.sabot.task.TaskManager.TaskHandle;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical, weighted fair scheduler shared by all the slicing threads of a {@link
+ * SlicingTaskPool}.<br>
+ * <br>
+ * Every entity (group or task) keeps a virtual runtime that advances by the time spent running
+ * scaled by {@code MAX_WEIGHT / weight}, so heavier entities advance slower and get a larger share
+ * of the CPU. Each group keeps its runnable children ordered by virtual runtime and a slicing
+ * thread always descends from the root picking the child with the smallest virtual runtime.
+ * Blocked tasks are not part of any run queue until they are re-enqueued through their {@link
+ * TaskHandle}.
+ */
+class WeightedScheduler implements GroupManager<AsyncTaskWrapper>, SchedulerStats {
+
+  private static final Comparator<Entity> VRUNTIME_ORDER =
+      Comparator.<Entity>comparingLong(e -> e.vruntime).thenComparingLong(e -> e.id);
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition runnableAvailable = lock.newCondition();
+  private final AtomicLong nextId = new AtomicLong();
+  private final Group root = new Group(null, TaskManager.MAX_WEIGHT);
+  private final int numThreads;
+
+  // guarded by lock
+  private volatile int numRunnable;
+  private volatile int numRunning;
+  private boolean closed;
+
+  // stats, cleared by clearStats()
+  private final AtomicLong slices = new AtomicLong();
+  private final AtomicLong runNanos = new AtomicLong();
+  private final AtomicLong yields = new AtomicLong();
+  private final AtomicLong blocks = new AtomicLong();
+  private final AtomicLong wakeUps = new AtomicLong();
+  private final AtomicLong completions = new AtomicLong();
+  private final AtomicLong added = new AtomicLong();
+
+  WeightedScheduler(int numThreads) {
+    Preconditions.checkArgument(numThreads > 0, "at least one slicing thread required");
+    this.numThreads = numThreads;
+  }
+
+  @Override
+  public SchedulingGroup<AsyncTaskWrapper> newGroup(long weight) {
+    return root.addGroup(weight);
+  }
+
+  /**
+   * Blocks until a runnable task is available and removes it from the run queues.
+   *
+   * @param thread slicing thread that will run the task
+   * @return the selected task, or null if the scheduler was closed
+   */
+  TaskEntry take(int thread) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (!closed && root.runnable.isEmpty()) {
+        runnableAvailable.await();
+      }
+      if (closed) {
+        return null;
+      }
+
+      Group group = root;
+      Entity selected;
+      while (true) {
+        selected = group.runnable.first();
+        group.minVruntime = Math.max(group.minVruntime, selected.vruntime);
+        if (selected instanceof TaskEntry) {
+          break;
+        }
+        group = (Group) selected;
+      }
+
+      final TaskEntry entry = (TaskEntry) selected;
+      dequeue(entry);
+      entry.thread = thread;
+      numRunnable--;
+      numRunning++;
+      slices.incrementAndGet();
+      return entry;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Charges the time the task just ran for to the task and all its ancestors, and puts the task
+   * back in its run queue if it is still runnable. Blocked tasks are put back by {@link
+   * TaskEntry#reEnqueue()} once they are woken up.
+   */
+  void runEnded(TaskEntry entry, long taskRunTimeNanos, boolean stillRunnable) {
+    runNanos.addAndGet(taskRunTimeNanos);
+    lock.lock();
+    try {
+      numRunning--;
+      // virtual runtime is kept in microseconds so it doesn't overflow on long lived executors
+      final long charge = Math.max(1, TimeUnit.NANOSECONDS.toMicros(taskRunTimeNanos));
+      Entity current = entry;
+      while (current != root) {
+        final Group parent = current.parent;
+        final boolean queued = current.queued;
+        if (queued) {
+          // reposition the entity in its parent's run queue
+          parent.runnable.remove(current);
+        }
+        current.vruntime += charge * TaskManager.MAX_WEIGHT / current.weight;
+        if (queued) {
+          parent.runnable.add(current);
+        }
+        current = parent;
+      }
+
+      if (stillRunnable) {
+        yields.incrementAndGet();
+        enqueue(entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void taskBlocked() {
+    blocks.incrementAndGet();
+  }
+
+  void taskDone() {
+    completions.incrementAndGet();
+  }
+
+  /** Wakes up all the slicing threads and makes any further {@link #take(int)} return null. */
+  void close() {
+    lock.lock();
+    try {
+      closed = true;
+      runnableAvailable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getNumRunnable() {
+    lock.lock();
+    try {
+      return numRunnable;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getNumRunning() {
+    lock.lock();
+    try {
+      return numRunning;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // must be called with the lock held
+  private void enqueue(TaskEntry entry) {
+    Preconditions.checkState(!entry.queued, "Task %s is already enqueued", entry);
+    Entity current = entry;
+    while (current != root && !current.queued) {
+      final Group parent = current.parent;
+      // entities that were blocked (or idle) for a while shouldn't be able to monopolize the cpu
+      current.vruntime = Math.max(current.vruntime, parent.minVruntime);
+      current.queued = true;
+      parent.runnable.add(current);
+      current = parent;
+    }
+    numRunnable++;
+    runnableAvailable.signal();
+  }
+
+  // must be called with the lock held
+  private void dequeue(TaskEntry entry) {
+    Entity current = entry;
+    while (current != root) {
+      final Group parent = current.parent;
+      parent.runnable.remove(current);
+      current.queued = false;
+      if (!parent.runnable.isEmpty()) {
+        break;
+      }
+      current = parent;
+    }
+  }
+
+  private static long boundWeight(long weight) {
+    return Math.max(1, Math.min(weight, TaskManager.MAX_WEIGHT));
+  }
+
+  @Override
+  public boolean currentlyIdleAndHasStats() {
+    return numRunnable == 0 && numRunning == 0 && slices.get() > 0;
+  }
+
+  @Override
+  public String getStats(boolean force) {
+    final long numSlices = slices.get();
+    if (!force && numSlices == 0) {
+      return "";
+    }
+    return String.format(
+        "threads: %d, runnable: %d, running: %d, added: %d, slices: %d, avg slice: %dus,"
+            + " yields: %d, blocks: %d, wake ups: %d, completed: %d",
+        numThreads,
+        numRunnable,
+        numRunning,
+        added.get(),
+        numSlices,
+        numSlices == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(runNanos.get() / numSlices),
+        yields.get(),
+        blocks.get(),
+        wakeUps.get(),
+        completions.get());
+  }
+
+  @Override
+  public void clearStats() {
+    slices.set(0);
+    runNanos.set(0);
+    yields.set(0);
+    blocks.set(0);
+    wakeUps.set(0);
+    completions.set(0);
+    added.set(0);
+  }
+
+  @VisibleForTesting
+  Group getRoot() {
+    return root;
+  }
+
+  /** Common state of groups and tasks */
+  private abstract class Entity {
+    final long id = nextId.getAndIncrement();
+    final Group parent;
+    final long weight;
+
+    // all the fields below are guarded by the scheduler lock
+    long vruntime;
+    boolean queued;
+
+    Entity(Group parent, long weight) {
+      this.parent = parent;
+      this.weight = boundWeight(weight);
+    }
+  }
+
+  /**
+   * A node of the scheduling hierarchy, e.g. a workload or a query. The weights of the children are
+   * always honored: the weight of a query is the only thing telling it apart from the other queries
+   * of its workload.
+   */
+  final class Group extends Entity implements SchedulingGroup<AsyncTaskWrapper> {
+    private final TreeSet<Entity> runnable = new TreeSet<>(VRUNTIME_ORDER);
+    private long minVruntime;
+
+    private Group(Group parent, long weight) {
+      super(parent, weight);
+    }
+
+    @Override
+    public SchedulingGroup<AsyncTaskWrapper> addGroup(long weight, boolean weightBasedScheduler) {
+      return new Group(this, weight);
+    }
+
+    @Override
+    public TaskHandle<AsyncTaskWrapper> addTask(AsyncTaskWrapper task, long weight) {
+      final TaskEntry entry = new TaskEntry(this, weight, task);
+      // the handle must be known to the task before any slicing thread can pick it up
+      task.setTaskHandle(entry);
+      added.incrementAndGet();
+      lock.lock();
+      try {
+        Preconditions.checkState(!closed, "Scheduler is closed");
+        enqueue(entry);
+      } finally {
+        lock.unlock();
+      }
+      return entry;
+    }
+  }
+
+  /** Scheduler side state of a task, exposed to the task as its {@link TaskHandle} */
+  final class TaskEntry extends Entity implements TaskHandle<AsyncTaskWrapper> {
+    private final AsyncTaskWrapper task;
+    private volatile int thread = -1;
+
+    private TaskEntry(Group parent, long weight, AsyncTaskWrapper task) {
+      super(parent, weight);
+      this.task = task;
+    }
+
+    @Override
+    public AsyncTaskWrapper getTask() {
+      return task;
+    }
+
+    @Override
+    public void reEnqueue() {
+      wakeUps.incrementAndGet();
+      lock.lock();
+      try {
+        if (closed) {
+          return;
+        }
+        enqueue(this);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public int getThread() {
+      return thread;
+    }
+
+    @Override
+    public int getCurrentTaskLoad() {
+      // tasks competing for each slicing thread, including the one currently running
+      return Math.max(1, (numRunnable + numRunning + numThreads - 1) / numThreads);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s (thread %d, vruntime %d)", task.getState(), thread, vruntime);
+    }
+  }
+}
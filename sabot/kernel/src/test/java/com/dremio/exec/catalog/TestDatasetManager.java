@@ -188,6 +188,66 @@ public class TestDatasetManager {
     datasetManager.getTable(namespaceKey, metadataRequestOptions, false);
   }
 
+  @Test
+  public void testFailedPrimaryKeyLookupNotCached() throws Exception {
+    final NamespaceKey namespaceKey = new NamespaceKey("test");
+
+    final SchemaConfig schemaConfig = mock(SchemaConfig.class);
+    when(schemaConfig.getUserName()).thenReturn("username");
+
+    final MetadataRequestOptions metadataRequestOptions = mock(MetadataRequestOptions.class);
+    when(metadataRequestOptions.getSchemaConfig()).thenReturn(schemaConfig);
+    when(metadataRequestOptions.getStatsCollector())
+        .thenReturn(mock(MetadataStatsCollector.class));
+
+    final ReadDefinition readDefinition = new ReadDefinition();
+    readDefinition.setSplitVersion(0L);
+
+    final DatasetConfig datasetConfig = new DatasetConfig();
+    datasetConfig.setType(DatasetType.PHYSICAL_DATASET);
+    datasetConfig.setId(new EntityId("test"));
+    datasetConfig.setTag("1");
+    datasetConfig.setFullPathList(Collections.singletonList("test"));
+    datasetConfig.setReadDefinition(readDefinition);
+    datasetConfig.setTotalNumSplits(0);
+
+    final MutablePlugin mutablePlugin = mock(MutablePlugin.class);
+    when(mutablePlugin.getPrimaryKey(any(), any(), any(), any(), anyBoolean()))
+        .thenThrow(new RuntimeException("Primary key lookup failed"));
+
+    final ManagedStoragePlugin managedStoragePlugin = mock(ManagedStoragePlugin.class);
+    when(managedStoragePlugin.getId()).thenReturn(mock(StoragePluginId.class));
+    doReturn(mutablePlugin).when(managedStoragePlugin).getPlugin();
+    when(managedStoragePlugin.checkValidity(any(), any())).thenReturn(true);
+    when(managedStoragePlugin.getDatasetMetadataState(eq(datasetConfig)))
+        .thenReturn(DatasetMetadataState.builder().build());
+
+    final PluginRetriever pluginRetriever = mock(PluginRetriever.class);
+    when(pluginRetriever.getPlugin(namespaceKey.getRoot(), false)).thenReturn(managedStoragePlugin);
+
+    final NamespaceService namespaceService = mock(NamespaceService.class);
+    when(namespaceService.getDataset(namespaceKey)).thenReturn(datasetConfig);
+
+    final DremioTableCache tableCache = new DremioTableCache(1L << 20);
+    final DatasetManager datasetManager =
+        new DatasetManager(
+            pluginRetriever,
+            namespaceService,
+            mock(OptionManager.class),
+            "username",
+            new CatalogIdentityResolver(),
+            null,
+            null,
+            null,
+            tableCache);
+    datasetManager.getTable(namespaceKey, metadataRequestOptions, false);
+
+    // the table is not cached without its primary key, so the lookup is tried again
+    assertEquals(0L, tableCache.size());
+    datasetManager.getTable(namespaceKey, metadataRequestOptions, false);
+    verify(mutablePlugin, times(2)).getPrimaryKey(any(), any(), any(), any(), anyBoolean());
+  }
+
   /** DX-16198 if doing a drop ignore the 800 line policy */
   @Test
   public void testIgnoreColumnCountOnDrop() throws Exception {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.dremio.service.namespace.catalogstatusevents.events.DatasetDeletionCatalogStatusEvent;
+import com.dremio.service.namespace.catalogstatusevents.events.SourceRefreshCatalogStatusEvent;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.proto.EntityId;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+
+public class TestDremioTableCache {
+
+  private static DatasetConfig config(String id, String tag, String... path) {
+    return new DatasetConfig()
+        .setId(new EntityId(id))
+        .setTag(tag)
+        .setFullPathList(ImmutableList.copyOf(path));
+  }
+
+  @Test
+  public void testHitOnSameTag() {
+    final DremioTableCache cache = new DremioTableCache(1L << 20);
+    final List<String> primaryKey = ImmutableList.of("id");
+    cache.put(config("1", "a", "src", "t"), false, null, null, primaryKey);
+
+    final DremioTableCache.Entry entry = cache.get(config("1", "a", "src", "t"), false);
+    assertNotNull(entry);
+    assertEquals(primaryKey, entry.getPrimaryKey());
+    assertNull(cache.get(config("1", "a", "src", "t"), true));
+    assertNull(cache.get(config("2", "a", "src", "u"), false));
+  }
+
+  @Test
+  public void testNewTagReplacesEntry() {
+    final DremioTableCache cache = new DremioTableCache(1L << 20);
+    cache.put(config("1", "a", "src", "t"), false, null, null, null);
+
+    assertNull(cache.get(config("1", "b", "src", "t"), false));
+    cache.put(config("1", "b", "src", "t"), false, null, null, null);
+    assertNotNull(cache.get(config("1", "b", "src", "t"), false));
+    assertNull(cache.get(config("1", "a", "src", "t"), false));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testUnsavedConfigNotCached() {
+    final DremioTableCache cache = new DremioTableCache(1L << 20);
+    final DatasetConfig config = new DatasetConfig().setFullPathList(ImmutableList.of("src", "t"));
+    cache.put(config, false, null, null, null);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testInvalidation() {
+    final DremioTableCache cache = new DremioTableCache(1L << 20);
+    cache.put(config("1", "a", "src", "t"), false, null, null, null);
+    cache.put(config("2", "a", "src", "dir", "u"), false, null, null, null);
+    cache.put(config("3", "a", "other", "t"), false, null, null, null);
+
+    cache.onCatalogStatusEvent(new DatasetDeletionCatalogStatusEvent("src.t"));
+    assertNull(cache.get(config("1", "a", "src", "t"), false));
+    assertEquals(2, cache.size());
+
+    cache.onCatalogStatusEvent(SourceRefreshCatalogStatusEvent.of("SRC"));
+    assertNull(cache.get(config("2", "a", "src", "dir", "u"), false));
+    assertNotNull(cache.get(config("3", "a", "other", "t"), false));
+  }
+
+  @Test
+  public void testBoundedBySize() {
+    final DremioTableCache cache = new DremioTableCache(1L << 20);
+    for (int i = 0; i < 100; i++) {
+      cache.put(config(Integer.toString(i), "a", "src", "t" + i), false, null, null, null);
+    }
+    assertEquals(100, cache.size());
+
+    cache.setMaximumSize(4096);
+    assertTrue(cache.size() <= 16);
+  }
+}
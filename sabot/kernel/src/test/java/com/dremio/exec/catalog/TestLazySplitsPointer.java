@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.dremio.datastore.SearchQueryUtils;
+import com.dremio.datastore.api.FindByCondition;
+import com.dremio.datastore.api.FindByRange;
+import com.dremio.exec.planner.fragment.DistributionAffinity;
+import com.dremio.exec.planner.fragment.ExecutionNodeMap;
+import com.dremio.exec.store.SplitWork;
+import com.dremio.exec.store.SplitsPointer;
+import com.dremio.service.namespace.NamespaceService;
+import com.dremio.service.namespace.PartitionChunkMetadata;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.DatasetSplit;
+import com.dremio.service.namespace.dataset.proto.ReadDefinition;
+import com.dremio.service.namespace.proto.EntityId;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the pruning of {@link LazySplitsPointer} by a partition search query */
+public class TestLazySplitsPointer {
+  private static final int TOTAL_SPLITS = 10;
+
+  private NamespaceService namespaceService;
+  private SplitsPointer datasetPointer;
+  private AtomicInteger reads;
+
+  @Before
+  public void setup() {
+    namespaceService = mock(NamespaceService.class);
+    final DatasetConfig config =
+        new DatasetConfig()
+            .setId(new EntityId("dataset"))
+            .setReadDefinition(new ReadDefinition().setSplitVersion(1L))
+            .setTotalNumSplits(TOTAL_SPLITS);
+    datasetPointer = DatasetSplitsPointer.of(namespaceService, config);
+    reads = new AtomicInteger();
+  }
+
+  private static PartitionChunkMetadata chunk(String splitKey, int splitCount) {
+    final List<DatasetSplit> splits = new ArrayList<>();
+    for (int i = 0; i < splitCount; i++) {
+      splits.add(DatasetSplit.newBuilder().setSize(i).build());
+    }
+    final PartitionChunkMetadata chunk = mock(PartitionChunkMetadata.class);
+    when(chunk.getSplitKey()).thenReturn(splitKey);
+    when(chunk.getSplitCount()).thenReturn(splitCount);
+    when(chunk.getDatasetSplits()).thenReturn(splits);
+    return chunk;
+  }
+
+  /** Filtered chunks whose reads are counted, as each read runs the query on the KV store */
+  private void mockFilteredChunks(PartitionChunkMetadata... chunks) {
+    final Iterable<PartitionChunkMetadata> filtered =
+        () -> {
+          reads.incrementAndGet();
+          return ImmutableList.copyOf(chunks).iterator();
+        };
+    when(namespaceService.findSplits(any(FindByCondition.class))).thenReturn(filtered);
+  }
+
+  /** Sizes of the splits of the works, as the parallelizer gets them */
+  private static List<Long> splitWorkSizes(SplitsPointer pointer) {
+    final List<Long> sizes = new ArrayList<>();
+    final Iterator<SplitWork> works =
+        SplitWork.transform(
+            pointer.getPartitionChunks().iterator(),
+            new ExecutionNodeMap(ImmutableList.of()),
+            DistributionAffinity.SOFT);
+    while (works.hasNext()) {
+      sizes.add(works.next().getDatasetSplit().getSize());
+    }
+    return sizes;
+  }
+
+  @Test
+  public void testPrunedChunksStreamedOnce() {
+    final PartitionChunkMetadata first = chunk("a", 2);
+    final PartitionChunkMetadata second = chunk("b", 3);
+    mockFilteredChunks(first, second);
+
+    final SplitsPointer pruned = datasetPointer.prune(SearchQueryUtils.newTermQuery("p", "v"));
+    assertNotSame(datasetPointer, pruned);
+    assertEquals(1, reads.get());
+
+    // the count and the ratio the planner asks for are kept from pruning
+    assertEquals(5, pruned.getSplitsCount());
+    assertEquals(5, pruned.getSplitsCount());
+    assertEquals(0.5, pruned.getSplitRatio(), 0.0);
+    assertEquals(1, reads.get());
+
+    // the chunks are not kept by the pointer: the split works are built in a single read
+    assertEquals(ImmutableList.of(0L, 1L, 0L, 1L, 2L), splitWorkSizes(pruned));
+    assertEquals(2, reads.get());
+    verify(first, atLeastOnce()).mayGetDatasetSplits();
+    verify(second, atLeastOnce()).mayGetDatasetSplits();
+    verify(namespaceService, times(1)).findSplits(any(FindByCondition.class));
+    verify(namespaceService, never()).findSplits(any(FindByRange.class));
+  }
+
+  @Test
+  public void testAllChunksPruned() {
+    mockFilteredChunks();
+
+    final SplitsPointer pruned = datasetPointer.prune(SearchQueryUtils.newTermQuery("p", "v"));
+    assertEquals(0, pruned.getSplitsCount());
+    assertEquals(0, pruned.getSplitsCount());
+    assertEquals(1, reads.get());
+    assertTrue(splitWorkSizes(pruned).isEmpty());
+  }
+
+  @Test
+  public void testNothingPruned() {
+    mockFilteredChunks(chunk("a", 4), chunk("b", 6));
+
+    final SplitsPointer pruned = datasetPointer.prune(SearchQueryUtils.newTermQuery("p", "v"));
+    assertSame(datasetPointer, pruned);
+    assertEquals(1, reads.get());
+  }
+}
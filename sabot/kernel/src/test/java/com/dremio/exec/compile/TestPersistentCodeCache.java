@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.common.config.SabotConfig;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.compile.sig.GeneratorMapping;
+import com.dremio.exec.compile.sig.MappingSet;
+import com.dremio.exec.expr.ClassGenerator;
+import com.dremio.exec.expr.CodeGenerator;
+import com.dremio.sabot.exec.context.CompilationOptions;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.typesafe.config.ConfigValueFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestPersistentCodeCache extends BaseTestQuery {
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testPutAndGet() throws Exception {
+    final Path dir = temporaryFolder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v1");
+    cache.awaitWarmup();
+    assertNull(cache.get("key"));
+
+    final ClassBytes[] classes = {
+      new ClassBytes("a.Gen0", "outer".getBytes(StandardCharsets.UTF_8)),
+      new ClassBytes("a.Gen0$Inner", "inner".getBytes(StandardCharsets.UTF_8))
+    };
+    cache.put("key", "a.Gen0", classes);
+
+    final PersistentCodeCache.CachedClasses cached = cache.get("key");
+    assertNotNull(cached);
+    assertEquals("a.Gen0", cached.getClassName());
+    assertEquals(2, cached.getClasses().length);
+    assertEquals("a.Gen0$Inner", cached.getClasses()[1].getName());
+    assertArrayEquals(classes[1].getBytes(), cached.getClasses()[1].getBytes());
+  }
+
+  @Test
+  public void testWarmupAndSizeLimit() throws Exception {
+    final Path dir = temporaryFolder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v1");
+    cache.awaitWarmup();
+    cache.put("old", "a.Gen0", new ClassBytes[] {new ClassBytes("a.Gen0", new byte[600 * 1024])});
+    cache.put("new", "a.Gen1", new ClassBytes[] {new ClassBytes("a.Gen1", new byte[300 * 1024])});
+    assertNotNull(cache.get("old"));
+    Files.setLastModifiedTime(
+        dir.resolve("old.classes"), FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+
+    // adding a third entry goes over the limit, the oldest entries are removed
+    cache.put(
+        "newer", "a.Gen2", new ClassBytes[] {new ClassBytes("a.Gen2", new byte[300 * 1024])});
+    assertNull(cache.get("old"));
+
+    final PersistentCodeCache restarted =
+        new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v1");
+    restarted.awaitWarmup();
+    assertNotNull(restarted.get("newer"));
+    assertNull(restarted.get("old"));
+  }
+
+  @Test
+  public void testWarmupMemoryLimit() throws Exception {
+    final Path dir = temporaryFolder.newFolder().toPath();
+    final PersistentCodeCache cache = new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v1");
+    cache.awaitWarmup();
+    cache.put("old", "a.Gen0", new ClassBytes[] {new ClassBytes("a.Gen0", new byte[300 * 1024])});
+    cache.put("new", "a.Gen1", new ClassBytes[] {new ClassBytes("a.Gen1", new byte[300 * 1024])});
+    Files.setLastModifiedTime(
+        dir.resolve("old.classes"), FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+
+    // only the most recent entry fits in memory, the other one is read from disk when requested
+    final PersistentCodeCache restarted =
+        new PersistentCodeCache(dir, 1024 * 1024, 400 * 1024, "v1");
+    restarted.awaitWarmup();
+    assertEquals(1, restarted.getWarmedCount());
+    assertNotNull(restarted.get("new"));
+    assertNotNull(restarted.get("old"));
+    assertEquals(0, restarted.getWarmedCount());
+  }
+
+  @Test
+  public void testKeyDependsOnFingerprint() throws Exception {
+    final TemplateClassDefinition<ExampleInner> template =
+        new TemplateClassDefinition<>(ExampleInner.class, ExampleTemplateWithInner.class);
+    final CodeGenerator<ExampleInner> cg = newCodeGenerator(template, null);
+    cg.generate();
+
+    final Path dir = temporaryFolder.newFolder().toPath();
+    final PersistentCodeCache v1 = new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v1");
+    final PersistentCodeCache v2 = new PersistentCodeCache(dir, 1024 * 1024, 1024 * 1024, "v2");
+    assertEquals(v1.getKey(cg.getCodeDefinition()), v1.getKey(cg.getCodeDefinition()));
+    assertNotEquals(v1.getKey(cg.getCodeDefinition()), v2.getKey(cg.getCodeDefinition()));
+  }
+
+  @Test
+  public void testCompiledClassesSurviveRestart() throws Exception {
+    final SabotConfig config =
+        DEFAULT_SABOT_CONFIG.withValue(
+            ExecConstants.CODE_CACHE_PATH_CONFIG,
+            ConfigValueFactory.fromAnyRef(temporaryFolder.newFolder().getAbsolutePath()));
+    final TemplateClassDefinition<ExampleInner> template =
+        new TemplateClassDefinition<>(ExampleInner.class, ExampleTemplateWithInner.class);
+
+    final CodeCompilationStats firstStats = new CodeCompilationStats();
+    final CodeCompiler first = new CodeCompiler(config, getSabotContext().getOptionManager());
+    final ExampleInner instance1 =
+        first.getImplementationClass(newCodeGenerator(template, firstStats));
+    assertEquals(1, firstStats.getCompiledClasses());
+    assertEquals(0, firstStats.getPersistentCacheHits());
+
+    // a new compiler has empty in-memory caches, as after a restart
+    final CodeCompilationStats secondStats = new CodeCompilationStats();
+    final CodeCompiler second = new CodeCompiler(config, getSabotContext().getOptionManager());
+    final ExampleInner instance2 =
+        second.getImplementationClass(newCodeGenerator(template, secondStats));
+    assertEquals(0, secondStats.getCompiledClasses());
+    assertEquals(1, secondStats.getPersistentCacheHits());
+    assertEquals(instance1.getClass().getName(), instance2.getClass().getName());
+    assertNotEquals(instance1.getClass(), instance2.getClass());
+  }
+
+  private CodeGenerator<ExampleInner> newCodeGenerator(
+      TemplateClassDefinition<ExampleInner> template, CodeCompilationStats stats) {
+    CompilationOptions compilationOptions = mock(CompilationOptions.class);
+    when(compilationOptions.getNewMethodThreshold()).thenReturn(100);
+    FunctionContext mockFunctionContext = mock(FunctionContext.class);
+    when(mockFunctionContext.getCompilationOptions()).thenReturn(compilationOptions);
+    when(mockFunctionContext.getCodeCompilationStats()).thenReturn(stats);
+
+    CodeGenerator<ExampleInner> cg =
+        CodeGenerator.get(template, getSabotContext().getCompiler(), mockFunctionContext);
+
+    ClassGenerator<ExampleInner> root = cg.getRoot();
+    root.setMappingSet(new MappingSet(new GeneratorMapping("doOutside", null, null, null)));
+    root.getSetupBlock().directStatement("System.out.println(\"outside\");");
+    ClassGenerator<ExampleInner> inner = root.getInnerGenerator("TheInnerClass");
+    inner.setMappingSet(new MappingSet(new GeneratorMapping("doInside", null, null, null)));
+    inner.getSetupBlock().directStatement("System.out.println(\"persisted\");");
+    return cg;
+  }
+}
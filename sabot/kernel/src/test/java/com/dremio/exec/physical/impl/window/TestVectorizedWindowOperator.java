@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.physical.impl.window;
+
+import static com.dremio.exec.physical.impl.window.DataPar.dataB1P1;
+import static com.dremio.exec.physical.impl.window.DataPar.dataB2P4;
+import static com.dremio.exec.physical.impl.window.DataPar.dataB3P2;
+import static com.dremio.exec.physical.impl.window.DataPar.dataB4P4;
+import static com.dremio.exec.physical.impl.window.WindowGenerator.generateInput;
+import static com.dremio.exec.physical.impl.window.WindowGenerator.generateOutput;
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_DOUBLE;
+import static com.dremio.sabot.Fixtures.NULL_INT;
+import static com.dremio.sabot.Fixtures.t;
+import static com.dremio.sabot.Fixtures.th;
+import static com.dremio.sabot.Fixtures.tr;
+import static java.util.Collections.singletonList;
+import static org.apache.calcite.rel.RelFieldCollation.Direction.ASCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.Direction.DESCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.LAST;
+import static org.junit.Assert.assertEquals;
+
+import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.common.logical.data.Order;
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.WindowPOP;
+import com.dremio.exec.physical.config.WindowPOP.Bound;
+import com.dremio.exec.physical.config.WindowPOP.BoundType;
+import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.Fixtures;
+import com.dremio.sabot.Fixtures.DataRow;
+import com.dremio.sabot.Fixtures.HeaderRow;
+import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.windowframe.VectorizedWindowOperator;
+import com.dremio.sabot.op.windowframe.WindowFrameOperator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class TestVectorizedWindowOperator extends BaseTestOperator {
+
+  private WindowPOP createWindowPOP(boolean withPartitionBy, boolean withOrderBy) {
+    List<NamedExpression> withins =
+        withPartitionBy
+            ? singletonList(n("position_id"))
+            : Collections.<NamedExpression>emptyList();
+    List<NamedExpression> aggregations =
+        withOrderBy
+            ? Arrays.asList(
+                n("sum(salary)", "sum"),
+                n("count(position_id)", "count"),
+                n("row_number()", "row_number"),
+                n("rank()", "rank"),
+                n("dense_rank()", "dense_rank"),
+                n("cume_dist()", "cume_dist"),
+                n("percent_rank()", "percent_rank"))
+            : Arrays.asList(n("sum(salary)", "sum"), n("count(position_id)", "count"));
+    List<Order.Ordering> orderings =
+        withOrderBy
+            ? singletonList(ordering("sub", DESCENDING, FIRST))
+            : Collections.<Order.Ordering>emptyList();
+    return new WindowPOP(
+        PROPS,
+        null,
+        withins,
+        aggregations,
+        orderings,
+        false,
+        new Bound(true, Integer.MAX_VALUE, BoundType.FOLLOWING),
+        new Bound(false, 0, BoundType.FOLLOWING));
+  }
+
+  private void validateWindow(DataPar[] dataDef, boolean withPartitionBy, boolean withOrderBy)
+      throws Exception {
+    final WindowPOP window = createWindowPOP(withPartitionBy, withOrderBy);
+    final Table input = t(WindowGenerator.header, generateInput(dataDef));
+    validateSingle(
+        window, VectorizedWindowOperator.class, input, generateOutput(dataDef, withOrderBy), 20);
+  }
+
+  private void runTests(DataPar[] withPartitionDef, DataPar[] withoutPartitionDef)
+      throws Exception {
+    try (AutoCloseable vectorized = with(ExecConstants.ENABLE_VECTORIZED_WINDOW, true)) {
+      validateWindow(withPartitionDef, true, true);
+      validateWindow(withPartitionDef, true, false);
+      validateWindow(withoutPartitionDef, false, true);
+      validateWindow(withoutPartitionDef, false, false);
+    }
+  }
+
+  @Test
+  public void testB1P1() throws Exception {
+    runTests(dataB1P1(), dataB1P1());
+  }
+
+  @Test
+  public void testB2P4() throws Exception {
+    runTests(dataB2P4(true), dataB2P4(false));
+  }
+
+  @Test
+  public void testB3P2() throws Exception {
+    runTests(dataB3P2(true), dataB3P2(false));
+  }
+
+  @Test
+  public void testB4P4() throws Exception {
+    runTests(dataB4P4(true), dataB4P4(false));
+  }
+
+  @Test
+  public void testSpill() throws Exception {
+    // spill every pending batch that can be spilled
+    try (AutoCloseable spill = with(ExecConstants.VECTORIZED_WINDOW_SPILL_THRESHOLD, 1)) {
+      runTests(dataB4P4(true), dataB4P4(false));
+    }
+  }
+
+  @Test
+  public void testRowNumberAndRank() throws Exception {
+    final WindowPOP window =
+        new WindowPOP(
+            PROPS,
+            null,
+            Collections.<NamedExpression>emptyList(), // withins
+            Arrays.asList(n("row_number()", "rn"), n("rank()", "rnk")), // aggregations
+            singletonList(ordering("position_id", DESCENDING, FIRST)), // ordering
+            false,
+            new Bound(true, Integer.MAX_VALUE, BoundType.FOLLOWING),
+            new Bound(false, 0, BoundType.FOLLOWING));
+
+    final DataPar[] partitions = dataB3P2(true);
+    final Table input = Fixtures.split(WindowGenerator.header, 20, generateInput(partitions));
+    final Table output =
+        Fixtures.t(WindowGenerator.header4657, WindowGenerator.generateOutput4657(partitions));
+    try (AutoCloseable vectorized = with(ExecConstants.ENABLE_VECTORIZED_WINDOW, true)) {
+      validateSingle(window, VectorizedWindowOperator.class, input, output, 20);
+    }
+  }
+
+  private static final HeaderRow INPUT_HEADER = th("p", "o", "v");
+
+  // three partitions with nulls, the last one starts with two of them
+  private static DataRow[] inputRows() {
+    return new DataRow[] {
+      tr(1, 1, 10),
+      tr(1, 2, 20),
+      tr(1, 3, NULL_INT),
+      tr(1, 4, 40),
+      tr(1, 5, 50),
+      tr(2, 1, 5),
+      tr(2, 2, 7),
+      tr(2, 3, 9),
+      tr(3, 1, NULL_INT),
+      tr(3, 2, NULL_INT),
+      tr(3, 3, 4)
+    };
+  }
+
+  private WindowPOP createWindowPOP(
+      List<NamedExpression> aggregations, boolean rows, Bound lower, Bound upper) {
+    return new WindowPOP(
+        PROPS,
+        null,
+        singletonList(n("p")),
+        aggregations,
+        singletonList(ordering("o", ASCENDING, LAST)),
+        rows,
+        lower,
+        upper);
+  }
+
+  /**
+   * Checks the output of the generated code and of the vectorized operator against the same
+   * table, with the input in one batch and, for the vectorized operator, in batches of 3 rows.
+   */
+  private void validateAgainstWindowFrame(WindowPOP window, Table output) throws Exception {
+    final Table input = t(INPUT_HEADER, inputRows());
+    validateSingle(window, WindowFrameOperator.class, input, output, 20);
+    try (AutoCloseable vectorized = with(ExecConstants.ENABLE_VECTORIZED_WINDOW, true)) {
+      for (Table vectorizedInput :
+          Arrays.asList(input, Fixtures.split(INPUT_HEADER, 3, inputRows()))) {
+        final OperatorStats stats =
+            validateSingle(window, VectorizedWindowOperator.class, vectorizedInput, output, 4);
+        assertEquals(1, stats.getLongStat(VectorizedWindowOperator.Metric.VECTORIZED));
+      }
+    }
+  }
+
+  @Test
+  public void testLagLead() throws Exception {
+    final WindowPOP window =
+        createWindowPOP(
+            Arrays.asList(
+                n("lag(v)", "lag1"),
+                n("lead(v)", "lead1"),
+                n("lag(v, 2)", "lag2"),
+                n("lead(v, 2)", "lead2")),
+            false,
+            new Bound(true, Integer.MAX_VALUE, BoundType.FOLLOWING),
+            new Bound(false, 0, BoundType.FOLLOWING));
+    final Table output =
+        t(
+            th("p", "o", "v", "lag1", "lead1", "lag2", "lead2"),
+            tr(1, 1, 10, NULL_INT, 20, NULL_INT, NULL_INT),
+            tr(1, 2, 20, 10, NULL_INT, NULL_INT, 40),
+            tr(1, 3, NULL_INT, 20, 40, 10, 50),
+            tr(1, 4, 40, NULL_INT, 50, 20, NULL_INT),
+            tr(1, 5, 50, 40, NULL_INT, NULL_INT, NULL_INT),
+            tr(2, 1, 5, NULL_INT, 7, NULL_INT, 9),
+            tr(2, 2, 7, 5, 9, NULL_INT, NULL_INT),
+            tr(2, 3, 9, 7, NULL_INT, 5, NULL_INT),
+            tr(3, 1, NULL_INT, NULL_INT, NULL_INT, NULL_INT, 4),
+            tr(3, 2, NULL_INT, NULL_INT, 4, NULL_INT, NULL_INT),
+            tr(3, 3, 4, NULL_INT, NULL_INT, NULL_INT, NULL_INT));
+    validateAgainstWindowFrame(window, output);
+  }
+
+  @Test
+  public void testSlidingRowsFrame() throws Exception {
+    // ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING
+    final WindowPOP window =
+        createWindowPOP(
+            Arrays.asList(
+                n("sum(v)", "sum"),
+                n("count(v)", "count"),
+                n("avg(v)", "avg"),
+                n("$sum0(v)", "sum0")),
+            true,
+            new Bound(false, 1, BoundType.PRECEDING),
+            new Bound(false, 1, BoundType.FOLLOWING));
+    final Table output =
+        t(
+            th("p", "o", "v", "sum", "count", "avg", "sum0"),
+            tr(1, 1, 10, 30L, 2L, 15.0d, 30L),
+            tr(1, 2, 20, 30L, 2L, 15.0d, 30L),
+            tr(1, 3, NULL_INT, 60L, 2L, 30.0d, 60L),
+            tr(1, 4, 40, 90L, 2L, 45.0d, 90L),
+            tr(1, 5, 50, 90L, 2L, 45.0d, 90L),
+            tr(2, 1, 5, 12L, 2L, 6.0d, 12L),
+            tr(2, 2, 7, 21L, 3L, 7.0d, 21L),
+            tr(2, 3, 9, 16L, 2L, 8.0d, 16L),
+            tr(3, 1, NULL_INT, NULL_BIGINT, 0L, NULL_DOUBLE, 0L),
+            tr(3, 2, NULL_INT, 4L, 1L, 4.0d, 4L),
+            tr(3, 3, 4, 4L, 1L, 4.0d, 4L));
+    validateAgainstWindowFrame(window, output);
+  }
+
+  @Test
+  public void testRunningAvgAndSum0() throws Exception {
+    // RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW
+    final WindowPOP window =
+        createWindowPOP(
+            Arrays.asList(n("sum(v)", "sum"), n("avg(v)", "avg"), n("$sum0(v)", "sum0")),
+            false,
+            new Bound(true, Integer.MAX_VALUE, BoundType.FOLLOWING),
+            new Bound(false, 0, BoundType.FOLLOWING));
+    final Table output =
+        t(
+            th("p", "o", "v", "sum", "avg", "sum0"),
+            tr(1, 1, 10, 10L, 10.0d, 10L),
+            tr(1, 2, 20, 30L, 15.0d, 30L),
+            tr(1, 3, NULL_INT, 30L, 15.0d, 30L),
+            tr(1, 4, 40, 70L, 70.0d / 3, 70L),
+            tr(1, 5, 50, 120L, 30.0d, 120L),
+            tr(2, 1, 5, 5L, 5.0d, 5L),
+            tr(2, 2, 7, 12L, 6.0d, 12L),
+            tr(2, 3, 9, 21L, 7.0d, 21L),
+            tr(3, 1, NULL_INT, NULL_BIGINT, NULL_DOUBLE, 0L),
+            tr(3, 2, NULL_INT, NULL_BIGINT, NULL_DOUBLE, 0L),
+            tr(3, 3, 4, 4L, 4.0d, 4L));
+    validateAgainstWindowFrame(window, output);
+  }
+}
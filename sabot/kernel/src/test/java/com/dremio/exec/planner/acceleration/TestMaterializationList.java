@@ -16,9 +16,12 @@
 package com.dremio.exec.planner.acceleration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -27,6 +30,7 @@ import com.dremio.exec.planner.acceleration.descriptor.ExpandedMaterializationDe
 import com.dremio.exec.planner.acceleration.descriptor.ExternalMaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.descriptor.MaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.descriptor.ReflectionInfo;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils;
 import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.planner.sql.SqlConverter;
 import com.dremio.exec.server.MaterializationDescriptorProvider;
@@ -336,4 +340,73 @@ public class TestMaterializationList {
     assertEquals(1, dremioMaterializations.size());
     assertEquals("rid-1", dremioMaterializations.stream().findFirst().get().getReflectionId());
   }
+
+  /** Verifies the index returns the reflections using the tables and views of the query */
+  @Test
+  public void testCandidateIndex() {
+
+    ExpandedMaterializationDescriptor cachedDesc1 =
+        new ExpandedMaterializationDescriptor(desc1, relOptMat1);
+    RelNode relOptMat1QueryNode = createTableScan(Arrays.asList("schema", "t1"));
+    when(relOptMat1.getQueryRel()).thenReturn(relOptMat1QueryNode);
+
+    ExpandedMaterializationDescriptor cachedDesc2 =
+        new ExpandedMaterializationDescriptor(desc2, relOptMat2);
+    RelNode relOptMat2QueryNode = createExpansionNode(Arrays.asList("schema", "v2"));
+    when(relOptMat2.getQueryRel()).thenReturn(relOptMat2QueryNode);
+
+    final MaterializationIndex index =
+        MaterializationIndex.create(
+            ImmutableList.of(cachedDesc1, externalMaterializationDescriptor1, cachedDesc2), null);
+    assertTrue(index.isIndexed(cachedDesc1));
+    assertFalse(index.isIndexed(externalMaterializationDescriptor1));
+
+    final RelNode tableQuery = createTableScan(Arrays.asList("schema", "t1"));
+    assertEquals(
+        ImmutableList.of(cachedDesc1, externalMaterializationDescriptor1),
+        index.getCandidates(
+            SubstitutionUtils.findTables(tableQuery),
+            SubstitutionUtils.findExpansionNodes(tableQuery),
+            SubstitutionUtils.findExternalQueries(tableQuery)));
+
+    final RelNode vdsQuery = createExpansionNode(Arrays.asList("schema", "v2"));
+    assertEquals(
+        ImmutableList.of(externalMaterializationDescriptor1, cachedDesc2),
+        index.getCandidates(
+            SubstitutionUtils.findTables(vdsQuery),
+            SubstitutionUtils.findExpansionNodes(vdsQuery),
+            SubstitutionUtils.findExternalQueries(vdsQuery)));
+
+    // keys of the descriptors already indexed are reused
+    final MaterializationIndex updated =
+        MaterializationIndex.create(ImmutableList.of(cachedDesc2), index);
+    verify(relOptMat2, times(1)).getQueryRel();
+    assertEquals(1, updated.size());
+  }
+
+  /** Verifies materialization list looks up the candidates when the index is enabled */
+  @Test
+  public void testCandidateIndexEnabled() {
+    when(optionResolver.getOption(PlannerSettings.REFLECTION_CANDIDATE_INDEX_ENABLED))
+        .thenReturn(true);
+
+    ExpandedMaterializationDescriptor cachedDesc1 =
+        new ExpandedMaterializationDescriptor(desc1, relOptMat1);
+    RelNode relOptMat1QueryNode = createTableScan(Arrays.asList("schema", "t1"));
+    when(relOptMat1.getQueryRel()).thenReturn(relOptMat1QueryNode);
+    when(relOptMat1.accept(any(RelShuttle.class))).thenReturn(relOptMat1);
+
+    SubstitutionSettings materializationSettings = SubstitutionSettings.of();
+    when(session.getSubstitutionSettings()).thenReturn(materializationSettings);
+    when(provider.get(any(), any(), any())).thenReturn(ImmutableList.of(cachedDesc1));
+
+    final MaterializationList materializations =
+        new MaterializationList(converter, session, provider);
+    RelNode userQuery = createTableScan(Arrays.asList("schema", "t1"));
+    List<DremioMaterialization> dremioMaterializations =
+        materializations.buildConsideredMaterializations(userQuery);
+
+    assertEquals(1, dremioMaterializations.size());
+    verify(provider, never()).get();
+  }
 }
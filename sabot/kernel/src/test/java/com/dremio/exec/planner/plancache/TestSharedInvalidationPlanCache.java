@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.plancache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.exec.planner.physical.Prel;
+import com.dremio.options.OptionResolver;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSharedInvalidationPlanCache {
+
+  private final Map<String, Long> invalidations = new ConcurrentHashMap<>();
+  private PlanCacheInvalidationStore store;
+  private OptionResolver options;
+
+  @Before
+  public void setup() {
+    store = mock(PlanCacheInvalidationStore.class);
+    when(store.find()).thenAnswer(invocation -> new ArrayList<>(invalidations.entrySet()));
+    when(store.get(anyString()))
+        .thenAnswer(invocation -> invalidations.get(invocation.<String>getArgument(0)));
+    doAnswer(
+            invocation -> {
+              invalidations.put(invocation.getArgument(0), invocation.getArgument(1));
+              return null;
+            })
+        .when(store)
+        .put(anyString(), anyLong());
+    doAnswer(invocation -> invalidations.remove(invocation.getArgument(0)))
+        .when(store)
+        .delete(anyString());
+
+    options = mock(OptionResolver.class);
+    when(options.getOption(PlannerSettings.QUERY_PLAN_CACHE_SHARED_INVALIDATION)).thenReturn(true);
+  }
+
+  @Test
+  public void testInvalidateAllIsShared() {
+    final Cache<String, CachedPlan> first = newPlans();
+    final Cache<String, CachedPlan> second = newPlans();
+    final SharedInvalidationPlanCache firstCache = newCache(first, newDatasetMap());
+    final SharedInvalidationPlanCache secondCache = newCache(second, newDatasetMap());
+
+    firstCache.invalidateAll();
+    assertEquals(0, first.size());
+    assertEquals(1, second.size());
+
+    secondCache.syncInvalidations();
+    assertEquals(0, second.size());
+
+    // invalidations are applied once, and not again by the coordinator that made them
+    first.put("p2", newPlan());
+    second.put("p2", newPlan());
+    firstCache.syncInvalidations();
+    secondCache.syncInvalidations();
+    assertEquals(1, first.size());
+    assertEquals(1, second.size());
+  }
+
+  @Test
+  public void testInvalidateDatasetIsShared() {
+    final Cache<String, CachedPlan> first = newPlans();
+    final Cache<String, CachedPlan> second = newPlans();
+    final Multimap<String, String> secondDatasets = newDatasetMap();
+    second.put("p2", newPlan());
+    secondDatasets.put("d1", "p1");
+    secondDatasets.put("d2", "p2");
+    final SharedInvalidationPlanCache firstCache = newCache(first, newDatasetMap());
+    final SharedInvalidationPlanCache secondCache = newCache(second, secondDatasets);
+
+    firstCache.invalidateCacheOnDataset("d1");
+    secondCache.syncInvalidations();
+    assertEquals(null, second.getIfPresent("p1"));
+    assertEquals(1, second.size());
+  }
+
+  @Test
+  public void testInvalidationsNotSharedWhenDisabled() {
+    when(options.getOption(PlannerSettings.QUERY_PLAN_CACHE_SHARED_INVALIDATION))
+        .thenReturn(false);
+    final Cache<String, CachedPlan> second = newPlans();
+    final SharedInvalidationPlanCache firstCache = newCache(newPlans(), newDatasetMap());
+    final SharedInvalidationPlanCache secondCache = newCache(second, newDatasetMap());
+
+    firstCache.invalidateAll();
+    secondCache.syncInvalidations();
+    assertEquals(0, invalidations.size());
+    assertEquals(1, second.size());
+  }
+
+  @Test
+  public void testInvalidationsBeforeStartIgnored() {
+    invalidations.put(PlanCacheInvalidationStore.ALL_DATASETS, 7L);
+    invalidations.put("d1", 8L);
+    final Cache<String, CachedPlan> plans = newPlans();
+    final Multimap<String, String> datasets = newDatasetMap();
+    datasets.put("d1", "p1");
+    final SharedInvalidationPlanCache cache = newCache(plans, datasets);
+
+    cache.syncInvalidations();
+    assertEquals(1, plans.size());
+  }
+
+  @Test
+  public void testVersionsFollowTheStore() {
+    final Cache<String, CachedPlan> second = newPlans();
+    final Multimap<String, String> secondDatasets = newDatasetMap();
+    secondDatasets.put("d1", "p1");
+    final SharedInvalidationPlanCache firstCache = newCache(newPlans(), newDatasetMap());
+    final SharedInvalidationPlanCache secondCache = newCache(second, secondDatasets);
+
+    firstCache.invalidateCacheOnDataset("d1");
+    assertEquals(Long.valueOf(1), invalidations.get("d1"));
+    secondCache.syncInvalidations();
+    assertEquals(0, second.size());
+
+    // the whole cache invalidation supersedes the dataset ones and removes them from the store
+    firstCache.invalidateAll();
+    assertEquals(Long.valueOf(2), invalidations.get(PlanCacheInvalidationStore.ALL_DATASETS));
+    assertNull(invalidations.get("d1"));
+
+    // a later dataset invalidation is ordered after it, whichever coordinator makes it
+    second.put("p1", newPlan());
+    secondDatasets.put("d1", "p1");
+    secondCache.syncInvalidations();
+    assertEquals(0, second.size());
+    second.put("p1", newPlan());
+    secondDatasets.put("d1", "p1");
+    firstCache.invalidateCacheOnDataset("d1");
+    assertEquals(Long.valueOf(3), invalidations.get("d1"));
+    secondCache.syncInvalidations();
+    assertEquals(0, second.size());
+  }
+
+  private SharedInvalidationPlanCache newCache(
+      Cache<String, CachedPlan> plans, Multimap<String, String> datasets) {
+    return new SharedInvalidationPlanCache(plans, datasets, store, options);
+  }
+
+  private static Cache<String, CachedPlan> newPlans() {
+    final Cache<String, CachedPlan> plans = CacheBuilder.newBuilder().build();
+    plans.put("p1", newPlan());
+    return plans;
+  }
+
+  private static Multimap<String, String> newDatasetMap() {
+    return Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+  }
+
+  private static CachedPlan newPlan() {
+    return CachedPlan.createCachedPlan(mock(Prel.class), 1);
+  }
+}
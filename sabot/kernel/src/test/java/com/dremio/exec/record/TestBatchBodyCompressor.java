@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.sabot.op.receiver.RawFragmentBatch;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+import io.netty.buffer.ByteBuf;
+import java.util.Random;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TestBatchBodyCompressor extends DremioTest {
+  private static final int COUNT = 4096;
+
+  @Rule public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private static VectorContainer container(BufferAllocator allocator, boolean random) {
+    final VectorContainer container = new VectorContainer(allocator);
+    final IntVector vector =
+        container.addOrGet(Field.nullable("value", new ArrowType.Int(32, true)));
+    vector.allocateNew(COUNT);
+    final Random values = new Random(0);
+    for (int i = 0; i < COUNT; i++) {
+      if (i % 7 != 0) {
+        vector.set(i, random ? values.nextInt() : i % 16);
+      }
+    }
+    container.setAllCount(COUNT);
+    container.buildSchema();
+    return container;
+  }
+
+  // the body as received from the rpc layer, all the buffers one after the other
+  private static RawFragmentBatch receive(BufferAllocator allocator, FragmentWritableBatch batch) {
+    final ArrowBuf body = allocator.buffer(batch.getByteCount());
+    for (ByteBuf buf : batch.getBuffers()) {
+      body.writeBytes(buf.nioBuffer());
+      buf.release();
+    }
+    final RawFragmentBatch received = new RawFragmentBatch(batch.getHeader(), body, null);
+    body.close();
+    return received;
+  }
+
+  @Test
+  public void testRoundTrip() {
+    try (BufferAllocator allocator =
+            allocatorRule.newAllocator("test-batch-body-compressor", 0, Long.MAX_VALUE);
+        VectorContainer container = container(allocator, false)) {
+      final FragmentWritableBatch batch =
+          FragmentWritableBatch.create(QueryId.getDefaultInstance(), 0, 0, 0, container, 0);
+      final long uncompressedLength = batch.getByteCount();
+      final BatchBodyCompressor compressor = new BatchBodyCompressor(allocator, 0, 0.9);
+
+      final FragmentWritableBatch compressed = compressor.compress(batch);
+      assertTrue(compressed.isCompressed());
+      assertEquals(uncompressedLength, compressor.getUncompressedBytes());
+      assertEquals(compressed.getByteCount(), compressor.getCompressedBytes());
+      assertTrue(compressed.getByteCount() < uncompressedLength * 0.9);
+
+      try (RawFragmentBatch decompressed = compressor.decompress(receive(allocator, compressed));
+          ArrowRecordBatchLoader loader =
+              new ArrowRecordBatchLoader(allocator, container.getSchema())) {
+        assertEquals(0, decompressed.getHeader().getCompressedBufferLengthCount());
+        loader.load(decompressed);
+        assertEquals(COUNT, loader.getRecordCount());
+        final IntVector vector = (IntVector) loader.iterator().next().getValueVector();
+        for (int i = 0; i < COUNT; i++) {
+          if (i % 7 == 0) {
+            assertTrue(vector.isNull(i));
+          } else {
+            assertEquals(i % 16, vector.get(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testIncompressibleBatchSentAsIs() {
+    try (BufferAllocator allocator =
+            allocatorRule.newAllocator("test-batch-body-compressor", 0, Long.MAX_VALUE);
+        VectorContainer container = container(allocator, true)) {
+      final FragmentWritableBatch batch =
+          FragmentWritableBatch.create(QueryId.getDefaultInstance(), 0, 0, 0, container, 0);
+      final BatchBodyCompressor compressor = new BatchBodyCompressor(allocator, 0, 0.9);
+
+      assertSame(batch, compressor.compress(batch));
+      assertFalse(batch.isCompressed());
+
+      final RawFragmentBatch received = receive(allocator, batch);
+      try (RawFragmentBatch decompressed = compressor.decompress(received)) {
+        assertSame(received, decompressed);
+      }
+    }
+  }
+}
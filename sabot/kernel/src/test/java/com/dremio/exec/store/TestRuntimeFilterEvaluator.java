@@ -367,4 +367,68 @@ public class TestRuntimeFilterEvaluator {
           keyBuf, 5, Arrays.asList(partitionCol1, partitionCol2), Arrays.asList(pair1, pair2));
     }
   }
+
+  @Test
+  public void testBatchCanBeSkipped() throws Exception {
+    final String partitionColumn = "intcol";
+    final int numSplits = 10;
+    try (ArrowBuf keyBuf = testAllocator.buffer(5);
+        BloomFilter bloomFilter = new BloomFilter(testAllocator, TEST_NAME, 512)) {
+      bloomFilter.setup();
+      keyBuf.setByte(0, 1);
+      for (int i = 0; i < numSplits; i += 2) {
+        keyBuf.setInt(1, i);
+        bloomFilter.put(keyBuf, 5);
+      }
+
+      OpProfileDef prof = new OpProfileDef(1, 1, 1);
+      final OperatorStats stats = new OperatorStats(prof, testAllocator);
+      final OptionManager options = mock(OptionManager.class);
+      when(options.getOption(ExecConstants.RUNTIME_FILTER_KEY_MAX_SIZE)).thenReturn(32L);
+      CompositeColumnFilter partitionColumnFilter =
+          new CompositeColumnFilter.Builder()
+              .setColumnsList(Collections.singletonList(partitionColumn))
+              .setBloomFilter(bloomFilter)
+              .setFilterType(CompositeColumnFilter.RuntimeFilterType.BLOOM_FILTER)
+              .build();
+      RuntimeFilterEvaluator filterEvaluator =
+          new RuntimeFilterEvaluator(
+              testAllocator, stats, options, new RuntimeFilter(partitionColumnFilter, null, ""));
+
+      final List<SplitAndPartitionInfo> splits = new ArrayList<>();
+      final List<List<NameValuePair<?>>> partitionValues = new ArrayList<>();
+      for (int i = 0; i < numSplits; i++) {
+        splits.add(null);
+        partitionValues.add(
+            Collections.singletonList(
+                new ConstantColumnPopulators.IntNameValuePair(partitionColumn, i)));
+      }
+      // a split without the filter column is never skipped, nor probed
+      splits.add(null);
+      partitionValues.add(
+          Collections.singletonList(
+              new ConstantColumnPopulators.IntNameValuePair("othercol", 0)));
+
+      final boolean[] skipped = filterEvaluator.canBeSkipped(splits, partitionValues);
+      Assert.assertEquals(numSplits + 1, skipped.length);
+      long numSkipped = 0;
+      for (int i = 0; i < numSplits; i++) {
+        if (i % 2 == 0) {
+          Assert.assertFalse(skipped[i]);
+        }
+        numSkipped += skipped[i] ? 1 : 0;
+      }
+      Assert.assertFalse(skipped[numSplits]);
+      Assert.assertEquals(
+          numSplits, stats.getLongStat(ScanOperator.Metric.NUM_RUNTIME_FILTER_PROBES));
+      Assert.assertEquals(
+          numSkipped, stats.getLongStat(ScanOperator.Metric.NUM_PARTITIONS_PRUNED));
+
+      // the batch probe agrees with the probe of each split
+      for (int i = 0; i < numSplits; i++) {
+        Assert.assertEquals(
+            skipped[i], filterEvaluator.canBeSkipped(splits.get(i), partitionValues.get(i)));
+      }
+    }
+  }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Tests for {@link BlockCache} and {@link CachingAsyncByteReader} */
+public class BlockCacheTest {
+  private static final int BLOCK_SIZE = 16;
+  private static final Path PATH = Path.of("/some/data/file");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final byte[] data = new byte[100];
+  private BlockCache cache;
+  private BytesReader source;
+  private AsyncByteReader reader;
+
+  @Before
+  public void setup() throws Exception {
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    cache = new BlockCache(temporaryFolder.newFolder().toPath(), 1024, BLOCK_SIZE, 2, 2);
+    source = new BytesReader(data);
+    reader = newReader("v1", 100);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    cache.close();
+  }
+
+  private AsyncByteReader newReader(String version, int sourceLimitPct) throws Exception {
+    return newReader(source, version, sourceLimitPct);
+  }
+
+  private AsyncByteReader newReader(AsyncByteReader source, String version, int sourceLimitPct)
+      throws Exception {
+    final FileAttributes attributes = mock(FileAttributes.class);
+    when(attributes.size()).thenReturn((long) data.length);
+    final FileSystem fs = mock(FileSystem.class);
+    when(fs.getFileAttributes(PATH)).thenReturn(attributes);
+    return new CachingAsyncByteReader(
+        source, cache, fs, "source", PATH, version, sourceLimitPct, null);
+  }
+
+  private byte[] read(AsyncByteReader reader, long offset, int len) throws Exception {
+    final ByteBuf buf = Unpooled.directBuffer(len + 3);
+    try {
+      reader.readFully(offset, buf, 3, len).get();
+      final byte[] bytes = new byte[len];
+      buf.getBytes(3, bytes);
+      return bytes;
+    } finally {
+      buf.release();
+    }
+  }
+
+  private byte[] expected(int offset, int len) {
+    final byte[] bytes = new byte[len];
+    System.arraycopy(data, offset, bytes, 0, len);
+    return bytes;
+  }
+
+  @Test
+  public void testAdmissionAndHits() throws Exception {
+    // blocks are only cached once read twice
+    assertArrayEquals(expected(0, 32), read(reader, 0, 32));
+    cache.awaitFills();
+    assertEquals(0, cache.getEntryCount());
+    assertArrayEquals(expected(0, 32), read(reader, 0, 32));
+    cache.awaitFills();
+    assertEquals(2, cache.getEntryCount());
+    assertEquals(2, source.reads.get());
+
+    assertArrayEquals(expected(0, 32), read(reader, 0, 32));
+    assertArrayEquals(expected(5, 20), read(reader, 5, 20));
+    assertEquals(2, source.reads.get());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(52, cache.getBytesRead());
+
+    // another version of the file is not read from the cache
+    final AsyncByteReader other = newReader("v2", 100);
+    assertArrayEquals(expected(0, 32), read(other, 0, 32));
+    assertEquals(3, source.reads.get());
+  }
+
+  @Test
+  public void testPartialBlocksAreLoaded() throws Exception {
+    read(reader, 85, 12);
+    read(reader, 85, 12);
+    cache.awaitFills();
+    // blocks 5 and 6, the last one being the 4 bytes at the end of the file
+    assertEquals(2, cache.getEntryCount());
+    assertEquals(BLOCK_SIZE + 4, cache.getSize());
+
+    final int reads = source.reads.get();
+    assertArrayEquals(expected(80, 20), read(reader, 80, 20));
+    assertArrayEquals(expected(97, 2), read(reader, 97, 2));
+    assertEquals(reads, source.reads.get());
+  }
+
+  @Test
+  public void testCloseAwaitsLoads() throws Exception {
+    final AtomicInteger reads = new AtomicInteger();
+    final CompletableFuture<Void> loads = new CompletableFuture<>();
+    final AsyncByteReader slowLoads =
+        (offset, dst, dstOffset, len) -> {
+          dst.setBytes(dstOffset, data, (int) offset, len);
+          // the first two reads are the reads of the scan, the next ones load the blocks
+          return reads.incrementAndGet() <= 2 ? AsyncByteReader.completedFuture : loads;
+        };
+    final AsyncByteReader reader = newReader(slowLoads, "v1", 100);
+    read(reader, 85, 12);
+    read(reader, 85, 12);
+
+    final CompletableFuture<Void> closed =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                reader.close();
+              } catch (Exception e) {
+                throw new RuntimeException(e);
+              }
+            });
+    Thread.sleep(100);
+    assertFalse(closed.isDone());
+
+    loads.complete(null);
+    closed.get();
+    cache.awaitFills();
+    assertEquals(2, cache.getEntryCount());
+    assertEquals(4, reads.get());
+  }
+
+  @Test
+  public void testSourceLimit() throws Exception {
+    final BlockCache small =
+        new BlockCache(temporaryFolder.newFolder().toPath(), 64, BLOCK_SIZE, 1, 1);
+    try {
+      for (int block = 0; block < 6; block++) {
+        final BlockKey key = new BlockKey("source", PATH.toString(), "v1", block);
+        assertTrue(small.admit(key));
+        small.fill(key, 50, Unpooled.wrappedBuffer(data, block * BLOCK_SIZE, BLOCK_SIZE));
+        small.awaitFills();
+      }
+      // the source may only use half of the 64 bytes of the cache
+      assertEquals(2, small.getEntryCount());
+      assertEquals(4, small.getEvictionCount());
+    } finally {
+      small.close();
+    }
+  }
+
+  private static final class BytesReader implements AsyncByteReader {
+    private final byte[] data;
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private BytesReader(byte[] data) {
+      this.data = data;
+    }
+
+    @Override
+    public CompletableFuture<Void> readFully(long offset, ByteBuf dst, int dstOffset, int len) {
+      reads.incrementAndGet();
+      dst.setBytes(dstOffset, data, (int) offset, len);
+      return completedFuture;
+    }
+  }
+}
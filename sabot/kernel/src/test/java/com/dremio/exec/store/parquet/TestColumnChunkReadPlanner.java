@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.junit.Test;
+
+/** Tests for {@link ColumnChunkReadPlanner} */
+public class TestColumnChunkReadPlanner {
+
+  private static ColumnChunkMetaData chunk(long start, long size) {
+    final ColumnChunkMetaData chunk = mock(ColumnChunkMetaData.class);
+    when(chunk.getStartingPos()).thenReturn(start);
+    when(chunk.getTotalSize()).thenReturn(size);
+    return chunk;
+  }
+
+  private static void assertRange(
+      long offset, long length, int chunks, ColumnChunkReadPlanner.Range range) {
+    assertEquals(offset, range.getOffset());
+    assertEquals(length, range.getLength());
+    assertEquals(chunks, range.getChunks().size());
+  }
+
+  @Test
+  public void testAdjacentChunksAreMerged() {
+    final ColumnChunkMetaData c1 = chunk(4, 100);
+    final ColumnChunkMetaData c2 = chunk(104, 50);
+    final ColumnChunkMetaData c3 = chunk(154, 10);
+    final List<ColumnChunkReadPlanner.Range> ranges =
+        ColumnChunkReadPlanner.plan(Arrays.asList(c3, c1, c2), 0, 1000);
+    assertEquals(1, ranges.size());
+    assertRange(4, 160, 3, ranges.get(0));
+    assertEquals(Arrays.asList(c1, c2, c3), ranges.get(0).getChunks());
+  }
+
+  @Test
+  public void testGap() {
+    final List<ColumnChunkMetaData> chunks =
+        Arrays.asList(chunk(0, 100), chunk(110, 100), chunk(300, 100));
+    List<ColumnChunkReadPlanner.Range> ranges = ColumnChunkReadPlanner.plan(chunks, 10, 1000);
+    assertEquals(2, ranges.size());
+    assertRange(0, 210, 2, ranges.get(0));
+    assertRange(300, 100, 1, ranges.get(1));
+
+    ranges = ColumnChunkReadPlanner.plan(chunks, 9, 1000);
+    assertEquals(3, ranges.size());
+
+    ranges = ColumnChunkReadPlanner.plan(chunks, 90, 1000);
+    assertEquals(1, ranges.size());
+    assertRange(0, 400, 3, ranges.get(0));
+  }
+
+  @Test
+  public void testMaxSize() {
+    final List<ColumnChunkMetaData> chunks =
+        Arrays.asList(chunk(0, 100), chunk(100, 100), chunk(200, 100), chunk(300, 500));
+    final List<ColumnChunkReadPlanner.Range> ranges =
+        ColumnChunkReadPlanner.plan(chunks, 0, 250);
+    assertEquals(3, ranges.size());
+    assertRange(0, 200, 2, ranges.get(0));
+    assertRange(200, 100, 1, ranges.get(1));
+    // a chunk larger than the maximum is read on its own
+    assertRange(300, 500, 1, ranges.get(2));
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionChangeListener;
+import com.dremio.options.OptionManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Tests for {@link ParquetFooterCache} */
+public class TestParquetFooterCache {
+  private static final long MAX_FOOTER_LEN =
+      ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR.getDefault().getNumVal();
+
+  private FileSystem fs;
+  private FileAttributes attributes;
+  private long mtime;
+
+  @Before
+  public void setup() throws Exception {
+    fs = HadoopFileSystem.getLocal(new Configuration());
+    attributes =
+        fs.getFileAttributes(
+            Path.of(getClass().getResource("/parquet/all_scalar_types.parquet").toURI()));
+    mtime = attributes.lastModifiedTime().toMillis();
+  }
+
+  private ParquetMetadata getFooter(ParquetFooterCache cache, long mtime) throws Exception {
+    try (SingleStreamProvider provider =
+        new SingleStreamProvider(
+            fs,
+            attributes.getPath(),
+            attributes.size(),
+            MAX_FOOTER_LEN,
+            false,
+            null,
+            null,
+            false,
+            null,
+            null)) {
+      return cache.getFooter(provider, fs, mtime, attributes.size(), MAX_FOOTER_LEN);
+    }
+  }
+
+  @Test
+  public void testFooterIsReadOnce() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final ParquetMetadata first = getFooter(cache, mtime);
+    final ParquetMetadata second = getFooter(cache, mtime);
+
+    assertEquals(1, cache.getStats().loadSuccessCount());
+    assertEquals(1, cache.getStats().hitCount());
+    assertEquals(1, cache.getEntryCount());
+    assertTrue(cache.getSize() > 0);
+    assertEquals(first.getBlocks().size(), second.getBlocks().size());
+    assertEquals(first.getFileMetaData().getSchema(), second.getFileMetaData().getSchema());
+  }
+
+  @Test
+  public void testTrimmingDoesNotAffectOtherReaders() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    final MutableParquetMetadata trimmed =
+        new MutableParquetMetadata(getFooter(cache, mtime), "all_scalar_types.parquet");
+    trimmed.removeRowGroupInformation(0);
+
+    assertNotNull(getFooter(cache, mtime).getBlocks().get(0));
+  }
+
+  @Test
+  public void testModifiedFileIsReadAgain() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    getFooter(cache, mtime);
+    getFooter(cache, mtime + 1);
+
+    assertEquals(2, cache.getStats().loadSuccessCount());
+    assertEquals(0, cache.getStats().hitCount());
+  }
+
+  @Test
+  public void testSizeBound() throws Exception {
+    final ParquetFooterCache cache = new ParquetFooterCache(1024 * 1024);
+    getFooter(cache, mtime);
+    final long footerSize = cache.getSize();
+
+    // room for a single footer
+    cache.setMaximumSize(footerSize);
+    getFooter(cache, mtime + 1);
+    getFooter(cache, mtime + 2);
+
+    assertEquals(1, cache.getEntryCount());
+    assertTrue(cache.getSize() <= footerSize);
+    assertTrue(cache.getStats().evictionCount() >= 2);
+  }
+
+  @Test
+  public void testResizedOnOptionChange() {
+    final OptionManager options = mock(OptionManager.class);
+    final ParquetFooterCache cache = new ParquetFooterCache(options);
+    final ArgumentCaptor<OptionChangeListener> listener =
+        ArgumentCaptor.forClass(OptionChangeListener.class);
+    verify(options).addOptionChangeListener(listener.capture());
+    assertEquals(
+        ExecConstants.PARQUET_FOOTER_CACHE_SIZE_BYTES.getDefault().getNumVal().longValue(),
+        cache.getMaximumSize());
+
+    when(options.getOption(ExecConstants.PARQUET_FOOTER_CACHE_SIZE_BYTES)).thenReturn(1024L);
+    listener.getValue().onChange();
+    assertEquals(1024L, cache.getMaximumSize());
+  }
+}
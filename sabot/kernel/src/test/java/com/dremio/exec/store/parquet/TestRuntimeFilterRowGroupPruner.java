@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.GZIP;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT32;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dremio.common.types.TypeProtos.MinorType;
+import com.dremio.exec.proto.ExecProtos;
+import com.dremio.exec.store.CompositeColumnFilter;
+import com.dremio.exec.store.RuntimeFilter;
+import com.dremio.exec.util.ValueListFilter;
+import com.dremio.exec.util.ValueListFilterBuilder;
+import com.dremio.test.AllocatorRule;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.types.Types;
+import org.apache.parquet.column.statistics.IntStatistics;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Types.PrimitiveBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/** Tests for {@link RuntimeFilterRowGroupPruner} */
+public class TestRuntimeFilterRowGroupPruner {
+  private static final PrimitiveType INT_TYPE =
+      new PrimitiveBuilder<>(PrimitiveType.class, INT32)
+          .as(LogicalTypeAnnotation.intType(32, true))
+          .named("id");
+
+  @Rule public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private BufferAllocator allocator;
+  private final ParquetColumnResolver resolver =
+      new ParquetColumnDefaultResolver(Collections.emptyList());
+
+  @Before
+  public void setup() {
+    allocator = allocatorRule.newAllocator("test-row-group-pruner", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void cleanup() {
+    allocator.close();
+  }
+
+  @Test
+  public void testChunkStatistics() throws Exception {
+    try (RuntimeFilter outOfRange = newFilter(1, 2, 3, 100);
+        RuntimeFilter inRange = newFilter(1, 20, 100)) {
+      final BlockMetaData block = newBlock(newColumn(chunkStats(10, 50), 1000));
+      final RuntimeFilterRowGroupPruner pruner =
+          new RuntimeFilterRowGroupPruner(block, resolver, null);
+
+      assertTrue(pruner.canSkip(Collections.singletonList(outOfRange)));
+      assertFalse(pruner.canSkip(Collections.singletonList(inRange)));
+    }
+  }
+
+  @Test
+  public void testOnlyNulls() throws Exception {
+    try (RuntimeFilter filter = newFilter(20)) {
+      final IntStatistics statistics = new IntStatistics();
+      statistics.setNumNulls(1000);
+      final BlockMetaData block = newBlock(newColumn(statistics, 1000));
+
+      assertTrue(
+          new RuntimeFilterRowGroupPruner(block, resolver, null)
+              .canSkip(Collections.singletonList(filter)));
+    }
+  }
+
+  @Test
+  public void testUnknownColumnNotSkipped() throws Exception {
+    try (RuntimeFilter filter = newFilter(1)) {
+      final ColumnChunkMetaData other =
+          ColumnChunkMetaData.get(
+              ColumnPath.get("other"),
+              INT32,
+              GZIP,
+              new HashSet<>(),
+              chunkStats(10, 50),
+              0,
+              0,
+              1000,
+              0,
+              0);
+
+      assertFalse(
+          new RuntimeFilterRowGroupPruner(newBlock(other), resolver, null)
+              .canSkip(Collections.singletonList(filter)));
+    }
+  }
+
+  @Test
+  public void testPageIndex() throws Exception {
+    final ColumnChunkMetaData column = newColumn(chunkStats(0, 100), 1000);
+    column.setColumnIndexReference(new IndexReference(4, 100));
+    final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(INT_TYPE, Integer.MAX_VALUE);
+    builder.add(chunkStats(0, 10));
+    builder.add(chunkStats(90, 100));
+    final ColumnIndex index = builder.build();
+
+    final InputStreamProvider provider = mock(InputStreamProvider.class);
+    when(provider.getColumnIndexProvider(any()))
+        .thenAnswer(invocation -> new ColumnIndexProvider(Collections.singletonMap(4L, index)));
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(newBlock(column), resolver, provider);
+
+    try (RuntimeFilter betweenPages = newFilter(50, 60);
+        RuntimeFilter inPage = newFilter(5, 50)) {
+      assertTrue(pruner.canSkip(Collections.singletonList(betweenPages)));
+      assertFalse(pruner.canSkip(Collections.singletonList(inPage)));
+    }
+  }
+
+  @Test
+  public void testTopNThreshold() {
+    final BlockMetaData block = newBlock(newColumn(chunkStats(10, 50), 1000));
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(block, resolver, null);
+
+    assertTrue(pruner.canSkip(Collections.singletonList(newThreshold(true, false, 60))));
+    assertFalse(pruner.canSkip(Collections.singletonList(newThreshold(true, false, 50))));
+    assertTrue(pruner.canSkip(Collections.singletonList(newThreshold(false, false, 5))));
+    assertFalse(pruner.canSkip(Collections.singletonList(newThreshold(false, false, 10))));
+  }
+
+  @Test
+  public void testTopNThresholdWithNullsFirst() {
+    final IntStatistics withNulls = chunkStats(10, 50);
+    withNulls.setNumNulls(10);
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(newBlock(newColumn(withNulls, 1000)), resolver, null);
+
+    assertFalse(pruner.canSkip(Collections.singletonList(newThreshold(true, true, 60))));
+    assertTrue(pruner.canSkip(Collections.singletonList(newThreshold(true, false, 60))));
+  }
+
+  @Test
+  public void testTopNThresholdTightened() {
+    final BlockMetaData block = newBlock(newColumn(chunkStats(10, 50), 1000));
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(block, resolver, null);
+    final RuntimeFilter threshold = newThreshold(true, false, 20);
+
+    assertFalse(pruner.canSkip(Collections.singletonList(threshold)));
+    assertFalse(threshold.getTopNThreshold().update(10));
+    assertTrue(threshold.getTopNThreshold().update(70));
+    assertTrue(pruner.canSkip(Collections.singletonList(threshold)));
+  }
+
+  @Test
+  public void testTopNThresholdPageIndex() {
+    final ColumnChunkMetaData column = newColumn(chunkStats(0, 100), 1000);
+    column.setColumnIndexReference(new IndexReference(4, 100));
+    final ColumnIndexBuilder builder = ColumnIndexBuilder.getBuilder(INT_TYPE, Integer.MAX_VALUE);
+    builder.add(chunkStats(0, 10));
+    builder.add(chunkStats(20, 30));
+    final ColumnIndex index = builder.build();
+
+    final InputStreamProvider provider = mock(InputStreamProvider.class);
+    when(provider.getColumnIndexProvider(any()))
+        .thenAnswer(invocation -> new ColumnIndexProvider(Collections.singletonMap(4L, index)));
+    final RuntimeFilterRowGroupPruner pruner =
+        new RuntimeFilterRowGroupPruner(newBlock(column), resolver, provider);
+
+    // the chunk statistics are wider than the values of the pages
+    assertTrue(pruner.canSkip(Collections.singletonList(newThreshold(true, false, 40))));
+    assertFalse(pruner.canSkip(Collections.singletonList(newThreshold(true, false, 25))));
+  }
+
+  private static RuntimeFilter newThreshold(boolean descending, boolean nullsFirst, long value) {
+    return RuntimeFilter.getInstance(
+        ExecProtos.TopNThreshold.newBuilder()
+            .setColumn("id")
+            .setType(MinorType.INT)
+            .setDescending(descending)
+            .setNullsFirst(nullsFirst)
+            .setValue(value)
+            .build(),
+        "test");
+  }
+
+  private RuntimeFilter newFilter(int... values) throws Exception {
+    final ValueListFilter valueList;
+    try (ValueListFilterBuilder builder =
+            new ValueListFilterBuilder(allocator, 100, (byte) 4, false);
+        ArrowBuf keyBuf = allocator.buffer(4)) {
+      builder.setup();
+      for (int value : values) {
+        keyBuf.setInt(0, value);
+        builder.insert(keyBuf);
+      }
+      builder.setName("test");
+      builder.setFieldName("id");
+      builder.setFieldType(Types.MinorType.INT);
+      valueList = builder.build();
+    }
+    final CompositeColumnFilter filter =
+        new CompositeColumnFilter.Builder()
+            .setFilterType(ExecProtos.RuntimeFilterType.VALUE_LIST)
+            .setColumnsList(Collections.singletonList("id"))
+            .setValueList(valueList)
+            .build();
+    return new RuntimeFilter(null, Collections.singletonList(filter), "test");
+  }
+
+  private static IntStatistics chunkStats(int min, int max) {
+    final IntStatistics statistics = (IntStatistics) Statistics.createStats(INT_TYPE);
+    statistics.updateStats(min);
+    statistics.updateStats(max);
+    return statistics;
+  }
+
+  private static ColumnChunkMetaData newColumn(Statistics<?> statistics, long valueCount) {
+    return ColumnChunkMetaData.get(
+        ColumnPath.get("id"),
+        INT_TYPE,
+        GZIP,
+        null,
+        new HashSet<>(),
+        statistics,
+        0,
+        0,
+        valueCount,
+        0,
+        0);
+  }
+
+  private static BlockMetaData newBlock(ColumnChunkMetaData column) {
+    final BlockMetaData block = new BlockMetaData();
+    block.addColumn(column);
+    return block;
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.dremio.exec.ExecConstants;
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.io.AsyncByteReader;
+import com.dremio.io.FSInputStream;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.FilterFileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.dremio.test.AllocatorRule;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+/** Tests for the coalesced reads of {@link StreamPerColumnProvider} */
+public class TestStreamPerColumnProvider {
+  private static final long MAX_FOOTER_LEN =
+      ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR.getDefault().getNumVal();
+
+  @Rule public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private FileSystem localFs;
+  private FileAttributes attributes;
+  private List<ColumnChunkMetaData> columns;
+  private List<byte[]> expected;
+
+  @Before
+  public void setup() throws Exception {
+    localFs = HadoopFileSystem.getLocal(new Configuration());
+    attributes =
+        localFs.getFileAttributes(
+            Path.of(getClass().getResource("/parquet/all_scalar_types.parquet").toURI()));
+    try (StreamPerColumnProvider provider = newProvider(localFs, null)) {
+      columns = provider.getFooter().getBlocks().get(0).getColumns();
+    }
+    assertTrue(columns.size() > 2);
+
+    try (BufferAllocator allocator = newAllocator()) {
+      final Chunks chunks =
+          readChunks(localFs, options(false, Long.MAX_VALUE, Long.MAX_VALUE, 60_000), allocator);
+      assertEquals(0, chunks.prefetched);
+      expected = chunks.bytes;
+    }
+  }
+
+  private BufferAllocator newAllocator() {
+    return allocatorRule.newAllocator("test-stream-per-column-provider", 0, Long.MAX_VALUE);
+  }
+
+  private StreamPerColumnProvider newProvider(FileSystem fs, OperatorContext context) {
+    return new StreamPerColumnProvider(
+        fs,
+        attributes.getPath(),
+        attributes.size(),
+        MAX_FOOTER_LEN,
+        null,
+        context,
+        false,
+        null,
+        null);
+  }
+
+  private static OptionManager options(
+      boolean coalesced, long maxSize, long maxTotal, long timeoutMillis) {
+    final OptionManager options = mock(OptionManager.class);
+    when(options.getOption(ExecConstants.PARQUET_COALESCED_READS)).thenReturn(coalesced);
+    when(options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_GAP)).thenReturn(1024L);
+    when(options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_SIZE)).thenReturn(maxSize);
+    when(options.getOption(ExecConstants.PARQUET_COALESCED_READS_MAX_TOTAL)).thenReturn(maxTotal);
+    when(options.getOption(ExecConstants.PARQUET_COALESCED_READS_TIMEOUT_MILLIS))
+        .thenReturn(timeoutMillis);
+    return options;
+  }
+
+  /** Bytes of the column chunks of the first row group, and how many were prefetched */
+  private static final class Chunks {
+    private final List<byte[]> bytes = new ArrayList<>();
+    private int prefetched;
+    private long prefetchedBytes;
+  }
+
+  private Chunks readChunks(FileSystem fs, OptionManager options, BufferAllocator allocator)
+      throws IOException {
+    final OperatorContext context = mock(OperatorContext.class);
+    when(context.getAllocator()).thenReturn(allocator);
+    when(context.getOptions()).thenReturn(options);
+
+    final Chunks chunks = new Chunks();
+    try (StreamPerColumnProvider provider = newProvider(fs, context)) {
+      provider.prefetchColumns(columns);
+      for (ColumnChunkMetaData column : columns) {
+        final BulkInputStream stream = provider.getStream(column);
+        if (stream instanceof PrefetchedColumnChunkInputStream) {
+          chunks.prefetched++;
+          chunks.prefetchedBytes += column.getTotalSize();
+        }
+        final byte[] bytes = new byte[(int) column.getTotalSize()];
+        stream.seek(column.getStartingPos());
+        stream.readFully(bytes, 0, bytes.length);
+        chunks.bytes.add(bytes);
+      }
+    }
+    return chunks;
+  }
+
+  private void assertSameChunks(Chunks chunks) {
+    assertEquals(expected.size(), chunks.bytes.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertArrayEquals(expected.get(i), chunks.bytes.get(i));
+    }
+  }
+
+  /** Local file system reading asynchronously through the given reader */
+  private FileSystem asyncFs(AsyncByteReader reader) {
+    return new FilterFileSystem(localFs) {
+      @Override
+      public boolean supportsAsync() {
+        return true;
+      }
+
+      @Override
+      public AsyncByteReader getAsyncByteReader(
+          AsyncByteReader.FileKey fileKey, Map<String, String> options) {
+        return reader;
+      }
+    };
+  }
+
+  private AsyncByteReader localReader() {
+    return (offset, dst, dstOffset, len) -> {
+      final byte[] bytes = new byte[len];
+      try (FSInputStream is = localFs.open(attributes.getPath())) {
+        is.setPosition(offset);
+        ByteStreams.readFully(is, bytes);
+      } catch (IOException e) {
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(e);
+        return failed;
+      }
+      dst.setBytes(dstOffset, bytes);
+      return CompletableFuture.completedFuture(null);
+    };
+  }
+
+  @Test
+  public void testCoalescedReads() throws Exception {
+    try (BufferAllocator allocator = newAllocator()) {
+      final Chunks chunks =
+          readChunks(
+              asyncFs(localReader()),
+              options(true, Long.MAX_VALUE, Long.MAX_VALUE, 60_000),
+              allocator);
+      assertEquals(columns.size(), chunks.prefetched);
+      assertSameChunks(chunks);
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() throws Exception {
+    assertFalse(ExecConstants.PARQUET_COALESCED_READS.getDefault().getBoolVal());
+    try (BufferAllocator allocator = newAllocator()) {
+      final Chunks chunks =
+          readChunks(
+              asyncFs(localReader()),
+              options(false, Long.MAX_VALUE, Long.MAX_VALUE, 60_000),
+              allocator);
+      assertEquals(0, chunks.prefetched);
+      assertSameChunks(chunks);
+    }
+  }
+
+  @Test
+  public void testTotalSizeCap() throws Exception {
+    long largest = 0;
+    long total = 0;
+    for (ColumnChunkMetaData column : columns) {
+      largest = Math.max(largest, column.getTotalSize());
+      total += column.getTotalSize();
+    }
+    // ranges of a single chunk each, only some of them fit under the cap
+    final long maxTotal = total / 2;
+    try (BufferAllocator allocator = newAllocator()) {
+      final Chunks chunks =
+          readChunks(asyncFs(localReader()), options(true, largest, maxTotal, 60_000), allocator);
+      assertTrue(chunks.prefetched < columns.size());
+      assertTrue(chunks.prefetchedBytes <= maxTotal);
+      assertSameChunks(chunks);
+    }
+  }
+
+  @Test
+  public void testSlowReadsFallBackToStreams() throws Exception {
+    final List<CompletableFuture<Void>> pending = new ArrayList<>();
+    final AsyncByteReader slowReader =
+        (offset, dst, dstOffset, len) -> {
+          final CompletableFuture<Void> read = new CompletableFuture<>();
+          pending.add(read);
+          return read;
+        };
+    try (BufferAllocator allocator = newAllocator()) {
+      final Chunks chunks =
+          readChunks(
+              asyncFs(slowReader), options(true, Long.MAX_VALUE, Long.MAX_VALUE, 10), allocator);
+      assertEquals(0, chunks.prefetched);
+      assertSameChunks(chunks);
+
+      // the buffers of the abandoned reads are released once they complete
+      assertFalse(pending.isEmpty());
+      pending.forEach(read -> read.complete(null));
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+}
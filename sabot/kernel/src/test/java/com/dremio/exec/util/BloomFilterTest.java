@@ -32,6 +32,7 @@ import java.util.Set;
 import java.util.UUID;
 import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVectorHelper;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -369,6 +370,121 @@ public class BloomFilterTest {
     assertEquals(1_198_132_336, BloomFilter.getOptimalSize(1_000_000_000));
   }
 
+  @Test
+  public void testSplitBlockFilter() {
+    try (final ArrowBuf keyBuf = bfTestAllocator.buffer(36);
+        final BloomFilter bloomFilter =
+            new BloomFilter(
+                bfTestAllocator, TEST_NAME, BloomFilter.getOptimalSize(1000, 0.01, true), true)) {
+      bloomFilter.setup();
+      assertTrue(bloomFilter.isSplitBlock());
+      assertEquals(8, bloomFilter.getNumHashFunctions());
+
+      Set<String> keySet1 = randomStrings(1000);
+      putAllStringKeys(bloomFilter, keyBuf, keySet1);
+      assertFalse(bloomFilter.isCrossingMaxFPP());
+
+      Set<String> keySet2 = randomStrings(10000);
+      keySet2.removeAll(keySet1); // ensure all are non-existing keys
+      int maxPermissibleErrors = (int) (0.03 * keySet2.size());
+      long errCount =
+          keySet2.stream()
+              .map(k -> writeKey(keyBuf, k))
+              .filter(key -> bloomFilter.mightContain(key, 36))
+              .count();
+      assertTrue(
+          "False positivity is higher than expected. Total errors: " + errCount,
+          errCount <= maxPermissibleErrors);
+
+      // Assert no false negatives, also after deserialization
+      BloomFilter deserializedFilter = BloomFilter.prepareFrom(bloomFilter.getDataBuffer(), true);
+      assertEquals(bloomFilter.getNumBitsSet(), deserializedFilter.getNumBitsSet());
+      keySet1.stream()
+          .map(k -> writeKey(keyBuf, k))
+          .forEach(key -> assertTrue(deserializedFilter.mightContain(key, 36)));
+    }
+  }
+
+  @Test
+  public void testSplitBlockExpectedFPP() {
+    try (final ArrowBuf keyBuf = bfTestAllocator.buffer(36);
+        final BloomFilter bloomFilter =
+            new BloomFilter(
+                bfTestAllocator, TEST_NAME, BloomFilter.getOptimalSize(1000, 0.01, true), true)) {
+      bloomFilter.setup();
+      // twice the insertions the filter was sized for
+      Set<String> keySet1 = randomStrings(2000);
+      putAllStringKeys(bloomFilter, keyBuf, keySet1);
+      assertTrue(bloomFilter.isCrossingMaxFPP());
+
+      Set<String> keySet2 = randomStrings(100_000);
+      keySet2.removeAll(keySet1); // ensure all are non-existing keys
+      long errCount =
+          keySet2.stream()
+              .map(k -> writeKey(keyBuf, k))
+              .filter(key -> bloomFilter.mightContain(key, 36))
+              .count();
+      double actualFpp = (double) errCount / (double) keySet2.size();
+      double estimatedFpp = bloomFilter.getExpectedFPP();
+      assertTrue(
+          String.format(
+              "Estimated FPP %f is far from the actual FPP %f .", estimatedFpp, actualFpp),
+          Math.abs(actualFpp - estimatedFpp) < 0.03);
+    }
+  }
+
+  @Test
+  public void testBatchMightContain() {
+    final int numKeys = 200;
+    try (final ArrowBuf keyBuf = bfTestAllocator.buffer(4);
+        final ArrowBuf keys = bfTestAllocator.buffer(numKeys * 4);
+        final ArrowBuf matches = bfTestAllocator.buffer(numKeys / 8);
+        final BloomFilter classic = new BloomFilter(bfTestAllocator, TEST_NAME, 544);
+        final BloomFilter splitBlock = new BloomFilter(bfTestAllocator, TEST_NAME, 544, true)) {
+      classic.setup();
+      splitBlock.setup();
+      for (int i = 0; i < numKeys; i++) {
+        keys.setInt(i * 4L, i);
+        if (i % 2 == 0) {
+          classic.put(writeKey(keyBuf, i), 4);
+          splitBlock.put(writeKey(keyBuf, i), 4);
+        }
+      }
+
+      for (BloomFilter bloomFilter : new BloomFilter[] {classic, splitBlock}) {
+        int expectedMatches = 0;
+        final int numMatches = bloomFilter.mightContain(keys, 4, numKeys, matches);
+        for (int i = 0; i < numKeys; i++) {
+          final boolean mightContain = bloomFilter.mightContain(writeKey(keyBuf, i), 4);
+          assertEquals(mightContain, BitVectorHelper.get(matches, i) == 1);
+          expectedMatches += mightContain ? 1 : 0;
+        }
+        assertEquals(expectedMatches, numMatches);
+        assertTrue(numMatches >= numKeys / 2);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentLayouts() {
+    try (final BloomFilter bloomFilter1 = new BloomFilter(bfTestAllocator, TEST_NAME, 544);
+        final BloomFilter bloomFilter2 = new BloomFilter(bfTestAllocator, TEST_NAME, 544, true)) {
+      bloomFilter1.setup();
+      bloomFilter2.setup();
+      bloomFilter1.merge(bloomFilter2);
+    }
+  }
+
+  @Test
+  public void testGetOptimalSplitBlockSize() {
+    assertEquals(96, BloomFilter.getOptimalSize(1, 0.01, true));
+    assertEquals(1_248, BloomFilter.getOptimalSize(1_000, 0.01, true));
+    assertEquals(BloomFilter.getOptimalSize(1_000), BloomFilter.getOptimalSize(1_000, 0.01, false));
+    assertTrue(
+        BloomFilter.getOptimalSize(1_000, 0.001, true)
+            > BloomFilter.getOptimalSize(1_000, 0.01, true));
+  }
+
   @Test
   public void testClose() {
     try (final BloomFilter f1 = new BloomFilter(bfTestAllocator, TEST_NAME, 64)) {
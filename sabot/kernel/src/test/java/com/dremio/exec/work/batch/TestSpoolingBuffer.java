@@ -15,16 +15,25 @@
  */
 package com.dremio.exec.work.batch;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import com.dremio.common.concurrent.CloseableThreadPool;
 import com.dremio.common.config.SabotConfig;
 import com.dremio.common.util.TestTools;
 import com.dremio.common.utils.protos.ExternalIdHelper;
 import com.dremio.config.DremioConfig;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.ExecTest;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
 import com.dremio.exec.proto.ExecRPC.FragmentRecordBatch;
@@ -42,7 +51,9 @@ import com.dremio.service.spill.DefaultSpillServiceOptions;
 import com.dremio.service.spill.SpillService;
 import com.dremio.service.spill.SpillServiceImpl;
 import com.dremio.test.AllocatorRule;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -113,6 +124,7 @@ public class TestSpoolingBuffer extends ExecTest {
                 queue,
                 handle,
                 spillService,
+                null,
                 spoolingAllocator,
                 1,
                 0,
@@ -186,6 +198,7 @@ public class TestSpoolingBuffer extends ExecTest {
                 queue,
                 handle,
                 spillService,
+                null,
                 spoolingAllocator,
                 1,
                 0,
@@ -291,6 +304,7 @@ public class TestSpoolingBuffer extends ExecTest {
                 queue,
                 handle,
                 spillService,
+                null,
                 spoolingAllocator,
                 1,
                 0,
@@ -333,10 +347,160 @@ public class TestSpoolingBuffer extends ExecTest {
     }
   }
 
+  @Test
+  public void testAsyncWriteThenRead() throws Exception {
+    SharedResource resource = mock(SharedResource.class);
+    QueryId queryId = ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId());
+    FragmentHandle handle =
+        FragmentHandle.newBuilder()
+            .setMajorFragmentId(0)
+            .setMinorFragmentId(0)
+            .setQueryId(queryId)
+            .build();
+    // nothing is spooled through the fragment work queue
+    FragmentWorkQueue queue = mock(FragmentWorkQueue.class);
+    OptionManager asyncOptions = spy(options);
+    doReturn(true).when(asyncOptions).getOption(ExecConstants.SPOOLING_BUFFER_ASYNC);
+    doReturn(true).when(asyncOptions).getOption(ExecConstants.SPOOLING_BUFFER_COMPRESSION);
+
+    SabotConfig config = SabotConfig.create();
+    final SpillService spillService = setupSpillService(config);
+
+    try (CloseableThreadPool spoolingPool =
+            CloseableThreadPool.newFixedThreadPool("test-spooling-buffer-", 2);
+        BufferAllocator spoolingAllocator =
+            allocatorRule.newAllocator("test-spooling-buffer", 0, Long.MAX_VALUE);
+        SpoolingRawBatchBuffer buffer =
+            new SpoolingRawBatchBuffer(
+                resource,
+                config,
+                asyncOptions,
+                queue,
+                handle,
+                spillService,
+                spoolingPool,
+                spoolingAllocator,
+                1,
+                0,
+                0)) {
+      buffer.init();
+
+      for (int i = 0; i < numBatchesToEnqueuePerIteration; i++) {
+        try (RawFragmentBatch batch = newBatch(i)) {
+          buffer.enqueue(batch);
+        }
+      }
+
+      // batches are acked once written to disk
+      verify(ackSender, timeout(45_000).times(numBatchesToEnqueuePerIteration)).sendOk();
+      assertEquals(6 * batchAllocateSize, allocator.getAllocatedMemory());
+      assertTrue(buffer.getSpooledBytesOnDisk() > 0);
+      assertTrue(buffer.getSpooledBytesOnDisk() < buffer.getSpooledBytes());
+
+      for (int i = 0; i < numBatchesToEnqueuePerIteration; i++) {
+        RawFragmentBatch batch = buffer.getNext();
+        checkBatch(batch, i);
+        batch.close();
+      }
+
+      assertNull(buffer.getNext());
+      assertEquals(0, allocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testCompressedBodiesOfSeveralChunks() throws Exception {
+    SharedResource resource = mock(SharedResource.class);
+    QueryId queryId = ExternalIdHelper.toQueryId(ExternalIdHelper.generateExternalId());
+    FragmentHandle handle =
+        FragmentHandle.newBuilder()
+            .setMajorFragmentId(0)
+            .setMinorFragmentId(0)
+            .setQueryId(queryId)
+            .build();
+    FragmentWorkQueue queue = mock(FragmentWorkQueue.class);
+    final ExecutorService executorService = Executors.newFixedThreadPool(1);
+    doAnswer(
+            invocationOnMock -> {
+              executorService.submit(invocationOnMock.getArgument(0, Runnable.class));
+              return null;
+            })
+        .when(queue)
+        .put(any(Runnable.class));
+    OptionManager compressOptions = spy(options);
+    doReturn(true).when(compressOptions).getOption(ExecConstants.SPOOLING_BUFFER_COMPRESSION);
+
+    SabotConfig config = SabotConfig.create();
+    final SpillService spillService = setupSpillService(config);
+    // chunks of zeros that compress, and random chunks that are written as is
+    final int bodySize = 200 * 1024 + 100;
+    final byte[][] bodies = new byte[4][];
+    final Random random = new Random(0);
+    for (int i = 0; i < bodies.length; i++) {
+      bodies[i] = new byte[bodySize];
+      random.nextBytes(bodies[i]);
+      Arrays.fill(bodies[i], i * 50 * 1024, (i + 2) * 50 * 1024, (byte) 0);
+    }
+
+    try (BufferAllocator spoolingAllocator =
+            allocatorRule.newAllocator("test-spooling-buffer", 0, Long.MAX_VALUE);
+        SpoolingRawBatchBuffer buffer =
+            new SpoolingRawBatchBuffer(
+                resource,
+                config,
+                compressOptions,
+                queue,
+                handle,
+                spillService,
+                null,
+                spoolingAllocator,
+                1,
+                0,
+                0)) {
+      buffer.init();
+
+      // the first batches are kept in memory, the others are spooled
+      for (int i = 0; i < 6; i++) {
+        try (RawFragmentBatch batch = newBatch(i)) {
+          buffer.enqueue(batch);
+        }
+      }
+      for (byte[] body : bodies) {
+        ArrowBuf buf = allocator.buffer(bodySize);
+        buf.setBytes(0, body);
+        try (RawFragmentBatch batch =
+            new RawFragmentBatch(FragmentRecordBatch.getDefaultInstance(), buf, ackSender)) {
+          buffer.enqueue(batch);
+        }
+      }
+
+      executorService.shutdown();
+      if (!executorService.awaitTermination(45, TimeUnit.SECONDS)) {
+        Assert.fail("Timed out while waiting for executor termination");
+      }
+      assertTrue(buffer.getSpooledBytesOnDisk() < buffer.getSpooledBytes());
+
+      for (int i = 0; i < 6; i++) {
+        try (RawFragmentBatch batch = buffer.getNext()) {
+          checkBatch(batch, i);
+        }
+      }
+      for (byte[] body : bodies) {
+        try (RawFragmentBatch batch = buffer.getNext()) {
+          final byte[] read = new byte[bodySize];
+          batch.getBody().getBytes(0, read);
+          assertArrayEquals(body, read);
+        }
+      }
+      assertNull(buffer.getNext());
+    }
+  }
+
   private AckSender ackSender = mock(AckSender.class);
 
   private RawFragmentBatch newBatch(int index) {
     ArrowBuf buffer = allocator.buffer(batchAllocateSize);
+    buffer.setZero(0, batchAllocateSize);
     buffer.setInt(0, index);
     return new RawFragmentBatch(FragmentRecordBatch.getDefaultInstance(), buffer, ackSender);
   }
@@ -19,6 +19,7 @@ import static com.dremio.exec.proto.UserBitShared.DremioPBError.ErrorType.FUNCTI
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
 
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.common.types.TypeProtos.MinorType;
@@ -33,7 +34,9 @@ import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.Fixtures.Table;
 import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.aggregate.hash.HashAggOperator;
+import com.dremio.sabot.op.aggregate.vectorized.HashAggStats;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
 import com.dremio.sabot.op.aggregate.vectorized.nospill.VectorizedHashAggOperatorNoSpill;
 import com.dremio.test.UserExceptionAssert;
@@ -271,6 +274,49 @@ public class TestHashAgg extends BaseTestOperator {
     validateAgg(conf, TpchTable.REGION, 0.1, expected);
   }
 
+  @Test
+  public void oneKeySumCntAdaptiveBypass() throws Exception {
+    HashAggregate conf =
+        new HashAggregate(
+            OpProps.prototype(),
+            null,
+            Arrays.asList(n("r_name")),
+            Arrays.asList(n("sum(r_regionkey)", "sum"), n("count(r_regionkey)", "cnt")),
+            true,
+            true,
+            1f,
+            OpProps.prototype().getTargetBatchSize(),
+            true);
+
+    // the keys are unique, so the partial aggregation switches after the first batch and outputs
+    // its groups after each batch of two records
+    final Table expected =
+        t(
+                th("r_name", "sum", "cnt"),
+                tr("AFRICA", 0L, 1L),
+                tr("AMERICA", 1L, 1L),
+                tr("ASIA", 2L, 1L),
+                tr("EUROPE", 3L, 1L),
+                tr("MIDDLE EAST", 4L, 1L))
+            .orderInsensitive();
+
+    try (AutoCloseable options =
+            with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_ADAPTIVE_BYPASS_SAMPLE_RECORDS, 1);
+        AutoCloseable options1 =
+            with(VectorizedHashAggOperator.VECTORIZED_HASHAGG_NUMPARTITIONS, 1);
+        AutoCloseable options2 = with(ExecConstants.HASHAGG_MAX_BATCH_SIZE, 2)) {
+      final OperatorStats stats =
+          validateSingle(
+              conf,
+              VectorizedHashAggOperator.class,
+              TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()),
+              expected,
+              2);
+      assertEquals(1, stats.getLongStat(HashAggStats.Metric.ADAPTIVE_BYPASS));
+      assertEquals(2, stats.getLongStat(HashAggStats.Metric.ADAPTIVE_BYPASS_FLUSHES));
+    }
+  }
+
   @Test
   public void booleanWork() throws Exception {
     HashAggregate conf =
@@ -164,6 +164,7 @@ public class TestFragmentExecutor {
         exception,
         eventProvider,
         spillService,
+        null,
         nodeDebugContextProvider);
   }
 }
@@ -106,6 +106,8 @@ public class TestFragmentExecutorBuilder extends DremioTest {
             mock(FunctionImplementationRegistry.class),
             getNodeDebugContext(rootAllocator),
             mock(SpillService.class),
+            null,
+            null,
             mock(CodeCompiler.class),
             mock(Set.class),
             mock(Provider.class),
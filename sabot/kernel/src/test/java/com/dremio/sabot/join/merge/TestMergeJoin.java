@@ -18,12 +18,16 @@ package com.dremio.sabot.join.merge;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.dremio.common.logical.data.JoinCondition;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.MergeJoinPOP;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures;
 import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.join.BaseTestJoin.JoinInfo;
 import com.dremio.sabot.join.hash.EmptyGenerator;
 import com.dremio.sabot.op.join.merge.MergeJoinOperator;
@@ -539,4 +543,57 @@ public class TestMergeJoin extends BaseTestOperator {
       noNullMultipleRowsData(joinInfo, expected);
     }
   }
+
+  @Test
+  public void duplicateRunsSpilled() throws Exception {
+    JoinInfo joinInfo =
+        getJoinInfo(
+            Arrays.asList(new JoinCondition("EQUALS", f("lkey"), f("rkey"))), JoinRelType.INNER);
+    final Table left = t(th("lid", "lkey"), tr(1L, 1L), tr(2L, 1L), tr(3L, 1L), tr(4L, 2L));
+    final Table right =
+        t(
+            th("rid", "rkey"),
+            tr(10L, 1L),
+            tr(11L, 1L),
+            tr(12L, 1L),
+            tr(13L, 1L),
+            tr(14L, 1L),
+            tr(20L, 2L),
+            tr(21L, 2L));
+    final Table expected =
+        t(
+            th("rid", "rkey", "lid", "lkey"),
+            tr(10L, 1L, 1L, 1L),
+            tr(11L, 1L, 1L, 1L),
+            tr(12L, 1L, 1L, 1L),
+            tr(13L, 1L, 1L, 1L),
+            tr(14L, 1L, 1L, 1L),
+            tr(10L, 1L, 2L, 1L),
+            tr(11L, 1L, 2L, 1L),
+            tr(12L, 1L, 2L, 1L),
+            tr(13L, 1L, 2L, 1L),
+            tr(14L, 1L, 2L, 1L),
+            tr(10L, 1L, 3L, 1L),
+            tr(11L, 1L, 3L, 1L),
+            tr(12L, 1L, 3L, 1L),
+            tr(13L, 1L, 3L, 1L),
+            tr(14L, 1L, 3L, 1L),
+            tr(20L, 2L, 4L, 2L),
+            tr(21L, 2L, 4L, 2L));
+
+    try (AutoCloseable ac = with(ExecConstants.MERGE_JOIN_SPILL_THRESHOLD, 1)) {
+      final OperatorStats stats =
+          validateDual(
+              joinInfo.operator,
+              joinInfo.clazz,
+              left.toGenerator(getTestAllocator()),
+              right.toGenerator(getTestAllocator()),
+              DEFAULT_SMALL_BATCH,
+              expected,
+              true);
+      // the run of key 1 is compared once, and replayed for the two following left records
+      assertEquals(8, stats.getLongStat(MergeJoinOperator.Metric.REPLAYED_RECORDS));
+      assertTrue(stats.getLongStat(MergeJoinOperator.Metric.SPILL_COUNT) > 0);
+    }
+  }
 }
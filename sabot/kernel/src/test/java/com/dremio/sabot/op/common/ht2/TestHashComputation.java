@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.common.ht2;
+
+import static org.junit.Assert.assertEquals;
+
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+import io.netty.util.internal.PlatformDependent;
+import java.util.Random;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.Rule;
+import org.junit.Test;
+
+/** Checks that the hashes computed for a whole batch are the ones of each key */
+public class TestHashComputation extends DremioTest {
+  private static final int RECORDS = 1023;
+  private static final long SEED = 17;
+
+  @Rule public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testFixedOnly() throws Exception {
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-hash-computation", 0, 1 << 24);
+        ArrowBuf hashes = allocator.buffer(RECORDS * 8)) {
+      for (int blockWidth = 4; blockWidth <= 72; blockWidth += 4) {
+        try (ArrowBuf fixed = allocator.buffer(RECORDS * blockWidth)) {
+          fill(fixed, RECORDS * blockWidth);
+          HashComputation.computeHash(
+              new BlockChunk(
+                  fixed.memoryAddress(),
+                  0,
+                  0,
+                  true,
+                  blockWidth,
+                  RECORDS,
+                  hashes.memoryAddress(),
+                  SEED));
+          for (int i = 0; i < RECORDS; i++) {
+            assertEquals(
+                LBlockHashTable.fixedKeyHashCode(
+                    fixed.memoryAddress() + (long) i * blockWidth, blockWidth, SEED),
+                hashes.getLong(i * 8L));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFixedAndVariable() throws Exception {
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-hash-computation", 0, 1 << 24);
+        ArrowBuf hashes = allocator.buffer(RECORDS * 8);
+        ArrowBuf var = allocator.buffer(RECORDS * 64)) {
+      // variable part of each key: length followed by the data
+      final int[] varOffsets = new int[RECORDS];
+      int varSize = 0;
+      for (int i = 0; i < RECORDS; i++) {
+        final int length = random.nextInt(40);
+        varOffsets[i] = varSize;
+        PlatformDependent.putInt(var.memoryAddress() + varSize, length);
+        for (int j = 0; j < length; j++) {
+          PlatformDependent.putByte(
+              var.memoryAddress() + varSize + 4 + j, (byte) random.nextInt());
+        }
+        varSize += 4 + length;
+      }
+
+      for (int blockWidth = 8; blockWidth <= 48; blockWidth += 4) {
+        final int dataWidth = blockWidth - LBlockHashTable.VAR_OFFSET_SIZE;
+        try (ArrowBuf fixed = allocator.buffer(RECORDS * blockWidth)) {
+          fill(fixed, RECORDS * blockWidth);
+          for (int i = 0; i < RECORDS; i++) {
+            PlatformDependent.putInt(
+                fixed.memoryAddress() + (long) i * blockWidth + dataWidth, varOffsets[i]);
+          }
+          HashComputation.computeHash(
+              new BlockChunk(
+                  fixed.memoryAddress(),
+                  var.memoryAddress(),
+                  varSize,
+                  false,
+                  blockWidth,
+                  RECORDS,
+                  hashes.memoryAddress(),
+                  SEED));
+          for (int i = 0; i < RECORDS; i++) {
+            final long keyVarAddr = var.memoryAddress() + varOffsets[i];
+            assertEquals(
+                LBlockHashTable.keyHashCode(
+                    fixed.memoryAddress() + (long) i * blockWidth,
+                    dataWidth,
+                    keyVarAddr,
+                    PlatformDependent.getInt(keyVarAddr),
+                    SEED),
+                hashes.getLong(i * 8L));
+          }
+        }
+      }
+    }
+  }
+
+  private void fill(ArrowBuf buf, int length) {
+    for (int i = 0; i < length; i++) {
+      buf.setByte(i, random.nextInt());
+    }
+  }
+}
@@ -16,16 +16,24 @@
 package com.dremio.sabot.op.sort.external;
 
 import static com.dremio.sabot.CustomGenerator.ID;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singletonList;
 import static org.apache.calcite.rel.RelFieldCollation.Direction.ASCENDING;
+import static org.apache.calcite.rel.RelFieldCollation.Direction.DESCENDING;
 import static org.apache.calcite.rel.RelFieldCollation.NullDirection.FIRST;
+import static org.apache.calcite.rel.RelFieldCollation.NullDirection.LAST;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.logical.data.Order.Ordering;
 import com.dremio.exec.expr.ClassProducer;
 import com.dremio.exec.physical.base.OpProps;
 import com.dremio.exec.physical.config.ExternalSort;
+import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.selection.SelectionVector4;
 import com.dremio.exec.testing.ExecutionControls;
@@ -34,8 +42,19 @@ import com.dremio.sabot.CustomGenerator;
 import com.dremio.sabot.exec.context.BufferManagerImpl;
 import com.dremio.sabot.op.copier.Copier;
 import com.dremio.sabot.op.copier.CopierOperator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.BufferManager;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.pojo.Field;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +64,20 @@ import org.mockito.stubbing.Answer;
 
 public class TestMemoryRun extends BaseTestOperator {
 
+  private static final Field K_INT = CompleteType.INT.toField("K_INT");
+  private static final Field K_BIGINT = CompleteType.BIGINT.toField("K_BIGINT");
+  private static final Field K_VARCHAR = CompleteType.VARCHAR.toField("K_VARCHAR");
+  private static final Field K_DECIMAL =
+      CompleteType.fromDecimalPrecisionScale(38, 2).toField("K_DECIMAL");
+  private static final BatchSchema SORT_KEYS_SCHEMA =
+      BatchSchema.newBuilder()
+          .addField(K_INT)
+          .addField(K_BIGINT)
+          .addField(K_VARCHAR)
+          .addField(K_DECIMAL)
+          .build();
+  private static final int SORT_KEYS_ROWS = 10_000;
+
   private final ExternalSort externalSort =
       new ExternalSort(
           OpProps.prototype(),
@@ -146,6 +179,103 @@ public class TestMemoryRun extends BaseTestOperator {
     }
   }
 
+  @Test
+  public void testRadixSorterCloseToCopier() throws Exception {
+    final VectorSortTracer tracer = new VectorSortTracer();
+    final RadixSorter.Stats radixSortStats = new RadixSorter.Stats();
+    try (MemoryRun memoryRun =
+        new MemoryRun(
+            externalSort.getOrderings(),
+            producer,
+            allocator,
+            generator.getSchema(),
+            tracer,
+            2,
+            false,
+            radixSortStats,
+            8192,
+            mock(ExecutionControls.class))) {
+      int totalAdded = addBatches(memoryRun);
+      validateCloseToCopier(memoryRun, 100, totalAdded);
+    }
+    assertEquals(1, radixSortStats.getRadixSortedRuns());
+    assertEquals(0, radixSortStats.getComparatorSortedRuns());
+  }
+
+  @Test
+  public void testRadixSorterCloseToDisk() throws Exception {
+    final VectorSortTracer tracer = new VectorSortTracer();
+    final RadixSorter.Stats radixSortStats = new RadixSorter.Stats();
+    try (MemoryRun memoryRun =
+        new MemoryRun(
+            externalSort.getOrderings(),
+            producer,
+            allocator,
+            generator.getSchema(),
+            tracer,
+            2,
+            false,
+            radixSortStats,
+            8192,
+            mock(ExecutionControls.class))) {
+      int totalAdded = addBatches(memoryRun);
+      validateCloseToDisk(memoryRun, totalAdded);
+    }
+    assertEquals(1, radixSortStats.getRadixSortedRuns());
+  }
+
+  @Test
+  public void testRadixSorterIntDescNullsLast() throws Exception {
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(ordering("K_INT", DESCENDING, LAST));
+    assertEquals(0, stats.getTiedRecords());
+  }
+
+  @Test
+  public void testRadixSorterMultipleFixedWidthKeys() throws Exception {
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(
+            ordering("K_INT", ASCENDING, FIRST), ordering("K_BIGINT", DESCENDING, FIRST));
+    assertEquals(0, stats.getTiedRecords());
+  }
+
+  @Test
+  public void testRadixSorterDecimal() throws Exception {
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(
+            ordering("K_DECIMAL", ASCENDING, FIRST), ordering("K_INT", DESCENDING, LAST));
+    assertEquals(0, stats.getTiedRecords());
+  }
+
+  @Test
+  public void testRadixSorterVarcharPrefixTies() throws Exception {
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(ordering("K_VARCHAR", ASCENDING, LAST));
+    // strings sharing their first bytes are ordered by the comparator
+    assertTrue(stats.getTiedRecords() > 0);
+  }
+
+  @Test
+  public void testRadixSorterKeysAfterVarchar() throws Exception {
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(
+            ordering("K_VARCHAR", DESCENDING, FIRST), ordering("K_INT", ASCENDING, LAST));
+    assertTrue(stats.getTiedRecords() > 0);
+  }
+
+  @Test
+  public void testRadixSorterKeysOverMaxWidth() throws Exception {
+    // the decimal, bigint and int columns fill the normalized key, the varchar column is compared
+    // by the comparator only
+    final RadixSorter.Stats stats =
+        validateRadixSortAgainstQuickSort(
+            ordering("K_DECIMAL", DESCENDING, LAST),
+            ordering("K_BIGINT", ASCENDING, LAST),
+            ordering("K_INT", DESCENDING, FIRST),
+            ordering("K_VARCHAR", ASCENDING, FIRST));
+    assertTrue(stats.getTiedRecords() > 0);
+  }
+
   @Test
   public void testQuickSortStartMicroSpilling() throws Exception {
     testStartMicroSpilling(false);
@@ -191,6 +321,116 @@ public class TestMemoryRun extends BaseTestOperator {
     }
   }
 
+  /**
+   * Sorts the same records with the radix sorter and with the quick sorter, and checks that the
+   * sort keys of the records come out in the same order.
+   *
+   * @return the metrics of the radix sort
+   */
+  private RadixSorter.Stats validateRadixSortAgainstQuickSort(Ordering... orderings)
+      throws Exception {
+    final RadixSorter.Stats stats = new RadixSorter.Stats();
+    final List<List<Object>> expected = sortKeys(Arrays.asList(orderings), null);
+    final List<List<Object>> actual = sortKeys(Arrays.asList(orderings), stats);
+
+    assertEquals(SORT_KEYS_ROWS, expected.size());
+    assertEquals(expected, actual);
+    assertEquals(1, stats.getRadixSortedRuns());
+    assertEquals(0, stats.getComparatorSortedRuns());
+    return stats;
+  }
+
+  /**
+   * Sorts records with many equal values, nulls, shared string prefixes and negative numbers in a
+   * single memory run.
+   *
+   * @param radixSortStats metrics of the radix sort, null to sort with QuickSort
+   * @return the sort keys of the sorted records
+   */
+  private List<List<Object>> sortKeys(List<Ordering> orderings, RadixSorter.Stats radixSortStats)
+      throws Exception {
+    final List<Field> keyFields = new ArrayList<>();
+    for (Ordering ordering : orderings) {
+      final String name = ((SchemaPath) ordering.getExpr()).getRootSegment().getPath();
+      keyFields.add(SORT_KEYS_SCHEMA.findFieldIgnoreCase(name).get());
+    }
+
+    final Random random = new Random(42);
+    final List<List<Object>> keys = new ArrayList<>();
+    try (BufferAllocator runAllocator =
+            getTestAllocator().newChildAllocator("test-radix-sort", 0, 16_000_000);
+        VectorContainer input = VectorContainer.create(getTestAllocator(), SORT_KEYS_SCHEMA);
+        MemoryRun memoryRun =
+            new MemoryRun(
+                orderings,
+                producer,
+                runAllocator,
+                SORT_KEYS_SCHEMA,
+                new VectorSortTracer(),
+                2,
+                false,
+                radixSortStats,
+                8192,
+                mock(ExecutionControls.class))) {
+      final IntVector intVector = input.addOrGet(K_INT);
+      final BigIntVector bigIntVector = input.addOrGet(K_BIGINT);
+      final VarCharVector varCharVector = input.addOrGet(K_VARCHAR);
+      final DecimalVector decimalVector = input.addOrGet(K_DECIMAL);
+      for (int start = 0; start < SORT_KEYS_ROWS; start += 4095) {
+        final int count = Math.min(4095, SORT_KEYS_ROWS - start);
+        input.allocateNew();
+        for (int i = 0; i < count; i++) {
+          final int row = start + i;
+          if (row % 17 == 0) {
+            intVector.setNull(i);
+          } else {
+            intVector.setSafe(i, random.nextInt(101) - 50);
+          }
+          if (row % 19 == 0) {
+            bigIntVector.setNull(i);
+          } else {
+            final long value = random.nextBoolean() ? random.nextLong() : random.nextInt(5) - 2;
+            bigIntVector.setSafe(i, value);
+          }
+          if (row % 13 == 0) {
+            varCharVector.setNull(i);
+          } else {
+            final String[] values = {"", "s", "shared", "shared__" + random.nextInt(50), "t"};
+            varCharVector.setSafe(i, values[random.nextInt(values.length)].getBytes(UTF_8));
+          }
+          if (row % 11 == 0) {
+            decimalVector.setNull(i);
+          } else {
+            final BigDecimal value =
+                random.nextInt(10) == 0
+                    ? new BigDecimal("123456789012345678901234567890.12")
+                    : BigDecimal.valueOf(random.nextInt(2001) - 1000, 2);
+            decimalVector.setSafe(i, random.nextBoolean() ? value : value.negate());
+          }
+        }
+        input.setAllCount(count);
+        assertTrue(memoryRun.addBatch(input));
+      }
+
+      try (VectorContainer output = VectorContainer.create(getTestAllocator(), SORT_KEYS_SCHEMA);
+          MovingCopier copier = memoryRun.closeToCopier(output, 4095)) {
+        int copied = copier.copy(4095);
+        while (copied > 0) {
+          output.setAllCount(copied);
+          for (int i = 0; i < copied; i++) {
+            final List<Object> row = new ArrayList<>();
+            for (Field field : keyFields) {
+              row.add(output.<ValueVector>addOrGet(field).getObject(i));
+            }
+            keys.add(row);
+          }
+          copied = copier.copy(4095);
+        }
+      }
+    }
+    return keys;
+  }
+
   /**
    * Adds batches from generator to memory run until all batches are added or the memory run cannot
    * accept more batches in memory
@@ -19,18 +19,38 @@ import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.tb;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.dremio.common.config.SabotConfig;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.physical.config.RuntimeFilterProbeTarget;
 import com.dremio.exec.physical.config.TopN;
+import com.dremio.exec.planner.fragment.EndpointsIndex;
+import com.dremio.exec.proto.CoordExecRPC.FragmentAssignment;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.ExecProtos;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.Fixtures.Table;
+import com.dremio.sabot.Generator;
+import com.dremio.sabot.exec.context.DelegatingOperatorContext;
+import com.dremio.sabot.exec.context.OperatorContextImpl;
+import com.dremio.sabot.exec.fragment.OutOfBandMessage;
+import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
+import com.dremio.sabot.exec.rpc.TunnelProvider;
 import com.dremio.sabot.op.sort.topn.TopNOperator;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import org.apache.calcite.rel.RelFieldCollation.Direction;
 import org.apache.calcite.rel.RelFieldCollation.NullDirection;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class TestTopN extends BaseTestOperator {
 
@@ -81,4 +101,72 @@ public class TestTopN extends BaseTestOperator {
             false);
     validateSingle(topn, TopNOperator.class, input, output);
   }
+
+  @Test
+  public void topNSendsThreshold() throws Exception {
+    final Table input =
+        t(th("c0"), tb(tr(35), tr(8)), tb(tr(22), tr(17), tr(15)), tb(tr(12), tr(42), tr(18)));
+    final TopN topn =
+        new TopN(
+            PROPS,
+            null,
+            4,
+            Collections.singletonList(ordering("c0", Direction.ASCENDING, NullDirection.FIRST)),
+            false,
+            new RuntimeFilterProbeTarget.Builder(1, 2).addNonPartitionKey("c0", "c1").build());
+
+    final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
+    final TunnelProvider tunnelProvider = mock(TunnelProvider.class);
+    when(tunnelProvider.getExecTunnel(any(NodeEndpoint.class))).thenReturn(tunnel);
+    final EndpointsIndex endpointsIndex = mock(EndpointsIndex.class);
+    when(endpointsIndex.getNodeEndpoint(anyInt())).thenReturn(NodeEndpoint.getDefaultInstance());
+
+    final OperatorContextImpl operatorContext =
+        testContext.getNewOperatorContext(
+            getTestAllocator().newChildAllocator("topn", 0, Long.MAX_VALUE), topn, DEFAULT_BATCH);
+    testCloseables.add(operatorContext);
+    // the scan runs in the same minor fragment as the TopN
+    final DelegatingOperatorContext context =
+        new DelegatingOperatorContext(operatorContext) {
+          @Override
+          public TunnelProvider getTunnelProvider() {
+            return tunnelProvider;
+          }
+
+          @Override
+          public List<FragmentAssignment> getAssignments() {
+            return Collections.singletonList(
+                FragmentAssignment.newBuilder()
+                    .addMinorFragmentId(getFragmentHandle().getMinorFragmentId())
+                    .setAssignmentIndex(0)
+                    .build());
+          }
+
+          @Override
+          public EndpointsIndex getEndpointsIndex() {
+            return endpointsIndex;
+          }
+        };
+
+    try (AutoCloseable ignored = with(ExecConstants.TOPN_RUNTIME_FILTER_INTERVAL_BATCHES, 1);
+        Generator generator = input.toGenerator(getTestAllocator());
+        TopNOperator operator = new TopNOperator(context, topn)) {
+      operator.setup(generator.getOutput());
+      int count;
+      while ((count = generator.next(DEFAULT_BATCH)) != 0) {
+        operator.consumeData(count);
+      }
+    }
+
+    // sent once the TopN is full, then again when the last row kept gets tighter
+    final ArgumentCaptor<OutOfBandMessage> captor = ArgumentCaptor.forClass(OutOfBandMessage.class);
+    verify(tunnel, times(2)).sendOOBMessage(captor.capture());
+    final OutOfBandMessage message = captor.getAllValues().get(1);
+    assertEquals(1, message.getMajorFragmentId());
+    assertEquals(2, message.getOperatorId());
+    final ExecProtos.TopNThreshold threshold =
+        message.getPayload(ExecProtos.TopNThreshold.parser());
+    assertEquals("c1", threshold.getColumn());
+    assertEquals(17, threshold.getValue());
+  }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.task.slicing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.dremio.sabot.task.AsyncTask;
+import com.dremio.sabot.task.AsyncTaskWrapper;
+import com.dremio.sabot.task.SchedulingGroup;
+import com.dremio.sabot.task.Task;
+import com.dremio.sabot.task.TaskDescriptor;
+import com.dremio.sabot.threads.AvailabilityCallback;
+import com.dremio.sabot.threads.sharedres.SharedResourceType;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests for {@link SlicingTaskPool} */
+public class TestSlicingTaskPool {
+
+  private SlicingTaskPool pool;
+
+  @Before
+  public void setup() {
+    pool = new SlicingTaskPool(2, false);
+  }
+
+  @After
+  public void cleanup() throws Exception {
+    pool.close();
+  }
+
+  /** Task that runs a fixed number of slices, optionally blocking after each slice. */
+  private static class CountingTask implements AsyncTask {
+    private final int numSlices;
+    private final boolean blockAfterEachSlice;
+    final AtomicInteger slicesRun = new AtomicInteger();
+    private volatile Task.State state = Task.State.RUNNABLE;
+    private volatile AvailabilityCallback callback;
+
+    CountingTask(int numSlices, boolean blockAfterEachSlice) {
+      this.numSlices = numSlices;
+      this.blockAfterEachSlice = blockAfterEachSlice;
+    }
+
+    @Override
+    public void run() {
+      if (slicesRun.incrementAndGet() >= numSlices) {
+        state = Task.State.DONE;
+      } else if (blockAfterEachSlice) {
+        state = Task.State.BLOCKED_ON_UPSTREAM;
+      }
+    }
+
+    void wakeUp() {
+      final AvailabilityCallback cb = callback;
+      if (cb != null) {
+        callback = null;
+        cb.nowAvailable();
+      }
+    }
+
+    @Override
+    public void refreshState() {
+      state = Task.State.RUNNABLE;
+    }
+
+    @Override
+    public Task.State getState() {
+      return state;
+    }
+
+    @Override
+    public String getTaskId() {
+      return "counting-task";
+    }
+
+    @Override
+    public SharedResourceType getFirstBlockedResource() {
+      return null;
+    }
+
+    @Override
+    public void updateSleepDuration(long duration) {}
+
+    @Override
+    public void updateBlockedOnDownstreamDuration(long duration) {}
+
+    @Override
+    public void updateBlockedOnUpstreamDuration(long duration) {}
+
+    @Override
+    public void updateBlockedOnMemoryDuration(long duration) {}
+
+    @Override
+    public void addBlockedOnSharedResourceDuration(SharedResourceType resource, long duration) {}
+
+    @Override
+    public void setWakeupCallback(AvailabilityCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void setTaskDescriptor(TaskDescriptor descriptor) {}
+  }
+
+  private AsyncTaskWrapper newTask(
+      SchedulingGroup<AsyncTaskWrapper> group, CountingTask task, CountDownLatch done) {
+    return new AsyncTaskWrapper(1, group, task, done::countDown, Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void testRunnableTasksComplete() throws Exception {
+    final SchedulingGroup<AsyncTaskWrapper> workload = pool.getGroupManager().newGroup(100);
+    final SchedulingGroup<AsyncTaskWrapper> query = workload.addGroup(1);
+
+    final int numTasks = 50;
+    final CountDownLatch done = new CountDownLatch(numTasks);
+    final CountingTask[] tasks = new CountingTask[numTasks];
+    for (int i = 0; i < numTasks; i++) {
+      tasks[i] = new CountingTask(100, false);
+      pool.execute(newTask(query, tasks[i], done));
+    }
+
+    assertTrue(done.await(30, TimeUnit.SECONDS));
+    for (CountingTask task : tasks) {
+      assertEquals(100, task.slicesRun.get());
+    }
+    assertEquals(0, pool.getNumRunnableTasks());
+  }
+
+  @Test
+  public void testBlockedTasksDoNotHoldThreads() throws Exception {
+    final SchedulingGroup<AsyncTaskWrapper> query =
+        pool.getGroupManager().newGroup(100).addGroup(1);
+
+    // many more blocked tasks than threads
+    final int numTasks = 20;
+    final CountDownLatch done = new CountDownLatch(numTasks);
+    final CountingTask[] tasks = new CountingTask[numTasks];
+    for (int i = 0; i < numTasks; i++) {
+      tasks[i] = new CountingTask(3, true);
+      pool.execute(newTask(query, tasks[i], done));
+    }
+
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while (done.getCount() > 0 && System.currentTimeMillis() < deadline) {
+      for (CountingTask task : tasks) {
+        task.wakeUp();
+      }
+      Thread.sleep(1);
+    }
+
+    assertEquals(0, done.getCount());
+    for (CountingTask task : tasks) {
+      assertEquals(3, task.slicesRun.get());
+    }
+  }
+
+  @Test
+  public void testPicksByWeight() throws Exception {
+    // drives the scheduler directly, charging every slice the same time, so the picks only depend
+    // on the weights
+    final WeightedScheduler scheduler = new WeightedScheduler(1);
+    // query groups of a workload that doesn't use weight based scheduling, as in QueryTicket
+    final SchedulingGroup<AsyncTaskWrapper> workload = scheduler.newGroup(100);
+    final SchedulingGroup<AsyncTaskWrapper> heavy = workload.addGroup(3, false);
+    final SchedulingGroup<AsyncTaskWrapper> light = workload.addGroup(1, false);
+
+    final CountDownLatch done = new CountDownLatch(2);
+    final AsyncTaskWrapper heavyTask = newTask(heavy, new CountingTask(1000, false), done);
+    final AsyncTaskWrapper lightTask = newTask(light, new CountingTask(1000, false), done);
+    heavy.addTask(heavyTask, 1);
+    light.addTask(lightTask, 1);
+
+    int heavyPicks = 0;
+    int lightPicks = 0;
+    for (int i = 0; i < 400; i++) {
+      final WeightedScheduler.TaskEntry entry = scheduler.take(0);
+      if (entry.getTask() == heavyTask) {
+        heavyPicks++;
+      } else {
+        assertEquals(lightTask, entry.getTask());
+        lightPicks++;
+      }
+      scheduler.runEnded(entry, TimeUnit.MILLISECONDS.toNanos(1), true);
+    }
+    scheduler.close();
+
+    // the heavy query runs three slices for every slice of the light one
+    assertTrue("heavy query ran " + heavyPicks + " slices", Math.abs(heavyPicks - 300) <= 1);
+    assertTrue("light query ran " + lightPicks + " slices", Math.abs(lightPicks - 100) <= 1);
+  }
+}
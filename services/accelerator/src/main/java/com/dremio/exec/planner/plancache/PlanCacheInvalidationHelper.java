@@ -81,7 +81,8 @@ public class PlanCacheInvalidationHelper implements AutoCloseable {
     while (!configQueue.isEmpty()) {
       DatasetConfig config = configQueue.remove();
       if (config.getType().getNumber() > 1) { // physical dataset types
-        planCache.invalidateCacheOnDataset(config.getId().getId());
+        // every coordinator goes through the same reflection changes, no need to share this
+        planCache.invalidateLocalCacheOnDataset(config.getId().getId());
       } else if (config.getType() == DatasetType.VIRTUAL_DATASET
           && config.getVirtualDataset().getParentsList() != null) {
         for (ParentDataset parent : config.getVirtualDataset().getParentsList()) {
@@ -108,6 +109,11 @@ public class PlanCacheInvalidationHelper implements AutoCloseable {
     planCache.getCachePlans().invalidateAll();
   }
 
+  /** Applies the plan cache invalidations made on other coordinators. */
+  public void syncInvalidations() {
+    planCache.syncInvalidations();
+  }
+
   public boolean isPlanCacheEnabled() {
     return optionResolver.getOption(PlannerSettings.QUERY_PLAN_CACHE_ENABLED);
   }
@@ -87,6 +87,12 @@ public class PlanCacheSynchronizer {
         return;
       }
 
+      try {
+        helper.syncInvalidations();
+      } catch (Exception ex) {
+        logger.warn("Error while applying plan cache invalidations of other coordinators", ex);
+      }
+
       Set<String> datasetsFromEntries = getAffectedDatasetsFromEntries(lastUpdatedOn);
       Set<String> datasetsFromGoals = getAffectedDatasetsFromGoals(lastUpdatedOn);
 
@@ -18,14 +18,17 @@ package com.dremio.service.reflection;
 import static com.dremio.service.reflection.ExternalReflectionStatus.STATUS.OUT_OF_SYNC;
 import static com.dremio.service.reflection.ReflectionMetrics.TAG_SOURCE_DOWN;
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_ENABLED;
+import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_EXPANSION_THREADS;
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_INIT_TIMEOUT_SECONDS;
 
+import com.dremio.common.concurrent.CloseableThreadPool;
 import com.dremio.common.util.DremioVersionInfo;
 import com.dremio.exec.calcite.logical.ScanCrel;
 import com.dremio.exec.catalog.Catalog;
 import com.dremio.exec.catalog.CatalogUtil;
 import com.dremio.exec.catalog.EntityExplorer;
 import com.dremio.exec.planner.acceleration.DremioMaterialization;
+import com.dremio.exec.planner.acceleration.MaterializationIndex;
 import com.dremio.exec.planner.acceleration.descriptor.ExpandedMaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.descriptor.MaterializationDescriptor;
 import com.dremio.exec.planner.common.PlannerMetrics;
@@ -49,6 +52,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -63,10 +67,19 @@ import io.protostuff.ByteString;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelShuttleImpl;
@@ -75,6 +88,11 @@ import org.apache.calcite.rel.core.TableScan;
 /**
  * Cache for {@link MaterializationDescriptor} to avoid having to expand all the descriptor's plans
  * for every planned query.
+ *
+ * <p>The materializations new to the cache are expanded in parallel, on up to {@link
+ * ReflectionOptions#MATERIALIZATION_CACHE_EXPANSION_THREADS} threads each using its own catalog.
+ * The normalized plans they are expanded from are persisted in the materialization plan store, so
+ * that a restarted coordinator only deserializes them.
  */
 class MaterializationCache {
   private static final org.slf4j.Logger logger =
@@ -85,6 +103,10 @@ class MaterializationCache {
   private final AtomicReference<Map<String, ExpandedMaterializationDescriptor>> cached =
       new AtomicReference<>(EMPTY_MAP);
 
+  // Index of the cached descriptors, rebuilt on lookup after the cache changes
+  private final Object indexLock = new Object();
+  private volatile IndexedCache index = new IndexedCache(EMPTY_MAP, MaterializationIndex.EMPTY);
+
   private final CountDownLatch latch;
 
   private final Meter.MeterProvider<Timer> syncHistogram;
@@ -95,6 +117,13 @@ class MaterializationCache {
   // Permanent failures where materialization is marked as FAILED
   private final Meter.MeterProvider<Counter> retryFailedCounter;
 
+  // Materializations expanded, and time spent expanding each of them
+  private final Meter.MeterProvider<Counter> expansionCounter;
+  private final Meter.MeterProvider<Timer> expansionTimer;
+
+  // Materializations left to expand by the running update
+  private final AtomicInteger pendingExpansions = new AtomicInteger();
+
   /**
    * This retryMap tracks the timestamp of the first attempt to update a materialization into the
    * materialization cache. Each update may rebuild the materialization plan, de-serialize the plan
@@ -193,6 +222,20 @@ class MaterializationCache {
                 ReflectionMetrics.createName(ReflectionMetrics.MAT_CACHE_RETRY_FAILED))
             .description("Counter for materialization cache retry failures")
             .withRegistry(io.micrometer.core.instrument.Metrics.globalRegistry);
+    expansionCounter =
+        Counter.builder(ReflectionMetrics.createName(ReflectionMetrics.MAT_CACHE_EXPANSIONS))
+            .description("Counter for materializations expanded by materialization cache updates")
+            .withRegistry(Metrics.globalRegistry);
+    expansionTimer =
+        Timer.builder(ReflectionMetrics.createName(ReflectionMetrics.MAT_CACHE_EXPANSION_TIME))
+            .description("Histogram of materialization expansion times")
+            .publishPercentileHistogram()
+            .withRegistry(Metrics.globalRegistry);
+    Gauge.builder(
+            ReflectionMetrics.createName(ReflectionMetrics.MAT_CACHE_PENDING_EXPANSIONS),
+            pendingExpansions::get)
+        .description("Number of materializations left to expand by the materialization cache")
+        .register(Metrics.globalRegistry);
   }
 
   static final class CacheException extends Exception {
@@ -274,15 +317,12 @@ class MaterializationCache {
     // reuse all descriptors that are already in the cache
     // add any descriptor that are not already cached
     final Catalog catalog = CatalogUtil.getSystemCatalogForMaterializationCache(catalogService);
+    final List<Materialization> toExpand = new ArrayList<>();
     for (Materialization materialization : provided) {
       final ExpandedMaterializationDescriptor cachedDescriptor =
           old.get(materialization.getId().getId());
       if (cachedDescriptor == null || schemaChanged(cachedDescriptor, materialization, catalog)) {
-        if (updateMaterializationEntry(updated, materialization, catalog)) {
-          materializationExpandCount++;
-        } else {
-          materializationErrorCount++;
-        }
+        toExpand.add(materialization);
       } else {
         // Descriptor already in the cache, we can just reuse it.
         // If materialization staleness changes after materialization is expanded and cached,
@@ -298,6 +338,10 @@ class MaterializationCache {
         materializationReuseCount++;
       }
     }
+    if (!toExpand.isEmpty()) {
+      materializationExpandCount = expandMaterializations(toExpand, updated, catalog);
+      materializationErrorCount = toExpand.size() - materializationExpandCount;
+    }
 
     int externalExpandCount = 0;
     int externalReuseCount = 0;
@@ -348,6 +392,82 @@ class MaterializationCache {
     return updated;
   }
 
+  /**
+   * Expands the materializations into the cache. When several threads are allowed, each one polls
+   * the materializations to expand from a shared queue and uses its own catalog.
+   *
+   * @return number of materializations expanded
+   */
+  private int expandMaterializations(
+      List<Materialization> materializations,
+      Map<String, ExpandedMaterializationDescriptor> cache,
+      Catalog catalog) {
+    final Queue<Materialization> queue = new ConcurrentLinkedQueue<>(materializations);
+    final int threads =
+        (int)
+            Math.min(
+                materializations.size(),
+                optionManager.getOption(MATERIALIZATION_CACHE_EXPANSION_THREADS));
+    pendingExpansions.set(materializations.size());
+    try {
+      if (threads <= 1) {
+        return expandQueued(queue, cache, catalog);
+      }
+
+      final List<Callable<Map<String, ExpandedMaterializationDescriptor>>> tasks =
+          new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        tasks.add(
+            () -> {
+              final Catalog threadCatalog =
+                  CatalogUtil.getSystemCatalogForMaterializationCache(catalogService);
+              final Map<String, ExpandedMaterializationDescriptor> expanded = new HashMap<>();
+              try {
+                expandQueued(queue, expanded, threadCatalog);
+              } finally {
+                CatalogUtil.clearAllDatasetCache(threadCatalog);
+              }
+              return expanded;
+            });
+      }
+
+      int expandedCount = 0;
+      try (CloseableThreadPool pool =
+          CloseableThreadPool.newFixedThreadPool("materialization-cache-expansion", threads)) {
+        for (Future<Map<String, ExpandedMaterializationDescriptor>> future :
+            pool.invokeAll(tasks)) {
+          final Map<String, ExpandedMaterializationDescriptor> expanded = future.get();
+          cache.putAll(expanded);
+          expandedCount += expanded.size();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while expanding materializations", e);
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new RuntimeException(e.getCause());
+      }
+      return expandedCount;
+    } finally {
+      pendingExpansions.set(0);
+    }
+  }
+
+  private int expandQueued(
+      Queue<Materialization> queue,
+      Map<String, ExpandedMaterializationDescriptor> cache,
+      Catalog catalog) {
+    int expandedCount = 0;
+    Materialization materialization;
+    while ((materialization = queue.poll()) != null) {
+      if (updateMaterializationEntry(cache, materialization, catalog)) {
+        expandedCount++;
+      }
+      pendingExpansions.decrementAndGet();
+    }
+    return expandedCount;
+  }
+
   private boolean isExternalReflectionMetadataUpdated(
       ExpandedMaterializationDescriptor descriptor, EntityExplorer catalog) {
     DremioMaterialization materialization = descriptor.getMaterialization();
@@ -439,9 +559,15 @@ class MaterializationCache {
       Span.current()
           .setAttribute(
               "dremio.materialization_cache.materialization_id", materialization.getId().getId());
+      final long start = System.nanoTime();
       final ExpandedMaterializationDescriptor descriptor =
           provider.expand(materialization, catalog);
       if (descriptor != null) {
+        final String initial = isInitialized() ? "false" : "true";
+        expansionTimer
+            .withTag(ReflectionMetrics.TAG_MAT_CACHE_INITIAL, initial)
+            .record(Duration.ofNanos(System.nanoTime() - start));
+        expansionCounter.withTag(ReflectionMetrics.TAG_MAT_CACHE_INITIAL, initial).increment();
         cache.put(materialization.getId().getId(), descriptor);
         retryMap.invalidate(materialization.getId());
         return true;
@@ -547,6 +673,33 @@ class MaterializationCache {
    * the materialization cache.
    */
   Iterable<MaterializationDescriptor> getAll() {
+    awaitInitialization();
+    return Iterables.unmodifiableIterable(cached.get().values());
+  }
+
+  /**
+   * Returns the index of the cached materialization descriptors, to look up the ones a query may
+   * be accelerated by. Blocks on initialization of the materialization cache.
+   */
+  MaterializationIndex getIndex() {
+    awaitInitialization();
+    final Map<String, ExpandedMaterializationDescriptor> current = cached.get();
+    IndexedCache indexed = index;
+    if (indexed.source == current) {
+      return indexed.index;
+    }
+    synchronized (indexLock) {
+      indexed = index;
+      if (indexed.source != current) {
+        indexed =
+            new IndexedCache(current, MaterializationIndex.create(current.values(), indexed.index));
+        index = indexed;
+      }
+      return indexed.index;
+    }
+  }
+
+  private void awaitInitialization() {
     boolean success;
     try {
       success =
@@ -560,7 +713,6 @@ class MaterializationCache {
       throw new MaterializationCacheTimeoutException(
           "Timed out waiting for materialization cache to initialize.");
     }
-    return Iterables.unmodifiableIterable(cached.get().values());
   }
 
   boolean isInitialized() {
@@ -592,4 +744,16 @@ class MaterializationCache {
   LoadingCache<MaterializationId, Long> getRetryMap() {
     return retryMap;
   }
+
+  /** Index of the descriptors of a cache map */
+  private static final class IndexedCache {
+    private final Map<String, ExpandedMaterializationDescriptor> source;
+    private final MaterializationIndex index;
+
+    private IndexedCache(
+        Map<String, ExpandedMaterializationDescriptor> source, MaterializationIndex index) {
+      this.source = source;
+      this.index = index;
+    }
+  }
 }
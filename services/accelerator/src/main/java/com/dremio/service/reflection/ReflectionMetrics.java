@@ -42,6 +42,12 @@ public class ReflectionMetrics {
   public static final String MAT_CACHE_ERRORS = "materialization_cache_errors";
   // Counter for materialization cache retry failures (permanent failures only)
   public static final String MAT_CACHE_RETRY_FAILED = "materialization_cache_retry_failed";
+  // Counter and histogram of the materializations expanded by materialization cache updates
+  public static final String MAT_CACHE_EXPANSIONS = "materialization_cache_expansions";
+  public static final String MAT_CACHE_EXPANSION_TIME = "materialization_cache_expansion_time";
+  // Gauge for materializations left to expand by the running materialization cache update
+  public static final String MAT_CACHE_PENDING_EXPANSIONS =
+      "materialization_cache_pending_expansions";
   // Reflection manager sync histogram
   public static final String RM_SYNC = "manager_sync";
 
@@ -63,6 +63,9 @@ public interface ReflectionOptions {
   PositiveLongValidator MATERIALIZATION_CACHE_INIT_TIMEOUT_SECONDS =
       new PositiveLongValidator(
           "reflection.materialization.cache.init_timeout_seconds", Long.MAX_VALUE, 60);
+  // number of threads expanding the materializations when the materialization cache is updated
+  PositiveLongValidator MATERIALIZATION_CACHE_EXPANSION_THREADS =
+      new PositiveLongValidator("reflection.materialization.cache.expansion_threads", 64, 4);
   int MAX_RETRY_HOURS = 3;
   // how long materialization cache will keep retrying a materialization before marking it as FAILED
   PositiveLongValidator MATERIALIZATION_CACHE_RETRY_MINUTES =
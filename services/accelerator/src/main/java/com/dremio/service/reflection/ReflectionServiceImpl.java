@@ -50,9 +50,12 @@ import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.ops.QueryContextCreator;
 import com.dremio.exec.planner.acceleration.DremioMaterialization;
 import com.dremio.exec.planner.acceleration.MaterializationExpander;
+import com.dremio.exec.planner.acceleration.MaterializationIndex;
 import com.dremio.exec.planner.acceleration.descriptor.ExpandedMaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.descriptor.MaterializationDescriptor;
 import com.dremio.exec.planner.acceleration.descriptor.UnexpandedMaterializationDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.ExternalQueryDescriptor;
+import com.dremio.exec.planner.acceleration.substitution.SubstitutionUtils.VersionedPath;
 import com.dremio.exec.planner.logical.ViewTable;
 import com.dremio.exec.planner.observer.AbstractAttemptObserver;
 import com.dremio.exec.planner.observer.AttemptObservers;
@@ -1274,6 +1277,24 @@ public class ReflectionServiceImpl extends BaseReflectionService {
           .toList();
     }
 
+    @Override
+    public List<MaterializationDescriptor> get(
+        Set<VersionedPath> tables,
+        Set<VersionedPath> vdsPaths,
+        Set<ExternalQueryDescriptor> externalQueries) {
+      if (!isSubstitutionEnabled() || !isCacheEnabled()) {
+        return get();
+      }
+
+      // looked up before get() so that descriptors cached in between are kept as candidates
+      final MaterializationIndex index = materializationCache.getIndex();
+      final Set<MaterializationDescriptor> candidates = Sets.newIdentityHashSet();
+      candidates.addAll(index.getCandidates(tables, vdsPaths, externalQueries));
+      return get().stream()
+          .filter(descriptor -> candidates.contains(descriptor) || !index.isIndexed(descriptor))
+          .collect(Collectors.toList());
+    }
+
     /**
      * Checks if default raw reflection has been enabled/disabled on the VDS. Uses the same caching
      * catalog from planning so table metadata should already be in cache.
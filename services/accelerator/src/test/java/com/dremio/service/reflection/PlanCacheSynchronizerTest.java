@@ -124,6 +124,22 @@ public class PlanCacheSynchronizerTest {
     verify(invalidationHelper, times(2)).invalidatePlanCache();
   }
 
+  @Test
+  public void testInvalidationsOfOtherCoordinatorsApplied() {
+    when(invalidationHelper.isPlanCacheEnabled()).thenReturn(true);
+    when(entries.find()).thenReturn(Collections.emptyList());
+    when(goals.getModifiedOrCreatedSince(anyLong())).thenReturn(Collections.emptyList());
+    doThrow(new RuntimeException()).when(invalidationHelper).syncInvalidations();
+
+    PlanCacheSynchronizer synchronizer =
+        new PlanCacheSynchronizer(goals, entries, () -> invalidationHelper);
+    synchronizer.sync();
+
+    // a failure to apply them doesn't prevent the reflection changes from being processed
+    verify(invalidationHelper, times(1)).syncInvalidations();
+    verify(entries, times(1)).find();
+  }
+
   @Test
   public void testFailuresDuringExecutionNotPropagated() {
     when(invalidationHelper.isPlanCacheEnabled()).thenReturn(true);
@@ -16,6 +16,7 @@
 package com.dremio.service.reflection;
 
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_ENABLED;
+import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_EXPANSION_THREADS;
 import static com.dremio.service.reflection.ReflectionOptions.MATERIALIZATION_CACHE_RETRY_MINUTES;
 import static com.dremio.service.reflection.proto.MaterializationState.DONE;
 import static com.dremio.service.reflection.proto.MaterializationState.FAILED;
@@ -169,4 +170,39 @@ public class TestMaterializationCache extends DremioTest {
     assertThat(m1.getState()).isEqualTo(DONE);
     assertThat(materializationCache.getRetryMap().getIfPresent(m1.getId())).isNotNull();
   }
+
+  @Test
+  public void testParallelExpansion() throws Exception {
+    MaterializationCache materializationCache =
+        new MaterializationCache(
+            provider,
+            reflectionStatusService,
+            catalogService,
+            optionManager,
+            materializationStore,
+            reflectionEntriesStore);
+    final Materialization m2 = new Materialization();
+    m2.setReflectionId(new ReflectionId("r2"));
+    m2.setState(DONE);
+    m2.setId(new MaterializationId("def"));
+    final Materialization m3 = new Materialization();
+    m3.setReflectionId(new ReflectionId("r3"));
+    m3.setState(DONE);
+    m3.setId(new MaterializationId("ghi"));
+    when(provider.getValidMaterializations()).thenReturn(Arrays.asList(m1, m2, m3));
+    when(provider.getExternalReflections()).thenReturn(Collections.emptyList());
+    when(optionManager.getOption(MATERIALIZATION_CACHE_EXPANSION_THREADS)).thenReturn(2L);
+    when(optionManager.getOption(MATERIALIZATION_CACHE_RETRY_MINUTES)).thenReturn(60L);
+
+    // one of the materializations fails, the others are expanded by the other threads
+    when(provider.expand(m1, catalog)).thenReturn(descriptor);
+    when(provider.expand(m2, catalog))
+        .thenThrow(new DeserializationException("Something not catalog related"));
+    when(provider.expand(m3, catalog)).thenReturn(descriptor);
+    materializationCache.refreshMaterializationCache();
+    assertThat(materializationCache.contains(m1.getId())).isTrue();
+    assertThat(materializationCache.contains(m2.getId())).isFalse();
+    assertThat(materializationCache.contains(m3.getId())).isTrue();
+    assertThat(materializationCache.getRetryMap().getIfPresent(m2.getId())).isNotNull();
+  }
 }
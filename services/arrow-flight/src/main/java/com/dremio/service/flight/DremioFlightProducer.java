@@ -136,6 +136,12 @@ public class DremioFlightProducer implements FlightSqlProducer {
       final TicketContent.PreparedStatementTicket preparedStatementTicket =
           TicketContent.PreparedStatementTicket.parseFrom(ticket.getBytes());
 
+      if (preparedStatementTicket.getPartitionCount() > 1) {
+        runPreparedStatementPartition(
+            callContext, serverStreamListener, preparedStatementTicket);
+        return;
+      }
+
       final UserProtos.PreparedStatementHandle preparedStatementHandle =
           preparedStatementTicket.getHandle();
       runPreparedStatement(callContext, serverStreamListener, preparedStatementHandle);
@@ -229,7 +235,8 @@ public class DremioFlightProducer implements FlightSqlProducer {
         flightWorkManager.createPreparedStatement(
             flightDescriptor, callContext::isCancelled, session);
 
-    return flightPreparedStatement.getFlightInfoLegacy(location, flightDescriptor);
+    return flightPreparedStatement.getFlightInfoLegacy(
+        location, flightDescriptor, flightWorkManager.getResultPartitions());
   }
 
   @Override
@@ -754,6 +761,28 @@ public class DremioFlightProducer implements FlightSqlProducer {
         });
   }
 
+  private void runPreparedStatementPartition(
+      CallContext callContext,
+      ServerStreamListener serverStreamListener,
+      TicketContent.PreparedStatementTicket preparedStatementTicket) {
+    final UserSessionService.UserSessionData sessionData = getUserSessionData(callContext);
+    final ChangeTrackingUserSession userSession =
+        ChangeTrackingUserSession.Builder.newBuilder()
+            .withDelegate(sessionData.getSession())
+            .build();
+
+    flightWorkManager.runPreparedStatementPartition(
+        preparedStatementTicket,
+        serverStreamListener,
+        allocator,
+        userSession,
+        () -> {
+          if (userSession.isUpdated()) {
+            sessionsManager.updateSession(sessionData);
+          }
+        });
+  }
+
   private RequestContext getRequestContext(String projectId, String orgId) {
     if (!Strings.isNullOrEmpty(projectId) && !Strings.isNullOrEmpty(orgId)) {
       return RequestContext.current()
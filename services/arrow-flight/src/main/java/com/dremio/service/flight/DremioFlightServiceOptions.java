@@ -35,4 +35,16 @@ public interface DremioFlightServiceOptions {
   TypeValidators.PositiveLongValidator CLIENT_READINESS_TIMEOUT_MILLIS =
       new TypeValidators.PositiveLongValidator(
           "flight.client.readiness.timeout.millis", 900000L, 50000L);
+
+  // Number of endpoints the results of legacy queries are split among, so that clients can fetch
+  // them over parallel streams. All the endpoints are served by the coordinator running the query
+  // and can be fetched in any order. Default to 1, a single endpoint.
+  TypeValidators.RangeLongValidator RESULT_PARTITIONS =
+      new TypeValidators.RangeLongValidator("flight.results.partitions", 1, 64, 1);
+
+  // Maximum size in bytes of the batches of partitioned results kept for the endpoints that were
+  // not fetched yet. Default to 256MB.
+  TypeValidators.PositiveLongValidator RESULT_PARTITIONS_BUFFER_BYTES =
+      new TypeValidators.PositiveLongValidator(
+          "flight.results.partitions.buffer_bytes", Long.MAX_VALUE, 256L << 20);
 }
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import org.apache.arrow.flight.FlightDescriptor;
 import org.apache.arrow.flight.FlightEndpoint;
 import org.apache.arrow.flight.FlightInfo;
@@ -93,6 +94,23 @@ public class FlightPreparedStatement {
    */
   public FlightInfo getFlightInfoLegacy(
       Optional<Location> location, FlightDescriptor flightDescriptor) {
+    return getFlightInfoLegacy(location, flightDescriptor, 1);
+  }
+
+  /**
+   * Returns a FlightInfo for the PreparedStatement which a given instance manages. This method is
+   * for returning lightweight tickets for non-Flight-SQL queries.
+   *
+   * <p>The partitions are streamed by the coordinator which runs the query, the executors do not
+   * serve Flight streams, so all the endpoints point at the location of this server. They can be
+   * fetched in any order.
+   *
+   * @param location The server location.
+   * @param partitions The number of endpoints the results are split among.
+   * @return The FlightInfo, with one endpoint per partition of the results.
+   */
+  public FlightInfo getFlightInfoLegacy(
+      Optional<Location> location, FlightDescriptor flightDescriptor, int partitions) {
     final UserProtos.CreatePreparedStatementArrowResp createPreparedStatementResp =
         responseHandler.get();
     final Schema schema =
@@ -104,13 +122,30 @@ public class FlightPreparedStatement {
             .setHandle(createPreparedStatementResp.getPreparedStatement().getServerHandle())
             .build();
 
-    final Ticket ticket = new Ticket(preparedStatementTicketContent.toByteArray());
+    final List<TicketContent.PreparedStatementTicket> tickets = new ArrayList<>();
+    if (partitions <= 1) {
+      tickets.add(preparedStatementTicketContent);
+    } else {
+      final String streamId = UUID.randomUUID().toString();
+      for (int i = 0; i < partitions; i++) {
+        tickets.add(
+            preparedStatementTicketContent.toBuilder()
+                .setStreamId(streamId)
+                .setPartition(i)
+                .setPartitionCount(partitions)
+                .build());
+      }
+    }
 
-    final FlightEndpoint flightEndpoint =
-        location
-            .map(value -> new FlightEndpoint(ticket, value))
-            .orElseGet(() -> new FlightEndpoint(ticket));
-    return new FlightInfo(schema, flightDescriptor, ImmutableList.of(flightEndpoint), -1, -1);
+    final ImmutableList.Builder<FlightEndpoint> endpoints = ImmutableList.builder();
+    for (TicketContent.PreparedStatementTicket ticketContent : tickets) {
+      final Ticket ticket = new Ticket(ticketContent.toByteArray());
+      endpoints.add(
+          location
+              .map(value -> new FlightEndpoint(ticket, value))
+              .orElseGet(() -> new FlightEndpoint(ticket)));
+    }
+    return new FlightInfo(schema, flightDescriptor, endpoints.build(), -1, -1);
   }
 
   /**
@@ -19,6 +19,7 @@ package com.dremio.service.flight.impl;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.IntStream.range;
 
+import com.dremio.common.exceptions.UserException;
 import com.dremio.common.expression.CompleteType;
 import com.dremio.common.utils.protos.ExternalIdHelper;
 import com.dremio.exec.proto.UserBitShared;
@@ -31,16 +32,21 @@ import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.catalog.TableType;
 import com.dremio.service.flight.DremioFlightServiceOptions;
+import com.dremio.service.flight.TicketContent;
+import com.dremio.service.flight.error.mapping.DremioFlightErrorMapper;
 import com.dremio.service.flight.impl.RunQueryResponseHandler.BackpressureHandlingResponseHandler;
 import com.dremio.service.flight.impl.RunQueryResponseHandler.BasicResponseHandler;
 import com.dremio.service.flight.protector.CancellableUserResponseHandler;
 import com.dremio.service.flight.utils.TypeInfo;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.channels.Channels;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -94,6 +100,19 @@ public class FlightWorkManager {
   private final Provider<OptionManager> optionManagerProvider;
   private final RunQueryResponseHandlerFactory runQueryResponseHandlerFactory;
 
+  // streams of the queries whose results are split among several endpoints, dropped once all the
+  // endpoints were fetched or when the clients stopped fetching them
+  private final Cache<String, PartitionedStreamListener> partitionedStreams =
+      CacheBuilder.newBuilder()
+          .expireAfterAccess(Duration.ofMinutes(10))
+          .<String, PartitionedStreamListener>removalListener(
+              notification -> {
+                if (notification.wasEvicted()) {
+                  notification.getValue().expire();
+                }
+              })
+          .build();
+
   private static final byte[] EMPTY_SERIALIZED_SCHEMA =
       getSerializedSchema(Collections.emptyList());
 
@@ -707,6 +726,63 @@ public class FlightWorkManager {
             TerminationListenerRegistry.NOOP);
   }
 
+  /**
+   * Streams a partition of the results of a prepared statement. The statement is run once for all
+   * the partitions sharing the stream id of the ticket, when the first one is fetched, and its
+   * batches are split among the streams of the partitions. The batches of the partitions not
+   * fetched yet are buffered until they are.
+   *
+   * @param ticket The ticket of the partition.
+   * @param listener ServerStreamListener of the partition.
+   * @param allocator BufferAllocator used to allocate the batches sent to the partitions.
+   * @param userSession The session for the user which made the request.
+   * @param queryCompletionCallback Called when the query completed.
+   */
+  public void runPreparedStatementPartition(
+      TicketContent.PreparedStatementTicket ticket,
+      FlightProducer.ServerStreamListener listener,
+      BufferAllocator allocator,
+      UserSession userSession,
+      Runnable queryCompletionCallback) {
+    final String userName = userSession.getCredentials().getUserName();
+    final PartitionedStreamListener streams =
+        partitionedStreams
+            .asMap()
+            .computeIfAbsent(
+                ticket.getStreamId(),
+                streamId ->
+                    new PartitionedStreamListener(
+                        ticket.getPartitionCount(),
+                        userName,
+                        allocator,
+                        optionManagerProvider
+                            .get()
+                            .getOption(DremioFlightServiceOptions.RESULT_PARTITIONS_BUFFER_BYTES),
+                        () -> partitionedStreams.invalidate(streamId)));
+    if (streams.addPartition(ticket.getPartition(), userName, listener)) {
+      try {
+        runPreparedStatement(
+            ticket.getHandle(), streams, allocator, userSession, queryCompletionCallback);
+      } catch (RuntimeException e) {
+        // the streams of the other partitions may be opened by other calls and wait for the query
+        streams.error(
+            e instanceof UserException
+                ? DremioFlightErrorMapper.toFlightRuntimeException((UserException) e)
+                : CallStatus.INTERNAL.withCause(e).toRuntimeException());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of endpoints the results of legacy queries are split among.
+   *
+   * @return The number of partitions of the results.
+   */
+  public int getResultPartitions() {
+    return (int)
+        optionManagerProvider.get().getOption(DremioFlightServiceOptions.RESULT_PARTITIONS);
+  }
+
   /**
    * Retrieve the table types and sends the response to given ServerStreamListener.
    *
@@ -0,0 +1,430 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightProducer.ServerStreamListener;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
+import org.apache.arrow.vector.ipc.message.IpcOption;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * Listener splitting the batches of a single query among the streams the clients opened for the
+ * endpoints of a partitioned FlightInfo, so that the results are fetched over several streams in
+ * parallel. The batches are assigned round-robin by their index: batch i goes to partition i modulo
+ * the number of partitions, and the union of the streams is the result of the query.
+ *
+ * <p>The query is run when the stream of the first partition is opened, so the clients can fetch
+ * the endpoints in any order, one after another included. The batches of the partitions whose
+ * streams are not opened yet are buffered and sent once they are. The buffered batches are bounded
+ * in bytes: past the bound, the query waits for the stream of the next batch to be opened, and
+ * fails if it is not ready to wait.
+ *
+ * <p>The query is cancelled as soon as one of the streams is cancelled, and its failure fails all
+ * the streams, since the clients can no longer get the whole result.
+ */
+class PartitionedStreamListener implements ServerStreamListener {
+  private final int partitionCount;
+  private final String userName;
+  private final BufferAllocator allocator;
+  private final long maxBufferedBytes;
+  private final Runnable onRelease;
+  private final Partition[] partitions;
+  private int openedCount;
+
+  private Runnable onReadyHandler = () -> {};
+  private Runnable onCancelHandler = () -> {};
+  private VectorSchemaRoot source;
+  private Schema schema;
+  // root the batches of the partitions not opened yet are unloaded from
+  private VectorSchemaRoot bufferRoot;
+  private long bufferedBytes;
+  private boolean cancelled;
+  private boolean completed;
+  private Throwable error;
+  private long batches;
+  private Partition last;
+
+  /**
+   * @param partitionCount the number of endpoints the results are split among
+   * @param userName the user running the query, the only one allowed to open the streams
+   * @param allocator the allocator of the batches sent to the streams
+   * @param maxBufferedBytes the bytes of the batches kept for the streams not opened yet
+   * @param onRelease called once the query finished and all the streams were opened
+   */
+  PartitionedStreamListener(
+      int partitionCount,
+      String userName,
+      BufferAllocator allocator,
+      long maxBufferedBytes,
+      Runnable onRelease) {
+    Preconditions.checkArgument(partitionCount > 0);
+    this.partitionCount = partitionCount;
+    this.userName = userName;
+    this.allocator = allocator;
+    this.maxBufferedBytes = maxBufferedBytes;
+    this.onRelease = onRelease;
+    this.partitions = new Partition[partitionCount];
+    for (int i = 0; i < partitionCount; i++) {
+      partitions[i] = new Partition();
+    }
+  }
+
+  /**
+   * Adds the stream of a partition.
+   *
+   * @return true if this is the first stream opened, which should run the query
+   */
+  boolean addPartition(int partition, String user, ServerStreamListener listener) {
+    if (!Objects.equals(userName, user)) {
+      throw CallStatus.UNAUTHORIZED
+          .withDescription("The result partition belongs to another user.")
+          .toRuntimeException();
+    }
+    if (partition < 0 || partition >= partitionCount) {
+      throw CallStatus.INVALID_ARGUMENT
+          .withDescription("Invalid result partition " + partition + ".")
+          .toRuntimeException();
+    }
+
+    final boolean release;
+    synchronized (this) {
+      final Partition target = partitions[partition];
+      if (target.opened) {
+        throw CallStatus.ALREADY_EXISTS
+            .withDescription("The result partition " + partition + " was already fetched.")
+            .toRuntimeException();
+      }
+      target.opened = true;
+      openedCount++;
+      if (error != null) {
+        // the query failed or was cancelled before this stream was opened
+        listener.error(error);
+      } else {
+        target.listener = listener;
+        listener.setOnReadyHandler(this::onPartitionReady);
+        listener.setOnCancelHandler(this::onPartitionCancelled);
+        if (schema != null) {
+          target.start();
+          target.flush();
+        }
+        if (completed) {
+          target.complete();
+        }
+      }
+      if (openedCount == 1 && error == null) {
+        return true;
+      }
+      release = isDone() && openedCount == partitionCount;
+    }
+    if (release) {
+      onRelease.run();
+    }
+    return false;
+  }
+
+  /**
+   * Fails the streams if the clients stopped opening them before all were opened, releasing the
+   * batches buffered for the others.
+   */
+  void expire() {
+    final Runnable handler;
+    synchronized (this) {
+      if (openedCount == partitionCount || error != null) {
+        return;
+      }
+      // the query is cancelled if it is still running
+      handler = completed ? () -> {} : onCancelHandler;
+    }
+    error(
+        CallStatus.TIMED_OUT
+            .withDescription("The result partitions were not all fetched in time.")
+            .toRuntimeException());
+    handler.run();
+  }
+
+  private boolean isDone() {
+    return completed || error != null;
+  }
+
+  private void onPartitionReady() {
+    final Runnable handler;
+    synchronized (this) {
+      handler = onReadyHandler;
+    }
+    handler.run();
+  }
+
+  private void onPartitionCancelled() {
+    final Runnable handler;
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      handler = onCancelHandler;
+    }
+    handler.run();
+  }
+
+  @Override
+  public synchronized boolean isCancelled() {
+    if (!cancelled) {
+      for (Partition partition : partitions) {
+        cancelled |= partition.listener != null && partition.listener.isCancelled();
+      }
+    }
+    return cancelled || error != null;
+  }
+
+  /** Runs the handler right away if a stream was cancelled before the query was submitted. */
+  @Override
+  public void setOnCancelHandler(Runnable handler) {
+    final boolean run;
+    synchronized (this) {
+      this.onCancelHandler = handler;
+      run = cancelled;
+    }
+    if (run) {
+      handler.run();
+    }
+  }
+
+  /**
+   * Whether the stream of the partition of the next batch is ready for data, or, if it is not
+   * opened yet, whether the next batch can be buffered for it.
+   */
+  @Override
+  public synchronized boolean isReady() {
+    final Partition target = partitions[(int) (batches % partitionCount)];
+    if (target.listener != null) {
+      return target.listener.isReady();
+    }
+    return !target.opened && bufferedBytes < maxBufferedBytes;
+  }
+
+  @Override
+  public synchronized void setOnReadyHandler(Runnable handler) {
+    this.onReadyHandler = handler;
+  }
+
+  @Override
+  public synchronized void start(
+      VectorSchemaRoot root, DictionaryProvider dictionaries, IpcOption option) {
+    Preconditions.checkState(source == null, "Stream already started.");
+    source = root;
+    schema = root.getSchema();
+    for (Partition partition : partitions) {
+      if (partition.listener != null) {
+        partition.start();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void putNext(ArrowBuf metadata) {
+    Preconditions.checkState(source != null, "Stream not started.");
+    if (error != null) {
+      if (metadata != null) {
+        metadata.close();
+      }
+      return;
+    }
+    final Partition target = partitions[(int) (batches % partitionCount)];
+    if (target.listener != null) {
+      transfer(target.root);
+      target.listener.putNext(metadata);
+      last = target;
+    } else if (!target.opened) {
+      if (bufferedBytes >= maxBufferedBytes) {
+        if (metadata != null) {
+          metadata.close();
+        }
+        throw CallStatus.RESOURCE_EXHAUSTED
+            .withDescription(
+                "The result partition "
+                    + (batches % partitionCount)
+                    + " was not fetched and the batches buffered for it exceed the limit.")
+            .toRuntimeException();
+      }
+      if (bufferRoot == null) {
+        bufferRoot = VectorSchemaRoot.create(schema, allocator);
+      }
+      transfer(bufferRoot);
+      final ArrowRecordBatch batch = new VectorUnloader(bufferRoot).getRecordBatch();
+      bufferRoot.clear();
+      bufferedBytes += batch.computeBodyLength();
+      target.pending.add(new PendingBatch(batch, metadata));
+    } else {
+      // the stream of the partition is already done
+      if (metadata != null) {
+        metadata.close();
+      }
+      throw CallStatus.INTERNAL.withDescription("Result partition closed.").toRuntimeException();
+    }
+    batches++;
+  }
+
+  private void transfer(VectorSchemaRoot to) {
+    final List<FieldVector> from = source.getFieldVectors();
+    final List<FieldVector> toVectors = to.getFieldVectors();
+    for (int i = 0; i < from.size(); i++) {
+      from.get(i).makeTransferPair(toVectors.get(i)).transfer();
+    }
+    to.setRowCount(source.getRowCount());
+  }
+
+  /**
+   * Sends the metadata to the stream of the last batch sent, the first opened stream if there is
+   * none.
+   */
+  @Override
+  public synchronized void putMetadata(ArrowBuf metadata) {
+    Partition target = last != null && last.listener != null ? last : null;
+    for (int i = 0; target == null && i < partitionCount; i++) {
+      if (partitions[i].listener != null) {
+        target = partitions[i];
+      }
+    }
+    if (target == null) {
+      metadata.close();
+      throw CallStatus.INTERNAL.withDescription("Result partitions closed.").toRuntimeException();
+    }
+    target.listener.putMetadata(metadata);
+  }
+
+  @Override
+  public void error(Throwable ex) {
+    final boolean release;
+    synchronized (this) {
+      if (error != null) {
+        return;
+      }
+      error = ex;
+      for (Partition partition : partitions) {
+        if (partition.listener != null && !partition.listener.isCancelled()) {
+          partition.listener.error(ex);
+        }
+        partition.close();
+      }
+      closeBufferRoot();
+      last = null;
+      release = openedCount == partitionCount;
+    }
+    if (release) {
+      onRelease.run();
+    }
+  }
+
+  @Override
+  public void completed() {
+    final boolean release;
+    synchronized (this) {
+      if (isDone()) {
+        return;
+      }
+      completed = true;
+      for (Partition partition : partitions) {
+        if (partition.listener != null) {
+          partition.complete();
+        }
+      }
+      closeBufferRoot();
+      last = null;
+      release = openedCount == partitionCount;
+    }
+    if (release) {
+      onRelease.run();
+    }
+  }
+
+  private void closeBufferRoot() {
+    if (bufferRoot != null) {
+      bufferRoot.close();
+      bufferRoot = null;
+    }
+  }
+
+  /** A batch buffered for a stream not opened yet. */
+  private static final class PendingBatch {
+    private final ArrowRecordBatch batch;
+    private final ArrowBuf metadata;
+
+    private PendingBatch(ArrowRecordBatch batch, ArrowBuf metadata) {
+      this.batch = batch;
+      this.metadata = metadata;
+    }
+  }
+
+  /** Stream of a partition, the root of the batches sent to it and the batches waiting for it. */
+  private final class Partition {
+    private final Queue<PendingBatch> pending = new ArrayDeque<>();
+    private boolean opened;
+    private ServerStreamListener listener;
+    private VectorSchemaRoot root;
+
+    private void start() {
+      root = VectorSchemaRoot.create(schema, allocator);
+      listener.start(root);
+    }
+
+    /** Sends the batches buffered before the stream was opened. */
+    private void flush() {
+      final VectorLoader loader = new VectorLoader(root);
+      PendingBatch next;
+      while ((next = pending.poll()) != null) {
+        bufferedBytes -= next.batch.computeBodyLength();
+        try (ArrowRecordBatch batch = next.batch) {
+          loader.load(batch);
+        }
+        listener.putNext(next.metadata);
+      }
+    }
+
+    private void complete() {
+      listener.completed();
+      close();
+    }
+
+    private void close() {
+      PendingBatch next;
+      while ((next = pending.poll()) != null) {
+        bufferedBytes -= next.batch.computeBodyLength();
+        next.batch.close();
+        if (next.metadata != null) {
+          next.metadata.close();
+        }
+      }
+      if (root != null) {
+        root.close();
+        root = null;
+      }
+      listener = null;
+    }
+  }
+}
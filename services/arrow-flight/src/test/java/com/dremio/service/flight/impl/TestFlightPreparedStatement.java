@@ -242,6 +242,36 @@ public class TestFlightPreparedStatement {
     testGetFlightInfoLegacySuccessfulBase(Optional.empty());
   }
 
+  @Test
+  public void testGetFlightInfoLegacyPartitioned() throws Exception {
+    // Arrange
+    when(mockHandler.get()).thenReturn(response);
+    final FlightPreparedStatement flightPreparedStatement =
+        new FlightPreparedStatement(mockHandler);
+    final FlightDescriptor flightDescriptor =
+        FlightDescriptor.command("select 1".getBytes(StandardCharsets.UTF_8));
+
+    // Act
+    final FlightInfo actual =
+        flightPreparedStatement.getFlightInfoLegacy(Optional.empty(), flightDescriptor, 3);
+
+    // Assert
+    assertEquals(3, actual.getEndpoints().size());
+    String streamId = null;
+    for (int i = 0; i < 3; i++) {
+      final TicketContent.PreparedStatementTicket ticketContent =
+          TicketContent.PreparedStatementTicket.parseFrom(
+              actual.getEndpoints().get(i).getTicket().getBytes());
+      assertEquals(response.getPreparedStatement().getServerHandle(), ticketContent.getHandle());
+      assertEquals(i, ticketContent.getPartition());
+      assertEquals(3, ticketContent.getPartitionCount());
+      if (streamId == null) {
+        streamId = ticketContent.getStreamId();
+      }
+      assertEquals(streamId, ticketContent.getStreamId());
+    }
+  }
+
   private static class TestException extends Exception {
     public TestException(String message) {
       super(message);
@@ -19,8 +19,19 @@ package com.dremio.service.flight.impl;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.proto.UserProtos;
+import com.dremio.exec.work.protector.UserWorker;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.TicketContent;
 import com.google.common.collect.ImmutableMap;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -30,8 +41,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightProducer.ServerStreamListener;
 import org.apache.arrow.flight.FlightRuntimeException;
 import org.apache.arrow.flight.sql.FlightSqlColumnMetadata;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.ipc.ReadChannel;
 import org.apache.arrow.vector.ipc.message.MessageSerializer;
 import org.apache.arrow.vector.types.pojo.ArrowType;
@@ -207,4 +221,72 @@ public class TestFlightWorkManager {
 
     assertEquals(expectedMap, actualMap);
   }
+
+  private static UserSession userSession() {
+    final UserSession userSession = mock(UserSession.class);
+    when(userSession.getCredentials())
+        .thenReturn(UserBitShared.UserCredentials.newBuilder().setUserName("user").build());
+    return userSession;
+  }
+
+  @Test
+  public void testQueryRunWhenTheFirstPartitionIsFetched() {
+    final UserWorker worker = mock(UserWorker.class);
+    final FlightWorkManager flightWorkManager =
+        new FlightWorkManager(
+            () -> worker,
+            () -> mock(OptionManager.class),
+            FlightWorkManager.RunQueryResponseHandlerFactory.DEFAULT);
+    final UserSession userSession = userSession();
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      // the endpoints are fetched one after another, the first does not wait for the others
+      flightWorkManager.runPreparedStatementPartition(
+          partitionTicket(0), mock(ServerStreamListener.class), allocator, userSession, () -> {});
+      verify(worker, times(1)).submitWork(any(), any(), any(), any(), any());
+      flightWorkManager.runPreparedStatementPartition(
+          partitionTicket(1), mock(ServerStreamListener.class), allocator, userSession, () -> {});
+      verify(worker, times(1)).submitWork(any(), any(), any(), any(), any());
+    }
+  }
+
+  @Test
+  public void testPartitionsFailedWhenTheQueryIsNotSubmitted() {
+    final UserWorker worker = mock(UserWorker.class);
+    doThrow(new IllegalStateException("rejected"))
+        .when(worker)
+        .submitWork(any(), any(), any(), any(), any());
+    final FlightWorkManager flightWorkManager =
+        new FlightWorkManager(
+            () -> worker,
+            () -> mock(OptionManager.class),
+            FlightWorkManager.RunQueryResponseHandlerFactory.DEFAULT);
+    final UserSession userSession = userSession();
+    final ServerStreamListener first = mock(ServerStreamListener.class);
+    final ServerStreamListener second = mock(ServerStreamListener.class);
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      flightWorkManager.runPreparedStatementPartition(
+          partitionTicket(0), first, allocator, userSession, () -> {});
+      verify(first).error(any(FlightRuntimeException.class));
+      flightWorkManager.runPreparedStatementPartition(
+          partitionTicket(1), second, allocator, userSession, () -> {});
+      verify(second).error(any(FlightRuntimeException.class));
+      verify(worker, times(1)).submitWork(any(), any(), any(), any(), any());
+
+      // the partitions of the failed query were released, the ticket runs the query again
+      flightWorkManager.runPreparedStatementPartition(
+          partitionTicket(0), mock(ServerStreamListener.class), allocator, userSession, () -> {});
+      verify(worker, times(2)).submitWork(any(), any(), any(), any(), any());
+    }
+  }
+
+  private static TicketContent.PreparedStatementTicket partitionTicket(int partition) {
+    return TicketContent.PreparedStatementTicket.newBuilder()
+        .setHandle(UserProtos.PreparedStatementHandle.getDefaultInstance())
+        .setStreamId("stream")
+        .setPartition(partition)
+        .setPartitionCount(2)
+        .build();
+  }
 }
@@ -0,0 +1,360 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.arrow.flight.FlightProducer.ServerStreamListener;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Tests for PartitionedStreamListener. */
+public class TestPartitionedStreamListener {
+  private BufferAllocator allocator;
+  private IntVector vector;
+  private VectorSchemaRoot source;
+  private final AtomicInteger released = new AtomicInteger();
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    vector = new IntVector("value", allocator);
+    source = VectorSchemaRoot.of(vector);
+  }
+
+  @After
+  public void tearDown() {
+    source.close();
+    allocator.close();
+  }
+
+  private PartitionedStreamListener newStreams(int partitions) {
+    return new PartitionedStreamListener(
+        partitions, "user", allocator, Long.MAX_VALUE, released::incrementAndGet);
+  }
+
+  private void putBatch(PartitionedStreamListener streams, int value) {
+    vector.allocateNew(1);
+    vector.set(0, value);
+    source.setRowCount(1);
+    streams.putNext();
+  }
+
+  private static ServerStreamListener listener(boolean ready) {
+    final ServerStreamListener listener = mock(ServerStreamListener.class);
+    when(listener.isReady()).thenReturn(ready);
+    return listener;
+  }
+
+  /** Records the values of the batches sent to the listener. */
+  private static List<Integer> recordValues(ServerStreamListener listener) {
+    final List<Integer> values = new ArrayList<>();
+    final AtomicReference<VectorSchemaRoot> root = new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              root.set(invocation.getArgument(0));
+              return null;
+            })
+        .when(listener)
+        .start(any(VectorSchemaRoot.class));
+    doAnswer(
+            invocation -> {
+              values.add(((IntVector) root.get().getVector(0)).get(0));
+              return null;
+            })
+        .when(listener)
+        .putNext(any());
+    return values;
+  }
+
+  private static Runnable cancelHandler(ServerStreamListener listener) {
+    final ArgumentCaptor<Runnable> handler = ArgumentCaptor.forClass(Runnable.class);
+    verify(listener).setOnCancelHandler(handler.capture());
+    return handler.getValue();
+  }
+
+  @Test
+  public void testQueryRunWhenTheFirstPartitionIsOpened() {
+    final PartitionedStreamListener streams = newStreams(3);
+    assertTrue(streams.addPartition(2, "user", listener(true)));
+    assertFalse(streams.addPartition(0, "user", listener(true)));
+    assertFalse(streams.addPartition(1, "user", listener(true)));
+    streams.start(source);
+    streams.completed();
+    assertEquals(1, released.get());
+  }
+
+  @Test
+  public void testPartitionsOpenedOneAfterAnother() {
+    final PartitionedStreamListener streams = newStreams(3);
+    final ServerStreamListener first = listener(true);
+    final List<Integer> firstValues = recordValues(first);
+    assertTrue(streams.addPartition(0, "user", first));
+    streams.start(source);
+
+    // the batches of the partitions not opened yet are buffered for them
+    for (int i = 0; i < 7; i++) {
+      assertTrue(streams.isReady());
+      putBatch(streams, i);
+    }
+    streams.completed();
+    assertEquals(ImmutableList.of(0, 3, 6), firstValues);
+    verify(first).completed();
+    assertEquals(0, released.get());
+
+    final ServerStreamListener second = listener(true);
+    final List<Integer> secondValues = recordValues(second);
+    assertFalse(streams.addPartition(1, "user", second));
+    assertEquals(ImmutableList.of(1, 4), secondValues);
+    verify(second).completed();
+
+    final ServerStreamListener third = listener(true);
+    final List<Integer> thirdValues = recordValues(third);
+    assertFalse(streams.addPartition(2, "user", third));
+    assertEquals(ImmutableList.of(2, 5), thirdValues);
+    verify(third).completed();
+
+    assertEquals(1, released.get());
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testPartitionOpenedWhileTheQueryRuns() {
+    final PartitionedStreamListener streams = newStreams(2);
+    final ServerStreamListener first = listener(true);
+    final ServerStreamListener second = listener(true);
+    final List<Integer> firstValues = recordValues(first);
+    final List<Integer> secondValues = recordValues(second);
+    streams.addPartition(0, "user", first);
+    streams.start(source);
+    putBatch(streams, 0);
+    putBatch(streams, 1);
+    putBatch(streams, 2);
+
+    streams.addPartition(1, "user", second);
+    assertEquals(ImmutableList.of(1), secondValues);
+    putBatch(streams, 3);
+    assertEquals(ImmutableList.of(0, 2), firstValues);
+    assertEquals(ImmutableList.of(1, 3), secondValues);
+    streams.completed();
+    assertEquals(1, released.get());
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testBufferedBatchesBounded() {
+    final PartitionedStreamListener streams =
+        new PartitionedStreamListener(2, "user", allocator, 1, released::incrementAndGet);
+    streams.addPartition(0, "user", listener(true));
+    streams.start(source);
+    putBatch(streams, 0);
+    assertTrue(streams.isReady());
+    putBatch(streams, 1);
+    putBatch(streams, 2);
+
+    // the batch buffered for the second partition reached the bound
+    assertFalse(streams.isReady());
+    assertThatThrownBy(() -> putBatch(streams, 3)).isInstanceOf(FlightRuntimeException.class);
+    streams.error(new RuntimeException("failed"));
+    vector.clear();
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testExpiredBeforeAllPartitionsAreOpened() {
+    final PartitionedStreamListener streams = newStreams(2);
+    final ServerStreamListener first = listener(true);
+    final AtomicInteger queryCancelled = new AtomicInteger();
+    streams.addPartition(0, "user", first);
+    streams.setOnCancelHandler(queryCancelled::incrementAndGet);
+    streams.start(source);
+    putBatch(streams, 0);
+    putBatch(streams, 1);
+
+    streams.expire();
+    verify(first).error(any(FlightRuntimeException.class));
+    assertEquals(1, queryCancelled.get());
+    assertTrue(streams.isCancelled());
+    assertEquals(0, allocator.getAllocatedMemory());
+  }
+
+  @Test
+  public void testRoundRobinByBatchIndex() {
+    final PartitionedStreamListener streams =
+        newStreams(3);
+    final ServerStreamListener first = listener(false);
+    final ServerStreamListener second = listener(true);
+    final ServerStreamListener third = listener(true);
+    final List<Integer> firstValues = recordValues(first);
+    final List<Integer> secondValues = recordValues(second);
+    final List<Integer> thirdValues = recordValues(third);
+    streams.addPartition(1, "user", second);
+    streams.addPartition(0, "user", first);
+    streams.addPartition(2, "user", third);
+    streams.start(source);
+
+    // readiness does not change the partition of a batch
+    for (int i = 0; i < 7; i++) {
+      putBatch(streams, i);
+    }
+    assertEquals(ImmutableList.of(0, 3, 6), firstValues);
+    assertEquals(ImmutableList.of(1, 4), secondValues);
+    assertEquals(ImmutableList.of(2, 5), thirdValues);
+
+    streams.completed();
+    verify(first).completed();
+    verify(second).completed();
+    verify(third).completed();
+    assertEquals(1, released.get());
+  }
+
+  @Test
+  public void testReadyWhenTheNextPartitionIsReady() {
+    final PartitionedStreamListener streams =
+        newStreams(2);
+    streams.addPartition(0, "user", listener(true));
+    streams.addPartition(1, "user", listener(false));
+    streams.start(source);
+
+    assertTrue(streams.isReady());
+    putBatch(streams, 1);
+    assertFalse(streams.isReady());
+    putBatch(streams, 2);
+    assertTrue(streams.isReady());
+    streams.completed();
+  }
+
+  @Test
+  public void testMetadataFollowsTheLastBatch() {
+    final PartitionedStreamListener streams =
+        newStreams(2);
+    final ServerStreamListener first = listener(true);
+    final ServerStreamListener second = listener(true);
+    streams.addPartition(0, "user", first);
+    streams.addPartition(1, "user", second);
+    streams.start(source);
+
+    final ArrowBuf metadata = allocator.buffer(1);
+    streams.putMetadata(metadata);
+    verify(first).putMetadata(metadata);
+    putBatch(streams, 1);
+    putBatch(streams, 2);
+    streams.putMetadata(metadata);
+    verify(second).putMetadata(metadata);
+    metadata.close();
+    streams.completed();
+  }
+
+  @Test
+  public void testErrorFailsAllPartitions() {
+    final PartitionedStreamListener streams =
+        newStreams(2);
+    final ServerStreamListener first = listener(true);
+    final ServerStreamListener cancelled = listener(true);
+    when(cancelled.isCancelled()).thenReturn(true);
+    streams.addPartition(0, "user", first);
+    streams.addPartition(1, "user", cancelled);
+
+    assertTrue(streams.isCancelled());
+    final RuntimeException error = new RuntimeException("cancelled");
+    streams.error(error);
+    verify(first).error(error);
+    verify(cancelled, never()).error(any());
+    assertEquals(1, released.get());
+  }
+
+  @Test
+  public void testErrorBeforeAllPartitionsAreOpened() {
+    final PartitionedStreamListener streams =
+        newStreams(2);
+    final ServerStreamListener first = listener(true);
+    streams.addPartition(0, "user", first);
+    final RuntimeException error = new RuntimeException("failed");
+    streams.error(error);
+    verify(first).error(error);
+    assertEquals(0, released.get());
+
+    final ServerStreamListener late = listener(true);
+    assertFalse(streams.addPartition(1, "user", late));
+    verify(late).error(error);
+    verify(late, never()).start(any(VectorSchemaRoot.class));
+    assertEquals(1, released.get());
+  }
+
+  @Test
+  public void testCancelledBeforeAllPartitionsAreOpened() {
+    final PartitionedStreamListener streams = newStreams(3);
+    final ServerStreamListener first = listener(true);
+    final ServerStreamListener cancelled = listener(true);
+    final AtomicInteger queryCancelled = new AtomicInteger();
+    streams.addPartition(0, "user", first);
+    streams.addPartition(1, "user", cancelled);
+
+    // a stream cancelled before the query was submitted cancels it once it is
+    when(cancelled.isCancelled()).thenReturn(true);
+    cancelHandler(cancelled).run();
+    assertTrue(streams.isCancelled());
+    streams.setOnCancelHandler(queryCancelled::incrementAndGet);
+    assertEquals(1, queryCancelled.get());
+
+    final RuntimeException error = new RuntimeException("cancelled");
+    streams.error(error);
+    verify(first).error(error);
+    verify(cancelled, never()).error(any());
+
+    final ServerStreamListener late = listener(true);
+    assertFalse(streams.addPartition(2, "user", late));
+    verify(late).error(error);
+    assertEquals(1, released.get());
+  }
+
+  @Test
+  public void testInvalidPartitions() {
+    final PartitionedStreamListener streams =
+        newStreams(2);
+    streams.addPartition(0, "user", listener(true));
+
+    assertThatThrownBy(() -> streams.addPartition(0, "user", listener(true)))
+        .isInstanceOf(FlightRuntimeException.class);
+    assertThatThrownBy(() -> streams.addPartition(2, "user", listener(true)))
+        .isInstanceOf(FlightRuntimeException.class);
+    assertThatThrownBy(() -> streams.addPartition(1, "other", listener(true)))
+        .isInstanceOf(FlightRuntimeException.class);
+    streams.error(new RuntimeException("done"));
+  }
+}
@@ -177,6 +177,11 @@ public abstract class ReconnectingConnection<
     }
   }
 
+  /** Returns the current connection, null if not connected yet. */
+  protected CONNECTION_TYPE getConnection() {
+    return connectionHolder.get();
+  }
+
   public CloseHandlerCreator getCloseHandlerCreator() {
     return new CloseHandlerCreator();
   }
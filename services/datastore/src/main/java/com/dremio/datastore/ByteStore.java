@@ -16,11 +16,16 @@
 package com.dremio.datastore;
 
 import com.dremio.datastore.api.Document;
+import com.dremio.datastore.api.ImmutableFindByRange;
 import com.dremio.datastore.api.KVStore;
 import com.dremio.datastore.api.options.VersionOption;
 import com.google.common.hash.Hashing;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 
 /**
  * A byte[], byte[] kvstore that is closeable and allows key deletions. This isn't on the main
@@ -51,6 +56,56 @@ interface ByteStore extends KVStore<byte[], byte[]>, AutoCloseable {
    */
   boolean validateAndDelete(byte[] key, VersionOption.TagInfo versionInfo, DeleteOption... options);
 
+  /**
+   * Put all the entries. Implementations may write them with a single atomic operation.
+   *
+   * @param entries the keys and their new values.
+   * @param options Options for the put operations.
+   */
+  @Override
+  default void bulkPut(Map<byte[], byte[]> entries, PutOption... options) {
+    for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+      put(entry.getKey(), entry.getValue(), options);
+    }
+  }
+
+  /**
+   * Delete all the entries whose key starts with the prefix.
+   *
+   * @param prefix the key prefix.
+   */
+  @Override
+  default void deleteByPrefix(byte[] prefix) {
+    final List<byte[]> keys = new ArrayList<>();
+    for (Document<byte[], byte[]> document :
+        find(
+            new ImmutableFindByRange.Builder<byte[]>()
+                .setStart(prefix)
+                .setIsStartInclusive(true)
+                .setEnd(prefixEnd(prefix))
+                .build())) {
+      keys.add(document.getKey());
+    }
+    bulkDelete(keys);
+  }
+
+  /**
+   * Computes the smallest key greater than all the keys starting with the prefix.
+   *
+   * @param prefix the key prefix.
+   * @return the exclusive end of the keys starting with the prefix, or null if there is none.
+   */
+  static byte[] prefixEnd(byte[] prefix) {
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (prefix[i] != (byte) 0xFF) {
+        final byte[] end = Arrays.copyOf(prefix, i + 1);
+        end[i]++;
+        return end;
+      }
+    }
+    return null;
+  }
+
   /**
    * Generates a tag by fingerprinting the value of the key-value store entry.
    *
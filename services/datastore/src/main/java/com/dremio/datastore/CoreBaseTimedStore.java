@@ -117,6 +117,20 @@ abstract class CoreBaseTimedStore<K, V> implements CoreKVStore<K, V> {
     }
   }
 
+  @Override
+  public void bulkPut(Map<KVStoreTuple<K>, KVStoreTuple<V>> entries, PutOption... options) {
+    try (TimedBlock b = time(name + ".bulkPut")) {
+      kvStore.bulkPut(entries, options);
+    }
+  }
+
+  @Override
+  public void deleteByPrefix(KVStoreTuple<K> prefix) {
+    try (TimedBlock b = time(name + ".deleteByPrefix")) {
+      kvStore.deleteByPrefix(prefix);
+    }
+  }
+
   /**
    * Basic timed store.
    *
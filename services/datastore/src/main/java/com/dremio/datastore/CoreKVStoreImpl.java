@@ -25,6 +25,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -157,6 +158,25 @@ public class CoreKVStoreImpl<KEY, VALUE> implements CoreKVStore<KEY, VALUE> {
     rawStore.bulkDelete(convertedKeys, deleteOptions);
   }
 
+  @Override
+  public void bulkPut(
+      Map<KVStoreTuple<KEY>, KVStoreTuple<VALUE>> entries, PutOption... options) {
+    if (VersionOption.getTagInfo(options).hasVersionOption()) {
+      // each put validates its own tag
+      CoreKVStore.super.bulkPut(entries, options);
+      return;
+    }
+    final Map<byte[], byte[]> convertedEntries = new LinkedHashMap<>();
+    entries.forEach(
+        (key, value) -> convertedEntries.put(key.getSerializedBytes(), value.getSerializedBytes()));
+    rawStore.bulkPut(convertedEntries, options);
+  }
+
+  @Override
+  public void deleteByPrefix(KVStoreTuple<KEY> prefix) {
+    rawStore.deleteByPrefix(prefix.getSerializedBytes());
+  }
+
   @Override
   public Iterable<Document<KVStoreTuple<KEY>, KVStoreTuple<VALUE>>> find(FindOption... options) {
     return Iterables.transform(rawStore.find(options), this::fromDocument);
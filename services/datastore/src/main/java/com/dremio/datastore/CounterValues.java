@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.datastore;
+
+import com.dremio.datastore.api.IncrementCounter;
+import com.dremio.datastore.api.KVStore;
+import com.dremio.datastore.format.Format;
+import com.dremio.datastore.rocks.Rocks;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value format of the keys incremented by {@link KVStore#bulkIncrement} in the local store.
+ *
+ * <p>The value of such a key is a serialized {@link Rocks.Counters} message, with the name and the
+ * current value of each counter of the key, in the order the counters were first incremented. A
+ * store with {@link #FORMAT} as its value format reads the counters as messages, and the raw bytes
+ * are decoded with {@link #decode(byte[])}.
+ */
+public final class CounterValues {
+  /** Value format of the stores holding counters. */
+  public static final Format<Rocks.Counters> FORMAT = Format.ofProtobuf(Rocks.Counters.class);
+
+  private CounterValues() {}
+
+  /**
+   * Decodes the counters of a key.
+   *
+   * @param value the value of the key, null if the key was never incremented.
+   * @return the value of each counter by name.
+   * @throws IllegalArgumentException if the value does not hold counters.
+   */
+  public static Map<String, Long> decode(byte[] value) {
+    if (value == null) {
+      return Collections.emptyMap();
+    }
+    final Map<String, Long> counters = new LinkedHashMap<>();
+    try {
+      for (Rocks.Counter counter : Rocks.Counters.parseFrom(value).getCounterList()) {
+        counters.put(counter.getName(), counter.getValue());
+      }
+    } catch (InvalidProtocolBufferException e) {
+      throw new IllegalArgumentException("Value is not a list of counters", e);
+    }
+    return counters;
+  }
+
+  /**
+   * Applies increments to the counters of a key.
+   *
+   * @param value the current value of the key, null if the key was never incremented.
+   * @param increments the increments to apply.
+   * @return the new value of the key.
+   */
+  static byte[] increment(byte[] value, List<IncrementCounter> increments) {
+    final Map<String, Long> counters = new LinkedHashMap<>(decode(value));
+    for (IncrementCounter increment : increments) {
+      counters.merge(increment.getCounterName(), (long) increment.getIncrementBy(), Long::sum);
+    }
+
+    final Rocks.Counters.Builder builder = Rocks.Counters.newBuilder();
+    counters.forEach(
+        (name, counter) ->
+            builder.addCounter(Rocks.Counter.newBuilder().setName(name).setValue(counter)));
+    return builder.build().toByteArray();
+  }
+}
@@ -22,6 +22,7 @@ import com.dremio.datastore.api.IncrementCounter;
 import com.dremio.datastore.api.KVStore;
 import com.google.common.base.Objects;
 import com.google.common.collect.Iterables;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -116,6 +117,18 @@ public class LocalKVStore<K, V> implements KVStore<K, V> {
     coreKVStore.bulkDelete(convertedKeys, deleteOptions);
   }
 
+  @Override
+  public void bulkPut(Map<K, V> entries, PutOption... options) {
+    final Map<KVStoreTuple<K>, KVStoreTuple<V>> convertedEntries = new LinkedHashMap<>();
+    entries.forEach((key, value) -> convertedEntries.put(buildKey(key), buildValue(value)));
+    coreKVStore.bulkPut(convertedEntries, options);
+  }
+
+  @Override
+  public void deleteByPrefix(K prefix) {
+    coreKVStore.deleteByPrefix(buildKey(prefix));
+  }
+
   @Override
   public Iterable<Document<K, V>> find(FindOption... options) {
     return Iterables.transform(coreKVStore.find(options), this::fromDocument);
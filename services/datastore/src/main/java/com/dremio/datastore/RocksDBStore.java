@@ -18,6 +18,7 @@ package com.dremio.datastore;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.DeferredException;
 import com.dremio.common.concurrent.AutoCloseableLock;
+import com.dremio.common.util.Closeable;
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
 import com.dremio.datastore.api.ImmutableDocument;
@@ -47,11 +48,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -67,6 +74,8 @@ import org.rocksdb.FlushOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
@@ -349,22 +358,82 @@ class RocksDBStore implements ByteStore {
     }
   }
 
-  private AutoCloseableLock sharedLock(byte[] key) {
+  private int stripe(byte[] key) {
     Preconditions.checkNotNull(key);
     final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = sharedLocks[Math.abs(hash % parallel)];
+    return Math.abs(hash % parallel);
+  }
+
+  private AutoCloseableLock sharedLock(byte[] key) {
+    AutoCloseableLock lock = sharedLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
   private AutoCloseableLock exclusiveLock(byte[] key) {
-    Preconditions.checkNotNull(key);
-    final int hash = Arrays.hashCode(key);
-    AutoCloseableLock lock = exclusiveLocks[Math.abs(hash % parallel)];
+    AutoCloseableLock lock = exclusiveLocks[stripe(key)];
     lock.open();
     return lock;
   }
 
+  /**
+   * Acquires the locks of the stripes of the given keys, or of all the stripes if keys is null. The
+   * locks are acquired in stripe order so that concurrent multi-key operations cannot deadlock.
+   */
+  private Closeable stripeLocks(Collection<byte[]> keys, AutoCloseableLock[] locks) {
+    final boolean[] stripes = new boolean[parallel];
+    if (keys == null) {
+      Arrays.fill(stripes, true);
+    } else {
+      for (byte[] key : keys) {
+        stripes[stripe(key)] = true;
+      }
+    }
+
+    final List<AutoCloseableLock> acquired = new ArrayList<>();
+    for (int i = 0; i < parallel; i++) {
+      if (stripes[i]) {
+        acquired.add(locks[i].open());
+      }
+    }
+    return () -> {
+      for (int i = acquired.size() - 1; i >= 0; i--) {
+        acquired.get(i).close();
+      }
+    };
+  }
+
+  private List<byte[]> multiGet(List<byte[]> keys) throws RocksDBException {
+    return db.multiGetAsList(Collections.nCopies(keys.size(), handle), keys);
+  }
+
+  /**
+   * Writes the values of the keys with a single atomic batch, then deletes the blobs of the values
+   * they replaced.
+   */
+  private void write(List<byte[]> keys, List<byte[]> oldValuesOrPtrs, List<byte[]> newValues)
+      throws RocksDBException, IOException {
+    final List<BlobHolder> blobs = new ArrayList<>(keys.size());
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      for (int i = 0; i < keys.size(); i++) {
+        final byte[] newValue = newValues.get(i);
+        final BlobHolder blob =
+            metaManager.filterPut(newValue, ByteStore.generateTagFromBytes(newValue));
+        blobs.add(blob);
+        batch.put(handle, keys.get(i), blob.ptrOrValue());
+      }
+      db.write(writeOptions, batch);
+      for (byte[] oldValueOrPtr : oldValuesOrPtrs) {
+        metaManager.deleteTranslation(meta(oldValueOrPtr));
+      }
+      blobs.forEach(BlobHolder::commit);
+    } finally {
+      // deletes the blobs of the values that were not written
+      blobs.forEach(BlobHolder::close);
+    }
+  }
+
   /**
    * Delete all values. Deletes only values inside the store, leaving behind any leftover blobs that
    * have been placed directly in the file system.
@@ -538,11 +607,51 @@ class RocksDBStore implements ByteStore {
 
   @Override
   public Iterable<Document<byte[], byte[]>> get(List<byte[]> keys, GetOption... options) {
-    final List<Document<byte[], byte[]>> results = new ArrayList<>();
-    for (byte[] key : keys) {
-      results.add(get(key, options));
+    final List<Document<byte[], byte[]>> results = new ArrayList<>(keys.size());
+    if (keys.isEmpty()) {
+      return results;
+    }
+
+    try (Closeable ac = stripeLocks(keys, sharedLocks)) {
+      throwIfClosed();
+      final List<byte[]> valuesOrPtrs = multiGet(keys);
+      for (int i = 0; i < keys.size(); i++) {
+        final RocksEntry result = resolvePtrOrValue(valuesOrPtrs.get(i));
+        if (result == null) {
+          results.add(null);
+          continue;
+        }
+        final byte[] value = result.getData();
+        results.add(toDocument(keys.get(i), value, toTag(result.getMeta(), value)));
+      }
+      return results;
+    } catch (RocksDBException | BlobNotFoundException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public void bulkPut(Map<byte[], byte[]> entries, PutOption... options) {
+    // sequential puts of the same key keep the last value
+    final SortedMap<byte[], byte[]> sorted =
+        new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+      if (entry.getValue() == null) {
+        throw new NullPointerException("null values are not allowed in kvstore");
+      }
+      sorted.put(Preconditions.checkNotNull(entry.getKey()), entry.getValue());
+    }
+    if (sorted.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keys = new ArrayList<>(sorted.keySet());
+    try (Closeable ac = stripeLocks(keys, sharedLocks)) {
+      throwIfClosed();
+      write(keys, multiGet(keys), new ArrayList<>(sorted.values()));
+    } catch (RocksDBException | IOException e) {
+      throw new RuntimeException(e);
     }
-    return results;
   }
 
   @Override
@@ -658,16 +767,117 @@ class RocksDBStore implements ByteStore {
     return new RockIterable(find, options);
   }
 
+  /**
+   * Increments the counters stored in the {@link CounterValues} format at each key, adding the
+   * missing keys and counters. All the keys are updated by a single atomic write, so the writes are
+   * ordered whatever the option.
+   */
   @Override
   public void bulkIncrement(
       Map<byte[], List<IncrementCounter>> keysToIncrement, IncrementOption option) {
-    throw new UnsupportedOperationException("BulkIncrement is not supported in RocksDB.");
+    final SortedMap<byte[], List<IncrementCounter>> increments =
+        new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+    keysToIncrement.forEach(
+        (key, counters) ->
+            increments
+                .computeIfAbsent(Preconditions.checkNotNull(key), k -> new ArrayList<>())
+                .addAll(counters));
+    if (increments.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keys = new ArrayList<>(increments.keySet());
+    try (Closeable ac = stripeLocks(keys, exclusiveLocks)) {
+      throwIfClosed();
+      final List<byte[]> oldValuesOrPtrs = multiGet(keys);
+      final List<byte[]> newValues = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        final RocksEntry old = resolvePtrOrValue(oldValuesOrPtrs.get(i));
+        newValues.add(
+            CounterValues.increment(
+                old != null ? old.getData() : null, increments.get(keys.get(i))));
+      }
+      write(keys, oldValuesOrPtrs, newValues);
+    } catch (RocksDBException | IOException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   @Override
   public void bulkDelete(List<byte[]> keysToDelete, DeleteOption... deleteOptions) {
-    for (byte[] key : keysToDelete) {
-      delete(key, deleteOptions);
+    final Set<byte[]> sorted = new TreeSet<>(UnsignedBytes.lexicographicalComparator());
+    sorted.addAll(keysToDelete);
+    if (sorted.isEmpty()) {
+      return;
+    }
+
+    final List<byte[]> keys = new ArrayList<>(sorted);
+    try (Closeable ac = stripeLocks(keys, sharedLocks);
+        WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions()) {
+      throwIfClosed();
+      final List<byte[]> oldValuesOrPtrs =
+          KVStoreOptionUtility.canSkipMeta(deleteOptions) ? null : multiGet(keys);
+      for (int i = 0; i < keys.size(); i++) {
+        if (oldValuesOrPtrs == null || oldValuesOrPtrs.get(i) != null) {
+          batch.delete(handle, keys.get(i));
+        }
+      }
+      if (batch.count() == 0) {
+        return;
+      }
+
+      db.write(writeOptions, batch);
+
+      if (oldValuesOrPtrs != null) {
+        for (byte[] oldValueOrPtr : oldValuesOrPtrs) {
+          metaManager.deleteTranslation(meta(oldValueOrPtr));
+        }
+      }
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Deletes the keys starting with the prefix with a single range tombstone instead of a delete per
+   * key. The blobs of the deleted values are deleted after the range.
+   */
+  @Override
+  public void deleteByPrefix(byte[] prefix) {
+    Preconditions.checkNotNull(prefix);
+    // the range can hold keys of any stripe
+    try (Closeable ac = stripeLocks(null, exclusiveLocks)) {
+      throwIfClosed();
+      final List<Rocks.Meta> blobs = new ArrayList<>();
+      byte[] end = ByteStore.prefixEnd(prefix);
+      try (RocksIterator iter = db.newIterator(handle)) {
+        if (end == null) {
+          // no key is greater than all the keys starting with the prefix: stop after the last one
+          iter.seekToLast();
+          if (!iter.isValid()) {
+            return;
+          }
+          end = Arrays.copyOf(iter.key(), iter.key().length + 1);
+        }
+
+        if (metaManager != INLINE_BLOB_MANAGER) {
+          final Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+          for (iter.seek(prefix);
+              iter.isValid() && comparator.compare(iter.key(), end) < 0;
+              iter.next()) {
+            final Rocks.Meta meta = meta(iter.value());
+            if (meta != null && meta.hasPath()) {
+              blobs.add(meta);
+            }
+          }
+        }
+      }
+
+      db.deleteRange(handle, prefix, end);
+      blobs.forEach(metaManager::deleteTranslation);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
     }
   }
 
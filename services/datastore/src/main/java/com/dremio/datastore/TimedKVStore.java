@@ -56,7 +56,9 @@ public class TimedKVStore<K, V> implements KVStore<K, V> {
     findForAllTenants,
     reindex,
     bulkIncrement,
-    bulkDelete
+    bulkDelete,
+    bulkPut,
+    deleteByPrefix
   }
 
   private final KVStore<K, V> delegate;
@@ -156,6 +158,16 @@ public class TimedKVStore<K, V> implements KVStore<K, V> {
     timedOperation(Ops.bulkDelete, () -> delegate.bulkDelete(keysToDelete, deleteOptions));
   }
 
+  @Override
+  public void bulkPut(Map<K, V> entries, PutOption... options) {
+    timedOperation(Ops.bulkPut, () -> delegate.bulkPut(entries, options));
+  }
+
+  @Override
+  public void deleteByPrefix(K prefix) {
+    timedOperation(Ops.deleteByPrefix, () -> delegate.deleteByPrefix(prefix));
+  }
+
   @Override
   public String getName() {
     return delegate.getName();
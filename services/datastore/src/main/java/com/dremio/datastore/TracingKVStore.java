@@ -110,6 +110,16 @@ class TracingKVStore<K, V> implements KVStore<K, V> {
     trace("bulkDelete", () -> delegate.bulkDelete(keysToDelete, deleteOptions));
   }
 
+  @Override
+  public void bulkPut(Map<K, V> entries, PutOption... options) {
+    trace("bulkPut", () -> delegate.bulkPut(entries, options));
+  }
+
+  @Override
+  public void deleteByPrefix(K prefix) {
+    trace("deleteByPrefix", () -> delegate.deleteByPrefix(prefix));
+  }
+
   @Override
   public void delete(K key, DeleteOption... options) {
     trace("delete", () -> delegate.delete(key, options));
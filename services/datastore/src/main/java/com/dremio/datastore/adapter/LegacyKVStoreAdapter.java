@@ -107,6 +107,11 @@ public class LegacyKVStoreAdapter<K, V> implements LegacyKVStore<K, V> {
     underlyingStore.delete(key);
   }
 
+  @Override
+  public void bulkDelete(List<K> keys) {
+    underlyingStore.bulkDelete(keys);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public Iterable<Map.Entry<K, V>> find(LegacyFindByRange<K> find) {
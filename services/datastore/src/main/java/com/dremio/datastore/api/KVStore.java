@@ -201,6 +201,29 @@ public interface KVStore<K, V> {
    */
   void bulkDelete(List<K> keysToDelete, DeleteOption... deleteOptions);
 
+  /**
+   * The method's implementation may not guarantee atomicity/transactionality. If the underlying
+   * store supports atomic batch writes they are used, otherwise the method iterates and does point
+   * puts.
+   *
+   * @param entries the keys and their new values.
+   * @param options extra options for the PUT operations.
+   */
+  default void bulkPut(Map<K, V> entries, PutOption... options) {
+    entries.forEach((key, value) -> put(key, value, options));
+  }
+
+  /**
+   * Deletes all the documents whose serialized key starts with the serialized prefix. The
+   * underlying store deletes them with a single range delete.
+   *
+   * @param prefix a key whose serialized form is the prefix of the keys to delete.
+   * @throws UnsupportedOperationException if the store does not support prefix deletes.
+   */
+  default void deleteByPrefix(K prefix) {
+    throw new UnsupportedOperationException("Prefix deletes are not supported by " + getName());
+  }
+
   /**
    * Get the name of the KV Store.
    *
@@ -75,6 +75,17 @@ public interface LegacyKVStore<K, V> {
    */
   void delete(K key);
 
+  /**
+   * Remove the keys, and the associated values from the store. Keys that do not exist are ignored.
+   * If the underlying store supports bulk deletes they are used, otherwise the method iterates and
+   * does point deletes.
+   *
+   * @param keys the keys to remove.
+   */
+  default void bulkDelete(List<K> keys) {
+    keys.forEach(this::delete);
+  }
+
   /**
    * Return a iterable of keys & values for any key within the provided Range
    *
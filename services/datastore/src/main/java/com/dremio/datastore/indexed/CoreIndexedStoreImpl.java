@@ -43,6 +43,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
@@ -415,6 +416,15 @@ public class CoreIndexedStoreImpl<K, V> implements CoreIndexedStore<K, V> {
   @Override
   public void bulkDelete(List<KVStoreTuple<K>> keysToDelete, DeleteOption... deleteOptions) {
     base.bulkDelete(keysToDelete, deleteOptions);
+    for (KVStoreTuple<K> key : keysToDelete) {
+      index.deleteDocuments(keyAsTerm(key));
+    }
+  }
+
+  @Override
+  public void deleteByPrefix(KVStoreTuple<K> prefix) {
+    base.deleteByPrefix(prefix);
+    index.deleteDocuments(new PrefixQuery(keyAsTerm(prefix)));
   }
 
   @Override
@@ -561,6 +561,15 @@ public class LuceneSearchIndex implements AutoCloseable {
     }
   }
 
+  public void deleteDocuments(Query query) {
+    committerThread.throwExceptionIfAny();
+    try {
+      writer.deleteDocuments(query);
+    } catch (IOException ex) {
+      throw Throwables.propagate(ex);
+    }
+  }
+
   public void delete() {
     committerThread.throwExceptionIfAny();
     try {
@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
 
 /** Read only {@link LuceneSearchIndex}. Mutations are ignored. */
 public class ReadOnlyLuceneSearchIndex extends LuceneSearchIndex {
@@ -42,6 +43,9 @@ public class ReadOnlyLuceneSearchIndex extends LuceneSearchIndex {
   @Override
   public void deleteDocuments(Term key) {}
 
+  @Override
+  public void deleteDocuments(Query query) {}
+
   @Override
   public void delete() {}
 
@@ -58,6 +58,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -322,6 +323,19 @@ public abstract class AbstractTestKVStore<K, V> {
     gen.assertValueEquals(value, kvStore.get(key).getValue());
   }
 
+  @Test
+  public void testBulkPut() {
+    final Map<K, V> entries = new LinkedHashMap<>();
+    for (int i = 0; i < SAMPLING_SIZE; i++) {
+      entries.put(gen.newKey(), gen.newVal());
+    }
+
+    kvStore.bulkPut(entries);
+    for (Map.Entry<K, V> entry : entries.entrySet()) {
+      gen.assertValueEquals(entry.getValue(), kvStore.get(entry.getKey()).getValue());
+    }
+  }
+
   @Test
   public void testDeleteExistingValue() {
     final K key = gen.newKey();
@@ -29,6 +29,9 @@ import com.dremio.datastore.RocksDBStore.RocksMetaManager;
 import com.dremio.datastore.api.Document;
 import com.dremio.datastore.api.FindByRange;
 import com.dremio.datastore.api.ImmutableFindByRange;
+import com.dremio.datastore.api.ImmutableIncrementCounter;
+import com.dremio.datastore.api.IncrementCounter;
+import com.dremio.datastore.api.KVStore;
 import com.dremio.datastore.api.options.ImmutableMaxResultsOption;
 import com.dremio.datastore.api.options.ImmutableVersionOption;
 import com.dremio.datastore.api.options.MaxResultsOption;
@@ -41,7 +44,9 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
@@ -278,6 +283,130 @@ public class TestRocksDBStore {
     assertEquals(null, store.get(randomKey));
   }
 
+  @Test
+  public void testMultiGet() {
+    final Random r = new Random(42);
+    final byte[] blobKey = "multiget-blob".getBytes(UTF_8);
+    final byte[] blobValue = new byte[(int) BLOB_FILTER_SIZE + 1];
+    r.nextBytes(blobValue);
+    store.put(blobKey, blobValue);
+    final byte[] key = "multiget-value".getBytes(UTF_8);
+    final byte[] value = newRandomValue(r);
+    store.put(key, value);
+
+    final List<Document<byte[], byte[]>> documents = new ArrayList<>();
+    store
+        .get(Arrays.asList(key, "multiget-missing".getBytes(UTF_8), blobKey, key))
+        .forEach(documents::add);
+    assertEquals(4, documents.size());
+    assertArrayEquals(value, documents.get(0).getValue());
+    assertEquals(store.get(key).getTag(), documents.get(0).getTag());
+    assertEquals(null, documents.get(1));
+    assertArrayEquals(blobValue, documents.get(2).getValue());
+    assertArrayEquals(value, documents.get(3).getValue());
+
+    store.delete(blobKey);
+  }
+
+  @Test
+  public void testBulkPutAndDelete() throws IOException {
+    final Random r = new Random(42);
+    final Map<byte[], byte[]> entries = new HashMap<>();
+    final List<byte[]> keys = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final byte[] key = ("bulk-" + i).getBytes(UTF_8);
+      final byte[] value = new byte[i % 2 == 0 ? (int) BLOB_FILTER_SIZE + 1 : 10];
+      r.nextBytes(value);
+      value[0] = META_MARKER + 1;
+      entries.put(key, value);
+      keys.add(key);
+    }
+    store.bulkPut(entries);
+    for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+      assertArrayEquals(entry.getValue(), store.get(entry.getKey()).getValue());
+    }
+    assertEquals(50, blobFiles().size());
+
+    // overwriting the values deletes the blobs they replace
+    store.bulkPut(entries);
+    assertEquals(50, blobFiles().size());
+
+    store.bulkDelete(keys.subList(0, 50));
+    for (int i = 0; i < keys.size(); i++) {
+      assertEquals(i >= 50, store.contains(keys.get(i)));
+    }
+    assertEquals(25, blobFiles().size());
+
+    store.bulkDelete(keys);
+    assertEquals(Collections.EMPTY_LIST, blobFiles());
+  }
+
+  @Test
+  public void testDeleteByPrefix() throws IOException {
+    final Random r = new Random(42);
+    final byte[] blobValue = new byte[(int) BLOB_FILTER_SIZE + 1];
+    r.nextBytes(blobValue);
+    store.put("prefix-0".getBytes(UTF_8), blobValue);
+    store.put("prefix-1".getBytes(UTF_8), newRandomValue(r));
+    store.put("prefix".getBytes(UTF_8), newRandomValue(r));
+    store.put("prefiy".getBytes(UTF_8), newRandomValue(r));
+    final long count = countEntries();
+
+    store.deleteByPrefix("prefix-".getBytes(UTF_8));
+    assertEquals(count - 2, countEntries());
+    assertTrue(store.contains("prefix".getBytes(UTF_8)));
+    assertTrue(store.contains("prefiy".getBytes(UTF_8)));
+    assertEquals(Collections.EMPTY_LIST, blobFiles());
+
+    store.delete("prefix".getBytes(UTF_8));
+    store.delete("prefiy".getBytes(UTF_8));
+  }
+
+  @Test
+  public void testBulkIncrement() throws IOException {
+    final byte[] key1 = "counters-1".getBytes(UTF_8);
+    final byte[] key2 = "counters-2".getBytes(UTF_8);
+    final Map<byte[], List<IncrementCounter>> increments = new HashMap<>();
+    increments.put(key1, Arrays.asList(counter("a", 1), counter("b", 2), counter("a", 3)));
+    increments.put(key2, Collections.singletonList(counter("c", 5)));
+    store.bulkIncrement(increments, KVStore.IncrementOption.USE_UNORDERED_WRITES);
+    store.bulkIncrement(
+        Collections.singletonMap(key1, Collections.singletonList(counter("b", -1))),
+        KVStore.IncrementOption.USE_UNORDERED_WRITES);
+
+    final Map<String, Long> counters1 = CounterValues.decode(store.get(key1).getValue());
+    assertEquals(Arrays.asList("a", "b"), new ArrayList<>(counters1.keySet()));
+    assertEquals(4L, (long) counters1.get("a"));
+    assertEquals(1L, (long) counters1.get("b"));
+    assertEquals(
+        Collections.singletonMap("c", 5L), CounterValues.decode(store.get(key2).getValue()));
+    assertEquals(Collections.emptyMap(), CounterValues.decode(null));
+
+    store.bulkDelete(Arrays.asList(key1, key2));
+  }
+
+  private static IncrementCounter counter(String name, int incrementBy) {
+    return new ImmutableIncrementCounter.Builder()
+        .setCounterName(name)
+        .setIncrementBy(incrementBy)
+        .build();
+  }
+
+  private long countEntries() {
+    long count = 0;
+    for (Document<byte[], byte[]> ignored : store.find()) {
+      count++;
+    }
+    return count;
+  }
+
+  private List<Path> blobFiles() throws IOException {
+    try (Stream<Path> stream =
+        Files.list(Paths.get(rocksDBResource.getDbDir(), "blob", "test"))) {
+      return stream.collect(Collectors.toList());
+    }
+  }
+
   @Test()
   public void testNotClosed() throws InterruptedException, ExecutionException {
     ExecutorService executor = Executors.newFixedThreadPool(4);
@@ -316,6 +316,21 @@ public abstract class AbstractTestIndexedStore {
             kvStore.find(newCondition("n==" + d1.getName(), DoughnutIndexKeys.MAPPING).build())));
   }
 
+  @Test
+  public void bulkDelete() {
+    addDoughnutsToStore();
+    kvStore.bulkDelete(ImmutableList.of("a", "b"));
+    assertEquals(
+        0,
+        Iterables.size(
+            kvStore.find(newCondition("n==" + d1.getName(), DoughnutIndexKeys.MAPPING).build())));
+    assertEquals(
+        0,
+        Iterables.size(
+            kvStore.find(newCondition("n==" + d2.getName(), DoughnutIndexKeys.MAPPING).build())));
+    checkFindByName(d3);
+  }
+
   @Test
   public void paginatedSearch() {
     final int numDoughnuts = 4000;
@@ -15,12 +15,17 @@
  */
 package com.dremio.datastore.indexed;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
 import com.dremio.datastore.LocalKVStoreProvider;
+import com.dremio.datastore.SearchQueryUtils;
 import com.dremio.datastore.api.IndexedStore;
 import com.dremio.datastore.api.KVStoreProvider;
 import com.dremio.datastore.indexed.doughnut.Doughnut;
 import com.dremio.datastore.indexed.doughnut.DoughnutIndexedStore;
 import com.dremio.test.DremioTest;
+import com.google.common.collect.ImmutableList;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -39,6 +44,24 @@ public class TestLocalIndexedStore extends AbstractTestIndexedStore {
     return getProvider().getStore(DoughnutIndexedStore.class);
   }
 
+  @Test
+  public void deleteByPrefix() {
+    getKvStore().put("prefix-a", getD1());
+    getKvStore().put("prefix-b", getD2());
+    getKvStore().put("prefiy", getD3());
+
+    getKvStore().deleteByPrefix("prefix-");
+    assertNull(getKvStore().get("prefix-a"));
+    assertNull(getKvStore().get("prefix-b"));
+    assertEquals(
+        ImmutableList.of(1, 0, 0),
+        getKvStore()
+            .getCounts(
+                SearchQueryUtils.newTermQuery("name", getD3().getName()),
+                SearchQueryUtils.newTermQuery("name", getD1().getName()),
+                SearchQueryUtils.newTermQuery("name", getD2().getName())));
+  }
+
   @Ignore("[DX-9909] Not query doesn't work as expected for RocksDB.")
   @Test
   @Override
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.services.fabric;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * Optional features of the protocols using the fabric, advertised by each node in the handshake so
+ * that a node only uses them with the nodes supporting them.
+ */
+public final class FabricCapabilities {
+
+  /** Receives record batches whose body buffers are compressed with LZ4. */
+  public static final String BODY_COMPRESSION_LZ4 = "body_compression.lz4";
+
+  /** Capabilities of this node. */
+  public static final List<String> LOCAL = ImmutableList.of(BODY_COMPRESSION_LZ4);
+
+  private FabricCapabilities() {}
+}
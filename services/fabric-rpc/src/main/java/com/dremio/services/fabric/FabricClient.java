@@ -113,6 +113,7 @@ class FabricClient
   @Override
   protected void finalizeConnection(FabricHandshake handshake, FabricConnection connection) {
     connection.setIdentity(handshake.getIdentity());
+    connection.setRemoteCapabilities(handshake.getCapabilitiesList());
   }
 
   @Override
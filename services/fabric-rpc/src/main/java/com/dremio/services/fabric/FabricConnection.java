@@ -21,11 +21,14 @@ import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.services.fabric.api.PhysicalConnection;
 import com.dremio.services.fabric.proto.FabricProto.FabricIdentity;
 import com.dremio.services.fabric.proto.FabricProto.RpcType;
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.MessageLite;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.socket.SocketChannel;
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 import org.apache.arrow.memory.BufferAllocator;
 
@@ -35,6 +38,7 @@ class FabricConnection extends RemoteConnection implements PhysicalConnection {
   private final RpcBus<RpcType, FabricConnection> bus;
   private final BufferAllocator allocator;
   private volatile FabricIdentity identity;
+  private volatile Set<String> remoteCapabilities = ImmutableSet.of();
   private final UUID id;
 
   private volatile ProxyCloseHandler proxyCloseHandler;
@@ -59,6 +63,15 @@ class FabricConnection extends RemoteConnection implements PhysicalConnection {
     return identity;
   }
 
+  void setRemoteCapabilities(Collection<String> capabilities) {
+    this.remoteCapabilities = ImmutableSet.copyOf(capabilities);
+  }
+
+  /** Returns whether the other end of the connection advertised the capability */
+  public boolean hasRemoteCapability(String capability) {
+    return remoteCapabilities.contains(capability);
+  }
+
   @Override
   public <SEND extends MessageLite, RECEIVE extends MessageLite> void send(
       RpcOutcomeListener<RECEIVE> outcomeListener,
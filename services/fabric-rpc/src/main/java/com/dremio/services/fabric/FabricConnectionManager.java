@@ -51,6 +51,7 @@ final class FabricConnectionManager
         FabricHandshake.newBuilder()
             .setRpcVersion(FabricRpcConfig.RPC_VERSION)
             .setIdentity(localIdentity)
+            .addAllCapabilities(FabricCapabilities.LOCAL)
             .build(),
         remoteIdentity.getAddress(),
         remoteIdentity.getPort());
@@ -78,6 +79,16 @@ final class FabricConnectionManager
         engineFactory);
   }
 
+  /**
+   * Returns whether the remote node advertised the capability, false until connected to the node.
+   */
+  boolean hasRemoteCapability(String capability) {
+    final FabricConnection connection = getConnection();
+    return connection != null
+        && connection.isActive()
+        && connection.hasRemoteCapability(capability);
+  }
+
   @Override
   protected String getLocalAddress() {
     return this.localIdentity.getAddress();
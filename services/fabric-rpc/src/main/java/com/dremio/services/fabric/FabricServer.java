@@ -111,6 +111,7 @@ class FabricServer extends BasicServer<RpcType, FabricConnection> {
                   inbound.getIdentity()));
         }
         connection.setIdentity(inbound.getIdentity());
+        connection.setRemoteCapabilities(inbound.getCapabilitiesList());
 
         final boolean isLoopback =
             inbound.getIdentity().getAddress().equals(address)
@@ -131,7 +132,10 @@ class FabricServer extends BasicServer<RpcType, FabricConnection> {
           manager.addExternalConnection(connection);
         }
 
-        return FabricHandshake.newBuilder().setRpcVersion(FabricRpcConfig.RPC_VERSION).build();
+        return FabricHandshake.newBuilder()
+            .setRpcVersion(FabricRpcConfig.RPC_VERSION)
+            .addAllCapabilities(FabricCapabilities.LOCAL)
+            .build();
       }
     };
   }
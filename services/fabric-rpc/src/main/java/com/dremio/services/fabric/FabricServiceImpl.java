@@ -183,6 +183,11 @@ public class FabricServiceImpl implements FabricService {
         C cmd) {
       manager.runCommand(new ProxyCommand<>(cmd, protocol));
     }
+
+    @Override
+    public boolean hasRemoteCapability(String capability) {
+      return manager.hasRemoteCapability(capability);
+    }
   }
 
   private static class ProxyCommand<R extends MessageLite>
@@ -28,4 +28,14 @@ public interface FabricCommandRunner {
    * @param cmd The command to be run.
    */
   public <R extends MessageLite, C extends RpcCommand<R, ProxyConnection>> void runCommand(C cmd);
+
+  /**
+   * Returns whether the node at the other end of the connection supports an optional feature.
+   *
+   * @param capability One of the {@link com.dremio.services.fabric.FabricCapabilities}.
+   * @return false until connected to the node, or if the node doesn't advertise the capability.
+   */
+  default boolean hasRemoteCapability(String capability) {
+    return false;
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowFileReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Row offsets of the result files of a job and of their batches, so that the files and batches
+ * holding a page of results are found by binary searches instead of walking all of them.
+ */
+final class JobResultsIndex {
+  // start row of each file, followed by the number of records of the job
+  private final long[] fileStarts;
+  private final long[][] batchStarts;
+  private final String lastPath;
+
+  JobResultsIndex(List<ArrowFileMetadata> files) {
+    this.fileStarts = new long[files.size() + 1];
+    this.batchStarts = new long[files.size()][];
+    for (int i = 0; i < files.size(); i++) {
+      final ArrowFileMetadata file = files.get(i);
+      fileStarts[i + 1] = fileStarts[i] + file.getRecordCount();
+      batchStarts[i] = ArrowFileReader.batchStarts(file.getFooter());
+    }
+    this.lastPath = files.isEmpty() ? null : files.get(files.size() - 1).getPath();
+  }
+
+  /** Whether the index was built from the given files, i.e. the results were not rewritten since. */
+  boolean matches(List<ArrowFileMetadata> files) {
+    return files.size() == batchStarts.length
+        && (files.isEmpty() || Objects.equals(lastPath, files.get(files.size() - 1).getPath()));
+  }
+
+  long getRecordCount() {
+    return fileStarts[fileStarts.length - 1];
+  }
+
+  /**
+   * Finds the file holding the row.
+   *
+   * @param row the row
+   * @return the index of the file holding the row or of an empty file before it, the number of
+   *     files if the row is after the last one
+   */
+  int findFile(long row) {
+    if (row >= getRecordCount()) {
+      return batchStarts.length;
+    }
+    final int index = Arrays.binarySearch(fileStarts, 0, batchStarts.length, row);
+    return index >= 0 ? index : Math.max(0, -index - 2);
+  }
+
+  long getFileStart(int file) {
+    return fileStarts[file];
+  }
+
+  long[] getBatchStarts(int file) {
+    return batchStarts[file];
+  }
+}
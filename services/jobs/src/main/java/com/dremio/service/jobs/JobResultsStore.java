@@ -25,6 +25,7 @@ import com.dremio.datastore.api.LegacyIndexedStore;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.store.JobResultsStoreConfig;
+import com.dremio.exec.store.easy.arrow.ArrowBatchCache;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadataValidator;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
@@ -39,6 +40,8 @@ import com.dremio.service.job.proto.JobResult;
 import com.dremio.service.job.proto.JobState;
 import com.dremio.service.job.proto.SessionId;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -57,11 +60,22 @@ public class JobResultsStore implements Service {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(JobResultsStore.class);
 
+  // number of jobs whose row offsets are kept
+  private static final int MAX_INDEXED_JOBS = 1000;
+  // size of the result batches kept in memory to serve the next pages, 0 to disable the cache
+  private static final long BATCH_CACHE_BYTES =
+      Long.getLong("dremio.jobs.results.batch_cache_bytes", 64L * 1024 * 1024);
+  // whether the result files of the local file system are read through a memory mapping
+  private static final boolean MEMORY_MAP_RESULTS =
+      Boolean.getBoolean("dremio.jobs.results.memory_map");
+
   private final String storageName;
   private final Path jobStoreLocation;
   private final FileSystem dfs;
   private final BufferAllocator allocator;
   private final LegacyIndexedStore<JobId, JobResult> store;
+  private final Cache<JobId, JobResultsIndex> indexes;
+  private final ArrowBatchCache batchCache;
 
   public JobResultsStore(
       final JobResultsStoreConfig resultsStoreConfig,
@@ -75,6 +89,8 @@ public class JobResultsStore implements Service {
 
     this.store = store;
     this.allocator = allocator;
+    this.indexes = CacheBuilder.newBuilder().maximumSize(MAX_INDEXED_JOBS).build();
+    this.batchCache = BATCH_CACHE_BYTES > 0 ? new ArrowBatchCache(BATCH_CACHE_BYTES) : null;
   }
 
   /** Get the output table path for the given id */
@@ -95,6 +111,10 @@ public class JobResultsStore implements Service {
 
   public boolean cleanup(JobId jobId) {
     final Path jobOutputDir = getJobOutputDir(jobId);
+    indexes.invalidate(jobId);
+    if (batchCache != null) {
+      batchCache.invalidate(jobOutputDir);
+    }
     try {
       if (doesQueryResultsDirExists(jobOutputDir, jobId)) {
         deleteQueryResults(jobOutputDir, true, jobId);
@@ -180,61 +200,39 @@ public class JobResultsStore implements Service {
             .build(logger);
       }
 
-      final List<ArrowFileMetadata> resultFilesToRead = Lists.newArrayList();
-      int runningFileRecordCount = 0;
-      int remainingRecords = limit;
-      for (ArrowFileMetadata fileMetadata : resultMetadata) {
-        if (offset < runningFileRecordCount + fileMetadata.getRecordCount()) {
-          resultFilesToRead.add(fileMetadata);
-
-          // offset within current file to read records
-          long fileOffset = 0; // fileOffset will be 0 from second file to be read for records.
-          if (resultFilesToRead.size() == 1) {
-            // update the given offset to start from the current file
-            offset -= runningFileRecordCount;
-            fileOffset =
-                offset; // fileOffset will be "offset" for the first file to be read for records.
-          }
+      final JobResultsIndex index = getIndex(jobId, resultMetadata);
+      final List<RecordBatchHolder> batchHolders = Lists.newArrayList();
+      long remaining = limit;
+      for (int i = index.findFile(offset); i < resultMetadata.size(); i++) {
+        final ArrowFileMetadata file = resultMetadata.get(i);
+        // Skip past empty files
+        if (file.getRecordCount() == 0) {
+          continue;
+        }
 
-          // Find how many records to read from current file.
-          // Min of remaining records in file or remaining records in total to read.
-          long fileLimit = Math.min(fileMetadata.getRecordCount() - fileOffset, remainingRecords);
-          remainingRecords -= fileLimit;
+        // Find the starting record index in file
+        final long fileOffset = Math.max(0, offset - index.getFileStart(i));
 
-          // stop including files if there are no remainingRecords to be included.
-          if (remainingRecords <= 0) {
-            break;
-          }
-        }
+        // Find how many records to read from file.
+        // Min of remaining records in file or remaining records in total to read.
+        final long fileLimit = Math.min(file.getRecordCount() - fileOffset, remaining);
+
+        batchHolders.addAll(
+            getQueryResults(
+                jobOutputDir, file, index.getBatchStarts(i), allocator, fileOffset, fileLimit));
+        remaining -= fileLimit;
 
-        runningFileRecordCount += fileMetadata.getRecordCount();
+        // stop including files if there are no remaining records to be included.
+        if (remaining <= 0) {
+          break;
+        }
       }
 
-      final List<RecordBatchHolder> batchHolders = Lists.newArrayList();
-      if (resultFilesToRead.isEmpty()) {
+      if (batchHolders.isEmpty()) {
         // when the query returns no results at all or the requested range is invalid, return an
         // empty record batch
         // for metadata purposes.
         batchHolders.addAll(getQueryResults(jobOutputDir, resultMetadata.get(0), allocator, 0, 0));
-
-      } else {
-        runningFileRecordCount = 0;
-        int remaining = limit;
-        for (ArrowFileMetadata file : resultFilesToRead) {
-
-          // Find the starting record index in file
-          final long fileOffset = Math.max(0, offset - runningFileRecordCount);
-
-          // Find how many records to read from file.
-          // Min of remaining records in file or remaining records in total to read.
-          final long fileLimit = Math.min(file.getRecordCount() - fileOffset, remaining);
-
-          batchHolders.addAll(
-              getQueryResults(jobOutputDir, file, allocator, fileOffset, fileLimit));
-          remaining -= fileLimit;
-
-          runningFileRecordCount += file.getRecordCount();
-        }
       }
 
       return new RecordBatches(batchHolders);
@@ -257,16 +255,48 @@ public class JobResultsStore implements Service {
         && resultMetadata.stream().anyMatch(ArrowFileMetadataValidator::hasInvalidUnions);
   }
 
+  private JobResultsIndex getIndex(JobId jobId, List<ArrowFileMetadata> resultMetadata) {
+    JobResultsIndex index = indexes.getIfPresent(jobId);
+    if (index == null || !index.matches(resultMetadata)) {
+      index = new JobResultsIndex(resultMetadata);
+      indexes.put(jobId, index);
+    }
+    return index;
+  }
+
+  protected List<RecordBatchHolder> getQueryResults(
+      Path jobOutputDir,
+      ArrowFileMetadata arrowFileMetadata,
+      BufferAllocator allocator,
+      long fileOffset,
+      long fileLimit)
+      throws IOException {
+    return getQueryResults(
+        jobOutputDir,
+        arrowFileMetadata,
+        ArrowFileReader.batchStarts(arrowFileMetadata.getFooter()),
+        allocator,
+        fileOffset,
+        fileLimit);
+  }
+
+  /**
+   * Read the batches of a result file holding the given rows.
+   *
+   * @param batchStarts start rows of the batches of the file, to seek the first batch to read
+   */
   protected List<RecordBatchHolder> getQueryResults(
       Path jobOutputDir,
       ArrowFileMetadata arrowFileMetadata,
+      long[] batchStarts,
       BufferAllocator allocator,
       long fileOffset,
       long fileLimit)
       throws IOException {
     try (ArrowFileReader fileReader =
-        new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
-      return fileReader.read(fileOffset, fileLimit);
+        new ArrowFileReader(
+            dfs, jobOutputDir, arrowFileMetadata, allocator, batchCache, MEMORY_MAP_RESULTS)) {
+      return fileReader.read(fileOffset, fileLimit, batchStarts);
     }
   }
 
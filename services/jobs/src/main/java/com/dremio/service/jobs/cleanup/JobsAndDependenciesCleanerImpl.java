@@ -36,6 +36,7 @@ import java.time.Instant;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +52,8 @@ public class JobsAndDependenciesCleanerImpl implements JobsAndDependenciesCleane
   private static final int DELAY_BEFORE_STARTING_CLEANUP_IN_MINUTES = 5;
   private static final long ONE_DAY_IN_MILLIS = TimeUnit.DAYS.toMillis(1);
   private static final String LOCAL_TASK_LEADER_NAME = "localjobsclean";
+  // number of old jobs deleted from the stores with one bulk delete
+  private static final int DELETE_BATCH_SIZE = 1000;
 
   private final Provider<LegacyKVStoreProvider> kvStoreProvider;
   private final Provider<OptionManager> optionManagerProvider;
@@ -173,13 +176,16 @@ public class JobsAndDependenciesCleanerImpl implements JobsAndDependenciesCleane
         getOldJobsCondition(0, System.currentTimeMillis() - maxMs)
             .setPageSize(LocalJobsService.MAX_NUMBER_JOBS_TO_FETCH);
     final ExternalCleanerRunner externalCleanerRunner = new ExternalCleanerRunner(externalCleaners);
+    final List<JobId> jobsToDelete = new ArrayList<>(DELETE_BATCH_SIZE);
     for (Map.Entry<JobId, JobResult> entry : jobStore.find(oldJobs)) {
       JobResult result = entry.getValue();
       externalCleanerRunner.run(result);
-      jobStore.delete(entry.getKey());
-      extraJobInfoStore.delete(entry.getKey());
-      jobsDeleted++;
+      jobsToDelete.add(entry.getKey());
+      if (jobsToDelete.size() == DELETE_BATCH_SIZE) {
+        jobsDeleted += deleteJobs(jobStore, extraJobInfoStore, jobsToDelete);
+      }
     }
+    jobsDeleted += deleteJobs(jobStore, extraJobInfoStore, jobsToDelete);
     LOGGER.info(
         "Job cleanup task completed with [{}] jobs deleted and and [{}] profiles deleted.",
         jobsDeleted,
@@ -190,6 +196,19 @@ public class JobsAndDependenciesCleanerImpl implements JobsAndDependenciesCleane
     return buildDeleteReport(jobsDeleted, externalCleanerRunner);
   }
 
+  private static int deleteJobs(
+      LegacyIndexedStore<JobId, JobResult> jobStore,
+      LegacyIndexedStore<JobId, ExtraJobInfo> extraJobInfoStore,
+      List<JobId> jobsToDelete) {
+    final int numJobs = jobsToDelete.size();
+    if (numJobs > 0) {
+      jobStore.bulkDelete(jobsToDelete);
+      extraJobInfoStore.bulkDelete(jobsToDelete);
+      jobsToDelete.clear();
+    }
+    return numJobs;
+  }
+
   private static String buildDeleteReport(
       long jobsDeleted, ExternalCleanerRunner externalCleanerRunner) {
     StringBuilder sb = new StringBuilder("Completed.");
@@ -41,6 +41,7 @@ import com.dremio.exec.store.RecordWriter.WriteStatsListener;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
 import com.dremio.exec.store.dfs.easy.EasyFormatPlugin;
 import com.dremio.exec.store.dfs.easy.EasyWriter;
+import com.dremio.exec.store.easy.arrow.ArrowBatchCache;
 import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
@@ -51,6 +52,7 @@ import com.dremio.test.AllocatorRule;
 import com.dremio.test.DremioTest;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.arrow.memory.BufferAllocator;
@@ -374,6 +376,60 @@ public class TestArrowFileReader extends DremioTest {
     }
   }
 
+  @Test
+  public void readingMultiBatchFileFromCache() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator =
+        allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+
+      Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      ArrowFileMetadata metadata = writeArrowFile(containers.toArray(new VectorContainer[3]));
+      long[] batchStarts = ArrowFileReader.batchStarts(metadata.getFooter());
+      assertEquals(asList(0L, 5L, 10L, 15L), Longs.asList(batchStarts));
+
+      ArrowBatchCache cache = new ArrowBatchCache(1024 * 1024);
+      for (int i = 0; i < 2; i++) {
+        try (ArrowFileReader reader =
+            new ArrowFileReader(
+                HadoopFileSystem.getLocal(FS_CONF),
+                com.dremio.io.file.Path.of(basePath.toUri()),
+                metadata,
+                allocator,
+                cache,
+                true)) {
+          // Get a part of the batch starting from the middle of the second batch to middle of
+          // third batch
+          List<RecordBatchHolder> batchHolders = reader.read(7, 5, batchStarts);
+          assertEquals(2, batchHolders.size());
+
+          verifyBatchHolder(batchHolders.get(0), 2, 5);
+          VectorAccessible batchContainer = batchHolders.get(0).getData().getVectorAccessible();
+          assertEquals(TEST_BIT_VALUES.subList(2, 5), getBitValues(batchContainer, 2, 5));
+          assertEquals(TEST_VARCHAR_VALUES.subList(2, 5), getVarCharValues(batchContainer, 2, 5));
+
+          verifyBatchHolder(batchHolders.get(1), 0, 2);
+          batchContainer = batchHolders.get(1).getData().getVectorAccessible();
+          assertEquals(TEST_BIT_VALUES.subList(0, 2), getBitValues(batchContainer, 0, 2));
+          assertEquals(TEST_VARCHAR_VALUES.subList(0, 2), getVarCharValues(batchContainer, 0, 2));
+
+          releaseBatches(batchHolders);
+        }
+      }
+      // the second read is served from the cache
+      assertEquals(2, cache.getMissCount());
+      assertEquals(2, cache.getHitCount());
+    } finally {
+      for (VectorContainer container : containers) {
+        if (container != null) {
+          container.clear();
+        }
+      }
+    }
+  }
+
   @Test
   public void writeAndReadEmptyListVectors() throws Exception {
     try (final BufferAllocator allocator =
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.dremio.exec.store.easy.arrow.ArrowFileFooter;
+import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
+import com.dremio.exec.store.easy.arrow.ArrowRecordBatchSummary;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/** Unit tests for {@link JobResultsIndex} */
+public class TestJobResultsIndex {
+
+  @Test
+  public void findFiles() {
+    final List<ArrowFileMetadata> files =
+        Arrays.asList(file("0", 5, 5), file("1"), file("2", 0, 3), file("3", 4));
+    final JobResultsIndex index = new JobResultsIndex(files);
+
+    assertEquals(17, index.getRecordCount());
+    assertEquals(0, index.findFile(0));
+    assertEquals(0, index.findFile(9));
+    // the empty file starts at the same row as the next one
+    assertTrue(index.findFile(10) == 1 || index.findFile(10) == 2);
+    assertEquals(2, index.findFile(12));
+    assertEquals(3, index.findFile(13));
+    assertEquals(3, index.findFile(16));
+    assertEquals(4, index.findFile(17));
+    assertEquals(4, index.findFile(100));
+
+    assertEquals(13, index.getFileStart(3));
+    assertArrayEquals(new long[] {0, 0, 3}, index.getBatchStarts(2));
+
+    assertTrue(index.matches(files));
+    assertFalse(index.matches(files.subList(0, 3)));
+    assertFalse(index.matches(Arrays.asList(files.get(0), files.get(1), files.get(2), file("4"))));
+  }
+
+  private static ArrowFileMetadata file(String path, int... batchCounts) {
+    final List<ArrowRecordBatchSummary> batches = new ArrayList<>();
+    long recordCount = 0;
+    for (int batchCount : batchCounts) {
+      final ArrowRecordBatchSummary batch = new ArrowRecordBatchSummary();
+      batch.setRecordCount(batchCount);
+      batch.setOffset(recordCount);
+      batches.add(batch);
+      recordCount += batchCount;
+    }
+    final ArrowFileFooter footer = new ArrowFileFooter();
+    footer.setBatchList(batches);
+
+    final ArrowFileMetadata file = new ArrowFileMetadata();
+    file.setPath(path);
+    file.setRecordCount(recordCount);
+    file.setFooter(footer);
+    return file;
+  }
+}
@@ -18,24 +18,34 @@ package com.dremio.service.namespace;
 import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Iterables;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
-/** Optimises for batch lookups. Not multi-thread safe. */
+/**
+ * Optimises for batch lookups. Not multi-thread safe.
+ *
+ * <p>Keys that may be looked up are registered first, in the order they are expected to be looked
+ * up. Looking up a registered key fetches it along with the next registered keys not fetched yet,
+ * a batch at a time, so that values are fetched as they are consumed rather than all at once.
+ */
 public class BatchLookupOptimiser<K, V> {
   private static final org.slf4j.Logger logger =
       org.slf4j.LoggerFactory.getLogger(BatchLookupOptimiser.class);
   private static final int BATCH_SIZE = 100;
-  private final Set<K> keySet = new HashSet<>();
+  // registered keys, in registration order, and their position in it
+  private final List<K> keys = new ArrayList<>();
+  private final Map<K, Integer> keyPositions = new HashMap<>();
+  private final BitSet fetched = new BitSet();
 
   @SuppressWarnings("NoGuavaCacheUsage") // TODO: fix as part of DX-51884
   private final Cache<K, Optional<V>> cache =
@@ -43,7 +53,6 @@ public class BatchLookupOptimiser<K, V> {
 
   private final Function<List<K>, List<V>> bulkGetter;
   private final AtomicLong numMisses = new AtomicLong();
-  private volatile boolean fetchAllDone;
 
   BatchLookupOptimiser(Function<List<K>, List<V>> bulkGetter) {
     Preconditions.checkNotNull(bulkGetter);
@@ -51,11 +60,13 @@ public class BatchLookupOptimiser<K, V> {
   }
 
   void mayLookup(K key) {
-    keySet.add(key);
+    if (keyPositions.putIfAbsent(key, keys.size()) == null) {
+      keys.add(key);
+    }
   }
 
   V lookup(K key) {
-    checkAndFetchAll();
+    checkAndFetchBatch(key);
 
     // fetch from cache, or populate.
     try {
@@ -75,21 +86,26 @@ public class BatchLookupOptimiser<K, V> {
     }
   }
 
-  void checkAndFetchAll() {
-    if (fetchAllDone) {
+  /** Fetches the key, if registered and not fetched yet, with the next keys not fetched yet. */
+  private void checkAndFetchBatch(K key) {
+    final Integer position = keyPositions.get(key);
+    if (position == null || fetched.get(position)) {
       return;
     }
 
-    // fetch in batches, and add to cache.
-    for (List<K> batch : Iterables.partition(keySet, BATCH_SIZE)) {
-      logger.debug("batch lookup of size {}", batch.size());
-      Iterator<V> values = bulkGetter.apply(batch).iterator();
-      for (K key : batch) {
-        // using Optional so that the cache can have null values too.
-        cache.put(key, Optional.ofNullable(values.next()));
+    final List<K> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = position; i < keys.size() && batch.size() < BATCH_SIZE; i++) {
+      if (!fetched.get(i)) {
+        fetched.set(i);
+        batch.add(keys.get(i));
       }
     }
-    fetchAllDone = true;
+    logger.debug("batch lookup of size {}", batch.size());
+    Iterator<V> values = bulkGetter.apply(batch).iterator();
+    for (K batchKey : batch) {
+      // using Optional so that the cache can have null values too.
+      cache.put(batchKey, Optional.ofNullable(values.next()));
+    }
   }
 
   long getNumMisses() {
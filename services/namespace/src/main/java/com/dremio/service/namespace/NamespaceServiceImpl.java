@@ -1090,7 +1090,7 @@ public class NamespaceServiceImpl implements NamespaceService {
                   existingDatasetConfig.getReadDefinition().getSplitVersion(),
                   existingDatasetConfig.getTotalNumSplits());
             }
-            deleteSplits(createdPartitionChunks);
+            deleteCreatedSplits();
             // copy splitVersion and other details from existingConfig
             datasetConfig
                 .getReadDefinition()
@@ -1117,6 +1117,21 @@ public class NamespaceServiceImpl implements NamespaceService {
     @Override
     public void close() {
       if (!isClosed) {
+        deleteCreatedSplits();
+      }
+    }
+
+    /** Deletes the splits saved by this saver. They are all the splits of its split version. */
+    private void deleteCreatedSplits() {
+      if (createdPartitionChunks.isEmpty()) {
+        return;
+      }
+      final PartitionChunkId prefix =
+          PartitionChunkId.getSplitsPrefix(datasetId, nextDatasetVersion);
+      try {
+        partitionChunkStore.deleteByPrefix(prefix);
+        multiSplitStore.deleteByPrefix(prefix);
+      } catch (UnsupportedOperationException e) {
         deleteSplits(createdPartitionChunks);
       }
     }
@@ -1191,10 +1206,9 @@ public class NamespaceServiceImpl implements NamespaceService {
 
   @Override
   public void deleteSplits(Iterable<PartitionChunkId> splits) {
-    for (PartitionChunkId split : splits) {
-      partitionChunkStore.delete(split);
-      multiSplitStore.delete(split);
-    }
+    final List<PartitionChunkId> splitIds = ImmutableList.copyOf(splits);
+    partitionChunkStore.bulkDelete(splitIds);
+    multiSplitStore.bulkDelete(splitIds);
   }
 
   @Override
@@ -261,6 +261,18 @@ public final class PartitionChunkId implements Comparable<PartitionChunkId> {
     return Range.closedOpen(start, end);
   }
 
+  /**
+   * Returns a key whose serialized form is the prefix of the keys of all the splits of the given
+   * version of the dataset.
+   *
+   * @param datasetId the dataset id
+   * @param splitVersion the split version
+   * @return the prefix key
+   */
+  public static PartitionChunkId getSplitsPrefix(EntityId datasetId, long splitVersion) {
+    return getId(datasetId, splitVersion);
+  }
+
   private static PartitionChunkId getId(EntityId datasetId, long version) {
     return PartitionChunkId.of(datasetId, version, "");
   }
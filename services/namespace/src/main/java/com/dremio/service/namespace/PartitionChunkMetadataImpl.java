@@ -21,6 +21,7 @@ import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionChu
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.io.InputStream;
@@ -32,6 +33,9 @@ import org.xerial.snappy.SnappyInputStream;
  * only created when users ask for the splits of this partition chunk
  *
  * <p>Note: if the parition chunk contains only a single split,
+ *
+ * <p>The dataset splits of a MultiSplit are decoded as they are iterated and are not retained by
+ * the partition chunk: only the encoded MultiSplit is.
  */
 public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
   private static final org.slf4j.Logger logger =
@@ -40,7 +44,6 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
   private final PartitionChunkId partitionChunkId;
   private final Runnable multiSplitPrefetcher;
   private final Supplier<MultiSplit> multiSplitSupplier;
-  private Iterable<DatasetSplit> materializedDatasetSplits; // Materialized only on first lookup
 
   /**
    * Constructor
@@ -64,7 +67,6 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
     this.partitionChunkId = partitionChunkId;
     this.multiSplitPrefetcher = multiSplitPrefetcher;
     this.multiSplitSupplier = Suppliers.memoize(multiSplitSupplier);
-    this.materializedDatasetSplits = null;
   }
 
   /**
@@ -82,7 +84,6 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
     this.partitionChunkId = partitionChunkId;
     this.multiSplitPrefetcher = null;
     this.multiSplitSupplier = null;
-    this.materializedDatasetSplits = null;
   }
 
   @Override
@@ -95,10 +96,6 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
 
   @Override
   public Iterable<DatasetSplit> getDatasetSplits() {
-    if (materializedDatasetSplits != null) {
-      return materializedDatasetSplits;
-    }
-
     PartitionChunk partitionChunk = getPartitionChunk();
     if (partitionChunk.hasDatasetSplit()) {
       logger.debug(
@@ -108,10 +105,9 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
           String.format(
               "Only a partition chunk with 1 split can possibly have a dataset split set directly. split_count == %d",
               partitionChunk.getSplitCount()));
-      materializedDatasetSplits = ImmutableList.of(partitionChunk.getDatasetSplit());
-      return materializedDatasetSplits;
+      return ImmutableList.of(partitionChunk.getDatasetSplit());
     }
-    // Build a list of dataset splits from the now-materialized multiset split
+    // The dataset splits are decoded from the multi split as they are iterated
     MultiSplit multiSplit = multiSplitSupplier.get(); // NB: multiSplit cached in the supplier
     if (multiSplit == null) {
       logger.warn(
@@ -132,33 +128,51 @@ public class PartitionChunkMetadataImpl extends AbstractPartitionChunkMetadata {
     final long splitCount = multiSplit.getSplitCount();
 
     Preconditions.checkState(splitCount == partitionChunk.getSplitCount());
-    ImmutableList.Builder<DatasetSplit> datasetSplits = new ImmutableList.Builder<>();
-    InputStream splitDataStream = multiSplit.getSplitData().newInput();
-    try {
-      switch (multiSplit.getCodec()) {
-        case UNCOMPRESSED:
-          // nothing to do
-          break;
-        case SNAPPY:
-          splitDataStream = new SnappyInputStream(splitDataStream);
-          break;
-        case UNKNOWN:
-        default:
-          throw new IllegalStateException(
-              "Unsupported multi-split codec: " + multiSplit.getCodec());
+    return () -> new DatasetSplitIterator(multiSplit);
+  }
+
+  /** Decodes the dataset splits of a MultiSplit one at a time. */
+  private final class DatasetSplitIterator extends AbstractIterator<DatasetSplit> {
+    private final MultiSplit multiSplit;
+    private InputStream splitDataStream;
+    private long remaining;
+
+    private DatasetSplitIterator(MultiSplit multiSplit) {
+      this.multiSplit = multiSplit;
+      this.remaining = multiSplit.getSplitCount();
+    }
+
+    @Override
+    protected DatasetSplit computeNext() {
+      if (remaining == 0) {
+        return endOfData();
       }
-      for (long i = 0; i < splitCount; i++) {
-        datasetSplits.add(DatasetSplit.parseDelimitedFrom(splitDataStream));
+      try {
+        if (splitDataStream == null) {
+          splitDataStream = open(multiSplit);
+        }
+        remaining--;
+        return DatasetSplit.parseDelimitedFrom(splitDataStream);
+      } catch (IOException e) {
+        throw new RuntimeException(
+            String.format(
+                "Unable to get dataset splits from partition chunk with key %s", getSplitKey()),
+            e);
       }
-    } catch (IOException e) {
-      throw new RuntimeException(
-          String.format(
-              "Unable to get dataset splits from partition chunk with key %s", getSplitKey()),
-          e);
     }
+  }
 
-    materializedDatasetSplits = datasetSplits.build();
-    return materializedDatasetSplits;
+  private static InputStream open(MultiSplit multiSplit) throws IOException {
+    final InputStream splitDataStream = multiSplit.getSplitData().newInput();
+    switch (multiSplit.getCodec()) {
+      case UNCOMPRESSED:
+        return splitDataStream;
+      case SNAPPY:
+        return new SnappyInputStream(splitDataStream);
+      case UNKNOWN:
+      default:
+        throw new IllegalStateException("Unsupported multi-split codec: " + multiSplit.getCodec());
+    }
   }
 
   @Override
@@ -88,4 +88,29 @@ public class TestBatchLookupOptimiser {
     }
     assertEquals(50, optimiser.getNumMisses());
   }
+
+  @Test
+  public void testFetchesAsConsumed() {
+    final List<Integer> batchSizes = new ArrayList<>();
+    BatchLookupOptimiser<String, Integer> optimiser =
+        new BatchLookupOptimiser<>(
+            keys -> {
+              batchSizes.add(keys.size());
+              return bulkLookup(keys);
+            });
+
+    List<String> inputs = new ArrayList<>();
+    for (int i = 0; i < 250; ++i) {
+      inputs.add(Integer.toString(i));
+      optimiser.mayLookup(inputs.get(i));
+    }
+
+    assertEquals((Integer) 0, optimiser.lookup("0"));
+    assertEquals(List.of(100), batchSizes);
+    for (String in : inputs) {
+      assertEquals(Integer.valueOf(in), optimiser.lookup(in));
+    }
+    assertEquals(List.of(100, 100, 50), batchSizes);
+    assertEquals(0, optimiser.getNumMisses());
+  }
 }
@@ -16,6 +16,8 @@
 package com.dremio.service.namespace;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.dremio.service.namespace.dataset.proto.DatasetConfig;
@@ -130,4 +132,15 @@ public class TestPartitionChunkId {
     } catch (IllegalArgumentException e) {
     }
   }
+
+  @Test
+  public void testSplitsPrefix() {
+    final EntityId datasetId = new EntityId().setId("ds1_test");
+    final String prefix = PartitionChunkId.getSplitsPrefix(datasetId, 1L).getSplitId();
+    assertEquals("ds1%5Ftest_1_", prefix);
+    assertTrue(PartitionChunkId.of(datasetId, 1L, "s1").getSplitId().startsWith(prefix));
+    assertFalse(PartitionChunkId.of(datasetId, 12L, "s1").getSplitId().startsWith(prefix));
+    assertFalse(
+        PartitionChunkId.of(new EntityId().setId("ds1"), 1L, "s1").getSplitId().startsWith(prefix));
+  }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.namespace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.DatasetSplit;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.MultiSplit;
+import com.dremio.service.namespace.dataset.proto.PartitionProtobuf.PartitionChunk;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/** Unit test for PartitionChunkMetadataImpl */
+public class TestPartitionChunkMetadataImpl {
+
+  private static PartitionChunkMetadata chunk(MultiSplit multiSplit, AtomicInteger fetches) {
+    return new PartitionChunkMetadataImpl(
+        PartitionChunk.newBuilder()
+            .setSplitKey("key")
+            .setSplitCount(multiSplit.getSplitCount())
+            .build(),
+        null,
+        () -> {},
+        () -> {
+          fetches.incrementAndGet();
+          return multiSplit;
+        });
+  }
+
+  private static MultiSplit multiSplit(long splitCount, ByteString splitData) {
+    return MultiSplit.newBuilder()
+        .setMultiSplitKey("key")
+        .setCodec(MultiSplit.Codec.UNCOMPRESSED)
+        .setSplitCount(splitCount)
+        .setSplitData(splitData)
+        .build();
+  }
+
+  @Test
+  public void testMultiSplitFetchedOnce() throws Exception {
+    final List<DatasetSplit> splits = new ArrayList<>();
+    final ByteString.Output output = ByteString.newOutput();
+    for (int i = 0; i < 3; i++) {
+      final DatasetSplit split =
+          DatasetSplit.newBuilder().setSize(i).setRecordCount(10L * i).build();
+      split.writeDelimitedTo(output);
+      splits.add(split);
+    }
+    final AtomicInteger fetches = new AtomicInteger();
+    final PartitionChunkMetadata chunk =
+        chunk(multiSplit(splits.size(), output.toByteString()), fetches);
+
+    assertEquals(splits, ImmutableList.copyOf(chunk.getDatasetSplits()));
+    assertEquals(splits, ImmutableList.copyOf(chunk.getDatasetSplits()));
+    assertEquals(1, fetches.get());
+  }
+
+  @Test
+  public void testSplitsDecodedAsConsumed() throws Exception {
+    final DatasetSplit split = DatasetSplit.newBuilder().setSize(1).build();
+    final ByteString.Output output = ByteString.newOutput();
+    split.writeDelimitedTo(output);
+    // the second split is truncated
+    output.write(new byte[] {10, 1});
+    final PartitionChunkMetadata chunk =
+        chunk(multiSplit(2, output.toByteString()), new AtomicInteger());
+
+    // the first split is returned before the second one is decoded
+    final Iterator<DatasetSplit> iterator = chunk.getDatasetSplits().iterator();
+    assertEquals(split, iterator.next());
+    assertThrows(RuntimeException.class, iterator::next);
+  }
+
+  @Test
+  public void testSingleSplit() {
+    final DatasetSplit split = DatasetSplit.newBuilder().setSize(1).build();
+    final PartitionChunkMetadata chunk =
+        new PartitionChunkMetadataImpl(
+            PartitionChunk.newBuilder()
+                .setSplitKey("key")
+                .setSplitCount(1)
+                .setDatasetSplit(split)
+                .build(),
+            null);
+
+    assertEquals(ImmutableList.of(split), ImmutableList.copyOf(chunk.getDatasetSplits()));
+  }
+}